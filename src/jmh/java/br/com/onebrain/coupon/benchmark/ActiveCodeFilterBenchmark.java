@@ -0,0 +1,80 @@
+package br.com.onebrain.coupon.benchmark;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CouponRepositoryPort#existsActiveByCode} for codes that are not active, with and
+ * without the active code filter. The index and both caches are switched off, so without the
+ * filter every check is a query on the unique code index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActiveCodeFilterBenchmark
+{
+    private static final int COUPONS = 10_000;
+    private static final int ABSENT_CODES = 1_000_000;
+
+    @Param({ "true", "false" })
+    public boolean filter;
+
+    private ConfigurableApplicationContext context;
+    private CouponRepositoryPort repository;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException
+    {
+        context = BenchmarkContexts.start(
+                "--coupon.code-filter.enabled=" + filter,
+                "--coupon.code-filter.expected-codes=" + COUPONS,
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                "--coupon.cache.maximum-size=0",
+                "--coupon.index.enabled=false"
+        );
+        repository = context.getBean(CouponRepositoryPort.class);
+        Instant now = Instant.now();
+        List<Coupon> chunk = new ArrayList<>();
+
+        for (int i = 0; i < COUPONS; i++)
+        {
+            chunk.add(Coupon.create(BenchmarkContexts.code(i), "Filter", new BigDecimal("10.00"), LocalDate.now().plusDays(30), true, now));
+
+            if (chunk.size() == 1_000)
+            {
+                repository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+
+        // The filter is marked ready by the loader once the application is up.
+        Thread.sleep(1_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean existsActiveByCodeMiss()
+    {
+        return repository.existsActiveByCode(BenchmarkContexts.code(COUPONS + ThreadLocalRandom.current().nextInt(ABSENT_CODES)));
+    }
+}
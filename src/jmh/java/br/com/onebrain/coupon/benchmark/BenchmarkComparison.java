@@ -0,0 +1,82 @@
+package br.com.onebrain.coupon.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (for example two releases stored under {@code benchmarks/})
+ * and prints the relative change of every primary score. Exits with status 1 when any
+ * benchmark regressed by more than the threshold (default 10%).
+ *
+ * <pre>
+ * java -cp ... br.com.onebrain.coupon.benchmark.BenchmarkComparison baseline.json candidate.json [thresholdPercent]
+ * </pre>
+ */
+public final class BenchmarkComparison
+{
+    private BenchmarkComparison() {}
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 2)
+        {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json> [thresholdPercent]");
+            System.exit(2);
+        }
+
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> candidate = read(new File(args[1]));
+        boolean regressed = false;
+
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet())
+        {
+            JsonNode before = baseline.get(entry.getKey());
+
+            if (before == null)
+            {
+                System.out.printf("%-90s %s%n", entry.getKey(), "new");
+                continue;
+            }
+
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = entry.getValue().path("primaryMetric").path("score").asDouble();
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) * 100.0 / oldScore;
+
+            // Throughput is better when higher; every time-based mode is better when lower.
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            double worsening = higherIsBetter ? -change : change;
+            boolean isRegression = worsening > threshold;
+
+            regressed |= isRegression;
+
+            System.out.printf("%-90s %12.3f -> %12.3f %s (%+.1f%%)%s%n",
+                    entry.getKey(),
+                    oldScore,
+                    newScore,
+                    entry.getValue().path("primaryMetric").path("scoreUnit").asText(),
+                    change,
+                    isRegression ? "  REGRESSION" : "");
+        }
+
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException
+    {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+
+        for (JsonNode result : new ObjectMapper().readTree(file))
+        {
+            String key = result.path("benchmark").asText() + " [" + result.path("mode").asText() + "]" + result.path("params");
+            results.put(key, result);
+        }
+
+        return results;
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.onebrain.coupon.benchmark;
+
+import br.com.onebrain.coupon.CouponApplication;
+import br.com.onebrain.coupon.infra.reactive.ReactiveCouponApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+final class BenchmarkContexts
+{
+    private BenchmarkContexts() {}
+
+    /**
+     * Boots the application without the web server and with SQL logging off, so
+     * benchmarks measure the persistence path instead of console output.
+     */
+    static ConfigurableApplicationContext start(String... args)
+    {
+        return run(WebApplicationType.NONE, args);
+    }
+
+    /**
+     * Boots the application with the embedded server on a random port, for benchmarks that
+     * go through real HTTP connections. See {@link #port(ConfigurableApplicationContext)}.
+     * Admission control is off: every benchmark client shares one address and would be rate limited.
+     */
+    static ConfigurableApplicationContext startWeb(String... args)
+    {
+        String[] allArgs = new String[args.length + 2];
+        allArgs[0] = "--server.port=0";
+        allArgs[1] = "--coupon.admission.enabled=false";
+        System.arraycopy(args, 0, allArgs, 2, args.length);
+
+        return run(WebApplicationType.SERVLET, allArgs);
+    }
+
+    /**
+     * Boots the WebFlux + R2DBC variant on Netty, on a random port and without admission
+     * control like {@link #startWeb}.
+     */
+    static ConfigurableApplicationContext startReactive(String... args)
+    {
+        String[] allArgs = new String[args.length + 2];
+        allArgs[0] = "--server.port=0";
+        allArgs[1] = "--coupon.admission.enabled=false";
+        System.arraycopy(args, 0, allArgs, 2, args.length);
+
+        return ReactiveCouponApplication.application().run(allArgs);
+    }
+
+    static int port(ConfigurableApplicationContext context)
+    {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType type, String... args)
+    {
+        String[] allArgs = new String[args.length + 1];
+        allArgs[0] = "--logging.level.org.hibernate.SQL=warn";
+        System.arraycopy(args, 0, allArgs, 1, args.length);
+
+        return new SpringApplicationBuilder(CouponApplication.class)
+                .web(type)
+                .run(allArgs);
+    }
+
+    /**
+     * Deterministic, unique 6-character code for the n-th coupon of a benchmark run.
+     */
+    static String code(long n)
+    {
+        String base36 = Long.toString(n, 36).toUpperCase();
+        return "000000".substring(base36.length()) + base36;
+    }
+}
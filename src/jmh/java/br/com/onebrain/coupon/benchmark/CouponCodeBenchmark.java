@@ -0,0 +1,62 @@
+package br.com.onebrain.coupon.benchmark;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Code normalization and coupon validation cost. Run with {@code -prof gc} to get
+ * bytes/op; the {@code legacy*} benchmarks keep the previous regex-based implementation
+ * as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CouponCodeBenchmark
+{
+    @Param({ "AB12CD", "ab-12!cd" })
+    public String rawCode;
+
+    private final BigDecimal discount = new BigDecimal("10.00");
+    private final LocalDate expiration = LocalDate.now().plusDays(30);
+    private final Instant now = Instant.now();
+
+    @Benchmark
+    public String normalize()
+    {
+        return Coupon.normalizeCode(rawCode);
+    }
+
+    @Benchmark
+    public String legacyNormalize()
+    {
+        String validate = rawCode.trim();
+        validate = validate.replaceAll("[^A-Za-z0-9]", "");
+        return validate.toUpperCase();
+    }
+
+    @Benchmark
+    public int legacyDiscountCheck()
+    {
+        return discount.compareTo(new BigDecimal("0.50"));
+    }
+
+    @Benchmark
+    public int discountCheck()
+    {
+        return discount.compareTo(Coupon.MINIMUM_DISCOUNT);
+    }
+
+    @Benchmark
+    public Coupon create()
+    {
+        return Coupon.create(rawCode, "Benchmark coupon", discount, expiration, true, now);
+    }
+}
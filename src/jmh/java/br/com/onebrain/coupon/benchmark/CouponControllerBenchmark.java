@@ -0,0 +1,110 @@
+package br.com.onebrain.coupon.benchmark;
+
+import br.com.onebrain.coupon.app.port.CouponTerms;
+import br.com.onebrain.coupon.app.usecase.*;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.infra.web.CouponController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Full MVC round trip through {@link CouponController}: request dispatch, JSON body reading,
+ * use case, and response serialization, with an in-memory port underneath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CouponControllerBenchmark
+{
+    private static final int LISTED = 500;
+
+    private final InMemoryCouponRepository repository = new InMemoryCouponRepository();
+    private MockMvc mockMvc;
+    private String expiration;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Clock clock = Clock.systemUTC();
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        CouponController controller = new CouponController(
+                new CreateCouponUseCase(repository, clock),
+                new CreateCouponsBatchUseCase(repository, clock, 1_000),
+                new DeleteCouponUseCase(repository, clock),
+                new PublishCouponUseCase(repository, clock),
+                new ScheduleCouponUseCase(repository, schedule -> {}, clock, true),
+                new RedeemCouponUseCase(repository, clock),
+                new QuoteCouponUseCase(code -> repository.findActiveByCode(code).map(coupon -> new CouponTerms(
+                        coupon.getCode(),
+                        coupon.getDiscountValue(),
+                        coupon.getExpirationDate(),
+                        coupon.isPublished()
+                )), clock),
+                new SearchCouponsUseCase(repository),
+                objectMapper
+        );
+
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+
+        expiration = LocalDate.now().plusDays(30).toString();
+    }
+
+    @Setup(Level.Iteration)
+    public void fill()
+    {
+        repository.clear();
+        sequence = LISTED;
+
+        for (int i = 0; i < LISTED; i++)
+        {
+            repository.save(Coupon.create(
+                    BenchmarkContexts.code(i),
+                    "Listed",
+                    BigDecimal.TEN,
+                    LocalDate.parse(expiration),
+                    true,
+                    Instant.now()
+            ));
+        }
+    }
+
+    @Benchmark
+    public MvcResult create() throws Exception
+    {
+        String body = "{\"code\":\"" + BenchmarkContexts.code(sequence++) + "\",\"description\":\"Benchmark\","
+                + "\"discountValue\":10.00,\"expirationDate\":\"" + expiration + "\",\"published\":true}";
+
+        return mockMvc.perform(post("/coupons").contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult listPage() throws Exception
+    {
+        return mockMvc.perform(get("/coupons").param("limit", String.valueOf(LISTED))).andReturn();
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.onebrain.coupon.benchmark;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponTerms;
+import br.com.onebrain.coupon.app.port.CouponTermsPort;
+import br.com.onebrain.coupon.app.usecase.QuoteCouponUseCase;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.infra.db.ActiveCouponIndex;
+import br.com.onebrain.coupon.infra.db.ActiveCouponSnapshotPublisher;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout quotes over a populated store: {@code snapshot} reads the published
+ * {@link ActiveCouponSnapshotPublisher} copy, {@code repository} the same terms through
+ * {@link CouponRepositoryPort#findActiveByCode}, i.e. the cache and the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CouponQuoteBenchmark
+{
+    private static final int COUPONS = 50_000;
+    private static final BigDecimal AMOUNT = new BigDecimal("120.00");
+
+    @Param({ "snapshot", "repository" })
+    public String source;
+
+    private ConfigurableApplicationContext context;
+    private QuoteCouponUseCase quoteUseCase;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException
+    {
+        context = BenchmarkContexts.start();
+        CouponRepositoryPort repository = context.getBean(CouponRepositoryPort.class);
+        Instant now = Instant.now();
+        List<Coupon> chunk = new ArrayList<>();
+
+        for (int i = 0; i < COUPONS; i++)
+        {
+            chunk.add(Coupon.create(BenchmarkContexts.code(i), "Quote", new BigDecimal("10.00"), LocalDate.now().plusDays(30), true, now));
+
+            if (chunk.size() == 1_000)
+            {
+                repository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+
+        ActiveCouponIndex index = context.getBean(ActiveCouponIndex.class);
+
+        while (!index.isReady())
+        {
+            Thread.sleep(50);
+        }
+
+        CouponTermsPort terms = "snapshot".equals(source)
+                ? context.getBean(ActiveCouponSnapshotPublisher.class)
+                : code -> repository.findActiveByCode(code).map(coupon -> new CouponTerms(
+                        coupon.getCode(),
+                        coupon.getDiscountValue(),
+                        coupon.getExpirationDate(),
+                        coupon.isPublished()
+                ));
+
+        // Let the publisher swap in a snapshot that includes the coupons saved above.
+        Thread.sleep(500);
+
+        quoteUseCase = new QuoteCouponUseCase(terms, Clock.systemUTC());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object quote()
+    {
+        return quoteUseCase.execute(BenchmarkContexts.code(ThreadLocalRandom.current().nextInt(COUPONS)), AMOUNT);
+    }
+}
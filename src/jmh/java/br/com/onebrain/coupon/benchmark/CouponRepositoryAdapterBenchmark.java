@@ -0,0 +1,110 @@
+package br.com.onebrain.coupon.benchmark;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * The storage adapters through the port the use cases see: JPA against the embedded H2
+ * database, and the embedded log store in a temporary directory (with its default
+ * {@code interval} fsync policy; pass {@code -p fsync=always} to measure the strictest one).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CouponRepositoryAdapterBenchmark
+{
+    private static final int PRELOADED = 10_000;
+
+    private final AtomicLong sequence = new AtomicLong(PRELOADED);
+    private final BigDecimal discount = new BigDecimal("10.00");
+    private final LocalDate expiration = LocalDate.now().plusDays(30);
+
+    @Param({ "jpa", "log" })
+    public String storage;
+
+    @Param({ "interval" })
+    public String fsync;
+
+    private ConfigurableApplicationContext context;
+    private Path directory;
+    private CouponRepositoryPort repository;
+    private UUID existingId;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        directory = Files.createTempDirectory("coupon-log-benchmark");
+        context = BenchmarkContexts.start(
+                "--coupon.storage.type=" + storage,
+                "--coupon.storage.log.directory=" + directory,
+                "--coupon.storage.log.fsync=" + fsync
+        );
+        repository = context.getBean(CouponRepositoryPort.class);
+
+        for (int i = 0; i < PRELOADED; i++)
+        {
+            Coupon saved = repository.save(newCoupon(i));
+            existingId = saved.getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        context.close();
+
+        try (Stream<Path> files = Files.walk(directory))
+        {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList())
+            {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Coupon save()
+    {
+        return repository.save(newCoupon(sequence.getAndIncrement()));
+    }
+
+    @Benchmark
+    public Object findActiveById()
+    {
+        return repository.findActiveById(existingId);
+    }
+
+    @Benchmark
+    public boolean existsActiveByCodeHit()
+    {
+        return repository.existsActiveByCode(BenchmarkContexts.code(PRELOADED / 2));
+    }
+
+    @Benchmark
+    public boolean existsActiveByCodeMiss()
+    {
+        return repository.existsActiveByCode("ZZZZZZ");
+    }
+
+    private Coupon newCoupon(long n)
+    {
+        return Coupon.create(BenchmarkContexts.code(n), "Benchmark coupon", discount, expiration, true, Instant.now());
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.onebrain.coupon.benchmark;
+
+import br.com.onebrain.coupon.infra.web.CouponResponseSerializer;
+import br.com.onebrain.coupon.infra.web.dto.CouponResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing one {@link CouponResponse} the way the NDJSON export does: Jackson's default
+ * record serialization ({@code serializer=default}) against {@link CouponResponseSerializer}.
+ * Run with {@code -prof gc}; {@code gc.alloc.rate.norm} is bytes per serialized coupon.
+ *
+ * <p>Each coupon gets a new {@link BigDecimal}, as it would after being read from storage;
+ * reusing one would let the default path hit {@code BigDecimal}'s cached string.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CouponResponseSerializationBenchmark
+{
+    private static final int PAGE = 100;
+
+    @Param({ "default", "direct" })
+    public String serializer;
+
+    private final UUID[] ids = new UUID[PAGE];
+    private final long[] discountCents = new long[PAGE];
+    private final LocalDate[] expirations = new LocalDate[PAGE];
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    private ObjectMapper mapper;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setup()
+    {
+        mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        if (serializer.equals("direct"))
+        {
+            mapper.registerModule(new SimpleModule().addSerializer(new CouponResponseSerializer()));
+        }
+
+        writer = mapper.writerFor(CouponResponse.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        for (int i = 0; i < PAGE; i++)
+        {
+            ids[i] = UUID.randomUUID();
+            discountCents[i] = 50 + i * 137L;
+            expirations[i] = LocalDate.now().plusDays(i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE)
+    public int exportPage() throws IOException
+    {
+        out.reset();
+
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out))
+        {
+            generator.setRootValueSeparator(null);
+
+            for (int i = 0; i < PAGE; i++)
+            {
+                writer.writeValue(generator, new CouponResponse(
+                        ids[i],
+                        BenchmarkContexts.code(i),
+                        "Benchmark coupon",
+                        BigDecimal.valueOf(discountCents[i], 2),
+                        expirations[i],
+                        true,
+                        false,
+                        i % 2 == 0 ? null : i,
+                        i
+                ));
+                generator.writeRaw('\n');
+            }
+        }
+
+        return out.size();
+    }
+}
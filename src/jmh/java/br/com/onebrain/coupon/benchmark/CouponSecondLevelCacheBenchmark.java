@@ -0,0 +1,125 @@
+package br.com.onebrain.coupon.benchmark;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read path of {@link CouponRepositoryPort} with and without the Hibernate second-level
+ * cache. The adapter's own coupon cache and the active code index are switched off, so
+ * every read reaches Hibernate: with {@code secondLevelCache=false} that is a SQL round trip,
+ * with {@code true} the entity region (by id) or the query cache (by code).
+ *
+ * <p>The {@code mixed} group reads the same way while one thread keeps redeeming random
+ * coupons, to show how much of the cache survives the writes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CouponSecondLevelCacheBenchmark
+{
+    private static final int COUPONS = 10_000;
+
+    @Param({ "true", "false" })
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private CouponRepositoryPort repository;
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        context = BenchmarkContexts.start(
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                "--coupon.cache.maximum-size=0",
+                "--coupon.index.enabled=false"
+        );
+        repository = context.getBean(CouponRepositoryPort.class);
+        ids = new UUID[COUPONS];
+        Instant now = Instant.now();
+        List<Coupon> chunk = new ArrayList<>();
+
+        for (int i = 0; i < COUPONS; i++)
+        {
+            chunk.add(Coupon.create(BenchmarkContexts.code(i), "L2", new BigDecimal("10.00"), LocalDate.now().plusDays(30), true, now));
+
+            if (chunk.size() == 1_000)
+            {
+                List<Coupon> saved = repository.saveAll(chunk);
+
+                for (int j = 0; j < saved.size(); j++)
+                {
+                    ids[i - saved.size() + 1 + j] = saved.get(j).getId();
+                }
+
+                chunk.clear();
+            }
+        }
+
+        // Measure the steady state: each coupon read once, so that the regions are filled.
+        for (int i = 0; i < COUPONS; i++)
+        {
+            repository.findActiveById(ids[i]);
+            repository.findActiveByCode(BenchmarkContexts.code(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object findActiveById()
+    {
+        return repository.findActiveById(ids[ThreadLocalRandom.current().nextInt(COUPONS)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object findActiveByCode()
+    {
+        return repository.findActiveByCode(BenchmarkContexts.code(ThreadLocalRandom.current().nextInt(COUPONS)));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public Object mixedFindActiveById()
+    {
+        return findActiveById();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public Object mixedFindActiveByCode()
+    {
+        return findActiveByCode();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public boolean mixedRedeem()
+    {
+        return repository.incrementUsage(ids[ThreadLocalRandom.current().nextInt(COUPONS)]);
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.onebrain.coupon.benchmark;
+
+import br.com.onebrain.coupon.app.usecase.CreateCouponCommand;
+import br.com.onebrain.coupon.app.usecase.CreateCouponUseCase;
+import br.com.onebrain.coupon.domain.Coupon;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CreateCouponUseCase} against an in-memory port: validation, normalization and
+ * orchestration cost without any I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateCouponUseCaseBenchmark
+{
+    private final InMemoryCouponRepository repository = new InMemoryCouponRepository();
+    private final CreateCouponUseCase useCase = new CreateCouponUseCase(repository, Clock.systemUTC());
+    private final BigDecimal discount = new BigDecimal("10.00");
+    private final LocalDate expiration = LocalDate.now().plusDays(30);
+
+    private long sequence;
+
+    @Setup(Level.Iteration)
+    public void clear()
+    {
+        repository.clear();
+        sequence = 0;
+    }
+
+    @Benchmark
+    public Coupon create()
+    {
+        return useCase.execute(new CreateCouponCommand(
+                BenchmarkContexts.code(sequence++),
+                "Benchmark coupon",
+                discount,
+                expiration,
+                true
+        ));
+    }
+}
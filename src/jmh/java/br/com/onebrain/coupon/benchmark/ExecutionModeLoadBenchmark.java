@@ -0,0 +1,84 @@
+package br.com.onebrain.coupon.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the running server in both execution modes: {@value #CLIENTS} concurrent
+ * clients, twice Tomcat's default worker pool, hitting the write and the read path over real
+ * HTTP connections. Compare throughput and the SampleTime percentiles of {@code mode=platform}
+ * against {@code mode=virtual}; the latter needs Java 21 and fails its trial on older runtimes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(ExecutionModeLoadBenchmark.CLIENTS)
+@Fork(1)
+public class ExecutionModeLoadBenchmark
+{
+    static final int CLIENTS = 400;
+
+    @Param({ "platform", "virtual" })
+    public String mode;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI coupons;
+    private URI page;
+    private String expiration;
+
+    @Setup(Level.Trial)
+    public void start()
+    {
+        context = BenchmarkContexts.startWeb("--coupon.execution.mode=" + mode);
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        int port = BenchmarkContexts.port(context);
+        coupons = URI.create("http://localhost:" + port + "/coupons");
+        page = URI.create("http://localhost:" + port + "/coupons?limit=20");
+        expiration = LocalDate.now().plusDays(30).toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop()
+    {
+        context.close();
+    }
+
+    @Benchmark
+    public int create() throws IOException, InterruptedException
+    {
+        String body = "{\"code\":\"" + BenchmarkContexts.code(sequence.getAndIncrement()) + "\",\"description\":\"Load\","
+                + "\"discountValue\":10.00,\"expirationDate\":\"" + expiration + "\",\"published\":true}";
+
+        HttpRequest request = HttpRequest.newBuilder(coupons)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int listPage() throws IOException, InterruptedException
+    {
+        HttpRequest request = HttpRequest.newBuilder(page).GET().build();
+
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,169 @@
+package br.com.onebrain.coupon.benchmark;
+
+import br.com.onebrain.coupon.app.port.CouponCursor;
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponSchedule;
+import br.com.onebrain.coupon.app.port.CouponSearchCriteria;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Minimal port implementation that isolates use-case cost from persistence cost.
+ * Coupons are keyed by code because ids are assigned by the real storage.
+ */
+class InMemoryCouponRepository implements CouponRepositoryPort
+{
+    private final Map<String, Coupon> byCode = new ConcurrentHashMap<>();
+
+    void clear()
+    {
+        byCode.clear();
+    }
+
+    @Override
+    public Coupon save(Coupon coupon)
+    {
+        Coupon previous = byCode.put(coupon.getCode(), coupon);
+
+        if (previous != null && previous != coupon && !previous.isDeleted() && !coupon.isDeleted())
+        {
+            byCode.put(coupon.getCode(), previous);
+            throw new DomainException(CouponMessages.CODE_ALREADY_EXISTS);
+        }
+
+        return coupon;
+    }
+
+    @Override
+    public List<Coupon> saveAll(List<Coupon> coupons)
+    {
+        coupons.forEach(this::save);
+        return coupons;
+    }
+
+    @Override
+    public List<Coupon> saveAllUnannounced(List<Coupon> coupons)
+    {
+        return saveAll(coupons);
+    }
+
+    @Override
+    public Optional<Coupon> findActiveById(UUID id)
+    {
+        return byCode.values().stream().filter(c -> id.equals(c.getId()) && !c.isDeleted()).findFirst();
+    }
+
+    @Override
+    public Optional<Coupon> findActiveByIdForUpdate(UUID id)
+    {
+        return findActiveById(id);
+    }
+
+    @Override
+    public Optional<Coupon> findActiveByCode(String normalizedCode)
+    {
+        return Optional.ofNullable(byCode.get(normalizedCode)).filter(c -> !c.isDeleted());
+    }
+
+    @Override
+    public boolean existsActiveByCode(String normalizedCode)
+    {
+        return findActiveByCode(normalizedCode).isPresent();
+    }
+
+    @Override
+    public Set<String> findActiveCodes(Collection<String> normalizedCodes)
+    {
+        Set<String> existing = new HashSet<>();
+
+        for (String code : normalizedCodes)
+        {
+            if (existsActiveByCode(code))
+            {
+                existing.add(code);
+            }
+        }
+
+        return existing;
+    }
+
+    @Override
+    public List<Coupon> search(CouponSearchCriteria criteria, CouponCursor after, int limit)
+    {
+        return byCode.values().stream().limit(limit).toList();
+    }
+
+    @Override
+    public void forEachMatching(CouponSearchCriteria criteria, Consumer<Coupon> consumer)
+    {
+        byCode.values().forEach(consumer);
+    }
+
+    @Override
+    public boolean incrementUsage(UUID id)
+    {
+        return true;
+    }
+
+    @Override
+    public int softDeleteAll(Collection<UUID> ids, Instant deletedAt)
+    {
+        int deleted = 0;
+
+        for (Coupon coupon : byCode.values())
+        {
+            if (ids.contains(coupon.getId()) && !coupon.isDeleted())
+            {
+                coupon.delete(deletedAt);
+                deleted++;
+            }
+        }
+
+        return deleted;
+    }
+
+    @Override
+    public int publishDue(Collection<UUID> ids, Instant now)
+    {
+        return 0;
+    }
+
+    @Override
+    public int unpublishDue(Collection<UUID> ids, Instant now)
+    {
+        return 0;
+    }
+
+    @Override
+    public void forEachSchedule(Consumer<CouponSchedule> consumer)
+    {
+    }
+
+    @Override
+    public int archiveDead(Instant deletedBefore, LocalDate expiredBefore, Instant archivedAt, int limit)
+    {
+        int archived = 0;
+        Iterator<Coupon> coupons = byCode.values().iterator();
+
+        while (coupons.hasNext() && archived < limit)
+        {
+            Coupon coupon = coupons.next();
+            boolean deadDeleted = coupon.isDeleted() && coupon.getDeletedAt().isBefore(deletedBefore);
+
+            if (deadDeleted || coupon.getExpirationDate().isBefore(expiredBefore))
+            {
+                coupons.remove();
+                archived++;
+            }
+        }
+
+        return archived;
+    }
+}
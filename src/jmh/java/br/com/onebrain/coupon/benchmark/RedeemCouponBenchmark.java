@@ -0,0 +1,75 @@
+package br.com.onebrain.coupon.benchmark;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.usecase.RedeemCouponUseCase;
+import br.com.onebrain.coupon.domain.Coupon;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redemptions per second on a single hot code, with every benchmark thread
+ * competing for the same coupon row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedeemCouponBenchmark
+{
+    private static final String HOT_CODE = "FLASH1";
+
+    private ConfigurableApplicationContext context;
+    private RedeemCouponUseCase redeemUseCase;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        context = BenchmarkContexts.start();
+
+        context.getBean(CouponRepositoryPort.class).save(Coupon.create(
+                HOT_CODE,
+                "Flash sale",
+                new BigDecimal("5.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Integer.MAX_VALUE,
+                Instant.now()
+        ));
+
+        redeemUseCase = context.getBean(RedeemCouponUseCase.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object redeemUncontended()
+    {
+        return redeemUseCase.execute(HOT_CODE);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object redeemHotCode16Threads()
+    {
+        return redeemUseCase.execute(HOT_CODE);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Object redeemHotCode64Threads()
+    {
+        return redeemUseCase.execute(HOT_CODE);
+    }
+}
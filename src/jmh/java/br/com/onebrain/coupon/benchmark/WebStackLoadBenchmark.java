@@ -0,0 +1,175 @@
+package br.com.onebrain.coupon.benchmark;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Side by side load test of the servlet application (Tomcat + JPA) and the reactive variant
+ * (Netty + R2DBC): every invocation keeps {@value #CLIENTS} redemptions in flight at once,
+ * spread over {@value #COUPONS} coupons, and waits for all of them. Throughput is per request.
+ *
+ * <p>The {@link Resources} counters show what the server held to get there: the peak of
+ * database connections checked out of the pool (HikariCP or r2dbc-pool, both capped at 32),
+ * the peak of live JVM threads, and the requests that failed or got a non-2xx answer.
+ * The client is asynchronous on four threads, so the benchmark itself adds only a handful.
+ *
+ * <p>Both sides of every connection live in the benchmark JVM: raise the open files limit
+ * ({@code ulimit -n 65536}) before running it, or the failures are the client's own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class WebStackLoadBenchmark
+{
+    static final int CLIENTS = 10_000;
+    static final int COUPONS = 1_000;
+
+    @Param({ "servlet", "reactive" })
+    public String stack;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest[] redemptions;
+    private Gauge dbConnections;
+    private Gauge threads;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException, InterruptedException
+    {
+        context = "reactive".equals(stack)
+                ? BenchmarkContexts.startReactive()
+                : BenchmarkContexts.startWeb();
+
+        // A fixed pool, so that the live threads counted are the server's, not the client's.
+        clientExecutor = Executors.newFixedThreadPool(4);
+        client = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+
+        String base = "http://localhost:" + BenchmarkContexts.port(context) + "/coupons";
+        String expiration = LocalDate.now().plusDays(30).toString();
+        redemptions = new HttpRequest[COUPONS];
+
+        for (int i = 0; i < COUPONS; i++)
+        {
+            String code = BenchmarkContexts.code(i);
+            String body = "{\"code\":\"" + code + "\",\"description\":\"Load\","
+                    + "\"discountValue\":10.00,\"expirationDate\":\"" + expiration + "\",\"published\":true}";
+
+            client.send(HttpRequest.newBuilder(URI.create(base))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+
+            redemptions[i] = HttpRequest.newBuilder(URI.create(base + "/" + code + "/redeem"))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+        }
+
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        dbConnections = registry.find("reactive".equals(stack) ? "r2dbc.pool.acquired" : "hikaricp.connections.active").gauge();
+        threads = registry.find("jvm.threads.live").gauge();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop()
+    {
+        context.close();
+        clientExecutor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLIENTS)
+    public void redeem(Resources resources) throws Exception
+    {
+        CompletableFuture<?>[] inFlight = new CompletableFuture<?>[CLIENTS];
+
+        for (int i = 0; i < CLIENTS; i++)
+        {
+            inFlight[i] = client.sendAsync(redemptions[i % COUPONS], HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) ->
+                    {
+                        if (failure != null || response.statusCode() / 100 != 2)
+                        {
+                            resources.failed();
+                        }
+
+                        return null;
+                    });
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(inFlight);
+
+        while (true)
+        {
+            resources.sample(dbConnections, threads);
+
+            try
+            {
+                all.get(10, TimeUnit.MILLISECONDS);
+                return;
+            }
+            catch (TimeoutException e)
+            {
+                // Still in flight: sample again.
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Resources
+    {
+        public double peakDbConnections;
+        public double peakThreads;
+        public long failedRequests;
+
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            peakDbConnections = 0;
+            peakThreads = 0;
+            failedRequests = 0;
+        }
+
+        void sample(Gauge dbConnections, Gauge threads)
+        {
+            if (dbConnections != null)
+            {
+                peakDbConnections = Math.max(peakDbConnections, dbConnections.value());
+            }
+
+            if (threads != null)
+            {
+                peakThreads = Math.max(peakThreads, threads.value());
+            }
+        }
+
+        synchronized void failed()
+        {
+            failedRequests++;
+        }
+    }
+}
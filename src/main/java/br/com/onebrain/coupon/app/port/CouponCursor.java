@@ -0,0 +1,12 @@
+package br.com.onebrain.coupon.app.port;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Keyset position in the {@code (created_at, id)} ordering: the last row of the previous page.
+ */
+public record CouponCursor(
+        Instant createdAt,
+        UUID id
+){}
@@ -0,0 +1,14 @@
+package br.com.onebrain.coupon.app.port;
+
+import java.util.List;
+
+/**
+ * The published part of the coupon change feed, in offset order.
+ */
+public interface CouponEventLogPort
+{
+    /**
+     * @return up to {@code limit} events with an offset greater than {@code after}, in order.
+     */
+    List<CouponFeedEvent> readAfter(long after, int limit);
+}
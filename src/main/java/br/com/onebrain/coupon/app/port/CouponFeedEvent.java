@@ -0,0 +1,25 @@
+package br.com.onebrain.coupon.app.port;
+
+import br.com.onebrain.coupon.domain.CouponEventType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A coupon lifecycle event as published on the change feed, with the coupon's state right
+ * after the change so that consumers can apply it without reading the coupon back.
+ *
+ * @param offset position on the feed; offsets are consecutive, starting at 1.
+ */
+public record CouponFeedEvent(
+        long offset,
+        CouponEventType type,
+        UUID couponId,
+        String code,
+        BigDecimal discountValue,
+        LocalDate expirationDate,
+        boolean published,
+        Instant occurredAt
+){}
@@ -2,12 +2,97 @@ package br.com.onebrain.coupon.app.port;
 
 import br.com.onebrain.coupon.domain.Coupon;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface CouponRepositoryPort
 {
+    /**
+     * Persists the coupon. Uniqueness of active codes is enforced here, atomically with the write.
+     * A coupon that is already stored only has its lifecycle state written, and only if it is
+     * still active at the version it was read with.
+     *
+     * @throws br.com.onebrain.coupon.domain.DomainException with
+     *         {@link br.com.onebrain.coupon.domain.CouponMessages#CODE_ALREADY_EXISTS} when another
+     *         active coupon already has the same code.
+     * @throws br.com.onebrain.coupon.domain.ConcurrentUpdateException when the stored coupon
+     *         changed since it was read.
+     */
     Coupon save(Coupon coupon);
+
+    /**
+     * Persists all coupons or none of them.
+     *
+     * @throws br.com.onebrain.coupon.domain.DomainException with
+     *         {@link br.com.onebrain.coupon.domain.CouponMessages#CODE_ALREADY_EXISTS} when any of
+     *         the codes is already taken by another active coupon.
+     */
+    List<Coupon> saveAll(List<Coupon> coupons);
+
+    /**
+     * Same as {@link #saveAll}, but the creations are left out of the change feed: for
+     * campaigns generated in bulk, where one event per code would cost an outbox row each and
+     * flood every feed consumer.
+     */
+    List<Coupon> saveAllUnannounced(List<Coupon> coupons);
     Optional<Coupon> findActiveById(UUID id);
+
+    /**
+     * Like {@link #findActiveById} but never served from a cache, so the coupon is a private
+     * copy at its current version that the caller may change and {@link #save}.
+     */
+    Optional<Coupon> findActiveByIdForUpdate(UUID id);
+    Optional<Coupon> findActiveByCode(String normalizedCode);
     boolean existsActiveByCode(String normalizedCode);
+    Set<String> findActiveCodes(Collection<String> normalizedCodes);
+    List<Coupon> search(CouponSearchCriteria criteria, CouponCursor after, int limit);
+    void forEachMatching(CouponSearchCriteria criteria, Consumer<Coupon> consumer);
+
+    /**
+     * Atomically consumes one usage of an active coupon, respecting its maximum usages. The
+     * version is left alone, so redemptions never make a lifecycle change conflict.
+     *
+     * @return {@code false} when the coupon is deleted or has no usages left.
+     */
+    boolean incrementUsage(UUID id);
+
+    /**
+     * Soft-deletes the given coupons with one set-based update. Coupons that are unknown or
+     * already deleted are left untouched.
+     *
+     * @return how many coupons were deleted by this call.
+     */
+    int softDeleteAll(Collection<UUID> ids, Instant deletedAt);
+
+    /**
+     * Publishes those of the given coupons whose scheduled publish time is at or before
+     * {@code now}, and clears that time. Coupons with nothing due are left untouched.
+     *
+     * @return how many coupons had their publish time applied.
+     */
+    int publishDue(Collection<UUID> ids, Instant now);
+
+    /**
+     * Same as {@link #publishDue} for the scheduled unpublish time.
+     */
+    int unpublishDue(Collection<UUID> ids, Instant now);
+
+    /**
+     * Streams the publication window of every active coupon that has one.
+     */
+    void forEachSchedule(Consumer<CouponSchedule> consumer);
+
+    /**
+     * Moves up to {@code limit} dead coupons (deleted before {@code deletedBefore}, or expired
+     * before {@code expiredBefore}) out of the live storage into the archive, atomically.
+     *
+     * @return how many coupons were archived; less than {@code limit} means nothing is left.
+     */
+    int archiveDead(Instant deletedBefore, LocalDate expiredBefore, Instant archivedAt, int limit);
 }
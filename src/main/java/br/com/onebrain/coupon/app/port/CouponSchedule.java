@@ -0,0 +1,13 @@
+package br.com.onebrain.coupon.app.port;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The pending publication window of an active coupon; either end may be {@code null}.
+ */
+public record CouponSchedule(
+        UUID couponId,
+        Instant publishAt,
+        Instant unpublishAt
+){}
@@ -0,0 +1,14 @@
+package br.com.onebrain.coupon.app.port;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for listing coupons; {@code null} fields are not applied.
+ */
+public record CouponSearchCriteria(
+        Boolean published,
+        Boolean deleted,
+        LocalDate expiresFrom,
+        LocalDate expiresTo,
+        String codePrefix
+){}
@@ -0,0 +1,14 @@
+package br.com.onebrain.coupon.app.port;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * What a quote needs to know about an active coupon, without the coupon itself.
+ */
+public record CouponTerms(
+        String code,
+        BigDecimal discountValue,
+        LocalDate expirationDate,
+        boolean published
+){}
@@ -0,0 +1,12 @@
+package br.com.onebrain.coupon.app.port;
+
+import java.util.Optional;
+
+/**
+ * Read-only access to the terms of active coupons, for callers that must never write or
+ * open a transaction.
+ */
+public interface CouponTermsPort
+{
+    Optional<CouponTerms> findActiveTerms(String normalizedCode);
+}
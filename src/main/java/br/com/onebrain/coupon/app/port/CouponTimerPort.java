@@ -0,0 +1,14 @@
+package br.com.onebrain.coupon.app.port;
+
+/**
+ * In-process timers for scheduled publication. Timers are never cancelled: one that fires
+ * after its schedule was changed or cleared finds nothing due in the repository and is
+ * dropped there.
+ */
+public interface CouponTimerPort
+{
+    /**
+     * Arms a timer for each end of the window that is set.
+     */
+    void arm(CouponSchedule schedule);
+}
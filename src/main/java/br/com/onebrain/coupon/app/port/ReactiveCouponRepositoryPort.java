@@ -0,0 +1,31 @@
+package br.com.onebrain.coupon.app.port;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link CouponRepositoryPort}, limited to what the single-coupon
+ * use cases need. The contracts are the same; errors are signalled instead of thrown, and an
+ * empty {@link Mono} stands for an empty {@code Optional}.
+ */
+public interface ReactiveCouponRepositoryPort
+{
+    /**
+     * @see CouponRepositoryPort#save(Coupon)
+     */
+    Mono<Coupon> save(Coupon coupon);
+
+    /**
+     * Never served from a cache, so the coupon is always a private copy at its current version
+     * that the caller may change and {@link #save}.
+     */
+    Mono<Coupon> findActiveById(UUID id);
+    Mono<Coupon> findActiveByCode(String normalizedCode);
+
+    /**
+     * @see CouponRepositoryPort#incrementUsage(UUID)
+     */
+    Mono<Boolean> incrementUsage(UUID id);
+}
@@ -0,0 +1,126 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponSchedule;
+import br.com.onebrain.coupon.app.port.CouponTimerPort;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies the publication windows whose timers fired. The ids only say which coupons may be
+ * due: the repository checks the stored times again, so a timer left over from a window that
+ * was changed, or that fires twice, does nothing. Publications run before unpublications, so
+ * a coupon whose whole window passed while the service was down ends up unpublished.
+ *
+ * <p>Ids go to the repository in chunks, each one set-based update. A chunk that fails is
+ * armed again after the retry delay instead of being lost until the next restart.
+ */
+public class ApplyCouponSchedulesUseCase
+{
+    private final CouponRepositoryPort repository;
+    private final CouponTimerPort timers;
+    private final Clock clock;
+    private final int chunkSize;
+    private final Duration retryDelay;
+
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public ApplyCouponSchedulesUseCase(CouponRepositoryPort repository,
+                                       CouponTimerPort timers,
+                                       Clock clock,
+                                       int chunkSize,
+                                       Duration retryDelay)
+    {
+        if (chunkSize < 1)
+        {
+            throw new IllegalArgumentException("Chunk size must be >= 1");
+        }
+
+        this.repository = Objects.requireNonNull(repository);
+        this.timers = Objects.requireNonNull(timers);
+        this.clock = Objects.requireNonNull(clock);
+        this.chunkSize = chunkSize;
+        this.retryDelay = Objects.requireNonNull(retryDelay);
+    }
+
+    /**
+     * Arms the timers of every stored window; run once at startup, since timers only live
+     * in memory.
+     *
+     * @return how many windows were armed.
+     */
+    public long restore()
+    {
+        LongAdder restored = new LongAdder();
+
+        repository.forEachSchedule(schedule ->
+        {
+            timers.arm(schedule);
+            restored.increment();
+        });
+
+        return restored.sum();
+    }
+
+    /**
+     * @return how many scheduled transitions were applied.
+     */
+    public int execute(List<UUID> publishIds, List<UUID> unpublishIds)
+    {
+        Objects.requireNonNull(publishIds, "Ids must not be null!");
+        Objects.requireNonNull(unpublishIds, "Ids must not be null!");
+
+        return apply(publishIds, true) + apply(unpublishIds, false);
+    }
+
+    public long applied()
+    {
+        return applied.sum();
+    }
+
+    public long failed()
+    {
+        return failed.sum();
+    }
+
+    private int apply(List<UUID> ids, boolean publish)
+    {
+        int total = 0;
+
+        for (int from = 0; from < ids.size(); from += chunkSize)
+        {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            Instant now = Instant.now(clock);
+
+            try
+            {
+                int done = publish ? repository.publishDue(chunk, now) : repository.unpublishDue(chunk, now);
+                applied.add(done);
+                total += done;
+            }
+            catch (RuntimeException e)
+            {
+                failed.add(chunk.size());
+                rearm(chunk, publish, now.plus(retryDelay));
+            }
+        }
+
+        return total;
+    }
+
+    private void rearm(Collection<UUID> ids, boolean publish, Instant at)
+    {
+        for (UUID id : ids)
+        {
+            timers.arm(publish ? new CouponSchedule(id, at, null) : new CouponSchedule(id, null, at));
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind soft delete for large sets of coupons. Callers only enqueue ids; a single
+ * flusher thread drains the queue, coalesces repeated ids and deletes each batch with one
+ * set-based update. The flusher waits up to the linger time for a batch to fill, so a
+ * teardown of many small requests still turns into a few large statements.
+ *
+ * <p>Only active coupons are touched, so a coupon that is already deleted keeps its original
+ * deletion timestamp: the same invariant {@code Coupon.delete} enforces with
+ * {@link CouponMessages#ALREADY_DELETED}. Such ids, and unknown ones, are counted as skipped.
+ * A batch that fails is retried by the flusher, up to the maximum attempts and with a
+ * doubling backoff in between, which also stops it from hammering a database that is down;
+ * deleting again is harmless. Only a batch that used up its attempts is counted as failed.
+ */
+public class BulkDeleteCouponsUseCase implements AutoCloseable
+{
+    public static final int MAX_IDS_PER_REQUEST = 100_000;
+
+    private static final Logger log = LoggerFactory.getLogger(BulkDeleteCouponsUseCase.class);
+    private static final UUID STOP = new UUID(0, 0);
+
+    private final CouponRepositoryPort repository;
+    private final Clock clock;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final BlockingQueue<UUID> queue;
+    private final Thread flusher;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean closed;
+
+    public BulkDeleteCouponsUseCase(CouponRepositoryPort repository,
+                                    Clock clock,
+                                    ThreadFactory threadFactory,
+                                    int batchSize,
+                                    Duration linger,
+                                    int queueCapacity,
+                                    int maxAttempts,
+                                    Duration retryBackoff)
+    {
+        if (batchSize < 1 || queueCapacity < 1 || maxAttempts < 1)
+        {
+            throw new IllegalArgumentException("Batch size, queue capacity and max attempts must be >= 1");
+        }
+
+        this.repository = Objects.requireNonNull(repository);
+        this.clock = Objects.requireNonNull(clock);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Objects.requireNonNull(retryBackoff);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flusher = threadFactory.newThread(this::flushLoop);
+        this.flusher.start();
+    }
+
+    /**
+     * Queues the ids for deletion and returns how many were accepted. Blocks only while the
+     * queue is full, which pushes back on callers instead of buffering without bound.
+     */
+    public int execute(Collection<UUID> ids)
+    {
+        Objects.requireNonNull(ids, "Ids must not be null!");
+
+        if (ids.isEmpty() || ids.stream().anyMatch(Objects::isNull))
+        {
+            throw new DomainException(CouponMessages.DELETE_IDS_REQUIRED);
+        }
+
+        if (ids.size() > MAX_IDS_PER_REQUEST)
+        {
+            throw new DomainException(CouponMessages.DELETE_TOO_MANY_IDS, MAX_IDS_PER_REQUEST);
+        }
+
+        if (closed)
+        {
+            throw new IllegalStateException("Bulk delete queue is closed");
+        }
+
+        try
+        {
+            for (UUID id : ids)
+            {
+                queue.put(id);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing deletions", e);
+        }
+
+        return ids.size();
+    }
+
+    public long pending()
+    {
+        return queue.size() + inFlight.get();
+    }
+
+    public long deleted()
+    {
+        return deleted.sum();
+    }
+
+    public long skipped()
+    {
+        return skipped.sum();
+    }
+
+    public long failed()
+    {
+        return failed.sum();
+    }
+
+    /**
+     * Stops accepting ids, flushes what is already queued and waits for the flusher to finish.
+     */
+    @Override
+    public void close() throws InterruptedException
+    {
+        closed = true;
+        queue.put(STOP);
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private void flushLoop()
+    {
+        boolean stopping = false;
+
+        while (!stopping)
+        {
+            Set<UUID> batch = new LinkedHashSet<>();
+
+            try
+            {
+                stopping = fill(batch);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                stopping = true;
+            }
+
+            if (!batch.isEmpty())
+            {
+                flush(batch);
+            }
+        }
+    }
+
+    /**
+     * Blocks for the first id, then keeps collecting until the batch is full or the linger
+     * time has passed. Returns {@code true} when the stop marker was reached.
+     */
+    private boolean fill(Set<UUID> batch) throws InterruptedException
+    {
+        UUID id = queue.take();
+        long deadline = System.nanoTime() + lingerNanos;
+
+        while (id != STOP)
+        {
+            if (batch.add(id))
+            {
+                inFlight.incrementAndGet();
+            }
+
+            if (batch.size() >= batchSize)
+            {
+                return false;
+            }
+
+            id = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+            if (id == null)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void flush(Set<UUID> batch)
+    {
+        try
+        {
+            for (int attempt = 1; ; attempt++)
+            {
+                try
+                {
+                    int updated = repository.softDeleteAll(batch, Instant.now(clock));
+                    deleted.add(updated);
+                    skipped.add(batch.size() - updated);
+                    return;
+                }
+                catch (RuntimeException e)
+                {
+                    if (attempt == maxAttempts)
+                    {
+                        log.error("Bulk delete of {} coupons failed after {} attempts; counting them as failed",
+                                batch.size(), attempt, e);
+                        failed.add(batch.size());
+                        return;
+                    }
+
+                    Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+                    log.warn("Bulk delete of {} coupons failed (attempt {} of {}); retrying in {}",
+                            batch.size(), attempt, maxAttempts, backoff, e);
+
+                    if (!backOff(backoff))
+                    {
+                        log.error("Interrupted before retrying the bulk delete of {} coupons; counting them as failed", batch.size());
+                        failed.add(batch.size());
+                        return;
+                    }
+                }
+            }
+        }
+        finally
+        {
+            inFlight.addAndGet(-batch.size());
+        }
+    }
+
+    /**
+     * Returns {@code false} when interrupted; the flag is kept so the loop stops after this batch.
+     */
+    private static boolean backOff(Duration backoff)
+    {
+        try
+        {
+            Thread.sleep(backoff.toMillis());
+            return true;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves dead coupons out of the live table so its size and index depth follow the live
+ * coupons only. A coupon is dead once it has been deleted for longer than the deleted
+ * retention, or expired for longer than the expired retention.
+ *
+ * <p>A run archives one chunk at a time, pauses between chunks to leave room for regular
+ * traffic and stops at the time budget; the next run carries on from whatever is still
+ * dead, so there is no cursor to persist. Only one run executes at a time.
+ */
+public class CompactCouponsUseCase
+{
+    private final CouponRepositoryPort repository;
+    private final Clock clock;
+    private final Duration deletedRetention;
+    private final Duration expiredRetention;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Duration maxRunTime;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder archived = new LongAdder();
+    private volatile double lastRunRowsPerSecond;
+
+    public CompactCouponsUseCase(CouponRepositoryPort repository,
+                                 Clock clock,
+                                 Duration deletedRetention,
+                                 Duration expiredRetention,
+                                 int chunkSize,
+                                 Duration pause,
+                                 Duration maxRunTime)
+    {
+        if (chunkSize < 1)
+        {
+            throw new IllegalArgumentException("Chunk size must be >= 1");
+        }
+
+        this.repository = Objects.requireNonNull(repository);
+        this.clock = Objects.requireNonNull(clock);
+        this.deletedRetention = Objects.requireNonNull(deletedRetention);
+        this.expiredRetention = Objects.requireNonNull(expiredRetention);
+        this.chunkSize = chunkSize;
+        this.pause = Objects.requireNonNull(pause);
+        this.maxRunTime = Objects.requireNonNull(maxRunTime);
+    }
+
+    /**
+     * @return how many coupons this run archived, or {@code 0} when another run is in progress.
+     */
+    public long execute()
+    {
+        if (!running.compareAndSet(false, true))
+        {
+            return 0;
+        }
+
+        try
+        {
+            return compact();
+        }
+        finally
+        {
+            running.set(false);
+        }
+    }
+
+    public long archived()
+    {
+        return archived.sum();
+    }
+
+    public double lastRunRowsPerSecond()
+    {
+        return lastRunRowsPerSecond;
+    }
+
+    public boolean isRunning()
+    {
+        return running.get();
+    }
+
+    private long compact()
+    {
+        Instant now = Instant.now(clock);
+        Instant deletedBefore = now.minus(deletedRetention);
+        LocalDate expiredBefore = LocalDate.now(clock).minusDays(expiredRetention.toDays());
+        long started = System.nanoTime();
+        long deadline = started + maxRunTime.toNanos();
+        long total = 0;
+
+        while (true)
+        {
+            int moved = repository.archiveDead(deletedBefore, expiredBefore, Instant.now(clock), chunkSize);
+            total += moved;
+            archived.add(moved);
+
+            if (moved < chunkSize || System.nanoTime() - deadline >= 0 || !sleep(pause))
+            {
+                break;
+            }
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        lastRunRowsPerSecond = seconds > 0 ? total / seconds : 0;
+
+        return total;
+    }
+
+    private static boolean sleep(Duration pause)
+    {
+        if (pause.isZero())
+        {
+            return true;
+        }
+
+        try
+        {
+            Thread.sleep(pause.toMillis());
+            return true;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.function.Supplier;
+
+/**
+ * Retry loop for read-modify-write use cases on a single coupon. Each attempt must read the
+ * coupon again: a conflict means another write committed first, so the next attempt applies
+ * the change to that newer state (or fails its domain checks, e.g. the coupon is now deleted).
+ * Every conflict is somebody else's success, so contention slows writers down but never
+ * stalls them; the attempts are bounded so a hot coupon surfaces as an error instead.
+ */
+final class ConcurrentUpdates
+{
+    static final int MAX_ATTEMPTS = 5;
+
+    private ConcurrentUpdates() {}
+
+    static <T> T retrying(Supplier<T> attempt)
+    {
+        for (int i = 1; ; i++)
+        {
+            try
+            {
+                return attempt.get();
+            }
+            catch (ConcurrentUpdateException e)
+            {
+                if (i == MAX_ATTEMPTS)
+                {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Same bound for a non-blocking attempt, which is subscribed to again on each conflict;
+     * it must therefore read the coupon when subscribed, e.g. be built with {@link Mono#defer}.
+     */
+    static <T> Mono<T> retrying(Mono<T> attempt)
+    {
+        return attempt.retryWhen(Retry.max(MAX_ATTEMPTS - 1)
+                .filter(ConcurrentUpdateException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.onebrain.coupon.app.usecase;
+
+public record CouponBatchError(
+        long index,
+        String code,
+        String messageKey
+){}
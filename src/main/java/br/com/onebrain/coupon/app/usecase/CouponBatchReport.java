@@ -0,0 +1,66 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe accumulator for bulk creations. Only the first {@link #MAX_REPORTED_ERRORS}
+ * rejections are kept in detail; the rest are only counted by message key.
+ */
+public class CouponBatchReport
+{
+    public static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> rejectedByReason = new ConcurrentHashMap<>();
+    private final Queue<CouponBatchError> errors = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger reportedErrors = new AtomicInteger();
+
+    public void received()
+    {
+        received.increment();
+    }
+
+    public void created(int count)
+    {
+        created.add(count);
+    }
+
+    public void rejected(long index, String code, String messageKey)
+    {
+        rejected.increment();
+        rejectedByReason.computeIfAbsent(messageKey, key -> new LongAdder()).increment();
+
+        if (reportedErrors.getAndIncrement() < MAX_REPORTED_ERRORS)
+        {
+            errors.add(new CouponBatchError(index, code, messageKey));
+        }
+    }
+
+    public long getReceived() { return received.sum(); }
+    public long getCreated() { return created.sum(); }
+    public long getRejected() { return rejected.sum(); }
+
+    public CreateCouponsBatchResult toResult()
+    {
+        Map<String, Long> reasons = new TreeMap<>();
+        rejectedByReason.forEach((key, count) -> reasons.put(key, count.sum()));
+
+        return new CreateCouponsBatchResult(
+                received.sum(),
+                created.sum(),
+                rejected.sum(),
+                reasons,
+                new ArrayList<>(errors)
+        );
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Shared validate/dedupe/persist steps of the bulk creation paths. Duplicates are checked
+ * with one set-based query per chunk and the survivors are written with a single batched save.
+ * A code taken concurrently between the check and the save makes the storage reject the whole
+ * batch; the chunk is then written one coupon at a time so only the conflicting ones are rejected.
+ */
+final class CouponChunkWriter
+{
+    private final CouponRepositoryPort repository;
+    private final boolean announced;
+
+    CouponChunkWriter(CouponRepositoryPort repository)
+    {
+        this(repository, true);
+    }
+
+    /**
+     * @param announced {@code false} to keep the creations out of the change feed, see
+     *                  {@link CouponRepositoryPort#saveAllUnannounced}.
+     */
+    CouponChunkWriter(CouponRepositoryPort repository, boolean announced)
+    {
+        this.repository = Objects.requireNonNull(repository);
+        this.announced = announced;
+    }
+
+    static IndexedCoupon validate(long index, CreateCouponCommand cmd, Instant now, CouponBatchReport report)
+    {
+        report.received();
+
+        if (cmd == null)
+        {
+            report.rejected(index, null, CouponMessages.BATCH_ITEM_REQUIRED);
+            return null;
+        }
+
+        try
+        {
+            Coupon coupon = Coupon.create(
+                    cmd.code(),
+                    cmd.description(),
+                    cmd.discountValue(),
+                    cmd.expirationDate(),
+                    cmd.published(),
+                    cmd.maxUsages(),
+                    now
+            );
+
+            return new IndexedCoupon(index, coupon);
+        }
+        catch (DomainException e)
+        {
+            report.rejected(index, cmd.code(), e.getMessageKey());
+            return null;
+        }
+    }
+
+    /**
+     * @return the coupons that were saved, in chunk order.
+     */
+    List<Coupon> write(List<IndexedCoupon> chunk, CouponBatchReport report)
+    {
+        Map<String, IndexedCoupon> unique = new LinkedHashMap<>();
+
+        for (IndexedCoupon candidate : chunk)
+        {
+            if (unique.putIfAbsent(candidate.coupon().getCode(), candidate) != null)
+            {
+                report.rejected(candidate.index(), candidate.coupon().getCode(), CouponMessages.CODE_ALREADY_EXISTS);
+            }
+        }
+
+        Set<String> existing = repository.findActiveCodes(unique.keySet());
+        List<IndexedCoupon> toSave = new ArrayList<>(unique.size());
+
+        for (IndexedCoupon candidate : unique.values())
+        {
+            if (existing.contains(candidate.coupon().getCode()))
+            {
+                report.rejected(candidate.index(), candidate.coupon().getCode(), CouponMessages.CODE_ALREADY_EXISTS);
+            }
+            else
+            {
+                toSave.add(candidate);
+            }
+        }
+
+        if (toSave.isEmpty())
+        {
+            return List.of();
+        }
+
+        List<Coupon> coupons = toSave.stream().map(IndexedCoupon::coupon).toList();
+
+        try
+        {
+            saveAll(coupons);
+            report.created(toSave.size());
+            return coupons;
+        }
+        catch (DomainException e)
+        {
+            if (!CouponMessages.CODE_ALREADY_EXISTS.equals(e.getMessageKey()))
+            {
+                throw e;
+            }
+
+            return writeOneByOne(toSave, report);
+        }
+    }
+
+    private void saveAll(List<Coupon> coupons)
+    {
+        if (announced)
+        {
+            repository.saveAll(coupons);
+        }
+        else
+        {
+            repository.saveAllUnannounced(coupons);
+        }
+    }
+
+    private void save(Coupon coupon)
+    {
+        if (announced)
+        {
+            repository.save(coupon);
+        }
+        else
+        {
+            repository.saveAllUnannounced(List.of(coupon));
+        }
+    }
+
+    private List<Coupon> writeOneByOne(List<IndexedCoupon> candidates, CouponBatchReport report)
+    {
+        List<Coupon> saved = new ArrayList<>(candidates.size());
+
+        for (IndexedCoupon candidate : candidates)
+        {
+            try
+            {
+                save(candidate.coupon());
+                report.created(1);
+                saved.add(candidate.coupon());
+            }
+            catch (DomainException e)
+            {
+                report.rejected(candidate.index(), candidate.coupon().getCode(), e.getMessageKey());
+            }
+        }
+
+        return saved;
+    }
+
+    record IndexedCoupon(long index, Coupon coupon) {}
+}
@@ -0,0 +1,13 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponFeedEvent;
+
+import java.util.List;
+
+/**
+ * @param lastOffset offset to resume from: the last event's, or the requested one when empty.
+ */
+public record CouponEventPage(
+        List<CouponFeedEvent> events,
+        long lastOffset
+){}
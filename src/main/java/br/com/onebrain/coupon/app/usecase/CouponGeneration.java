@@ -0,0 +1,11 @@
+package br.com.onebrain.coupon.app.usecase;
+
+/**
+ * Outcome of a campaign generation. {@code skipped} counts generated codes that were already
+ * active and were replaced by the next ones in the sequence.
+ */
+public record CouponGeneration(
+        long requested,
+        long created,
+        long skipped
+){}
@@ -0,0 +1,69 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live progress of a streaming import. Counters are updated by the pipeline stages
+ * and can be read concurrently while the import is running.
+ */
+public class CouponImport
+{
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final UUID id;
+    private final Clock clock;
+    private final Instant startedAt;
+    private final AtomicLong linesRead = new AtomicLong();
+    private final CouponBatchReport report = new CouponBatchReport();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    CouponImport(UUID id, Clock clock)
+    {
+        this.id = id;
+        this.clock = clock;
+        this.startedAt = Instant.now(clock);
+    }
+
+    void lineRead()
+    {
+        linesRead.incrementAndGet();
+    }
+
+    void complete()
+    {
+        this.finishedAt = Instant.now(clock);
+        this.status = Status.COMPLETED;
+    }
+
+    void fail(Throwable cause)
+    {
+        this.failure = cause.getMessage();
+        this.finishedAt = Instant.now(clock);
+        this.status = Status.FAILED;
+    }
+
+    public double linesPerSecond()
+    {
+        Instant end = finishedAt == null ? Instant.now(clock) : finishedAt;
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+
+        return linesRead.get() * 1000d / millis;
+    }
+
+    CouponBatchReport report() { return report; }
+
+    public UUID getId() { return id; }
+    public Status getStatus() { return status; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public String getFailure() { return failure; }
+    public long getLinesRead() { return linesRead.get(); }
+    public CreateCouponsBatchResult getResult() { return report.toResult(); }
+}
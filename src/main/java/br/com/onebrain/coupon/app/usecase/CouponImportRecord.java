@@ -0,0 +1,9 @@
+package br.com.onebrain.coupon.app.usecase;
+
+/**
+ * One parsed line of an import file. A {@code null} command means the line could not be parsed.
+ */
+public record CouponImportRecord(
+        long lineNumber,
+        CreateCouponCommand command
+){}
@@ -0,0 +1,58 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Keeps running imports plus the most recently finished ones, so progress stays
+ * queryable for a while after an import ends.
+ */
+public class CouponImportRegistry
+{
+    private final Clock clock;
+    private final int retainedFinished;
+    private final Map<UUID, CouponImport> imports = new ConcurrentHashMap<>();
+    private final Deque<UUID> finished = new ConcurrentLinkedDeque<>();
+
+    public CouponImportRegistry(Clock clock, int retainedFinished)
+    {
+        this.clock = Objects.requireNonNull(clock);
+        this.retainedFinished = retainedFinished;
+    }
+
+    CouponImport start()
+    {
+        CouponImport couponImport = new CouponImport(UUID.randomUUID(), clock);
+        imports.put(couponImport.getId(), couponImport);
+        return couponImport;
+    }
+
+    void finished(CouponImport couponImport)
+    {
+        finished.addLast(couponImport.getId());
+
+        while (finished.size() > retainedFinished)
+        {
+            UUID oldest = finished.pollFirst();
+
+            if (oldest != null)
+            {
+                imports.remove(oldest);
+            }
+        }
+    }
+
+    public Optional<CouponImport> find(UUID id)
+    {
+        return Optional.ofNullable(imports.get(id));
+    }
+
+    public List<CouponImport> list()
+    {
+        return imports.values().stream()
+                .sorted(Comparator.comparing(CouponImport::getStartedAt).reversed())
+                .toList();
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponCursor;
+import br.com.onebrain.coupon.domain.Coupon;
+
+import java.util.List;
+
+public record CouponPage(
+        List<Coupon> items,
+        CouponCursor next
+){}
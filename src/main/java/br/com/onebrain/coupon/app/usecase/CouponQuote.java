@@ -0,0 +1,16 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import java.math.BigDecimal;
+
+/**
+ * @param reason {@link br.com.onebrain.coupon.domain.CouponMessages} key explaining the
+ *               result; {@code coupon.quote.applicable} when the discount applies.
+ */
+public record CouponQuote(
+        String code,
+        BigDecimal amount,
+        BigDecimal discount,
+        BigDecimal total,
+        boolean applicable,
+        String reason
+){}
@@ -0,0 +1,12 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record CouponRedemption(
+        UUID couponId,
+        String code,
+        BigDecimal discountValue,
+        Instant redeemedAt
+){}
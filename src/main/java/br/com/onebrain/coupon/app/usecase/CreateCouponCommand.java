@@ -8,5 +8,15 @@ public record CreateCouponCommand(
         String description,
         BigDecimal discountValue,
         LocalDate expirationDate,
-        boolean published
-){}
+        boolean published,
+        Integer maxUsages
+){
+    public CreateCouponCommand(String code,
+                               String description,
+                               BigDecimal discountValue,
+                               LocalDate expirationDate,
+                               boolean published)
+    {
+        this(code, description, discountValue, expirationDate, published, null);
+    }
+}
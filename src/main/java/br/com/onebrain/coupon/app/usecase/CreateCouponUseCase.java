@@ -2,8 +2,6 @@ package br.com.onebrain.coupon.app.usecase;
 
 import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
 import br.com.onebrain.coupon.domain.Coupon;
-import br.com.onebrain.coupon.domain.CouponMessages;
-import br.com.onebrain.coupon.domain.DomainException;
 
 import java.time.Clock;
 import java.time.Instant;
@@ -32,14 +30,11 @@ public class CreateCouponUseCase
                 cmd.discountValue(),
                 cmd.expirationDate(),
                 cmd.published(),
+                cmd.maxUsages(),
                 now
         );
 
-        if (repository.existsActiveByCode(coupon.getCode()))
-        {
-            throw new DomainException(CouponMessages.CODE_ALREADY_EXISTS);
-        }
-
+        // Uniqueness of active codes is enforced by the storage on insert; see CouponRepositoryPort#save.
         return repository.save(coupon);
     }
 }
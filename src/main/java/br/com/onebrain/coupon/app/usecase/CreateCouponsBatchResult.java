@@ -0,0 +1,12 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import java.util.List;
+import java.util.Map;
+
+public record CreateCouponsBatchResult(
+        long received,
+        long created,
+        long rejected,
+        Map<String, Long> rejectedByReason,
+        List<CouponBatchError> errors
+){}
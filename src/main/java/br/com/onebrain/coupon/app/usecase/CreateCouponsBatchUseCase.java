@@ -0,0 +1,63 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.usecase.CouponChunkWriter.IndexedCoupon;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class CreateCouponsBatchUseCase
+{
+    private final CouponChunkWriter writer;
+    private final Clock clock;
+    private final int chunkSize;
+
+    public CreateCouponsBatchUseCase(CouponRepositoryPort repository, Clock clock, int chunkSize)
+    {
+        if (chunkSize < 1)
+        {
+            throw new IllegalArgumentException("Chunk size must be >= 1");
+        }
+
+        this.writer = new CouponChunkWriter(repository);
+        this.clock = Objects.requireNonNull(clock);
+        this.chunkSize = chunkSize;
+    }
+
+    public CreateCouponsBatchResult execute(List<CreateCouponCommand> commands)
+    {
+        Objects.requireNonNull(commands, "Commands must not be null!");
+
+        Instant now = Instant.now(clock);
+        CouponBatchReport report = new CouponBatchReport();
+        List<IndexedCoupon> chunk = new ArrayList<>(Math.min(chunkSize, commands.size()));
+
+        for (int i = 0; i < commands.size(); i++)
+        {
+            IndexedCoupon candidate = CouponChunkWriter.validate(i, commands.get(i), now, report);
+
+            if (candidate == null)
+            {
+                continue;
+            }
+
+            chunk.add(candidate);
+
+            if (chunk.size() == chunkSize)
+            {
+                writer.write(chunk, report);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty())
+        {
+            writer.write(chunk, report);
+        }
+
+        return report.toResult();
+    }
+}
@@ -25,11 +25,14 @@ public class DeleteCouponUseCase
     {
         Objects.requireNonNull(id, "Id must not be null!");
 
-        Coupon coupon = repository
-                .findActiveById(id)
-                .orElseThrow(() -> new DomainException(CouponMessages.NOT_FOUND_OR_DELETED));
+        ConcurrentUpdates.retrying(() ->
+        {
+            Coupon coupon = repository
+                    .findActiveByIdForUpdate(id)
+                    .orElseThrow(() -> new DomainException(CouponMessages.NOT_FOUND_OR_DELETED));
 
-        coupon.delete(Instant.now(clock));
-        repository.save(coupon);
+            coupon.delete(Instant.now(clock));
+            return repository.save(coupon);
+        });
     }
 }
@@ -0,0 +1,21 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A campaign of {@code count} coupons that share everything but their code.
+ */
+public record GenerateCouponsCommand(
+        int count,
+        String description,
+        BigDecimal discountValue,
+        LocalDate expirationDate,
+        boolean published,
+        Integer maxUsages
+){
+    CreateCouponCommand withCode(String code)
+    {
+        return new CreateCouponCommand(code, description, discountValue, expirationDate, published, maxUsages);
+    }
+}
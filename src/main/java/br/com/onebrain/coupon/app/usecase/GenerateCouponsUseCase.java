@@ -0,0 +1,247 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.usecase.CouponChunkWriter.IndexedCoupon;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponCodePermutation;
+import br.com.onebrain.coupon.domain.CouponCodes;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Creates a campaign of coupons with server-generated codes. Each campaign walks a freshly
+ * keyed {@link CouponCodePermutation}, so its codes are distinct by construction and no set
+ * of the codes handed out so far is needed. The only collisions left are with codes that are
+ * already active: the set-based check of each chunk (answered from the active code index once
+ * it is loaded) rejects them and further positions of the permutation replace them.
+ *
+ * <p>Workers claim a share of the requested count and a matching range of positions, then
+ * build and save their chunk independently, so both generation and persistence spread over
+ * the cores and the connection pool. Saved codes are handed to the sink one chunk at a time.
+ *
+ * <p>The coupons are saved unannounced: a campaign of millions of codes would otherwise write
+ * as many outbox rows and push as many events to every change feed consumer.
+ */
+public class GenerateCouponsUseCase
+{
+    public static final int MAX_CODES_PER_REQUEST = 5_000_000;
+
+    private final CouponChunkWriter writer;
+    private final Clock clock;
+    private final RandomGenerator random;
+    private final ThreadFactory threadFactory;
+    private final int parallelism;
+    private final int chunkSize;
+
+    public GenerateCouponsUseCase(CouponRepositoryPort repository,
+                                  Clock clock,
+                                  RandomGenerator random,
+                                  ThreadFactory threadFactory,
+                                  int parallelism,
+                                  int chunkSize)
+    {
+        if (parallelism < 1 || chunkSize < 1)
+        {
+            throw new IllegalArgumentException("Parallelism and chunk size must be >= 1");
+        }
+
+        this.writer = new CouponChunkWriter(repository, false);
+        this.clock = Objects.requireNonNull(clock);
+        this.random = Objects.requireNonNull(random);
+        this.threadFactory = Objects.requireNonNull(threadFactory);
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Checks the campaign without creating anything, for callers that must reject it before
+     * they start streaming the result.
+     */
+    public void validate(GenerateCouponsCommand command)
+    {
+        Objects.requireNonNull(command, "Command must not be null!");
+
+        if (command.count() < 1 || command.count() > MAX_CODES_PER_REQUEST)
+        {
+            throw new DomainException(CouponMessages.GENERATE_INVALID_COUNT, MAX_CODES_PER_REQUEST);
+        }
+
+        // Everything but the code is shared, so one sample coupon validates the whole campaign.
+        CreateCouponCommand sample = command.withCode(CouponCodes.decode(0));
+        Coupon.create(
+                sample.code(),
+                sample.description(),
+                sample.discountValue(),
+                sample.expirationDate(),
+                sample.published(),
+                sample.maxUsages(),
+                Instant.now(clock)
+        );
+    }
+
+    /**
+     * Generates and saves the campaign, passing the codes of every saved chunk to {@code sink}.
+     * The sink is never called concurrently; an exception it throws stops the generation, and
+     * the chunks already saved stay saved.
+     */
+    public CouponGeneration execute(GenerateCouponsCommand command, Consumer<List<String>> sink)
+    {
+        validate(command);
+        Objects.requireNonNull(sink, "Sink must not be null!");
+
+        Campaign campaign = new Campaign(command, sink);
+        List<Thread> workers = new ArrayList<>(parallelism);
+
+        for (int i = 0; i < parallelism; i++)
+        {
+            Thread worker = threadFactory.newThread(campaign::generate);
+            workers.add(worker);
+            worker.start();
+        }
+
+        try
+        {
+            for (Thread worker : workers)
+            {
+                worker.join();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            campaign.fail(new IllegalStateException("Generation interrupted", e));
+            workers.forEach(Thread::interrupt);
+        }
+
+        if (campaign.failure.get() != null)
+        {
+            throw campaign.failure.get();
+        }
+
+        return new CouponGeneration(command.count(), campaign.created.sum(), campaign.skipped.sum());
+    }
+
+    private final class Campaign
+    {
+        private final GenerateCouponsCommand command;
+        private final Consumer<List<String>> sink;
+        private final Instant now = Instant.now(clock);
+        private final CouponCodePermutation permutation = CouponCodePermutation.ofCodeSpace(random);
+        private final CouponBatchReport report = new CouponBatchReport();
+        private final AtomicLong remaining;
+        private final AtomicLong nextPosition = new AtomicLong();
+        private final LongAdder created = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        private Campaign(GenerateCouponsCommand command, Consumer<List<String>> sink)
+        {
+            this.command = command;
+            this.sink = sink;
+            this.remaining = new AtomicLong(command.count());
+        }
+
+        private void generate()
+        {
+            try
+            {
+                int quota;
+
+                while (failure.get() == null && (quota = claimQuota()) > 0)
+                {
+                    List<IndexedCoupon> chunk = candidates(quota);
+                    List<Coupon> saved = chunk.isEmpty() ? List.of() : writer.write(chunk, report);
+                    int missing = quota - saved.size();
+
+                    if (!saved.isEmpty())
+                    {
+                        created.add(saved.size());
+                        deliver(saved);
+                    }
+
+                    if (chunk.isEmpty())
+                    {
+                        // The whole code space was walked; the shortfall is reported in the result.
+                        return;
+                    }
+
+                    if (missing > 0)
+                    {
+                        // Taken codes: give the quota back so that this or another worker replaces them.
+                        skipped.add(missing);
+                        remaining.addAndGet(missing);
+                    }
+                }
+            }
+            catch (RuntimeException e)
+            {
+                fail(e);
+            }
+        }
+
+        private int claimQuota()
+        {
+            long current;
+            int quota;
+
+            do
+            {
+                current = remaining.get();
+                quota = (int) Math.min(chunkSize, current);
+            }
+            while (quota > 0 && !remaining.compareAndSet(current, current - quota));
+
+            return quota;
+        }
+
+        private List<IndexedCoupon> candidates(int quota)
+        {
+            long from = nextPosition.getAndAdd(quota);
+            long to = Math.min(from + quota, permutation.domain());
+            List<IndexedCoupon> chunk = new ArrayList<>(quota);
+
+            for (long position = from; position < to; position++)
+            {
+                String code = CouponCodes.decode((int) permutation.apply(position));
+                IndexedCoupon candidate = CouponChunkWriter.validate(position, command.withCode(code), now, report);
+
+                if (candidate != null)
+                {
+                    chunk.add(candidate);
+                }
+            }
+
+            return chunk;
+        }
+
+        private void deliver(List<Coupon> saved)
+        {
+            List<String> codes = saved.stream().map(Coupon::getCode).toList();
+
+            synchronized (this)
+            {
+                if (failure.get() == null)
+                {
+                    sink.accept(codes);
+                }
+            }
+        }
+
+        private void fail(RuntimeException e)
+        {
+            failure.compareAndSet(null, e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.usecase.CouponChunkWriter.IndexedCoupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming import pipeline: the caller's thread parses and validates records, and a
+ * writer thread dedupes and persists them in chunks. The stages are connected by a bounded
+ * queue, so a slow database blocks the reader instead of buffering the file on the heap.
+ */
+public class ImportCouponsUseCase
+{
+    private static final List<IndexedCoupon> END_OF_INPUT = List.of();
+
+    private final CouponChunkWriter writer;
+    private final CouponImportRegistry registry;
+    private final Clock clock;
+    private final ThreadFactory threadFactory;
+    private final int chunkSize;
+    private final int queueCapacity;
+
+    public ImportCouponsUseCase(CouponRepositoryPort repository,
+                                CouponImportRegistry registry,
+                                Clock clock,
+                                ThreadFactory threadFactory,
+                                int chunkSize,
+                                int queueCapacity)
+    {
+        if (chunkSize < 1 || queueCapacity < 1)
+        {
+            throw new IllegalArgumentException("Chunk size and queue capacity must be >= 1");
+        }
+
+        this.writer = new CouponChunkWriter(repository);
+        this.registry = Objects.requireNonNull(registry);
+        this.clock = Objects.requireNonNull(clock);
+        this.threadFactory = Objects.requireNonNull(threadFactory);
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public CouponImport execute(Iterator<CouponImportRecord> records)
+    {
+        Objects.requireNonNull(records, "Records must not be null!");
+
+        CouponImport couponImport = registry.start();
+        BlockingQueue<List<IndexedCoupon>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        PersistStage persistStage = new PersistStage(queue, couponImport.report());
+        Thread persistThread = threadFactory.newThread(persistStage);
+
+        persistThread.start();
+
+        try
+        {
+            readAndValidate(records, couponImport, queue, persistStage);
+            persistThread.join();
+
+            if (persistStage.failure != null)
+            {
+                throw persistStage.failure;
+            }
+
+            couponImport.complete();
+            return couponImport;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            persistThread.interrupt();
+            couponImport.fail(e);
+            throw new IllegalStateException("Import interrupted", e);
+        }
+        catch (RuntimeException e)
+        {
+            persistThread.interrupt();
+            couponImport.fail(e);
+            throw e;
+        }
+        finally
+        {
+            registry.finished(couponImport);
+        }
+    }
+
+    private void readAndValidate(Iterator<CouponImportRecord> records,
+                                 CouponImport couponImport,
+                                 BlockingQueue<List<IndexedCoupon>> queue,
+                                 PersistStage persistStage) throws InterruptedException
+    {
+        Instant now = Instant.now(clock);
+        CouponBatchReport report = couponImport.report();
+        List<IndexedCoupon> chunk = new ArrayList<>(chunkSize);
+
+        while (records.hasNext() && persistStage.failure == null)
+        {
+            CouponImportRecord record = records.next();
+            couponImport.lineRead();
+
+            if (record.command() == null)
+            {
+                report.received();
+                report.rejected(record.lineNumber(), null, CouponMessages.IMPORT_MALFORMED_LINE);
+                continue;
+            }
+
+            IndexedCoupon candidate = CouponChunkWriter.validate(record.lineNumber(), record.command(), now, report);
+
+            if (candidate == null)
+            {
+                continue;
+            }
+
+            chunk.add(candidate);
+
+            if (chunk.size() == chunkSize)
+            {
+                handOff(queue, chunk, persistStage);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        if (!chunk.isEmpty())
+        {
+            handOff(queue, chunk, persistStage);
+        }
+
+        handOff(queue, END_OF_INPUT, persistStage);
+    }
+
+    private static void handOff(BlockingQueue<List<IndexedCoupon>> queue,
+                                List<IndexedCoupon> chunk,
+                                PersistStage persistStage) throws InterruptedException
+    {
+        while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS))
+        {
+            if (persistStage.failure != null)
+            {
+                return;
+            }
+        }
+    }
+
+    private final class PersistStage implements Runnable
+    {
+        private final BlockingQueue<List<IndexedCoupon>> queue;
+        private final CouponBatchReport report;
+        private volatile RuntimeException failure;
+
+        private PersistStage(BlockingQueue<List<IndexedCoupon>> queue, CouponBatchReport report)
+        {
+            this.queue = queue;
+            this.report = report;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                List<IndexedCoupon> chunk;
+
+                while ((chunk = queue.take()) != END_OF_INPUT)
+                {
+                    writer.write(chunk, report);
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                failure = new IllegalStateException("Import writer interrupted", e);
+            }
+            catch (RuntimeException e)
+            {
+                failure = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+public class PublishCouponUseCase
+{
+    private final CouponRepositoryPort repository;
+    private final Clock clock;
+
+    public PublishCouponUseCase(CouponRepositoryPort repository, Clock clock)
+    {
+        this.repository = Objects.requireNonNull(repository);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    /**
+     * Publishes the coupon. Publishing one that is already published writes nothing, so
+     * repeated or concurrent calls settle on one write.
+     */
+    public Coupon execute(UUID id)
+    {
+        Objects.requireNonNull(id, "Id must not be null!");
+
+        return ConcurrentUpdates.retrying(() ->
+        {
+            Coupon coupon = repository
+                    .findActiveByIdForUpdate(id)
+                    .orElseThrow(() -> new DomainException(CouponMessages.NOT_FOUND_OR_DELETED));
+
+            if (coupon.isPublished())
+            {
+                return coupon;
+            }
+
+            coupon.publish(Instant.now(clock));
+            return repository.save(coupon);
+        });
+    }
+}
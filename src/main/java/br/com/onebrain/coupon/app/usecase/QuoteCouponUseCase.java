@@ -0,0 +1,94 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponTerms;
+import br.com.onebrain.coupon.app.port.CouponTermsPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Answers whether a coupon would apply to a cart amount and how much it would take off,
+ * without writing anything. An unusable coupon is a normal answer, not an error: the quote
+ * says why with the same message keys redemption fails with.
+ *
+ * <p>The usage limit is not checked, since the terms do not carry the usage counter;
+ * redemption remains the authoritative check.
+ */
+public class QuoteCouponUseCase
+{
+    private final CouponTermsPort terms;
+    private final Clock clock;
+
+    public QuoteCouponUseCase(CouponTermsPort terms, Clock clock)
+    {
+        this.terms = Objects.requireNonNull(terms);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    public CouponQuote execute(String code, BigDecimal amount)
+    {
+        requireAmount(amount);
+
+        String normalizedCode;
+
+        try
+        {
+            normalizedCode = Coupon.normalizeCode(code);
+        }
+        catch (DomainException e)
+        {
+            return notApplicable(code, amount, e.getMessageKey());
+        }
+
+        Optional<CouponTerms> found = terms.findActiveTerms(normalizedCode);
+
+        if (found.isEmpty())
+        {
+            return notApplicable(normalizedCode, amount, CouponMessages.NOT_FOUND_OR_DELETED);
+        }
+
+        return quote(normalizedCode, found.get(), amount, LocalDate.now(clock));
+    }
+
+    static void requireAmount(BigDecimal amount)
+    {
+        if (amount == null)
+        {
+            throw new DomainException(CouponMessages.QUOTE_AMOUNT_REQUIRED);
+        }
+
+        if (amount.signum() < 0)
+        {
+            throw new DomainException(CouponMessages.QUOTE_AMOUNT_NEGATIVE);
+        }
+    }
+
+    static CouponQuote quote(String normalizedCode, CouponTerms coupon, BigDecimal amount, LocalDate today)
+    {
+        if (!coupon.published())
+        {
+            return notApplicable(normalizedCode, amount, CouponMessages.NOT_PUBLISHED);
+        }
+
+        if (today.isAfter(coupon.expirationDate()))
+        {
+            return notApplicable(normalizedCode, amount, CouponMessages.EXPIRED);
+        }
+
+        // A fixed discount never takes the total below zero.
+        BigDecimal discount = coupon.discountValue().min(amount);
+
+        return new CouponQuote(normalizedCode, amount, discount, amount.subtract(discount), true, CouponMessages.QUOTE_APPLICABLE);
+    }
+
+    static CouponQuote notApplicable(String code, BigDecimal amount, String reason)
+    {
+        return new CouponQuote(code, amount, BigDecimal.ZERO, amount, false, reason);
+    }
+}
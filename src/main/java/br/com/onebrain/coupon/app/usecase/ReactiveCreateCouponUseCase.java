@@ -0,0 +1,45 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.ReactiveCouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Non-blocking {@link CreateCouponUseCase}: the coupon is validated by the same domain
+ * factory, and a violation is signalled as the same {@code DomainException}.
+ */
+public class ReactiveCreateCouponUseCase
+{
+    private final ReactiveCouponRepositoryPort repository;
+    private final Clock clock;
+
+    public ReactiveCreateCouponUseCase(ReactiveCouponRepositoryPort repository, Clock clock)
+    {
+        this.repository = Objects.requireNonNull(repository);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    public Mono<Coupon> execute(CreateCouponCommand cmd)
+    {
+        Objects.requireNonNull(cmd, "CMD must not be null!");
+
+        return Mono.defer(() ->
+        {
+            Coupon coupon = Coupon.create(
+                    cmd.code(),
+                    cmd.description(),
+                    cmd.discountValue(),
+                    cmd.expirationDate(),
+                    cmd.published(),
+                    cmd.maxUsages(),
+                    Instant.now(clock)
+            );
+
+            return repository.save(coupon);
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.ReactiveCouponRepositoryPort;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Non-blocking {@link DeleteCouponUseCase}.
+ */
+public class ReactiveDeleteCouponUseCase
+{
+    private final ReactiveCouponRepositoryPort repository;
+    private final Clock clock;
+
+    public ReactiveDeleteCouponUseCase(ReactiveCouponRepositoryPort repository, Clock clock)
+    {
+        this.repository = Objects.requireNonNull(repository);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    public Mono<Void> execute(UUID id)
+    {
+        Objects.requireNonNull(id, "Id must not be null!");
+
+        return ConcurrentUpdates.retrying(Mono.defer(() -> repository
+                .findActiveById(id)
+                .switchIfEmpty(Mono.error(() -> new DomainException(CouponMessages.NOT_FOUND_OR_DELETED)))
+                .flatMap(coupon ->
+                {
+                    coupon.delete(Instant.now(clock));
+                    return repository.save(coupon);
+                })))
+                .then();
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponTerms;
+import br.com.onebrain.coupon.app.port.ReactiveCouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Non-blocking {@link QuoteCouponUseCase}, with the same answers. There is no in-memory index
+ * on this stack, so the terms are read from the coupon itself.
+ */
+public class ReactiveQuoteCouponUseCase
+{
+    private final ReactiveCouponRepositoryPort repository;
+    private final Clock clock;
+
+    public ReactiveQuoteCouponUseCase(ReactiveCouponRepositoryPort repository, Clock clock)
+    {
+        this.repository = Objects.requireNonNull(repository);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    public Mono<CouponQuote> execute(String code, BigDecimal amount)
+    {
+        return Mono.defer(() ->
+        {
+            QuoteCouponUseCase.requireAmount(amount);
+
+            String normalizedCode;
+
+            try
+            {
+                normalizedCode = Coupon.normalizeCode(code);
+            }
+            catch (DomainException e)
+            {
+                return Mono.just(QuoteCouponUseCase.notApplicable(code, amount, e.getMessageKey()));
+            }
+
+            return repository
+                    .findActiveByCode(normalizedCode)
+                    .map(coupon -> QuoteCouponUseCase.quote(
+                            normalizedCode,
+                            new CouponTerms(coupon.getCode(), coupon.getDiscountValue(), coupon.getExpirationDate(), coupon.isPublished()),
+                            amount,
+                            LocalDate.now(clock)))
+                    .defaultIfEmpty(QuoteCouponUseCase.notApplicable(normalizedCode, amount, CouponMessages.NOT_FOUND_OR_DELETED));
+        });
+    }
+}
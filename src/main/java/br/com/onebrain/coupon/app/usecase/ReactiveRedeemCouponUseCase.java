@@ -0,0 +1,52 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.ReactiveCouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Non-blocking {@link RedeemCouponUseCase}; the usage counter is consumed by the same single
+ * conditional update.
+ */
+public class ReactiveRedeemCouponUseCase
+{
+    private final ReactiveCouponRepositoryPort repository;
+    private final Clock clock;
+
+    public ReactiveRedeemCouponUseCase(ReactiveCouponRepositoryPort repository, Clock clock)
+    {
+        this.repository = Objects.requireNonNull(repository);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    public Mono<CouponRedemption> execute(String code)
+    {
+        return Mono.defer(() ->
+        {
+            String normalizedCode = Coupon.normalizeCode(code);
+
+            return repository
+                    .findActiveByCode(normalizedCode)
+                    .switchIfEmpty(Mono.error(() -> new DomainException(CouponMessages.NOT_FOUND_OR_DELETED)))
+                    .flatMap(this::redeem);
+        });
+    }
+
+    private Mono<CouponRedemption> redeem(Coupon coupon)
+    {
+        Instant now = Instant.now(clock);
+        coupon.ensureRedeemable(LocalDate.ofInstant(now, clock.getZone()));
+
+        return repository.incrementUsage(coupon.getId())
+                .flatMap(incremented -> incremented
+                        ? Mono.just(new CouponRedemption(coupon.getId(), coupon.getCode(), coupon.getDiscountValue(), now))
+                        : Mono.error(new DomainException(CouponMessages.USAGE_LIMIT_REACHED)));
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponEventLogPort;
+import br.com.onebrain.coupon.app.port.CouponFeedEvent;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads the coupon change feed from a consumer's last offset. Offsets are consecutive and
+ * old events are only ever trimmed from the front, so a page that does not start right
+ * after the requested offset means the consumer fell behind the retention window and has
+ * to rebuild its replica from a full read.
+ */
+public class ReadCouponEventsUseCase
+{
+    public static final int MAX_LIMIT = 1_000;
+
+    private final CouponEventLogPort eventLog;
+
+    public ReadCouponEventsUseCase(CouponEventLogPort eventLog)
+    {
+        this.eventLog = Objects.requireNonNull(eventLog);
+    }
+
+    public CouponEventPage execute(long after, int limit)
+    {
+        if (after < 0)
+        {
+            throw new DomainException(CouponMessages.EVENTS_INVALID_OFFSET);
+        }
+
+        if (limit < 1 || limit > MAX_LIMIT)
+        {
+            throw new DomainException(CouponMessages.EVENTS_INVALID_LIMIT, MAX_LIMIT);
+        }
+
+        List<CouponFeedEvent> events = eventLog.readAfter(after, limit);
+
+        if (events.isEmpty())
+        {
+            return new CouponEventPage(events, after);
+        }
+
+        if (events.get(0).offset() != after + 1)
+        {
+            throw new DomainException(CouponMessages.EVENTS_OFFSET_EXPIRED, String.valueOf(after));
+        }
+
+        return new CouponEventPage(events, events.get(events.size() - 1).offset());
+    }
+}
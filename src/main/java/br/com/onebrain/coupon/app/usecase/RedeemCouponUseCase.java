@@ -0,0 +1,44 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class RedeemCouponUseCase
+{
+    private final CouponRepositoryPort repository;
+    private final Clock clock;
+
+    public RedeemCouponUseCase(CouponRepositoryPort repository, Clock clock)
+    {
+        this.repository = Objects.requireNonNull(repository);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    public CouponRedemption execute(String code)
+    {
+        String normalizedCode = Coupon.normalizeCode(code);
+
+        Coupon coupon = repository
+                .findActiveByCode(normalizedCode)
+                .orElseThrow(() -> new DomainException(CouponMessages.NOT_FOUND_OR_DELETED));
+
+        Instant now = Instant.now(clock);
+        coupon.ensureRedeemable(LocalDate.ofInstant(now, clock.getZone()));
+
+        // The counter is decremented by a single conditional update, so concurrent
+        // redemptions never read-modify-write the same row from the application.
+        if (!repository.incrementUsage(coupon.getId()))
+        {
+            throw new DomainException(CouponMessages.USAGE_LIMIT_REACHED);
+        }
+
+        return new CouponRedemption(coupon.getId(), coupon.getCode(), coupon.getDiscountValue(), now);
+    }
+}
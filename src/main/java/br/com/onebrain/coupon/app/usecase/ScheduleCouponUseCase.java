@@ -0,0 +1,57 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponSchedule;
+import br.com.onebrain.coupon.app.port.CouponTimerPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+public class ScheduleCouponUseCase
+{
+    private final CouponRepositoryPort repository;
+    private final CouponTimerPort timers;
+    private final Clock clock;
+    private final boolean enabled;
+
+    public ScheduleCouponUseCase(CouponRepositoryPort repository, CouponTimerPort timers, Clock clock, boolean enabled)
+    {
+        this.repository = Objects.requireNonNull(repository);
+        this.timers = Objects.requireNonNull(timers);
+        this.clock = Objects.requireNonNull(clock);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Replaces the publication window of the coupon and arms its timers once the window is
+     * stored. The timers of a previous window are left to fire and find nothing due. With
+     * scheduling disabled nothing would ever apply the window, so the request is rejected.
+     */
+    public Coupon execute(UUID id, Instant publishAt, Instant unpublishAt)
+    {
+        Objects.requireNonNull(id, "Id must not be null!");
+
+        if (!enabled)
+        {
+            throw new DomainException(CouponMessages.SCHEDULE_DISABLED);
+        }
+
+        Coupon scheduled = ConcurrentUpdates.retrying(() ->
+        {
+            Coupon coupon = repository
+                    .findActiveByIdForUpdate(id)
+                    .orElseThrow(() -> new DomainException(CouponMessages.NOT_FOUND_OR_DELETED));
+
+            coupon.schedule(publishAt, unpublishAt, Instant.now(clock));
+            return repository.save(coupon);
+        });
+
+        timers.arm(new CouponSchedule(scheduled.getId(), scheduled.getPublishAt(), scheduled.getUnpublishAt()));
+        return scheduled;
+    }
+}
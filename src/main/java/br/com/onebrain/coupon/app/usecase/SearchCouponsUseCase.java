@@ -0,0 +1,74 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponCursor;
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponSearchCriteria;
+import br.com.onebrain.coupon.domain.Coupon;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+public class SearchCouponsUseCase
+{
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final CouponRepositoryPort repository;
+
+    public SearchCouponsUseCase(CouponRepositoryPort repository)
+    {
+        this.repository = Objects.requireNonNull(repository);
+    }
+
+    public CouponPage execute(CouponSearchCriteria criteria, CouponCursor after, int limit)
+    {
+        Objects.requireNonNull(criteria, "Criteria must not be null!");
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // One extra row tells whether there is a next page without a count query.
+        List<Coupon> rows = repository.search(normalize(criteria), after, pageSize + 1);
+
+        if (rows.size() <= pageSize)
+        {
+            return new CouponPage(rows, null);
+        }
+
+        List<Coupon> items = rows.subList(0, pageSize);
+        Coupon last = items.get(pageSize - 1);
+
+        return new CouponPage(items, new CouponCursor(last.getCreatedAt(), last.getId()));
+    }
+
+    public void export(CouponSearchCriteria criteria, Consumer<Coupon> consumer)
+    {
+        Objects.requireNonNull(criteria, "Criteria must not be null!");
+        Objects.requireNonNull(consumer, "Consumer must not be null!");
+
+        repository.forEachMatching(normalize(criteria), consumer);
+    }
+
+    private static CouponSearchCriteria normalize(CouponSearchCriteria criteria)
+    {
+        if (criteria.codePrefix() == null)
+        {
+            return criteria;
+        }
+
+        StringBuilder prefix = new StringBuilder(criteria.codePrefix().length());
+
+        criteria.codePrefix().chars()
+                .filter(Character::isLetterOrDigit)
+                .filter(c -> c < 128)
+                .map(Character::toUpperCase)
+                .forEach(c -> prefix.append((char) c));
+
+        return new CouponSearchCriteria(
+                criteria.published(),
+                criteria.deleted(),
+                criteria.expiresFrom(),
+                criteria.expiresTo(),
+                prefix.isEmpty() ? null : prefix.toString()
+        );
+    }
+}
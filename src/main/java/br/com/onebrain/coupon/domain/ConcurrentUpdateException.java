@@ -0,0 +1,13 @@
+package br.com.onebrain.coupon.domain;
+
+/**
+ * The coupon changed between the read a write was based on and the write itself. Nothing was
+ * written; reading the coupon again and reapplying the change is safe.
+ */
+public class ConcurrentUpdateException extends DomainException
+{
+    public ConcurrentUpdateException()
+    {
+        super(CouponMessages.CONCURRENT_UPDATE);
+    }
+}
@@ -1,24 +1,37 @@
 package br.com.onebrain.coupon.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Coupon.CACHE_REGION)
 @Table(
         name = "coupons",
         indexes = {
                 @Index(name = "idx_coupons_code", columnList = "code"),
-                @Index(name = "idx_coupons_deleted", columnList = "deleted")
-        }
+                @Index(name = "idx_coupons_deleted", columnList = "deleted"),
+                @Index(name = "idx_coupons_expiration_date", columnList = "expiration_date"),
+                @Index(name = "idx_coupons_created_at_id", columnList = "created_at, id")
+        },
+        uniqueConstraints = @UniqueConstraint(name = Coupon.ACTIVE_CODE_CONSTRAINT, columnNames = "active_code")
 )
 public class Coupon
 {
     public static final int MAXIMUM_CHARACTER_SIZE = 6;
     public static final int MINIMUM_DISCOUNT_BALANCE = 0;
+    public static final BigDecimal MINIMUM_DISCOUNT = new BigDecimal("0.50");
+    public static final int MINIMUM_MAX_USAGES = 1;
+    public static final String ACTIVE_CODE_CONSTRAINT = "uk_coupons_active_code";
+    public static final String CACHE_REGION = "coupons";
 
     @Id
     @GeneratedValue
@@ -27,6 +40,14 @@ public class Coupon
     @Column(name = "code", nullable = false, length = MAXIMUM_CHARACTER_SIZE)
     private String code;
 
+    /**
+     * Same as {@link #code} while the coupon is active and {@code null} once deleted. The unique
+     * constraint on this column is what enforces one active coupon per code; NULLs never collide,
+     * so it behaves as a partial unique index on databases that lack them.
+     */
+    @Column(name = "active_code", length = MAXIMUM_CHARACTER_SIZE)
+    private String activeCode;
+
     @Column(name = "description", nullable = false, length = 255)
     private String description;
 
@@ -39,6 +60,25 @@ public class Coupon
     @Column(name = "published", nullable = false)
     private boolean published;
 
+    /**
+     * When set, the coupon is published at this time by the schedule runner, which then
+     * clears it. Changing it does not change {@link #published} by itself.
+     */
+    @Column(name = "publish_at")
+    private Instant publishAt;
+
+    /**
+     * When set, the coupon is unpublished at this time and the field is cleared.
+     */
+    @Column(name = "unpublish_at")
+    private Instant unpublishAt;
+
+    @Column(name = "max_usages")
+    private Integer maxUsages;
+
+    @Column(name = "usage_count", nullable = false)
+    private int usageCount;
+
     @Column(name = "deleted", nullable = false)
     private boolean deleted;
 
@@ -51,6 +91,19 @@ public class Coupon
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    /**
+     * Bumped by every lifecycle change (publish, delete), so that a write based on an older
+     * read is detected instead of overwriting it. Usages are counted by a conditional update
+     * of their own and do not bump it.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Changes waiting for the repository to write them to the outbox along with the coupon.
+    @Transient
+    private final List<CouponEvent> pendingEvents = new ArrayList<>();
+
     protected Coupon() {}
 
     private Coupon(String code,
@@ -58,19 +111,25 @@ public class Coupon
                    BigDecimal discountValue,
                    LocalDate expirationDate,
                    boolean published,
+                   Integer maxUsages,
                    Instant now)
     {
         this.code = normalizeAndValidateCode(code);
+        this.activeCode = this.code;
         this.description = requireNonBlank(description, CouponMessages.DESCRIPTION_REQUIRED);
         this.discountValue = validateDiscount(discountValue);
         this.expirationDate = validateExpiration(expirationDate);
         this.published = published;
+        this.maxUsages = validateMaxUsages(maxUsages);
+        this.usageCount = 0;
 
         this.deleted = false;
         this.deletedAt = null;
 
         this.createdAt = now;
         this.updatedAt = now;
+
+        this.pendingEvents.add(new CouponEvent(CouponEventType.CREATED, now));
     }
 
     public static Coupon create(String code,
@@ -79,26 +138,169 @@ public class Coupon
                                 LocalDate expirationDate,
                                 boolean published,
                                 Instant now)
+    {
+        return create(code, description, discountValue, expirationDate, published, null, now);
+    }
+
+    public static Coupon create(String code,
+                                String description,
+                                BigDecimal discountValue,
+                                LocalDate expirationDate,
+                                boolean published,
+                                Integer maxUsages,
+                                Instant now)
     {
         requireNow(now);
-        return new Coupon(code, description, discountValue, expirationDate, published, now);
+        return new Coupon(code, description, discountValue, expirationDate, published, maxUsages, now);
+    }
+
+    /**
+     * Rebuilds a coupon from storage that does not go through JPA. Nothing is validated: the
+     * state was valid when it was written, and an expiration date may have passed since.
+     */
+    public static Coupon restore(UUID id,
+                                 String code,
+                                 String description,
+                                 BigDecimal discountValue,
+                                 LocalDate expirationDate,
+                                 boolean published,
+                                 Integer maxUsages,
+                                 int usageCount,
+                                 boolean deleted,
+                                 Instant deletedAt,
+                                 Instant createdAt,
+                                 Instant updatedAt,
+                                 Instant publishAt,
+                                 Instant unpublishAt,
+                                 long version)
+    {
+        Coupon coupon = new Coupon();
+        coupon.id = id;
+        coupon.code = code;
+        coupon.activeCode = deleted ? null : code;
+        coupon.description = description;
+        coupon.discountValue = discountValue;
+        coupon.expirationDate = expirationDate;
+        coupon.published = published;
+        coupon.maxUsages = maxUsages;
+        coupon.usageCount = usageCount;
+        coupon.deleted = deleted;
+        coupon.deletedAt = deletedAt;
+        coupon.createdAt = createdAt;
+        coupon.updatedAt = updatedAt;
+        coupon.publishAt = publishAt;
+        coupon.unpublishAt = unpublishAt;
+        coupon.version = version;
+        return coupon;
+    }
+
+    public static String normalizeCode(String raw)
+    {
+        return normalizeAndValidateCode(raw);
     }
 
     public void publish(Instant now)
     {
         ensureNotDeleted();
         requireNow(now);
+
+        if (!this.published)
+        {
+            pendingEvents.add(new CouponEvent(CouponEventType.PUBLISHED, now));
+        }
+
         this.published = true;
         touch(now);
     }
 
+    /**
+     * Replaces the publication window; either end may be {@code null} (both clear it). A time
+     * that has already passed is applied on the next run of the schedule. No event is recorded
+     * here: the transitions are, when they happen.
+     */
+    public void schedule(Instant publishAt, Instant unpublishAt, Instant now)
+    {
+        ensureNotDeleted();
+        requireNow(now);
+
+        if (publishAt != null && unpublishAt != null && !unpublishAt.isAfter(publishAt))
+        {
+            throw new DomainException(CouponMessages.SCHEDULE_INVALID);
+        }
+
+        this.publishAt = publishAt;
+        this.unpublishAt = unpublishAt;
+        touch(now);
+    }
+
     public void delete(Instant now)
     {
         ensureNotDeleted();
         requireNow(now);
         this.deleted = true;
         this.deletedAt = now;
+        this.activeCode = null;
         touch(now);
+
+        pendingEvents.add(new CouponEvent(CouponEventType.DELETED, now));
+    }
+
+    /**
+     * Lifecycle changes made since the coupon was created or loaded and not yet saved.
+     */
+    public List<CouponEvent> pendingEvents()
+    {
+        return List.copyOf(pendingEvents);
+    }
+
+    /**
+     * Whether the coupon was never stored: its creation is still pending. A failed insert
+     * keeps it pending, even if the storage already assigned an id.
+     */
+    public boolean isNew()
+    {
+        return pendingEvents.stream().anyMatch(event -> event.type() == CouponEventType.CREATED);
+    }
+
+    /**
+     * Called by the repository once the pending events are committed with the coupon.
+     */
+    public void clearPendingEvents()
+    {
+        pendingEvents.clear();
+    }
+
+    /**
+     * Called by a repository that wrote a lifecycle change with its own conditional update
+     * rather than through JPA, so this copy carries the version that is now stored.
+     */
+    public void advanceVersion()
+    {
+        version++;
+    }
+
+    /**
+     * Checks whether the coupon can be redeemed on the given day. The usage limit is only
+     * pre-checked here; the authoritative decrement is a conditional update in the repository.
+     */
+    public void ensureRedeemable(LocalDate today)
+    {
+        ensureNotDeleted();
+
+        if (!this.published)
+        {
+            throw new DomainException(CouponMessages.NOT_PUBLISHED);
+        }
+
+        if (today.isAfter(this.expirationDate))
+        {
+            throw new DomainException(CouponMessages.EXPIRED);
+        }
+
+        if (this.maxUsages != null && this.usageCount >= this.maxUsages)
+        {
+            throw new DomainException(CouponMessages.USAGE_LIMIT_REACHED);
+        }
     }
 
     private void ensureNotDeleted()
@@ -122,18 +324,69 @@ public class Coupon
         }
     }
 
+    /**
+     * Single pass over the raw code: drops everything but ASCII letters and digits and
+     * upper-cases the rest. A code that is already normalized is returned as is.
+     */
     private static String normalizeAndValidateCode(String raw)
     {
-        String validate = requireNonBlank(raw, CouponMessages.CODE_REQUIRED);
+        if (raw == null || isBlank(raw))
+        {
+            throw new DomainException(CouponMessages.CODE_REQUIRED);
+        }
 
-        validate = validate.replaceAll("[^A-Za-z0-9]", "");
+        // Stays null while the input is already normalized, so that case allocates nothing.
+        char[] normalized = null;
+        int length = 0;
+
+        for (int i = 0; i < raw.length(); i++)
+        {
+            char c = raw.charAt(i);
+            boolean keep = (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+            boolean lower = c >= 'a' && c <= 'z';
+
+            if (!keep && !lower)
+            {
+                if (normalized == null)
+                {
+                    normalized = startNormalized(raw, length);
+                }
+
+                continue;
+            }
+
+            if (length == MAXIMUM_CHARACTER_SIZE)
+            {
+                throw new DomainException(CouponMessages.CODE_INVALID_LENGTH, MAXIMUM_CHARACTER_SIZE);
+            }
+
+            if (lower && normalized == null)
+            {
+                normalized = startNormalized(raw, length);
+            }
+
+            if (normalized != null)
+            {
+                normalized[length] = lower ? (char) (c - ('a' - 'A')) : c;
+            }
+
+            length++;
+        }
 
-        if (validate.length() != MAXIMUM_CHARACTER_SIZE)
+        if (length != MAXIMUM_CHARACTER_SIZE)
         {
             throw new DomainException(CouponMessages.CODE_INVALID_LENGTH, MAXIMUM_CHARACTER_SIZE);
         }
 
-        return validate.toUpperCase();
+        return normalized == null ? raw : new String(normalized);
+    }
+
+    private static char[] startNormalized(String raw, int keptSoFar)
+    {
+        // Nothing was dropped before the first change, so the kept prefix is raw[0, keptSoFar).
+        char[] normalized = new char[MAXIMUM_CHARACTER_SIZE];
+        raw.getChars(0, keptSoFar, normalized, 0);
+        return normalized;
     }
 
     private static BigDecimal validateDiscount(BigDecimal validate)
@@ -143,14 +396,24 @@ public class Coupon
             throw new DomainException(CouponMessages.DISCOUNT_REQUIRED);
         }
 
-        if (validate.compareTo(new BigDecimal("0.50")) < MINIMUM_DISCOUNT_BALANCE)
+        if (validate.compareTo(MINIMUM_DISCOUNT) < MINIMUM_DISCOUNT_BALANCE)
         {
-            throw new DomainException(CouponMessages.DISCOUNT_MIN, "0.50");
+            throw new DomainException(CouponMessages.DISCOUNT_MIN, MINIMUM_DISCOUNT.toPlainString());
         }
 
         return validate;
     }
 
+    private static Integer validateMaxUsages(Integer maxUsages)
+    {
+        if (maxUsages != null && maxUsages < MINIMUM_MAX_USAGES)
+        {
+            throw new DomainException(CouponMessages.MAX_USAGES_MIN, MINIMUM_MAX_USAGES);
+        }
+
+        return maxUsages;
+    }
+
     private static LocalDate validateExpiration(LocalDate date)
     {
         if (date == null)
@@ -168,7 +431,7 @@ public class Coupon
 
     private static String requireNonBlank(String value, String messageKey)
     {
-        if (value == null || value.trim().isEmpty())
+        if (value == null || isBlank(value))
         {
             throw new DomainException(messageKey);
         }
@@ -176,14 +439,35 @@ public class Coupon
         return value.trim();
     }
 
+    /**
+     * Same notion of blank as {@link String#trim()} (every char {@code <= ' '}), without allocating.
+     */
+    private static boolean isBlank(String value)
+    {
+        for (int i = 0; i < value.length(); i++)
+        {
+            if (value.charAt(i) > ' ')
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public UUID getId() { return id; }
     public String getCode() { return code; }
     public String getDescription() { return description; }
     public BigDecimal getDiscountValue() { return discountValue; }
     public LocalDate getExpirationDate() { return expirationDate; }
     public boolean isPublished() { return published; }
+    public Integer getMaxUsages() { return maxUsages; }
+    public int getUsageCount() { return usageCount; }
     public boolean isDeleted() { return deleted; }
     public Instant getDeletedAt() { return deletedAt; }
     public Instant getCreatedAt() { return createdAt; }
     public Instant getUpdatedAt() { return updatedAt; }
+    public Instant getPublishAt() { return publishAt; }
+    public Instant getUnpublishAt() { return unpublishAt; }
+    public long getVersion() { return version; }
 }
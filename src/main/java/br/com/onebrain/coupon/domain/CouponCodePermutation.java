@@ -0,0 +1,112 @@
+package br.com.onebrain.coupon.domain;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Keyed pseudo-random permutation of the code space. Position {@code i} maps to a code that no
+ * other position maps to, so walking positions {@code 0, 1, 2, ...} yields distinct codes that
+ * look random and need no set of the ones already handed out.
+ *
+ * <p>A balanced Feistel network permutes the smallest even-width bit space that covers the
+ * domain ({@code 2^32} for {@link CouponCodes#CODE_SPACE}); results outside the domain are fed
+ * through again (cycle walking) until they land inside it, which keeps the mapping a bijection
+ * on the domain itself. For the code space that takes about two passes on average.
+ */
+public final class CouponCodePermutation
+{
+    private static final int ROUNDS = 4;
+
+    private final long domain;
+    private final int halfBits;
+    private final long halfMask;
+    private final int[] roundKeys;
+
+    public CouponCodePermutation(long domain, int[] roundKeys)
+    {
+        if (domain < 2 || domain > (1L << 62))
+        {
+            throw new IllegalArgumentException("Domain must be between 2 and 2^62");
+        }
+
+        if (roundKeys.length != ROUNDS)
+        {
+            throw new IllegalArgumentException("Expected " + ROUNDS + " round keys");
+        }
+
+        int bits = 64 - Long.numberOfLeadingZeros(domain - 1);
+        this.domain = domain;
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        this.roundKeys = roundKeys.clone();
+    }
+
+    /**
+     * A permutation of the whole code space with fresh random keys.
+     */
+    public static CouponCodePermutation ofCodeSpace(RandomGenerator random)
+    {
+        int[] keys = new int[ROUNDS];
+
+        for (int i = 0; i < ROUNDS; i++)
+        {
+            keys[i] = random.nextInt();
+        }
+
+        return new CouponCodePermutation(CouponCodes.CODE_SPACE, keys);
+    }
+
+    public long domain()
+    {
+        return domain;
+    }
+
+    /**
+     * @return the value at {@code position}, in {@code [0, domain)}.
+     */
+    public long apply(long position)
+    {
+        if (position < 0 || position >= domain)
+        {
+            throw new IllegalArgumentException("Position out of range: " + position);
+        }
+
+        long value = position;
+
+        do
+        {
+            value = encrypt(value);
+        }
+        while (value >= domain);
+
+        return value;
+    }
+
+    private long encrypt(long value)
+    {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+
+        for (int key : roundKeys)
+        {
+            long next = left ^ (mix(right, key) & halfMask);
+            left = right;
+            right = next;
+        }
+
+        return (left << halfBits) | right;
+    }
+
+    /**
+     * Round function: the 64-bit finalizer of MurmurHash3 over the half block and the key.
+     */
+    private static long mix(long half, int key)
+    {
+        long h = half ^ ((long) key << 32 | (key & 0xFFFFFFFFL));
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.onebrain.coupon.domain;
+
+/**
+ * Primitive encoding of normalized coupon codes. A code is exactly
+ * {@link Coupon#MAXIMUM_CHARACTER_SIZE} characters out of {@code [0-9A-Z]}, so it is a
+ * base-36 number below 36^6 (about 2.18 billion). That is just over {@link Integer#MAX_VALUE},
+ * so the encoded value is an unsigned int: negative ints are valid codes and only
+ * {@link #NO_CODE} ({@code 0xFFFFFFFF}) can never be produced.
+ */
+public final class CouponCodes
+{
+    public static final int RADIX = 36;
+    public static final long CODE_SPACE = pow(RADIX, Coupon.MAXIMUM_CHARACTER_SIZE);
+    public static final int NO_CODE = -1;
+
+    private CouponCodes() {}
+
+    /**
+     * Encodes a code that is already normalized (see {@link Coupon#normalizeCode(String)}).
+     */
+    public static int encode(String normalizedCode)
+    {
+        if (normalizedCode.length() != Coupon.MAXIMUM_CHARACTER_SIZE)
+        {
+            throw new IllegalArgumentException("Not a normalized coupon code: " + normalizedCode);
+        }
+
+        long value = 0;
+
+        for (int i = 0; i < normalizedCode.length(); i++)
+        {
+            value = value * RADIX + digit(normalizedCode, normalizedCode.charAt(i));
+        }
+
+        return (int) value;
+    }
+
+    public static String decode(int encoded)
+    {
+        long value = Integer.toUnsignedLong(encoded);
+
+        if (value >= CODE_SPACE)
+        {
+            throw new IllegalArgumentException("Not an encoded coupon code: " + value);
+        }
+
+        char[] chars = new char[Coupon.MAXIMUM_CHARACTER_SIZE];
+
+        for (int i = chars.length - 1; i >= 0; i--)
+        {
+            chars[i] = Character.toUpperCase(Character.forDigit((int) (value % RADIX), RADIX));
+            value /= RADIX;
+        }
+
+        return new String(chars);
+    }
+
+    private static int digit(String code, char c)
+    {
+        if (c >= '0' && c <= '9')
+        {
+            return c - '0';
+        }
+
+        if (c >= 'A' && c <= 'Z')
+        {
+            return c - 'A' + 10;
+        }
+
+        throw new IllegalArgumentException("Not a normalized coupon code: " + code);
+    }
+
+    private static long pow(int base, int exponent)
+    {
+        long result = 1;
+
+        for (int i = 0; i < exponent; i++)
+        {
+            result *= base;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.onebrain.coupon.domain;
+
+import java.time.Instant;
+
+/**
+ * A lifecycle change recorded by {@link Coupon} and not yet persisted. The state it refers
+ * to is the coupon's own at the time it is saved.
+ */
+public record CouponEvent(
+        CouponEventType type,
+        Instant occurredAt
+){}
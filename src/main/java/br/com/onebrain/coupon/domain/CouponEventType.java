@@ -0,0 +1,9 @@
+package br.com.onebrain.coupon.domain;
+
+public enum CouponEventType
+{
+    CREATED,
+    PUBLISHED,
+    UNPUBLISHED,
+    DELETED
+}
@@ -15,4 +15,30 @@ public final class CouponMessages
     public static final String ALREADY_DELETED = "coupon.already_deleted";
     public static final String NOT_FOUND_OR_DELETED = "coupon.not_found_or_deleted";
     public static final String CODE_ALREADY_EXISTS = "coupon.code.already_exists";
+    public static final String CONCURRENT_UPDATE = "coupon.concurrent_update";
+    public static final String MAX_USAGES_MIN = "coupon.max_usages.min";
+    public static final String NOT_PUBLISHED = "coupon.not_published";
+    public static final String SCHEDULE_INVALID = "coupon.schedule.invalid";
+    public static final String SCHEDULE_DISABLED = "coupon.schedule.disabled";
+    public static final String EXPIRED = "coupon.expired";
+    public static final String USAGE_LIMIT_REACHED = "coupon.usage_limit_reached";
+    public static final String BATCH_ITEM_REQUIRED = "coupon.batch.item_required";
+    public static final String IMPORT_MALFORMED_LINE = "coupon.import.malformed_line";
+    public static final String IMPORT_NOT_FOUND = "coupon.import.not_found";
+    public static final String INVALID_CURSOR = "coupon.search.invalid_cursor";
+    public static final String DELETE_IDS_REQUIRED = "coupon.delete.ids_required";
+    public static final String DELETE_TOO_MANY_IDS = "coupon.delete.too_many_ids";
+    public static final String GENERATE_INVALID_COUNT = "coupon.generate.invalid_count";
+    public static final String RATE_LIMITED = "coupon.admission.rate_limited";
+    public static final String OVERLOADED = "coupon.admission.overloaded";
+    public static final String IDEMPOTENCY_KEY_INVALID = "coupon.idempotency.key_invalid";
+    public static final String IDEMPOTENCY_BODY_TOO_LARGE = "coupon.idempotency.body_too_large";
+    public static final String IDEMPOTENCY_IN_PROGRESS = "coupon.idempotency.in_progress";
+    public static final String IDEMPOTENCY_KEY_REUSED = "coupon.idempotency.key_reused";
+    public static final String QUOTE_APPLICABLE = "coupon.quote.applicable";
+    public static final String QUOTE_AMOUNT_REQUIRED = "coupon.quote.amount_required";
+    public static final String QUOTE_AMOUNT_NEGATIVE = "coupon.quote.amount_negative";
+    public static final String EVENTS_INVALID_OFFSET = "coupon.events.invalid_offset";
+    public static final String EVENTS_INVALID_LIMIT = "coupon.events.invalid_limit";
+    public static final String EVENTS_OFFSET_EXPIRED = "coupon.events.offset_expired";
 }
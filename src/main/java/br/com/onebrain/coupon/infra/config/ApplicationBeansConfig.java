@@ -1,12 +1,35 @@
 package br.com.onebrain.coupon.infra.config;
 
+import br.com.onebrain.coupon.app.port.CouponEventLogPort;
 import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponTimerPort;
+import br.com.onebrain.coupon.app.port.CouponTermsPort;
+import br.com.onebrain.coupon.app.usecase.ApplyCouponSchedulesUseCase;
+import br.com.onebrain.coupon.app.usecase.BulkDeleteCouponsUseCase;
+import br.com.onebrain.coupon.app.usecase.CompactCouponsUseCase;
 import br.com.onebrain.coupon.app.usecase.CreateCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.CouponImportRegistry;
+import br.com.onebrain.coupon.app.usecase.CreateCouponsBatchUseCase;
 import br.com.onebrain.coupon.app.usecase.DeleteCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.GenerateCouponsUseCase;
+import br.com.onebrain.coupon.app.usecase.ImportCouponsUseCase;
+import br.com.onebrain.coupon.app.usecase.PublishCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.QuoteCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.ReadCouponEventsUseCase;
+import br.com.onebrain.coupon.app.usecase.RedeemCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.ScheduleCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.SearchCouponsUseCase;
+import br.com.onebrain.coupon.infra.schedule.CouponScheduleProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
+import java.security.SecureRandom;
 import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
 
 @Configuration
 public class ApplicationBeansConfig
@@ -23,9 +46,161 @@ public class ApplicationBeansConfig
         return new CreateCouponUseCase(repo, clock);
     }
 
+    @Bean
+    public CreateCouponsBatchUseCase createCouponsBatchUseCase(CouponRepositoryPort repo,
+                                                               Clock clock,
+                                                               @Value("${coupon.batch.chunk-size:1000}") int chunkSize)
+    {
+        return new CreateCouponsBatchUseCase(repo, clock, chunkSize);
+    }
+
+    @Bean
+    public CouponImportRegistry couponImportRegistry(Clock clock,
+                                                     @Value("${coupon.import.retained-finished:100}") int retainedFinished)
+    {
+        return new CouponImportRegistry(clock, retainedFinished);
+    }
+
+    @Bean
+    public ImportCouponsUseCase importCouponsUseCase(CouponRepositoryPort repo,
+                                                     CouponImportRegistry registry,
+                                                     Clock clock,
+                                                     ExecutionProperties execution,
+                                                     @Value("${coupon.import.chunk-size:1000}") int chunkSize,
+                                                     @Value("${coupon.import.queue-capacity:4}") int queueCapacity)
+    {
+        ThreadFactory threadFactory = backgroundThreadFactory("coupon-import-", execution);
+
+        return new ImportCouponsUseCase(repo, registry, clock, threadFactory, chunkSize, queueCapacity);
+    }
+
+    @Bean
+    public GenerateCouponsUseCase generateCouponsUseCase(CouponRepositoryPort repo,
+                                                         Clock clock,
+                                                         ExecutionProperties execution,
+                                                         @Value("${coupon.generate.parallelism:0}") int parallelism,
+                                                         @Value("${coupon.generate.chunk-size:1000}") int chunkSize)
+    {
+        return new GenerateCouponsUseCase(
+                repo,
+                clock,
+                // Campaign keys decide every code of the campaign, so they must not be guessable.
+                new SecureRandom(),
+                backgroundThreadFactory("coupon-generate-", execution),
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                chunkSize
+        );
+    }
+
     @Bean
     public DeleteCouponUseCase deleteCouponUseCase(CouponRepositoryPort repo, Clock clock)
     {
         return new DeleteCouponUseCase(repo, clock);
     }
+
+    @Bean
+    public PublishCouponUseCase publishCouponUseCase(CouponRepositoryPort repo, Clock clock)
+    {
+        return new PublishCouponUseCase(repo, clock);
+    }
+
+    @Bean
+    public ScheduleCouponUseCase scheduleCouponUseCase(CouponRepositoryPort repo,
+                                                       CouponTimerPort timers,
+                                                       Clock clock,
+                                                       CouponScheduleProperties schedule)
+    {
+        return new ScheduleCouponUseCase(repo, timers, clock, schedule.enabled());
+    }
+
+    /**
+     * Stands in for {@code CouponTimers} when scheduling is disabled; the use cases never arm
+     * it, since schedule requests are rejected and nothing expires.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "coupon.schedule.enabled", havingValue = "false")
+    public CouponTimerPort disabledCouponTimers()
+    {
+        return schedule -> { };
+    }
+
+    @Bean
+    public ApplyCouponSchedulesUseCase applyCouponSchedulesUseCase(CouponRepositoryPort repo,
+                                                                   CouponTimerPort timers,
+                                                                   Clock clock,
+                                                                   CouponScheduleProperties schedule)
+    {
+        return new ApplyCouponSchedulesUseCase(repo, timers, clock, schedule.batchSize(), schedule.retryDelay());
+    }
+
+    @Bean(destroyMethod = "close")
+    public BulkDeleteCouponsUseCase bulkDeleteCouponsUseCase(CouponRepositoryPort repo,
+                                                             Clock clock,
+                                                             ExecutionProperties execution,
+                                                             @Value("${coupon.delete.batch-size:1000}") int batchSize,
+                                                             @Value("${coupon.delete.linger:200ms}") Duration linger,
+                                                             @Value("${coupon.delete.queue-capacity:100000}") int queueCapacity,
+                                                             @Value("${coupon.delete.max-attempts:3}") int maxAttempts,
+                                                             @Value("${coupon.delete.retry-backoff:500ms}") Duration retryBackoff)
+    {
+        return new BulkDeleteCouponsUseCase(
+                repo,
+                clock,
+                backgroundThreadFactory("coupon-delete-", execution),
+                batchSize,
+                linger,
+                queueCapacity,
+                maxAttempts,
+                retryBackoff
+        );
+    }
+
+    @Bean
+    public CompactCouponsUseCase compactCouponsUseCase(CouponRepositoryPort repo,
+                                                       Clock clock,
+                                                       @Value("${coupon.compaction.deleted-retention:7d}") Duration deletedRetention,
+                                                       @Value("${coupon.compaction.expired-retention:30d}") Duration expiredRetention,
+                                                       @Value("${coupon.compaction.chunk-size:1000}") int chunkSize,
+                                                       @Value("${coupon.compaction.pause:100ms}") Duration pause,
+                                                       @Value("${coupon.compaction.max-run-time:5m}") Duration maxRunTime)
+    {
+        return new CompactCouponsUseCase(repo, clock, deletedRetention, expiredRetention, chunkSize, pause, maxRunTime);
+    }
+
+    @Bean
+    public RedeemCouponUseCase redeemCouponUseCase(CouponRepositoryPort repo, Clock clock)
+    {
+        return new RedeemCouponUseCase(repo, clock);
+    }
+
+    @Bean
+    public QuoteCouponUseCase quoteCouponUseCase(CouponTermsPort terms, Clock clock)
+    {
+        return new QuoteCouponUseCase(terms, clock);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "coupon.storage.type", havingValue = "jpa", matchIfMissing = true)
+    public ReadCouponEventsUseCase readCouponEventsUseCase(CouponEventLogPort eventLog)
+    {
+        return new ReadCouponEventsUseCase(eventLog);
+    }
+
+    @Bean
+    public SearchCouponsUseCase searchCouponsUseCase(CouponRepositoryPort repo)
+    {
+        return new SearchCouponsUseCase(repo);
+    }
+
+    private static ThreadFactory backgroundThreadFactory(String prefix, ExecutionProperties execution)
+    {
+        if (execution.isVirtual())
+        {
+            return VirtualThreads.factory(prefix);
+        }
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
 }
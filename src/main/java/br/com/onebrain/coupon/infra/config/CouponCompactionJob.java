@@ -0,0 +1,51 @@
+package br.com.onebrain.coupon.infra.config;
+
+import br.com.onebrain.coupon.app.usecase.CompactCouponsUseCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Runs {@link CompactCouponsUseCase} on a fixed delay ({@code coupon.compaction.interval}).
+ * Disable with {@code coupon.compaction.enabled=false}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "coupon.compaction.enabled", havingValue = "true", matchIfMissing = true)
+public class CouponCompactionJob
+{
+    private static final Logger log = LoggerFactory.getLogger(CouponCompactionJob.class);
+
+    private final CompactCouponsUseCase compactCouponsUseCase;
+
+    public CouponCompactionJob(CompactCouponsUseCase compactCouponsUseCase)
+    {
+        this.compactCouponsUseCase = compactCouponsUseCase;
+    }
+
+    @Scheduled(
+            initialDelayString = "${coupon.compaction.interval:PT1H}",
+            fixedDelayString = "${coupon.compaction.interval:PT1H}"
+    )
+    public void compact()
+    {
+        try
+        {
+            long archived = compactCouponsUseCase.execute();
+
+            if (archived > 0)
+            {
+                log.info("Archived {} dead coupons at {} rows/s",
+                        archived,
+                        Math.round(compactCouponsUseCase.lastRunRowsPerSecond()));
+            }
+        }
+        catch (RuntimeException e)
+        {
+            log.error("Coupon compaction failed; archived chunks are kept and the next run resumes", e);
+        }
+    }
+}
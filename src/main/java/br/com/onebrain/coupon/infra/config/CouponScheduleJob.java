@@ -0,0 +1,91 @@
+package br.com.onebrain.coupon.infra.config;
+
+import br.com.onebrain.coupon.app.usecase.ApplyCouponSchedulesUseCase;
+import br.com.onebrain.coupon.infra.schedule.CouponTimers;
+import br.com.onebrain.coupon.infra.schedule.DueCoupons;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Drives the publication timers: restores them from storage once the application is up, on
+ * a thread of its own, and advances them every {@code coupon.schedule.tick}, applying the
+ * expired ones in batches. Disable with {@code coupon.schedule.enabled=false}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "coupon.schedule.enabled", havingValue = "true", matchIfMissing = true)
+public class CouponScheduleJob
+{
+    private static final Logger log = LoggerFactory.getLogger(CouponScheduleJob.class);
+
+    private final ApplyCouponSchedulesUseCase applyUseCase;
+    private final CouponTimers timers;
+    private final Clock clock;
+
+    public CouponScheduleJob(ApplyCouponSchedulesUseCase applyUseCase, CouponTimers timers, Clock clock)
+    {
+        this.applyUseCase = applyUseCase;
+        this.timers = timers;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreInBackground()
+    {
+        Thread loader = new Thread(this::restore, "coupon-schedule-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @Scheduled(fixedDelayString = "${coupon.schedule.tick:PT1S}")
+    public void tick()
+    {
+        try
+        {
+            DueCoupons due = timers.advance(Instant.now(clock));
+
+            if (due.isEmpty())
+            {
+                return;
+            }
+
+            int applied = applyUseCase.execute(due.publish(), due.unpublish());
+
+            log.debug("Publication timers expired for {} coupons, {} transitions applied",
+                    due.publish().size() + due.unpublish().size(),
+                    applied);
+        }
+        catch (RuntimeException e)
+        {
+            log.error("Applying expired publication timers failed", e);
+        }
+    }
+
+    void restore()
+    {
+        long started = System.nanoTime();
+
+        try
+        {
+            long restored = applyUseCase.restore();
+
+            log.info("Publication timers restored: {} schedules, {} bytes, {} ms",
+                    restored,
+                    timers.memoryBytes(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        catch (RuntimeException e)
+        {
+            log.error("Publication timers could not be restored; stored schedules wait for the next restart", e);
+        }
+    }
+}
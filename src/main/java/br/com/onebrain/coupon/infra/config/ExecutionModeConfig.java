@@ -0,0 +1,50 @@
+package br.com.onebrain.coupon.infra.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual-thread execution mode ({@code coupon.execution.mode=virtual}). Tomcat hands every
+ * request to a new virtual thread instead of its bounded worker pool, so the use cases and
+ * their JDBC calls run on virtual threads, and so do the async MVC responses (the NDJSON
+ * export). The database pool size then becomes the real concurrency limit.
+ */
+@Configuration
+@ConditionalOnProperty(name = "coupon.execution.mode", havingValue = "virtual")
+public class ExecutionModeConfig
+{
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualRequestExecutor()
+    {
+        return VirtualThreads.perTaskExecutor("http-virtual-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualRequestExecutor)
+    {
+        return protocolHandler -> protocolHandler.setExecutor(virtualRequestExecutor);
+    }
+
+    @Bean
+    public WebMvcConfigurer virtualThreadAsyncSupport(ExecutorService virtualRequestExecutor)
+    {
+        AsyncTaskExecutor asyncExecutor = new TaskExecutorAdapter(virtualRequestExecutor);
+
+        return new WebMvcConfigurer()
+        {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer)
+            {
+                configurer.setTaskExecutor(asyncExecutor);
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.onebrain.coupon.infra.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How request handling and background work are scheduled: on the usual platform thread
+ * pools, or one virtual thread per task (Java 21+).
+ */
+@ConfigurationProperties(prefix = "coupon.execution")
+public record ExecutionProperties(
+        @DefaultValue("platform") Mode mode
+){
+    public enum Mode
+    {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    public boolean isVirtual()
+    {
+        return mode == Mode.VIRTUAL;
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.onebrain.coupon.infra.config;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+
+/**
+ * Local JCache (Caffeine) manager behind the Hibernate second-level cache. The regions are
+ * created here, bounded from {@link SecondLevelCacheProperties}, and handed to Hibernate as
+ * a ready manager, so the sizing lives in the application configuration rather than in a
+ * provider file that would have to be found inside the packaged jar.
+ *
+ * <p>The update timestamps region is deliberately unbounded and never expires: it holds one
+ * entry per table, and losing one would let stale query results through.
+ *
+ * <p>Binds its own properties, so that {@code @DataJpaTest} slices can import it and run
+ * with the same regions as the application.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig
+{
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties)
+    {
+        // A provider of its own, not the JVM-wide one from Caching: every application context
+        // (several in the tests) gets separate regions and closes only its own.
+        CacheManager manager = new CaffeineCachingProvider().getCacheManager();
+
+        manager.createCache(Coupon.CACHE_REGION, bounded(properties.maximumSize(), properties));
+        manager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                bounded(properties.queryResultsMaximumSize(), properties));
+        manager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setStatisticsEnabled(true));
+
+        return manager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager)
+    {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    /**
+     * Size, hits and misses per region ({@code cache.*}, tagged with the region name), next
+     * to Hibernate's {@code hibernate.second.level.cache.requests} and
+     * {@code hibernate.cache.query.requests}.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager)
+    {
+        return registry ->
+        {
+            for (String region : secondLevelCacheManager.getCacheNames())
+            {
+                JCacheMetrics.monitor(registry, secondLevelCacheManager.getCache(region));
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maximumSize, SecondLevelCacheProperties properties)
+    {
+        return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maximumSize))
+                .setExpireAfterWrite(OptionalLong.of(properties.ttl().toNanos()))
+                .setStatisticsEnabled(true);
+    }
+}
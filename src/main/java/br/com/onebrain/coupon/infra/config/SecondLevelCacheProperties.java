@@ -0,0 +1,18 @@
+package br.com.onebrain.coupon.infra.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bounds of the Hibernate second-level cache regions: coupon entities by id and the id lists
+ * of cacheable queries. Whether the cache is used at all is the usual
+ * {@code spring.jpa.properties.hibernate.cache.*} switch.
+ */
+@ConfigurationProperties(prefix = "coupon.second-level-cache")
+public record SecondLevelCacheProperties(
+        @DefaultValue("100000") long maximumSize,
+        @DefaultValue("10m") Duration ttl,
+        @DefaultValue("10000") long queryResultsMaximumSize
+){}
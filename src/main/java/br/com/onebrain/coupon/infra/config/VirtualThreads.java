@@ -0,0 +1,83 @@
+package br.com.onebrain.coupon.infra.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads while the code base still compiles for Java 17. The Java 21 APIs
+ * ({@code Thread.ofVirtual()} and {@code Executors.newThreadPerTaskExecutor}) are looked up
+ * reflectively, so the virtual execution mode fails at startup on older runtimes instead of
+ * at compile time.
+ */
+public final class VirtualThreads
+{
+    private VirtualThreads() {}
+
+    public static boolean isSupported()
+    {
+        try
+        {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        }
+        catch (NoSuchMethodException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Factory of virtual threads named {@code prefix0}, {@code prefix1}, ...
+     */
+    public static ThreadFactory factory(String prefix)
+    {
+        try
+        {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        }
+        catch (NoSuchMethodException | ClassNotFoundException e)
+        {
+            throw unsupported(e);
+        }
+        catch (IllegalAccessException | InvocationTargetException e)
+        {
+            throw new IllegalStateException("Could not create virtual thread factory", e);
+        }
+    }
+
+    /**
+     * Executor that starts a new virtual thread for every task.
+     */
+    public static ExecutorService perTaskExecutor(String prefix)
+    {
+        ThreadFactory factory = factory(prefix);
+
+        try
+        {
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+        }
+        catch (NoSuchMethodException e)
+        {
+            throw unsupported(e);
+        }
+        catch (IllegalAccessException | InvocationTargetException e)
+        {
+            throw new IllegalStateException("Could not create virtual thread executor", e);
+        }
+    }
+
+    private static IllegalStateException unsupported(Exception cause)
+    {
+        return new IllegalStateException(
+                "coupon.execution.mode=virtual requires Java 21 or later, running on " + Runtime.version(), cause);
+    }
+}
@@ -0,0 +1,300 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponCodes;
+import br.com.onebrain.coupon.domain.CouponEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counting Bloom filter of the active codes, consulted before a code lookup goes to the
+ * database. A negative answer is definite, so most lookups for codes that do not exist end
+ * here; a positive one may be false and still needs the lookup. Each position is a 4-bit
+ * counter packed 16 to a long of an {@link AtomicLongArray} and updated with CAS, so the
+ * filter takes no locks and its memory is fixed by the expected number of codes.
+ *
+ * <p>The filter is filled by {@link ActiveCouponIndexLoader} together with the index and kept
+ * up to date from the lifecycle events of each write. Deletions decrement the counters only
+ * once the load has finished: before that the decremented code may not have been added yet,
+ * and a counter dropping below its true value would turn into a false negative. A counter
+ * that saturates stays saturated. Both cases only leave extra positives behind, which show up
+ * in the observed false positive rate. Like {@link ActiveCouponIndex}, it only sees the writes
+ * made through this instance.
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class ActiveCodeFilter implements MeterBinder
+{
+    private static final int COUNTER_BITS = 4;
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private final boolean enabled;
+    private final long counters;
+    private final int hashes;
+    private final AtomicLongArray words;
+
+    private final LongAdder nonZeroCounters = new LongAdder();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile boolean ready;
+
+    public ActiveCodeFilter(ActiveCodeFilterProperties properties)
+    {
+        double p = properties.falsePositiveProbability();
+
+        if (properties.expectedCodes() < 1 || p <= 0 || p >= 1)
+        {
+            throw new IllegalArgumentException("Expected codes must be >= 1 and the probability in (0, 1)");
+        }
+
+        // Optimal sizing for n keys at probability p: m = -n ln p / (ln 2)^2, k = m/n ln 2.
+        long optimal = (long) Math.ceil(-properties.expectedCodes() * Math.log(p) / (Math.log(2) * Math.log(2)));
+        long wordCount = properties.enabled() ? Math.max(1, (optimal + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD) : 1;
+
+        this.enabled = properties.enabled();
+        this.counters = wordCount * COUNTERS_PER_WORD;
+        this.hashes = Math.max(1, (int) Math.round((double) counters / properties.expectedCodes() * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact(wordCount));
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Whether negative answers can be trusted, i.e. the filter is enabled and loaded.
+     */
+    public boolean isReady()
+    {
+        return ready;
+    }
+
+    public void markReady()
+    {
+        ready = enabled;
+    }
+
+    public void add(String normalizedCode)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        long hash = hash(normalizedCode);
+
+        for (int i = 0; i < hashes; i++)
+        {
+            increment(position(hash, i));
+        }
+    }
+
+    public void remove(String normalizedCode)
+    {
+        if (!ready)
+        {
+            return;
+        }
+
+        long hash = hash(normalizedCode);
+
+        for (int i = 0; i < hashes; i++)
+        {
+            decrement(position(hash, i));
+        }
+    }
+
+    /**
+     * Applies the pending lifecycle events of a coupon that was just persisted, so that an
+     * update of an active coupon does not count its code twice.
+     */
+    public void apply(Coupon changed)
+    {
+        for (CouponEvent event : changed.pendingEvents())
+        {
+            switch (event.type())
+            {
+                case CREATED -> add(changed.getCode());
+                case DELETED -> remove(changed.getCode());
+                default -> { }
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} only if the code is certainly not active. A negative answer is
+     * counted; the caller reports a positive that the lookup then disproved with
+     * {@link #recordFalsePositives(long)}.
+     */
+    public boolean mightContain(String normalizedCode)
+    {
+        long hash = hash(normalizedCode);
+
+        for (int i = 0; i < hashes; i++)
+        {
+            if (counter(position(hash, i)) == 0)
+            {
+                negatives.increment();
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public void recordFalsePositives(long count)
+    {
+        falsePositives.add(count);
+    }
+
+    public long negatives()
+    {
+        return negatives.sum();
+    }
+
+    public long falsePositives()
+    {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Share of the absent codes checked so far that the filter could not rule out.
+     */
+    public double falsePositiveRate()
+    {
+        long fp = falsePositives.sum();
+        long total = fp + negatives.sum();
+        return total == 0 ? 0 : (double) fp / total;
+    }
+
+    /**
+     * False positive probability predicted from the share of non-zero counters.
+     */
+    public double expectedFalsePositiveRate()
+    {
+        return Math.pow((double) nonZeroCounters.sum() / counters, hashes);
+    }
+
+    public long memoryBytes()
+    {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    int hashes()
+    {
+        return hashes;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        FunctionCounter.builder("coupon.code_filter.negatives", this, ActiveCodeFilter::negatives)
+                .description("Code lookups answered as absent by the filter, without touching the database")
+                .register(registry);
+
+        FunctionCounter.builder("coupon.code_filter.false_positives", this, ActiveCodeFilter::falsePositives)
+                .description("Code lookups the filter let through for codes that turned out not to be active")
+                .register(registry);
+
+        Gauge.builder("coupon.code_filter.false_positive_rate", this, ActiveCodeFilter::falsePositiveRate)
+                .description("Observed share of absent codes the filter could not rule out")
+                .register(registry);
+
+        Gauge.builder("coupon.code_filter.expected_false_positive_rate", this, ActiveCodeFilter::expectedFalsePositiveRate)
+                .description("False positive probability predicted from the filter occupancy")
+                .register(registry);
+
+        Gauge.builder("coupon.code_filter.memory", this, ActiveCodeFilter::memoryBytes)
+                .description("Bytes held by the active code filter counters")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void increment(long position)
+    {
+        int word = (int) (position / COUNTERS_PER_WORD);
+        int shift = (int) (position % COUNTERS_PER_WORD) * COUNTER_BITS;
+        long current;
+        long count;
+
+        do
+        {
+            current = words.get(word);
+            count = (current >>> shift) & COUNTER_MASK;
+
+            if (count == COUNTER_MASK)
+            {
+                return;
+            }
+        }
+        while (!words.compareAndSet(word, current, current + (1L << shift)));
+
+        if (count == 0)
+        {
+            nonZeroCounters.increment();
+        }
+    }
+
+    private void decrement(long position)
+    {
+        int word = (int) (position / COUNTERS_PER_WORD);
+        int shift = (int) (position % COUNTERS_PER_WORD) * COUNTER_BITS;
+        long current;
+        long count;
+
+        do
+        {
+            current = words.get(word);
+            count = (current >>> shift) & COUNTER_MASK;
+
+            if (count == 0 || count == COUNTER_MASK)
+            {
+                return;
+            }
+        }
+        while (!words.compareAndSet(word, current, current - (1L << shift)));
+
+        if (count == 1)
+        {
+            nonZeroCounters.decrement();
+        }
+    }
+
+    private long counter(long position)
+    {
+        int word = (int) (position / COUNTERS_PER_WORD);
+        int shift = (int) (position % COUNTERS_PER_WORD) * COUNTER_BITS;
+        return (words.get(word) >>> shift) & COUNTER_MASK;
+    }
+
+    /**
+     * Double hashing (Kirsch-Mitzenmacher): position i is {@code h1 + i * h2}, both halves
+     * taken from one 64-bit mix of the encoded code.
+     */
+    private long position(long hash, int i)
+    {
+        long h1 = hash & 0xFFFFFFFFL;
+        long h2 = (hash >>> 32) | 1;
+        return (h1 + i * h2) % counters;
+    }
+
+    private static long hash(String normalizedCode)
+    {
+        long h = Integer.toUnsignedLong(CouponCodes.encode(normalizedCode));
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
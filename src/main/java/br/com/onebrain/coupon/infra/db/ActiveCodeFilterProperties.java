@@ -0,0 +1,11 @@
+package br.com.onebrain.coupon.infra.db;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "coupon.code-filter")
+public record ActiveCodeFilterProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1000000") long expectedCodes,
+        @DefaultValue("0.01") double falsePositiveProbability
+){}
@@ -0,0 +1,581 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponCodes;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory index of the active (not deleted) coupons, keyed by the primitive encoding of
+ * their code ({@link CouponCodes}). Entries live in parallel primitive arrays of an
+ * open-addressing table (linear probing, backward-shift deletion), so an entry costs
+ * {@value #BYTES_PER_SLOT} bytes per slot instead of a String and a managed entity.
+ *
+ * <p>The index is filled at startup by {@link ActiveCouponIndexLoader}, or by the log store's
+ * recovery, and kept up to date by the repository adapter on every write. Until the load finishes it is not
+ * {@linkplain #isReady() ready} and callers must fall back to the database. It only sees the
+ * writes made through this instance, like {@link CouponCache}.
+ */
+@Component
+public class ActiveCouponIndex implements MeterBinder
+{
+    static final int BYTES_PER_SLOT = Integer.BYTES + 3 * Long.BYTES + Integer.BYTES + Byte.BYTES;
+    static final int SNAPSHOT_BYTES_PER_SLOT = Integer.BYTES + Long.BYTES + Integer.BYTES + Byte.BYTES;
+    static final int SEGMENT_SHIFT = 16;
+    static final int SEGMENT_SLOTS = 1 << SEGMENT_SHIFT;
+    static final int SEGMENT_MASK = SEGMENT_SLOTS - 1;
+
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    static final byte FLAG_PUBLISHED = 1;
+
+    private final boolean enabled;
+    private final StampedLock lock = new StampedLock();
+
+    private int[] keys;
+    private long[] idMsb;
+    private long[] idLsb;
+    private long[] discountCents;
+    private int[] expirationEpochDay;
+    private byte[] flags;
+    private int size;
+    private int resizeThreshold;
+    // Version of the last change in each segment of slots, so a snapshot can share the untouched ones.
+    private long[] segmentVersions;
+
+    // Codes removed while the index is not ready, so the loader does not bring back a row it read before the delete.
+    private final Set<Integer> removedBeforeReady = new HashSet<>();
+    private volatile boolean ready;
+    // Bumped under the write lock on every change, so a snapshot can tell whether it is stale.
+    private volatile long version;
+
+    public ActiveCouponIndex(ActiveCouponIndexProperties properties)
+    {
+        this.enabled = properties.enabled();
+        allocate(enabled ? capacityFor(properties.initialCapacity()) : 1);
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public boolean isReady()
+    {
+        return ready;
+    }
+
+    public boolean contains(String normalizedCode)
+    {
+        int key = CouponCodes.encode(normalizedCode);
+        long stamp = lock.tryOptimisticRead();
+        boolean found = slotOf(key) >= 0;
+
+        if (!lock.validate(stamp))
+        {
+            stamp = lock.readLock();
+
+            try
+            {
+                found = slotOf(key) >= 0;
+            }
+            finally
+            {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Applies a coupon that was just persisted: active coupons are inserted or replaced,
+     * deleted ones are removed.
+     */
+    public void put(Coupon coupon)
+    {
+        if (!enabled || coupon.getId() == null)
+        {
+            return;
+        }
+
+        if (coupon.isDeleted())
+        {
+            remove(coupon.getCode(), coupon.getId());
+            return;
+        }
+
+        put(coupon.getId(), coupon.getCode(), coupon.getDiscountValue(), coupon.getExpirationDate(), coupon.isPublished());
+    }
+
+    /**
+     * Same as {@link #put(Coupon)} for an active coupon changed by a set-based update.
+     */
+    public void put(ActiveCouponRow row)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        put(row.id(), row.code(), row.discountValue(), row.expirationDate(), row.published());
+    }
+
+    public void remove(String normalizedCode, UUID id)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        int key = CouponCodes.encode(normalizedCode);
+        long stamp = lock.writeLock();
+
+        try
+        {
+            if (!ready)
+            {
+                removedBeforeReady.add(key);
+            }
+
+            int slot = slotOf(key);
+
+            if (slot >= 0 && idMsb[slot] == id.getMostSignificantBits() && idLsb[slot] == id.getLeastSignificantBits())
+            {
+                delete(slot);
+            }
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Grows the table once so that the expected number of entries fits without rehashing.
+     */
+    public void reserve(long expectedEntries)
+    {
+        long stamp = lock.writeLock();
+
+        try
+        {
+            int capacity = capacityFor(expectedEntries);
+
+            if (capacity > keys.length)
+            {
+                rehash(capacity);
+            }
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds a row read by the loader unless a newer write for the same code already got here first.
+     */
+    public void load(UUID id, String code, BigDecimal discountValue, LocalDate expirationDate, boolean published)
+    {
+        int key = CouponCodes.encode(code);
+        long stamp = lock.writeLock();
+
+        try
+        {
+            if (!removedBeforeReady.contains(key))
+            {
+                insert(key, id, discountValue, expirationDate, published, false);
+            }
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void markReady()
+    {
+        long stamp = lock.writeLock();
+
+        try
+        {
+            removedBeforeReady.clear();
+            ready = true;
+            version++;
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public long version()
+    {
+        return version;
+    }
+
+    public ActiveCouponSnapshot snapshot()
+    {
+        return snapshot(null);
+    }
+
+    /**
+     * Copies the table into an immutable {@link ActiveCouponSnapshot}. The copy keeps the
+     * slot layout, so it costs array copies and no rehashing, and only the segments changed
+     * since {@code previous}, an earlier snapshot of this index, are copied: the others are
+     * shared with it. After a resize, or without a previous snapshot, the whole table is.
+     */
+    public ActiveCouponSnapshot snapshot(ActiveCouponSnapshot previous)
+    {
+        long stamp = lock.readLock();
+
+        try
+        {
+            int capacity = keys.length;
+            int segments = segmentsFor(capacity);
+            boolean shareable = previous != null && previous.capacity() == capacity;
+
+            int[][] keySegments = new int[segments][];
+            long[][] discountSegments = new long[segments][];
+            int[][] expirationSegments = new int[segments][];
+            byte[][] flagSegments = new byte[segments][];
+            long copiedBytes = 0;
+
+            for (int segment = 0; segment < segments; segment++)
+            {
+                if (shareable && segmentVersions[segment] <= previous.version())
+                {
+                    keySegments[segment] = previous.keySegment(segment);
+                    discountSegments[segment] = previous.discountSegment(segment);
+                    expirationSegments[segment] = previous.expirationSegment(segment);
+                    flagSegments[segment] = previous.flagSegment(segment);
+                    continue;
+                }
+
+                int from = segment << SEGMENT_SHIFT;
+                int to = Math.min(capacity, from + SEGMENT_SLOTS);
+
+                keySegments[segment] = Arrays.copyOfRange(keys, from, to);
+                discountSegments[segment] = Arrays.copyOfRange(discountCents, from, to);
+                expirationSegments[segment] = Arrays.copyOfRange(expirationEpochDay, from, to);
+                flagSegments[segment] = Arrays.copyOfRange(flags, from, to);
+                copiedBytes += (long) (to - from) * SNAPSHOT_BYTES_PER_SLOT;
+            }
+
+            return new ActiveCouponSnapshot(
+                    version,
+                    size,
+                    capacity,
+                    keySegments,
+                    discountSegments,
+                    expirationSegments,
+                    flagSegments,
+                    copiedBytes
+            );
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size()
+    {
+        long stamp = lock.readLock();
+
+        try
+        {
+            return size;
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int capacity()
+    {
+        long stamp = lock.readLock();
+
+        try
+        {
+            return keys.length;
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long memoryBytes()
+    {
+        return (long) capacity() * BYTES_PER_SLOT;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder("coupon.index.size", this, ActiveCouponIndex::size)
+                .description("Active coupons held by the in-memory code index")
+                .register(registry);
+
+        Gauge.builder("coupon.index.capacity", this, ActiveCouponIndex::capacity)
+                .description("Slots allocated by the in-memory code index")
+                .register(registry);
+
+        Gauge.builder("coupon.index.memory", this, ActiveCouponIndex::memoryBytes)
+                .description("Bytes held by the in-memory code index arrays")
+                .baseUnit("bytes")
+                .register(registry);
+
+        Gauge.builder("coupon.index.ready", this, index -> index.isReady() ? 1 : 0)
+                .description("Whether the in-memory code index has finished loading")
+                .register(registry);
+    }
+
+    private void put(UUID id, String code, BigDecimal discountValue, LocalDate expirationDate, boolean published)
+    {
+        long stamp = lock.writeLock();
+
+        try
+        {
+            insert(CouponCodes.encode(code), id, discountValue, expirationDate, published, true);
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void insert(int key,
+                        UUID id,
+                        BigDecimal discountValue,
+                        LocalDate expirationDate,
+                        boolean published,
+                        boolean replace)
+    {
+        int slot = slotOf(key);
+
+        if (slot >= 0 && !replace)
+        {
+            return;
+        }
+
+        if (slot < 0)
+        {
+            if (size + 1 > resizeThreshold)
+            {
+                rehash(grow(keys.length));
+            }
+
+            slot = emptySlotFor(key);
+            keys[slot] = key;
+            size++;
+        }
+
+        touch(slot);
+        idMsb[slot] = id.getMostSignificantBits();
+        idLsb[slot] = id.getLeastSignificantBits();
+        discountCents[slot] = discountValue.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        expirationEpochDay[slot] = (int) expirationDate.toEpochDay();
+        flags[slot] = published ? FLAG_PUBLISHED : 0;
+        version++;
+    }
+
+    /**
+     * Probes for the key. Also safe under an optimistic read: the arrays are read once and
+     * the probe is bounded, so a concurrent write can only produce a result that fails validation.
+     */
+    private int slotOf(int key)
+    {
+        int[] table = keys;
+        int capacity = table.length;
+        int slot = home(key, capacity);
+
+        for (int probes = 0; probes < capacity; probes++)
+        {
+            int current = table[slot];
+
+            if (current == key)
+            {
+                return slot;
+            }
+
+            if (current == CouponCodes.NO_CODE)
+            {
+                return -1;
+            }
+
+            slot = next(slot, capacity);
+        }
+
+        return -1;
+    }
+
+    private int emptySlotFor(int key)
+    {
+        int slot = home(key, keys.length);
+
+        while (keys[slot] != CouponCodes.NO_CODE)
+        {
+            slot = next(slot, keys.length);
+        }
+
+        return slot;
+    }
+
+    /**
+     * Backward-shift deletion: pulls later entries of the same probe run into the hole so
+     * that lookups never need tombstones.
+     */
+    private void delete(int hole)
+    {
+        int capacity = keys.length;
+        int slot = hole;
+
+        while (true)
+        {
+            slot = next(slot, capacity);
+            int key = keys[slot];
+
+            if (key == CouponCodes.NO_CODE)
+            {
+                break;
+            }
+
+            int home = home(key, capacity);
+            boolean reachableWithoutHole = hole <= slot
+                    ? hole < home && home <= slot
+                    : hole < home || home <= slot;
+
+            if (reachableWithoutHole)
+            {
+                continue;
+            }
+
+            copy(slot, hole);
+            hole = slot;
+        }
+
+        touch(hole);
+        keys[hole] = CouponCodes.NO_CODE;
+        size--;
+        version++;
+    }
+
+    /**
+     * Marks the segment of a slot as changed by the write in progress, which ends by bumping
+     * the version: any snapshot taken before it has a lower version and cannot share the segment.
+     */
+    private void touch(int slot)
+    {
+        segmentVersions[slot >>> SEGMENT_SHIFT] = version + 1;
+    }
+
+    private void copy(int from, int to)
+    {
+        touch(to);
+        keys[to] = keys[from];
+        idMsb[to] = idMsb[from];
+        idLsb[to] = idLsb[from];
+        discountCents[to] = discountCents[from];
+        expirationEpochDay[to] = expirationEpochDay[from];
+        flags[to] = flags[from];
+    }
+
+    private void rehash(int newCapacity)
+    {
+        int[] oldKeys = keys;
+        long[] oldIdMsb = idMsb;
+        long[] oldIdLsb = idLsb;
+        long[] oldDiscountCents = discountCents;
+        int[] oldExpirationEpochDay = expirationEpochDay;
+        byte[] oldFlags = flags;
+
+        allocate(newCapacity);
+
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] == CouponCodes.NO_CODE)
+            {
+                continue;
+            }
+
+            int slot = emptySlotFor(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            idMsb[slot] = oldIdMsb[i];
+            idLsb[slot] = oldIdLsb[i];
+            discountCents[slot] = oldDiscountCents[i];
+            expirationEpochDay[slot] = oldExpirationEpochDay[i];
+            flags[slot] = oldFlags[i];
+            size++;
+        }
+    }
+
+    private void allocate(int capacity)
+    {
+        int[] newKeys = new int[capacity];
+        Arrays.fill(newKeys, CouponCodes.NO_CODE);
+
+        idMsb = new long[capacity];
+        idLsb = new long[capacity];
+        discountCents = new long[capacity];
+        expirationEpochDay = new int[capacity];
+        flags = new byte[capacity];
+        segmentVersions = new long[segmentsFor(capacity)];
+        size = 0;
+        resizeThreshold = (int) Math.min(capacity - 1L, (long) (capacity * MAX_LOAD_FACTOR));
+        // Published last, so an optimistic reader never sees keys without the other arrays.
+        keys = newKeys;
+    }
+
+    private static int capacityFor(long expectedEntries)
+    {
+        long capacity = (long) Math.ceil(Math.max(1, expectedEntries) / MAX_LOAD_FACTOR) + 1;
+        return (int) Math.min(MAX_CAPACITY, capacity);
+    }
+
+    private static int segmentsFor(int capacity)
+    {
+        return (int) (((long) capacity + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+    }
+
+    private static int grow(int capacity)
+    {
+        if (capacity == MAX_CAPACITY)
+        {
+            throw new IllegalStateException("Active coupon index is full");
+        }
+
+        return (int) Math.min(MAX_CAPACITY, Math.max(16L, capacity * 2L));
+    }
+
+    /**
+     * Maps the mixed key onto {@code [0, capacity)} with a multiply-shift instead of a modulo,
+     * so the capacity does not have to be a power of two and can be sized close to the data.
+     */
+    static int home(int key, int capacity)
+    {
+        int hash = key * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        return (int) (((hash & 0xFFFFFFFFL) * capacity) >>> 32);
+    }
+
+    static int next(int slot, int capacity)
+    {
+        int next = slot + 1;
+        return next == capacity ? 0 : next;
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.onebrain.coupon.infra.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds {@link ActiveCouponIndex} and {@link ActiveCodeFilter} from the database once the
+ * application is up (the log store fills the index during its own recovery instead). Both are
+ * filled from one pass over the active rows, which
+ * runs on its own thread so startup is not held back; until it finishes the adapter keeps
+ * answering from the cache and the database. Writes made meanwhile are applied to both as
+ * usual, so the load only has to add what was already there.
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class ActiveCouponIndexLoader
+{
+    private static final Logger log = LoggerFactory.getLogger(ActiveCouponIndexLoader.class);
+
+    private final ActiveCouponIndex index;
+    private final ActiveCodeFilter filter;
+    private final SpringDataCouponRepository springRepo;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ActiveCouponIndexLoader(ActiveCouponIndex index,
+                                   ActiveCodeFilter filter,
+                                   SpringDataCouponRepository springRepo,
+                                   PlatformTransactionManager transactionManager)
+    {
+        this.index = index;
+        this.filter = filter;
+        this.springRepo = springRepo;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground()
+    {
+        if (!index.isEnabled() && !filter.isEnabled())
+        {
+            return;
+        }
+
+        Thread loader = new Thread(this::load, "coupon-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load()
+    {
+        long started = System.nanoTime();
+
+        try
+        {
+            readOnlyTransaction.executeWithoutResult(status ->
+            {
+                if (index.isEnabled())
+                {
+                    index.reserve(springRepo.countByDeletedFalse());
+                }
+
+                try (Stream<ActiveCouponRow> rows = springRepo.streamActiveRows())
+                {
+                    rows.forEach(this::load);
+                }
+            });
+
+            if (index.isEnabled())
+            {
+                index.markReady();
+            }
+
+            filter.markReady();
+
+            log.info("Active coupon index loaded: {} codes, {} bytes, filter {} bytes, {} ms",
+                    index.size(),
+                    index.memoryBytes(),
+                    filter.memoryBytes(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        catch (RuntimeException e)
+        {
+            log.error("Active coupon index could not be loaded; lookups keep going to the database", e);
+        }
+    }
+
+    private void load(ActiveCouponRow row)
+    {
+        if (index.isEnabled())
+        {
+            index.load(row.id(), row.code(), row.discountValue(), row.expirationDate(), row.published());
+        }
+
+        filter.add(row.code());
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.onebrain.coupon.infra.db;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "coupon.index")
+public record ActiveCouponIndexProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1024") int initialCapacity
+){}
@@ -0,0 +1,16 @@
+package br.com.onebrain.coupon.infra.db;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projection of the columns {@link ActiveCouponIndex} keeps, so loading it does not materialize entities.
+ */
+public record ActiveCouponRow(
+        UUID id,
+        String code,
+        BigDecimal discountValue,
+        LocalDate expirationDate,
+        boolean published
+){}
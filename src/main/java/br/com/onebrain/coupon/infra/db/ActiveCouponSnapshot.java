@@ -0,0 +1,134 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponTerms;
+import br.com.onebrain.coupon.domain.CouponCodes;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Immutable copy of {@link ActiveCouponIndex}, with the same slot layout and probing. Once
+ * published it is never written again, so any number of threads can read it without locks
+ * or validation.
+ *
+ * <p>The slots are split into segments of {@link ActiveCouponIndex#SEGMENT_SLOTS}. A segment
+ * the index did not change since the previous snapshot is shared with it instead of copied,
+ * so a refresh after a few writes copies a few segments rather than the whole table.
+ */
+public final class ActiveCouponSnapshot
+{
+    private final long version;
+    private final int size;
+    private final int capacity;
+    private final int[][] keys;
+    private final long[][] discountCents;
+    private final int[][] expirationEpochDay;
+    private final byte[][] flags;
+    private final long copiedBytes;
+
+    ActiveCouponSnapshot(long version,
+                         int size,
+                         int capacity,
+                         int[][] keys,
+                         long[][] discountCents,
+                         int[][] expirationEpochDay,
+                         byte[][] flags,
+                         long copiedBytes)
+    {
+        this.version = version;
+        this.size = size;
+        this.capacity = capacity;
+        this.keys = keys;
+        this.discountCents = discountCents;
+        this.expirationEpochDay = expirationEpochDay;
+        this.flags = flags;
+        this.copiedBytes = copiedBytes;
+    }
+
+    /**
+     * Version of the index this snapshot was copied from.
+     */
+    public long version()
+    {
+        return version;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    int capacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Bytes held by the segments, shared ones included.
+     */
+    public long memoryBytes()
+    {
+        return (long) capacity * ActiveCouponIndex.SNAPSHOT_BYTES_PER_SLOT;
+    }
+
+    /**
+     * Bytes copied from the index to build this snapshot; the rest is shared with the previous one.
+     */
+    public long copiedBytes()
+    {
+        return copiedBytes;
+    }
+
+    int[] keySegment(int segment)
+    {
+        return keys[segment];
+    }
+
+    long[] discountSegment(int segment)
+    {
+        return discountCents[segment];
+    }
+
+    int[] expirationSegment(int segment)
+    {
+        return expirationEpochDay[segment];
+    }
+
+    byte[] flagSegment(int segment)
+    {
+        return flags[segment];
+    }
+
+    public Optional<CouponTerms> find(String normalizedCode)
+    {
+        int key = CouponCodes.encode(normalizedCode);
+        int slot = ActiveCouponIndex.home(key, capacity);
+
+        for (int probes = 0; probes < capacity; probes++)
+        {
+            int segment = slot >>> ActiveCouponIndex.SEGMENT_SHIFT;
+            int offset = slot & ActiveCouponIndex.SEGMENT_MASK;
+            int current = keys[segment][offset];
+
+            if (current == key)
+            {
+                return Optional.of(new CouponTerms(
+                        normalizedCode,
+                        BigDecimal.valueOf(discountCents[segment][offset], 2),
+                        LocalDate.ofEpochDay(expirationEpochDay[segment][offset]),
+                        (flags[segment][offset] & ActiveCouponIndex.FLAG_PUBLISHED) != 0
+                ));
+            }
+
+            if (current == CouponCodes.NO_CODE)
+            {
+                break;
+            }
+
+            slot = ActiveCouponIndex.next(slot, capacity);
+        }
+
+        return Optional.empty();
+    }
+}
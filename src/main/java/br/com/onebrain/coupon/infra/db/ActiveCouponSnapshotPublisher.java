@@ -0,0 +1,179 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponTerms;
+import br.com.onebrain.coupon.app.port.CouponTermsPort;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves coupon terms from an immutable {@link ActiveCouponSnapshot} of the
+ * {@link ActiveCouponIndex}. A background thread checks the index version every interval and
+ * swaps in a fresh copy when it changed, so bursts of writes cost one copy and readers never
+ * take a lock, open a session or load an entity. Answers can lag the latest write by about
+ * one interval.
+ *
+ * <p>Each copy shares the segments no write touched with the snapshot it replaces, so its cost
+ * follows how scattered the writes were, not the size of the index: a single write copies one
+ * segment (about 1.1MB), while writes spread over the whole table still copy all of it,
+ * {@value ActiveCouponIndex#SNAPSHOT_BYTES_PER_SLOT} bytes per slot, next to the snapshot
+ * still in use. The bytes copied and the time spent are exported as metrics.
+ *
+ * <p>Until the index is ready, or when it is disabled, lookups go to the repository instead.
+ */
+@Component
+public class ActiveCouponSnapshotPublisher implements CouponTermsPort, MeterBinder, AutoCloseable
+{
+    private static final Logger log = LoggerFactory.getLogger(ActiveCouponSnapshotPublisher.class);
+
+    private final ActiveCouponIndex index;
+    private final CouponRepositoryPort repository;
+    private final AtomicReference<ActiveCouponSnapshot> current = new AtomicReference<>();
+    private final ScheduledExecutorService refresher;
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshNanos = new LongAdder();
+    private final LongAdder copiedBytes = new LongAdder();
+
+    public ActiveCouponSnapshotPublisher(ActiveCouponIndex index,
+                                         CouponRepositoryPort repository,
+                                         @Value("${coupon.quote.snapshot-interval:50ms}") Duration interval)
+    {
+        this.index = index;
+        this.repository = repository;
+
+        if (!index.isEnabled())
+        {
+            this.refresher = null;
+            return;
+        }
+
+        this.refresher = Executors.newSingleThreadScheduledExecutor(task ->
+        {
+            Thread thread = new Thread(task, "coupon-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long intervalNanos = interval.toNanos();
+        refresher.scheduleWithFixedDelay(this::refresh, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Optional<CouponTerms> findActiveTerms(String normalizedCode)
+    {
+        ActiveCouponSnapshot snapshot = current.get();
+
+        if (snapshot != null)
+        {
+            return snapshot.find(normalizedCode);
+        }
+
+        return repository.findActiveByCode(normalizedCode)
+                .map(coupon -> new CouponTerms(
+                        coupon.getCode(),
+                        coupon.getDiscountValue(),
+                        coupon.getExpirationDate(),
+                        coupon.isPublished()
+                ));
+    }
+
+    /**
+     * Publishes a new snapshot if the index changed since the last one.
+     */
+    void refresh()
+    {
+        try
+        {
+            ActiveCouponSnapshot snapshot = current.get();
+
+            if (!index.isReady() || snapshot != null && snapshot.version() == index.version())
+            {
+                return;
+            }
+
+            long started = System.nanoTime();
+            ActiveCouponSnapshot refreshed = index.snapshot(snapshot);
+            current.set(refreshed);
+
+            refreshNanos.add(System.nanoTime() - started);
+            refreshes.increment();
+            copiedBytes.add(refreshed.copiedBytes());
+        }
+        catch (RuntimeException e)
+        {
+            // Keep the scheduled task alive; the previous snapshot stays in use.
+            log.error("Active coupon snapshot could not be refreshed", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder("coupon.quote.snapshot.size", this, ActiveCouponSnapshotPublisher::snapshotSize)
+                .description("Active coupons in the published quote snapshot")
+                .register(registry);
+
+        Gauge.builder("coupon.quote.snapshot.lag", this, ActiveCouponSnapshotPublisher::snapshotLag)
+                .description("Index changes not yet visible in the quote snapshot")
+                .register(registry);
+
+        Gauge.builder("coupon.quote.snapshot.memory", this, ActiveCouponSnapshotPublisher::snapshotMemory)
+                .description("Bytes held by the published quote snapshot")
+                .baseUnit("bytes")
+                .register(registry);
+
+        FunctionCounter.builder("coupon.quote.snapshot.copied", copiedBytes, LongAdder::sum)
+                .description("Bytes copied from the index to build quote snapshots")
+                .baseUnit("bytes")
+                .register(registry);
+
+        FunctionTimer.builder("coupon.quote.snapshot.refresh", this,
+                        publisher -> publisher.refreshes.sum(),
+                        publisher -> publisher.refreshNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("Time spent copying the index into new quote snapshots")
+                .register(registry);
+    }
+
+    @Override
+    public void close()
+    {
+        if (refresher != null)
+        {
+            refresher.shutdownNow();
+        }
+    }
+
+    private int snapshotSize()
+    {
+        ActiveCouponSnapshot snapshot = current.get();
+        return snapshot == null ? 0 : snapshot.size();
+    }
+
+    private long snapshotMemory()
+    {
+        ActiveCouponSnapshot snapshot = current.get();
+        return snapshot == null ? 0 : snapshot.memoryBytes();
+    }
+
+    private long snapshotLag()
+    {
+        ActiveCouponSnapshot snapshot = current.get();
+        return snapshot == null ? 0 : index.version() - snapshot.version();
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Row of {@code coupons_archive}: a deleted or long-expired coupon moved out of the live
+ * table by {@link CouponArchiveRepository}. Only ever written with set-based statements.
+ */
+@Entity
+@Table(
+        name = "coupons_archive",
+        indexes = @Index(name = "idx_coupons_archive_code", columnList = "code")
+)
+public class ArchivedCoupon
+{
+    @Id
+    private UUID id;
+
+    @Column(name = "code", nullable = false, length = Coupon.MAXIMUM_CHARACTER_SIZE)
+    private String code;
+
+    @Column(name = "description", nullable = false, length = 255)
+    private String description;
+
+    @Column(name = "discount_value", nullable = false, precision = 11, scale = 2)
+    private BigDecimal discountValue;
+
+    @Column(name = "expiration_date", nullable = false)
+    private LocalDate expirationDate;
+
+    @Column(name = "published", nullable = false)
+    private boolean published;
+
+    @Column(name = "max_usages")
+    private Integer maxUsages;
+
+    @Column(name = "usage_count", nullable = false)
+    private int usageCount;
+
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    protected ArchivedCoupon() {}
+
+    public UUID getId() { return id; }
+    public String getCode() { return code; }
+    public String getDescription() { return description; }
+    public BigDecimal getDiscountValue() { return discountValue; }
+    public LocalDate getExpirationDate() { return expirationDate; }
+    public boolean isPublished() { return published; }
+    public Integer getMaxUsages() { return maxUsages; }
+    public int getUsageCount() { return usageCount; }
+    public boolean isDeleted() { return deleted; }
+    public Instant getDeletedAt() { return deletedAt; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public Instant getArchivedAt() { return archivedAt; }
+}
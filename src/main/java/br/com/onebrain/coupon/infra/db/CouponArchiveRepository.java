@@ -0,0 +1,65 @@
+package br.com.onebrain.coupon.infra.db;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves dead coupons from {@code coupons} to {@code coupons_archive}. Each chunk is copied
+ * and purged in one transaction, so an interrupted run never loses or duplicates a row and
+ * the next run simply picks up whatever is still dead in the live table.
+ */
+@Repository
+public class CouponArchiveRepository
+{
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public List<CouponKey> findDead(Instant deletedBefore, LocalDate expiredBefore, int limit)
+    {
+        return entityManager.createQuery("""
+                        select new br.com.onebrain.coupon.infra.db.CouponKey(c.id, c.code)
+                          from Coupon c
+                         where (c.deleted = true and c.deletedAt < :deletedBefore)
+                            or c.expirationDate < :expiredBefore
+                        """, CouponKey.class)
+                .setParameter("deletedBefore", deletedBefore)
+                .setParameter("expiredBefore", expiredBefore)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Neither statement empties the coupon cache region: the copy only writes the archive,
+     * and the purge evicts just the coupons it removes.
+     *
+     * @return how many rows were moved; rows already gone from the live table are ignored.
+     */
+    @Transactional
+    public int moveToArchive(Collection<UUID> ids, Instant archivedAt)
+    {
+        entityManager.createQuery("""
+                        insert into ArchivedCoupon (
+                               id, code, description, discountValue, expirationDate, published, maxUsages,
+                               usageCount, deleted, deletedAt, createdAt, updatedAt, archivedAt)
+                        select c.id, c.code, c.description, c.discountValue, c.expirationDate, c.published, c.maxUsages,
+                               c.usageCount, c.deleted, c.deletedAt, c.createdAt, c.updatedAt, :archivedAt
+                          from Coupon c
+                         where c.id in :ids
+                        """)
+                .setParameter("archivedAt", archivedAt)
+                .setParameter("ids", ids)
+                .executeUpdate();
+
+        return CouponNativeWrites.execute(entityManager, "delete from coupons where id in (:ids)", ids, true,
+                query -> query.setParameter("ids", ids));
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of active coupons, keyed by id and by normalized code.
+ * Misses are cached as {@link Optional#empty()} with a shorter TTL, and hits never
+ * outlive the end of the coupon's expiration date.
+ *
+ * <p>Loads run on the calling thread but outside of the cache's map locks: the map only ever
+ * holds a pending future, so a database call never happens inside a {@code synchronized}
+ * block and cannot pin the carrier of a virtual thread. Concurrent misses for the same key
+ * still wait for a single load, and an eviction during a load drops its result.
+ */
+@Component
+public class CouponCache implements MeterBinder
+{
+    private final AsyncCache<UUID, Optional<Coupon>> activeById;
+    private final AsyncCache<String, Optional<Coupon>> activeByCode;
+
+    public CouponCache(CouponCacheProperties properties)
+    {
+        this.activeById = newCache(properties);
+        this.activeByCode = newCache(properties);
+    }
+
+    public Optional<Coupon> getById(UUID id, Function<UUID, Optional<Coupon>> loader)
+    {
+        return get(activeById, id, loader);
+    }
+
+    public Optional<Coupon> getByCode(String normalizedCode, Function<String, Optional<Coupon>> loader)
+    {
+        return get(activeByCode, normalizedCode, loader);
+    }
+
+    public void evict(Coupon coupon)
+    {
+        evict(coupon.getId(), coupon.getCode());
+    }
+
+    public void evict(UUID id, String normalizedCode)
+    {
+        if (id != null)
+        {
+            activeById.synchronous().invalidate(id);
+        }
+
+        activeByCode.synchronous().invalidate(normalizedCode);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        CaffeineCacheMetrics.monitor(registry, activeById, "coupons.active.by-id");
+        CaffeineCacheMetrics.monitor(registry, activeByCode, "coupons.active.by-code");
+    }
+
+    private static <K> Optional<Coupon> get(AsyncCache<K, Optional<Coupon>> cache,
+                                            K key,
+                                            Function<K, Optional<Coupon>> loader)
+    {
+        CompletableFuture<Optional<Coupon>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<Coupon>> cached = cache.get(key, (k, executor) -> pending);
+
+        if (cached == pending)
+        {
+            try
+            {
+                pending.complete(loader.apply(key));
+            }
+            catch (RuntimeException e)
+            {
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try
+        {
+            return cached.join();
+        }
+        catch (CompletionException e)
+        {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private static <K> AsyncCache<K, Optional<Coupon>> newCache(CouponCacheProperties properties)
+    {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new CouponExpiry<K>(properties.ttl(), properties.negativeTtl()))
+                .recordStats()
+                .buildAsync();
+    }
+
+    private record CouponExpiry<K>(Duration ttl, Duration negativeTtl) implements Expiry<K, Optional<Coupon>>
+    {
+        @Override
+        public long expireAfterCreate(K key, Optional<Coupon> value, long currentTime)
+        {
+            if (value.isEmpty())
+            {
+                return negativeTtl.toNanos();
+            }
+
+            Instant endOfValidity = value.get().getExpirationDate()
+                    .plusDays(1)
+                    .atStartOfDay(ZoneOffset.UTC)
+                    .toInstant();
+
+            Duration untilExpired = Duration.between(Instant.now(), endOfValidity);
+
+            return Math.max(0, Math.min(ttl.toNanos(), untilExpired.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, Optional<Coupon> value, long currentTime, long currentDuration)
+        {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, Optional<Coupon> value, long currentTime, long currentDuration)
+        {
+            return currentDuration;
+        }
+    }
+}
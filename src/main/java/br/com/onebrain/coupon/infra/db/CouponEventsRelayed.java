@@ -0,0 +1,18 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponFeedEvent;
+
+import java.util.List;
+
+/**
+ * Published by {@link CouponOutboxRelay} after a batch got its feed offsets and committed.
+ *
+ * @param events the batch, with consecutive offsets.
+ */
+public record CouponEventsRelayed(List<CouponFeedEvent> events)
+{
+    public long lastOffset()
+    {
+        return events.get(events.size() - 1).offset();
+    }
+}
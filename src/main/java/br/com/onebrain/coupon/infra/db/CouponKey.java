@@ -0,0 +1,5 @@
+package br.com.onebrain.coupon.infra.db;
+
+import java.util.UUID;
+
+public record CouponKey(UUID id, String code) {}
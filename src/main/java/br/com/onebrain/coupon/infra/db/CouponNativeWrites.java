@@ -0,0 +1,99 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Writes to {@code coupons} that keep the rest of the second-level cache warm.
+ *
+ * <p>Hibernate takes an HQL bulk update, or a native one synchronized on the table, as a
+ * change to any row: it empties the whole coupon region and bumps the table's update
+ * timestamp, which drops every cached {@code findByActiveCode} result. With one such update
+ * per redemption neither cache stays warm under load. These statements are synchronized on
+ * a query space nothing else uses, so Hibernate leaves both alone, and instead:
+ * <ul>
+ *     <li>only the rows written leave the coupon region, before the statement and again once
+ *     the transaction completes, so a read in between cannot leave the old state behind;</li>
+ *     <li>the table's update timestamp is bumped, the same two times, only by statements that
+ *     can change an active code, which is all the cached code lookups depend on.</li>
+ * </ul>
+ */
+final class CouponNativeWrites
+{
+    /**
+     * Not a table. Matches no entity and no cached query, so Hibernate has nothing to evict.
+     */
+    static final String QUERY_SPACE = "coupons#rows";
+
+    private CouponNativeWrites()
+    {
+    }
+
+    /**
+     * @param ids               every row the statement can write
+     * @param changesActiveCodes whether the statement can set or clear an active code
+     * @return the number of rows written
+     */
+    static int execute(EntityManager entityManager,
+                       String sql,
+                       Collection<UUID> ids,
+                       boolean changesActiveCodes,
+                       Consumer<NativeQuery<?>> parameters)
+    {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        CacheImplementor cache = factory.getCache();
+        String[] tables = changesActiveCodes && factory.getSessionFactoryOptions().isQueryCacheEnabled()
+                ? tablesOf(factory)
+                : null;
+
+        evict(cache, ids);
+
+        if (tables != null)
+        {
+            cache.getTimestampsCache().preInvalidate(tables, session);
+        }
+
+        NativeQuery<?> query = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(QUERY_SPACE);
+        parameters.accept(query);
+        int rows = query.executeUpdate();
+
+        session.getActionQueue().registerProcess((success, completed) ->
+        {
+            evict(cache, ids);
+
+            if (tables != null)
+            {
+                cache.getTimestampsCache().invalidate(tables, completed);
+            }
+        });
+
+        return rows;
+    }
+
+    private static void evict(CacheImplementor cache, Collection<UUID> ids)
+    {
+        for (UUID id : ids)
+        {
+            cache.evictEntityData(Coupon.class, id);
+        }
+    }
+
+    private static String[] tablesOf(SessionFactoryImplementor factory)
+    {
+        Serializable[] spaces = factory.getMappingMetamodel().getEntityDescriptor(Coupon.class).getQuerySpaces();
+        return Arrays.copyOf(spaces, spaces.length, String[].class);
+    }
+}
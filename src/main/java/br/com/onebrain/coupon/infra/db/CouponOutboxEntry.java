@@ -0,0 +1,96 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponFeedEvent;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponEventType;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Row of {@code coupon_outbox}: a coupon lifecycle event written in the same transaction as
+ * the change itself. {@code feedOffset} stays {@code null} until {@link CouponOutboxRelay}
+ * publishes the row; from then on the row is part of the change feed.
+ *
+ * <p>Ids come from a pooled sequence rather than an identity column, so that the inserts
+ * of a batch can go out as one JDBC batch.
+ */
+@Entity
+@Table(
+        name = "coupon_outbox",
+        indexes = @Index(name = "idx_coupon_outbox_feed_offset", columnList = "feed_offset", unique = true)
+)
+public class CouponOutboxEntry
+{
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "coupon_outbox_seq")
+    @SequenceGenerator(name = "coupon_outbox_seq", sequenceName = "coupon_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private CouponEventType type;
+
+    @Column(name = "coupon_id", nullable = false)
+    private UUID couponId;
+
+    @Column(name = "code", nullable = false, length = Coupon.MAXIMUM_CHARACTER_SIZE)
+    private String code;
+
+    @Column(name = "discount_value", nullable = false, precision = 11, scale = 2)
+    private BigDecimal discountValue;
+
+    @Column(name = "expiration_date", nullable = false)
+    private LocalDate expirationDate;
+
+    @Column(name = "published", nullable = false)
+    private boolean published;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @Column(name = "feed_offset")
+    private Long feedOffset;
+
+    protected CouponOutboxEntry() {}
+
+    CouponOutboxEntry(CouponEventType type,
+                      UUID couponId,
+                      String code,
+                      BigDecimal discountValue,
+                      LocalDate expirationDate,
+                      boolean published,
+                      Instant occurredAt)
+    {
+        this.type = type;
+        this.couponId = couponId;
+        this.code = code;
+        this.discountValue = discountValue;
+        this.expirationDate = expirationDate;
+        this.published = published;
+        this.occurredAt = occurredAt;
+    }
+
+    void assignOffset(long offset)
+    {
+        this.feedOffset = offset;
+    }
+
+    CouponFeedEvent toFeedEvent()
+    {
+        return new CouponFeedEvent(feedOffset, type, couponId, code, discountValue, expirationDate, published, occurredAt);
+    }
+
+    public Long getId() { return id; }
+    public CouponEventType getType() { return type; }
+    public UUID getCouponId() { return couponId; }
+    public String getCode() { return code; }
+    public BigDecimal getDiscountValue() { return discountValue; }
+    public LocalDate getExpirationDate() { return expirationDate; }
+    public boolean isPublished() { return published; }
+    public Instant getOccurredAt() { return occurredAt; }
+    public Long getFeedOffset() { return feedOffset; }
+}
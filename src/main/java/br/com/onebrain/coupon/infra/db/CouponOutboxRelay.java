@@ -0,0 +1,202 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponFeedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves outbox rows onto the change feed. Every interval a single thread takes the
+ * unpublished rows in insertion order, a batch at a time, gives them the next consecutive
+ * feed offsets in one transaction and then announces the batch with a
+ * {@link CouponEventsRelayed} application event.
+ *
+ * <p>Offsets are assigned here rather than by the database so that they follow relay order:
+ * a transaction that commits late is simply picked up by a later pass, and the feed never
+ * has a hole for a consumer to skip over. This assumes a single relay per database.
+ *
+ * <p>Published rows older than the retention are trimmed from the front of the feed.
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class CouponOutboxRelay implements MeterBinder, AutoCloseable
+{
+    private static final Logger log = LoggerFactory.getLogger(CouponOutboxRelay.class);
+    private static final Duration PURGE_EVERY = Duration.ofMinutes(1);
+
+    private final CouponOutboxRepository outbox;
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher publisher;
+    private final Clock clock;
+    private final Duration interval;
+    private final int batchSize;
+    private final Duration retention;
+
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+    private ScheduledExecutorService executor;
+    private volatile long lastOffset = -1;
+    private Instant lastPurge = Instant.EPOCH;
+
+    public CouponOutboxRelay(CouponOutboxRepository outbox,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher publisher,
+                             Clock clock,
+                             @Value("${coupon.events.relay-interval:100ms}") Duration interval,
+                             @Value("${coupon.events.batch-size:500}") int batchSize,
+                             @Value("${coupon.events.retention:7d}") Duration retention)
+    {
+        if (batchSize < 1)
+        {
+            throw new IllegalArgumentException("Batch size must be >= 1");
+        }
+
+        this.outbox = outbox;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.publisher = publisher;
+        this.clock = clock;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start()
+    {
+        if (executor != null)
+        {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(task ->
+        {
+            Thread thread = new Thread(task, "coupon-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long intervalNanos = interval.toNanos();
+        executor.scheduleWithFixedDelay(this::runOnce, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Publishes everything that is pending, then trims the feed if a purge is due.
+     *
+     * @return how many events were published.
+     */
+    public synchronized int relayPending()
+    {
+        if (lastOffset < 0)
+        {
+            lastOffset = outbox.findLastOffset();
+        }
+
+        int total = 0;
+        List<CouponFeedEvent> batch;
+
+        do
+        {
+            long first = lastOffset + 1;
+            batch = transaction.execute(status -> assignOffsets(first));
+
+            if (!batch.isEmpty())
+            {
+                lastOffset += batch.size();
+                total += batch.size();
+                relayed.add(batch.size());
+                publisher.publishEvent(new CouponEventsRelayed(batch));
+            }
+        }
+        while (batch.size() == batchSize);
+
+        purgeIfDue();
+        return total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        FunctionCounter.builder("coupon.events.relayed", relayed, LongAdder::sum)
+                .description("Outbox events published on the coupon change feed")
+                .register(registry);
+
+        FunctionCounter.builder("coupon.events.purged", purged, LongAdder::sum)
+                .description("Feed events trimmed after the retention period")
+                .register(registry);
+
+        Gauge.builder("coupon.events.offset", this, relay -> relay.lastOffset)
+                .description("Offset of the last event published on the change feed")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<CouponFeedEvent> assignOffsets(long firstOffset)
+    {
+        List<CouponOutboxEntry> entries = outbox.findUnrelayed(batchSize);
+        List<CouponFeedEvent> events = new ArrayList<>(entries.size());
+        long offset = firstOffset;
+
+        for (CouponOutboxEntry entry : entries)
+        {
+            entry.assignOffset(offset++);
+            events.add(entry.toFeedEvent());
+        }
+
+        return events;
+    }
+
+    private void purgeIfDue()
+    {
+        Instant now = Instant.now(clock);
+
+        if (Duration.between(lastPurge, now).compareTo(PURGE_EVERY) < 0)
+        {
+            return;
+        }
+
+        lastPurge = now;
+        purged.add(outbox.purgeRelayedBefore(now.minus(retention)));
+    }
+
+    private void runOnce()
+    {
+        try
+        {
+            relayPending();
+        }
+        catch (RuntimeException e)
+        {
+            // Nothing was published for the failed batch; the next pass retries it.
+            log.error("Coupon outbox relay failed", e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponEventLogPort;
+import br.com.onebrain.coupon.app.port.CouponFeedEvent;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponEvent;
+import br.com.onebrain.coupon.domain.CouponEventType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The transactional outbox behind the coupon change feed. Writes join the caller's
+ * transaction, so an event exists exactly when the change it describes was committed;
+ * {@link CouponOutboxRelay} later gives each row its feed offset.
+ */
+@Repository
+@ConditionalOnProperty(name = "coupon.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class CouponOutboxRepository implements CouponEventLogPort
+{
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Appends the pending events of {@code changed} with the state of {@code saved}, which is
+     * the same coupon or the managed copy a merge returned.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Coupon changed, Coupon saved)
+    {
+        for (CouponEvent event : changed.pendingEvents())
+        {
+            entityManager.persist(new CouponOutboxEntry(
+                    event.type(),
+                    saved.getId(),
+                    saved.getCode(),
+                    saved.getDiscountValue(),
+                    saved.getExpirationDate(),
+                    saved.isPublished(),
+                    event.occurredAt()
+            ));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendDeleted(List<ActiveCouponRow> rows, Instant deletedAt)
+    {
+        for (ActiveCouponRow row : rows)
+        {
+            entityManager.persist(new CouponOutboxEntry(
+                    CouponEventType.DELETED,
+                    row.id(),
+                    row.code(),
+                    row.discountValue(),
+                    row.expirationDate(),
+                    row.published(),
+                    deletedAt
+            ));
+        }
+    }
+
+    /**
+     * Appends a {@link CouponEventType#PUBLISHED} or {@link CouponEventType#UNPUBLISHED} event
+     * for each row, according to the published state the row already carries.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendPublications(List<ActiveCouponRow> rows, Instant occurredAt)
+    {
+        for (ActiveCouponRow row : rows)
+        {
+            entityManager.persist(new CouponOutboxEntry(
+                    row.published() ? CouponEventType.PUBLISHED : CouponEventType.UNPUBLISHED,
+                    row.id(),
+                    row.code(),
+                    row.discountValue(),
+                    row.expirationDate(),
+                    row.published(),
+                    occurredAt
+            ));
+        }
+    }
+
+    /**
+     * Oldest rows that have no feed offset yet, in insertion order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<CouponOutboxEntry> findUnrelayed(int limit)
+    {
+        return entityManager.createQuery("""
+                        select e
+                          from CouponOutboxEntry e
+                         where e.feedOffset is null
+                         order by e.id
+                        """, CouponOutboxEntry.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Transactional(readOnly = true)
+    public long findLastOffset()
+    {
+        Long last = entityManager.createQuery("select max(e.feedOffset) from CouponOutboxEntry e", Long.class)
+                .getSingleResult();
+
+        return last == null ? 0 : last;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CouponFeedEvent> readAfter(long after, int limit)
+    {
+        return entityManager.createQuery("""
+                        select e
+                          from CouponOutboxEntry e
+                         where e.feedOffset > :after
+                         order by e.feedOffset
+                        """, CouponOutboxEntry.class)
+                .setParameter("after", after)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(CouponOutboxEntry::toFeedEvent)
+                .toList();
+    }
+
+    /**
+     * Trims published events that occurred before {@code before} from the front of the feed.
+     * The last published event is always kept, so that a consumer behind the trimmed range
+     * still sees the gap instead of an empty, seemingly caught-up feed.
+     *
+     * @return how many rows were deleted.
+     */
+    @Transactional
+    public int purgeRelayedBefore(Instant before)
+    {
+        Long upTo = entityManager.createQuery("""
+                        select max(e.feedOffset)
+                          from CouponOutboxEntry e
+                         where e.feedOffset is not null
+                           and e.occurredAt < :before
+                        """, Long.class)
+                .setParameter("before", before)
+                .getSingleResult();
+
+        if (upTo == null)
+        {
+            return 0;
+        }
+
+        return entityManager.createQuery("""
+                        delete from CouponOutboxEntry e
+                         where e.feedOffset <= :upTo
+                           and e.feedOffset < (select max(l.feedOffset) from CouponOutboxEntry l)
+                        """)
+                .setParameter("upTo", upTo)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponCursor;
+import br.com.onebrain.coupon.app.port.CouponSearchCriteria;
+import br.com.onebrain.coupon.domain.Coupon;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface CouponQueries
+{
+    List<Coupon> search(CouponSearchCriteria criteria, CouponCursor after, int limit);
+
+    /**
+     * Streams matching coupons in keyset order. Must be consumed inside a transaction,
+     * and every row is detached once read, so the persistence context does not grow.
+     */
+    Stream<Coupon> streamMatching(CouponSearchCriteria criteria);
+}
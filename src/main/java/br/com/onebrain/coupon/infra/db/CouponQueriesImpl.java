@@ -0,0 +1,94 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponCursor;
+import br.com.onebrain.coupon.app.port.CouponSearchCriteria;
+import br.com.onebrain.coupon.domain.Coupon;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.AvailableHints;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+class CouponQueriesImpl implements CouponQueries
+{
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Coupon> search(CouponSearchCriteria criteria, CouponCursor after, int limit)
+    {
+        return buildQuery(criteria, after)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Coupon> streamMatching(CouponSearchCriteria criteria)
+    {
+        return buildQuery(criteria, null)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    private TypedQuery<Coupon> buildQuery(CouponSearchCriteria criteria, CouponCursor after)
+    {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Coupon> query = cb.createQuery(Coupon.class);
+        Root<Coupon> root = query.from(Coupon.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (criteria.published() != null)
+        {
+            predicates.add(cb.equal(root.get("published"), criteria.published()));
+        }
+
+        if (criteria.deleted() != null)
+        {
+            predicates.add(cb.equal(root.get("deleted"), criteria.deleted()));
+        }
+
+        if (criteria.expiresFrom() != null)
+        {
+            predicates.add(cb.greaterThanOrEqualTo(root.<LocalDate>get("expirationDate"), criteria.expiresFrom()));
+        }
+
+        if (criteria.expiresTo() != null)
+        {
+            predicates.add(cb.lessThanOrEqualTo(root.<LocalDate>get("expirationDate"), criteria.expiresTo()));
+        }
+
+        if (criteria.codePrefix() != null)
+        {
+            predicates.add(cb.like(root.get("code"), criteria.codePrefix() + "%"));
+        }
+
+        if (after != null)
+        {
+            Path<Instant> createdAt = root.get("createdAt");
+            Path<UUID> id = root.get("id");
+
+            predicates.add(cb.or(
+                    cb.greaterThan(createdAt, after.createdAt()),
+                    cb.and(cb.equal(createdAt, after.createdAt()), cb.greaterThan(id, after.id()))
+            ));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get("createdAt")), cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query);
+    }
+}
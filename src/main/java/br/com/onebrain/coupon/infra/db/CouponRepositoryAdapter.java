@@ -1,37 +1,451 @@
 package br.com.onebrain.coupon.infra.db;
 
+import br.com.onebrain.coupon.app.port.CouponCursor;
 import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponSchedule;
+import br.com.onebrain.coupon.app.port.CouponSearchCriteria;
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
 import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
+@ConditionalOnProperty(name = "coupon.storage.type", havingValue = "jpa", matchIfMissing = true)
 public class CouponRepositoryAdapter implements CouponRepositoryPort
 {
     private final SpringDataCouponRepository springRepo;
+    private final CouponCache cache;
+    private final ActiveCouponIndex index;
+    private final ActiveCodeFilter filter;
+    private final CouponArchiveRepository archiveRepo;
+    private final CouponOutboxRepository outbox;
+    private final TransactionTemplate transaction;
 
-    public CouponRepositoryAdapter(SpringDataCouponRepository springRepo)
+    public CouponRepositoryAdapter(SpringDataCouponRepository springRepo,
+                                   CouponCache cache,
+                                   ActiveCouponIndex index,
+                                   ActiveCodeFilter filter,
+                                   CouponArchiveRepository archiveRepo,
+                                   CouponOutboxRepository outbox,
+                                   PlatformTransactionManager transactionManager)
     {
         this.springRepo = springRepo;
+        this.cache = cache;
+        this.index = index;
+        this.filter = filter;
+        this.archiveRepo = archiveRepo;
+        this.outbox = outbox;
+        this.transaction = new TransactionTemplate(transactionManager);
     }
 
+    /**
+     * The coupon and its pending lifecycle events are written in one transaction, so the
+     * change feed sees exactly the committed changes. The events are only cleared once that
+     * transaction commits, which keeps them for a retry after a rejected write.
+     */
     @Override
     public Coupon save(Coupon coupon)
     {
-        return springRepo.save(coupon);
+        if (!coupon.isNew())
+        {
+            return update(coupon);
+        }
+
+        Coupon saved = translatingViolations(() -> transaction.execute(status ->
+        {
+            Coupon written = springRepo.saveAndFlush(coupon);
+            outbox.append(coupon, written);
+            return written;
+        }));
+
+        filter.apply(coupon);
+        coupon.clearPendingEvents();
+        cache.evict(saved);
+        index.put(saved);
+        return saved;
+    }
+
+    @Override
+    public List<Coupon> saveAll(List<Coupon> coupons)
+    {
+        return saveAll(coupons, true);
+    }
+
+    @Override
+    public List<Coupon> saveAllUnannounced(List<Coupon> coupons)
+    {
+        return saveAll(coupons, false);
+    }
+
+    private List<Coupon> saveAll(List<Coupon> coupons, boolean announced)
+    {
+        List<Coupon> saved = translatingViolations(() -> transaction.execute(status ->
+        {
+            List<Coupon> written = springRepo.saveAllAndFlush(coupons);
+
+            for (int i = 0; announced && i < coupons.size(); i++)
+            {
+                outbox.append(coupons.get(i), written.get(i));
+            }
+
+            return written;
+        }));
+
+        coupons.forEach(filter::apply);
+        coupons.forEach(Coupon::clearPendingEvents);
+        saved.forEach(cache::evict);
+        saved.forEach(index::put);
+        return saved;
+    }
+
+    /**
+     * A stored coupon only changes through lifecycle transitions, so instead of merging the
+     * whole entity only those columns are written, with a conditional update on the version
+     * the coupon was read with. The usage count is never written back, so redemptions made
+     * since the read are kept. When the update matches nothing the coupon is evicted, so the
+     * caller's next read sees the change it lost to.
+     */
+    private Coupon update(Coupon coupon)
+    {
+        Boolean updated = transaction.execute(status ->
+        {
+            int rows = springRepo.updateLifecycle(
+                    coupon.getId(),
+                    coupon.getVersion(),
+                    coupon.isPublished(),
+                    coupon.isDeleted(),
+                    coupon.getDeletedAt(),
+                    coupon.isDeleted() ? null : coupon.getCode(),
+                    coupon.getPublishAt(),
+                    coupon.getUnpublishAt(),
+                    coupon.getUpdatedAt()
+            );
+
+            if (rows == 1)
+            {
+                outbox.append(coupon, coupon);
+            }
+
+            return rows == 1;
+        });
+
+        cache.evict(coupon);
+
+        if (!Boolean.TRUE.equals(updated))
+        {
+            throw new ConcurrentUpdateException();
+        }
+
+        coupon.advanceVersion();
+        filter.apply(coupon);
+        coupon.clearPendingEvents();
+        index.put(coupon);
+        return coupon;
     }
 
+    /**
+     * Loads by primary key rather than with a query, so that a miss here can still be
+     * answered from the Hibernate second-level cache.
+     */
     @Override
     public Optional<Coupon> findActiveById(UUID id)
     {
-        return springRepo.findByIdAndDeletedFalse(id);
+        return cache.getById(id, key -> springRepo.findById(key).filter(coupon -> !coupon.isDeleted()));
+    }
+
+    /**
+     * Skips the coupon cache, whose instances are shared between callers. A primary key load
+     * always builds a new instance, even when it is served from the second-level cache.
+     */
+    @Override
+    public Optional<Coupon> findActiveByIdForUpdate(UUID id)
+    {
+        return springRepo.findById(id).filter(coupon -> !coupon.isDeleted());
+    }
+
+    /**
+     * The index answers exactly once it is loaded. Until then, or when it is disabled, the
+     * code filter rules out most absent codes before the cache and the database are asked.
+     */
+    @Override
+    public Optional<Coupon> findActiveByCode(String normalizedCode)
+    {
+        if (index.isReady() && !index.contains(normalizedCode))
+        {
+            return Optional.empty();
+        }
+
+        boolean filtered = !index.isReady() && filter.isReady();
+
+        if (filtered && !filter.mightContain(normalizedCode))
+        {
+            return Optional.empty();
+        }
+
+        Optional<Coupon> found = cache.getByCode(normalizedCode, springRepo::findByActiveCode);
+
+        if (filtered && found.isEmpty())
+        {
+            filter.recordFalsePositives(1);
+        }
+
+        return found;
     }
 
     @Override
     public boolean existsActiveByCode(String normalizedCode)
     {
-        return springRepo.existsByCodeAndDeletedFalse(normalizedCode);
+        if (index.isReady())
+        {
+            return index.contains(normalizedCode);
+        }
+
+        return findActiveByCode(normalizedCode).isPresent();
+    }
+
+    @Override
+    public Set<String> findActiveCodes(Collection<String> normalizedCodes)
+    {
+        if (normalizedCodes.isEmpty())
+        {
+            return Set.of();
+        }
+
+        if (index.isReady())
+        {
+            return normalizedCodes.stream()
+                    .filter(index::contains)
+                    .collect(Collectors.toSet());
+        }
+
+        if (!filter.isReady())
+        {
+            return springRepo.findActiveCodes(normalizedCodes);
+        }
+
+        List<String> candidates = normalizedCodes.stream()
+                .distinct()
+                .filter(filter::mightContain)
+                .toList();
+
+        if (candidates.isEmpty())
+        {
+            return Set.of();
+        }
+
+        Set<String> found = springRepo.findActiveCodes(candidates);
+        filter.recordFalsePositives(candidates.size() - found.size());
+        return found;
+    }
+
+    @Override
+    public List<Coupon> search(CouponSearchCriteria criteria, CouponCursor after, int limit)
+    {
+        return springRepo.search(criteria, after, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachMatching(CouponSearchCriteria criteria, Consumer<Coupon> consumer)
+    {
+        try (Stream<Coupon> coupons = springRepo.streamMatching(criteria))
+        {
+            coupons.forEach(consumer);
+        }
+    }
+
+    @Override
+    public boolean incrementUsage(UUID id)
+    {
+        return springRepo.incrementUsage(id) == 1;
+    }
+
+    /**
+     * The update and its outbox events commit in their own transaction before the cache and
+     * the index are evicted, so a concurrent read cannot bring the pre-delete state back into
+     * them. The active rows are locked first, so every row read here is one the update deletes.
+     */
+    @Override
+    public int softDeleteAll(Collection<UUID> ids, Instant deletedAt)
+    {
+        List<ActiveCouponRow> active = transaction.execute(status ->
+        {
+            List<ActiveCouponRow> rows = springRepo.lockActiveRows(ids);
+
+            if (!rows.isEmpty())
+            {
+                springRepo.softDeleteAll(rows.stream().map(ActiveCouponRow::id).toList(), deletedAt);
+                outbox.appendDeleted(rows, deletedAt);
+            }
+
+            return rows;
+        });
+
+        if (active.isEmpty())
+        {
+            return 0;
+        }
+
+        for (ActiveCouponRow row : active)
+        {
+            cache.evict(row.id(), row.code());
+            index.remove(row.code(), row.id());
+            filter.remove(row.code());
+        }
+
+        return active.size();
+    }
+
+    @Override
+    public int publishDue(Collection<UUID> ids, Instant now)
+    {
+        return applyDue(ids, now, true);
+    }
+
+    @Override
+    public int unpublishDue(Collection<UUID> ids, Instant now)
+    {
+        return applyDue(ids, now, false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachSchedule(Consumer<CouponSchedule> consumer)
+    {
+        try (Stream<CouponSchedule> schedules = springRepo.streamSchedules())
+        {
+            schedules.forEach(consumer);
+        }
+    }
+
+    @Override
+    public int archiveDead(Instant deletedBefore, LocalDate expiredBefore, Instant archivedAt, int limit)
+    {
+        List<CouponKey> dead = archiveRepo.findDead(deletedBefore, expiredBefore, limit);
+
+        if (dead.isEmpty())
+        {
+            return 0;
+        }
+
+        int moved = archiveRepo.moveToArchive(dead.stream().map(CouponKey::id).toList(), archivedAt);
+
+        // Expired coupons may still be active, so they can be in the cache and the index. The
+        // filter keeps their codes: a code deleted earlier was already taken out of it, and
+        // taking it out twice could hide another code.
+        for (CouponKey key : dead)
+        {
+            cache.evict(key.id(), key.code());
+            index.remove(key.code(), key.id());
+        }
+
+        return moved;
+    }
+
+    /**
+     * Same shape as {@link #softDeleteAll}: the due rows are locked first, so the update
+     * changes exactly those, and only the ones whose published flag actually flips get an
+     * event. Every due row has its scheduled time cleared and its version bumped, so a
+     * concurrent lifecycle change that read it before is retried on the new state.
+     */
+    private int applyDue(Collection<UUID> ids, Instant now, boolean publish)
+    {
+        List<ActiveCouponRow> due = transaction.execute(status ->
+        {
+            List<ActiveCouponRow> rows = publish
+                    ? springRepo.lockDuePublications(ids, now)
+                    : springRepo.lockDueUnpublications(ids, now);
+
+            if (!rows.isEmpty())
+            {
+                List<UUID> dueIds = rows.stream().map(ActiveCouponRow::id).toList();
+
+                if (publish)
+                {
+                    springRepo.markPublished(dueIds, now);
+                }
+                else
+                {
+                    springRepo.markUnpublished(dueIds, now);
+                }
+
+                outbox.appendPublications(rows.stream()
+                        .filter(row -> row.published() != publish)
+                        .map(row -> withPublished(row, publish))
+                        .toList(), now);
+            }
+
+            return rows;
+        });
+
+        for (ActiveCouponRow row : due)
+        {
+            cache.evict(row.id(), row.code());
+            index.put(withPublished(row, publish));
+        }
+
+        return due.size();
+    }
+
+    private static ActiveCouponRow withPublished(ActiveCouponRow row, boolean published)
+    {
+        return new ActiveCouponRow(row.id(), row.code(), row.discountValue(), row.expirationDate(), published);
+    }
+
+    /**
+     * Runs a flushing write and turns a violation of the active-code unique constraint into
+     * the same domain error the old exists-then-insert check produced.
+     */
+    private static <T> T translatingViolations(Supplier<T> write)
+    {
+        try
+        {
+            return write.get();
+        }
+        catch (DataIntegrityViolationException e)
+        {
+            if (isActiveCodeViolation(e))
+            {
+                throw new DomainException(CouponMessages.CODE_ALREADY_EXISTS);
+            }
+
+            throw e;
+        }
+    }
+
+    private static boolean isActiveCodeViolation(DataIntegrityViolationException exception)
+    {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause())
+        {
+            String name = cause instanceof ConstraintViolationException violation
+                    ? violation.getConstraintName()
+                    : cause.getMessage();
+
+            if (name != null && name.toLowerCase().contains(Coupon.ACTIVE_CODE_CONSTRAINT))
+            {
+                return true;
+            }
+        }
+
+        return false;
     }
 }
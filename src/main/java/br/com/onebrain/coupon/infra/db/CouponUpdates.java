@@ -0,0 +1,34 @@
+package br.com.onebrain.coupon.infra.db;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Conditional writes to single columns of stored coupons. Each one evicts only the rows it
+ * writes from the second-level cache, see {@link CouponNativeWrites}.
+ */
+public interface CouponUpdates
+{
+    int incrementUsage(UUID id);
+
+    int softDeleteAll(Collection<UUID> ids, Instant deletedAt);
+
+    /**
+     * Writes the lifecycle columns of an active coupon if it is still at {@code version}.
+     * Nothing is locked: a concurrent change bumps the version first and this matches no row.
+     */
+    int updateLifecycle(UUID id,
+                        long version,
+                        boolean published,
+                        boolean deleted,
+                        Instant deletedAt,
+                        String activeCode,
+                        Instant publishAt,
+                        Instant unpublishAt,
+                        Instant updatedAt);
+
+    int markPublished(Collection<UUID> ids, Instant now);
+
+    int markUnpublished(Collection<UUID> ids, Instant now);
+}
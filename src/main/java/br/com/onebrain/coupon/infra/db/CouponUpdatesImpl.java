@@ -0,0 +1,122 @@
+package br.com.onebrain.coupon.infra.db;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+class CouponUpdatesImpl implements CouponUpdates
+{
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int incrementUsage(UUID id)
+    {
+        return CouponNativeWrites.execute(entityManager, """
+                        update coupons
+                           set usage_count = usage_count + 1
+                         where id = :id
+                           and deleted = false
+                           and (max_usages is null or usage_count < max_usages)
+                        """, List.of(id), false,
+                query -> query.setParameter("id", id));
+    }
+
+    @Override
+    @Transactional
+    public int softDeleteAll(Collection<UUID> ids, Instant deletedAt)
+    {
+        return CouponNativeWrites.execute(entityManager, """
+                        update coupons
+                           set deleted = true,
+                               deleted_at = :deletedAt,
+                               updated_at = :deletedAt,
+                               active_code = null,
+                               version = version + 1
+                         where id in (:ids)
+                           and deleted = false
+                        """, ids, true,
+                query -> query
+                        .setParameter("ids", ids)
+                        .setParameter("deletedAt", deletedAt));
+    }
+
+    @Override
+    @Transactional
+    public int updateLifecycle(UUID id,
+                               long version,
+                               boolean published,
+                               boolean deleted,
+                               Instant deletedAt,
+                               String activeCode,
+                               Instant publishAt,
+                               Instant unpublishAt,
+                               Instant updatedAt)
+    {
+        // Only a delete touches the active code: otherwise it is written back unchanged.
+        return CouponNativeWrites.execute(entityManager, """
+                        update coupons
+                           set published = :published,
+                               deleted = :deleted,
+                               deleted_at = :deletedAt,
+                               active_code = :activeCode,
+                               publish_at = :publishAt,
+                               unpublish_at = :unpublishAt,
+                               updated_at = :updatedAt,
+                               version = version + 1
+                         where id = :id
+                           and deleted = false
+                           and version = :version
+                        """, List.of(id), deleted,
+                query -> query
+                        .setParameter("id", id)
+                        .setParameter("version", version)
+                        .setParameter("published", published)
+                        .setParameter("deleted", deleted)
+                        .setParameter("deletedAt", deletedAt, Instant.class)
+                        .setParameter("activeCode", activeCode)
+                        .setParameter("publishAt", publishAt, Instant.class)
+                        .setParameter("unpublishAt", unpublishAt, Instant.class)
+                        .setParameter("updatedAt", updatedAt));
+    }
+
+    @Override
+    @Transactional
+    public int markPublished(Collection<UUID> ids, Instant now)
+    {
+        return CouponNativeWrites.execute(entityManager, """
+                        update coupons
+                           set published = true,
+                               publish_at = null,
+                               updated_at = :now,
+                               version = version + 1
+                         where id in (:ids)
+                        """, ids, false,
+                query -> query
+                        .setParameter("ids", ids)
+                        .setParameter("now", now));
+    }
+
+    @Override
+    @Transactional
+    public int markUnpublished(Collection<UUID> ids, Instant now)
+    {
+        return CouponNativeWrites.execute(entityManager, """
+                        update coupons
+                           set published = false,
+                               unpublish_at = null,
+                               updated_at = :now,
+                               version = version + 1
+                         where id in (:ids)
+                        """, ids, false,
+                query -> query
+                        .setParameter("ids", ids)
+                        .setParameter("now", now));
+    }
+}
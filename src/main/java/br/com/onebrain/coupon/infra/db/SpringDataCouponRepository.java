@@ -1,13 +1,111 @@
 package br.com.onebrain.coupon.infra.db;
 
+import br.com.onebrain.coupon.app.port.CouponSchedule;
 import br.com.onebrain.coupon.domain.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface SpringDataCouponRepository extends JpaRepository<Coupon, UUID>
+public interface SpringDataCouponRepository extends JpaRepository<Coupon, UUID>, CouponQueries, CouponUpdates
 {
     Optional<Coupon> findByIdAndDeletedFalse(UUID id);
+
+    /**
+     * Served from the query cache until a write can change an active code: inserts and
+     * deletes invalidate the cached results, redemptions and publications do not.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Optional<Coupon> findByActiveCode(String activeCode);
+
     boolean existsByCodeAndDeletedFalse(String code);
+    long countByDeletedFalse();
+
+    @Query("select c.activeCode from Coupon c where c.activeCode in :codes")
+    Set<String> findActiveCodes(@Param("codes") Collection<String> codes);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new br.com.onebrain.coupon.infra.db.ActiveCouponRow(
+                   c.id, c.code, c.discountValue, c.expirationDate, c.published)
+              from Coupon c
+             where c.deleted = false
+            """)
+    Stream<ActiveCouponRow> streamActiveRows();
+
+    @Query("""
+            select new br.com.onebrain.coupon.infra.db.ActiveCouponRow(
+                   c.id, c.code, c.discountValue, c.expirationDate, c.published)
+              from Coupon c
+             where c.id in :ids
+               and c.deleted = false
+            """)
+    List<ActiveCouponRow> findActiveRows(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Same as {@link #findActiveRows} but locks the rows until the end of the transaction,
+     * so that an update that follows deletes exactly the rows returned.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select new br.com.onebrain.coupon.infra.db.ActiveCouponRow(
+                   c.id, c.code, c.discountValue, c.expirationDate, c.published)
+              from Coupon c
+             where c.id in :ids
+               and c.deleted = false
+            """)
+    List<ActiveCouponRow> lockActiveRows(@Param("ids") Collection<UUID> ids);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new br.com.onebrain.coupon.app.port.CouponSchedule(c.id, c.publishAt, c.unpublishAt)
+              from Coupon c
+             where c.deleted = false
+               and (c.publishAt is not null or c.unpublishAt is not null)
+            """)
+    Stream<CouponSchedule> streamSchedules();
+
+    /**
+     * The given active coupons whose publish time has come, locked until the end of the
+     * transaction so that {@link #markPublished} applies to exactly these rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select new br.com.onebrain.coupon.infra.db.ActiveCouponRow(
+                   c.id, c.code, c.discountValue, c.expirationDate, c.published)
+              from Coupon c
+             where c.id in :ids
+               and c.deleted = false
+               and c.publishAt <= :now
+            """)
+    List<ActiveCouponRow> lockDuePublications(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select new br.com.onebrain.coupon.infra.db.ActiveCouponRow(
+                   c.id, c.code, c.discountValue, c.expirationDate, c.published)
+              from Coupon c
+             where c.id in :ids
+               and c.deleted = false
+               and c.unpublishAt <= :now
+            """)
+    List<ActiveCouponRow> lockDueUnpublications(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
 }
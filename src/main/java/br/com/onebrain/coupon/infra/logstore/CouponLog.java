@@ -0,0 +1,569 @@
+package br.com.onebrain.coupon.infra.logstore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * The files of the log store, all in one directory:
+ * <ul>
+ *     <li>{@code coupons-<generation>.log}: records appended since the snapshot of the same generation;</li>
+ *     <li>{@code snapshot-<generation>.dat}: the full state before that log, closed by a commit record;</li>
+ *     <li>{@code archive.log}: coupons moved out by compaction, never read back by the store.</li>
+ * </ul>
+ *
+ * <p>Every record is framed as {@code [length][CRC32C][type][payload]}. Recovery replays the
+ * latest snapshot and the logs after it; a torn or corrupt tail of the last log is what an
+ * interrupted write leaves behind, so it is truncated, while corruption anywhere else fails
+ * the startup rather than silently dropping coupons.
+ *
+ * <p>A failed append is rolled back: the file is truncated to where the append started, so
+ * the partial frame cannot hide the appends acknowledged after it from the next recovery. If
+ * even the truncate fails, the log refuses every later write until a restart recovers it.
+ *
+ * <p>Not thread-safe for writers: the adapter serializes every append.
+ */
+final class CouponLog implements Closeable
+{
+    private static final Logger log = LoggerFactory.getLogger(CouponLog.class);
+
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+    static final byte COMMIT = 3;
+    static final byte ARCHIVED = 4;
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+    private static final String LOG_PREFIX = "coupons-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+    private static final String ARCHIVE_FILE = "archive.log";
+
+    interface Replay
+    {
+        void put(CouponRecord record);
+        void remove(UUID id);
+    }
+
+    /**
+     * Opens the files appended to; a seam for tests that need a failing disk.
+     */
+    interface ChannelOpener
+    {
+        FileChannel open(Path file) throws IOException;
+    }
+
+    private final Path directory;
+    private final FsyncPolicy fsync;
+    private final ChannelOpener opener;
+    private final FileChannel archive;
+    private final ScheduledExecutorService forcer;
+    private final CRC32C crc = new CRC32C();
+
+    private volatile FileChannel channel;
+    private long generation;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private volatile boolean failed;
+
+    private CouponLog(Path directory, FsyncPolicy fsync, ChannelOpener opener, long generation, long intervalMillis) throws IOException
+    {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.opener = opener;
+        this.generation = generation;
+        this.channel = opener.open(logFile(generation));
+        this.archive = opener.open(directory.resolve(ARCHIVE_FILE));
+
+        if (fsync == FsyncPolicy.INTERVAL)
+        {
+            this.forcer = Executors.newSingleThreadScheduledExecutor(task ->
+            {
+                Thread thread = new Thread(task, "coupon-log-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.forcer.scheduleWithFixedDelay(this::forceQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        else
+        {
+            this.forcer = null;
+        }
+    }
+
+    /**
+     * Replays what is on disk into {@code replay} and opens the last log for appending.
+     */
+    static CouponLog open(LogStoreProperties properties, Replay replay) throws IOException
+    {
+        return open(properties, replay, CouponLog::openForAppend);
+    }
+
+    static CouponLog open(LogStoreProperties properties, Replay replay, ChannelOpener opener) throws IOException
+    {
+        Path directory = properties.directory();
+        Files.createDirectories(directory);
+        deleteLeftovers(directory);
+
+        TreeSet<Long> logs = generations(directory, LOG_PREFIX, LOG_SUFFIX);
+        TreeSet<Long> snapshots = generations(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        long start = snapshots.isEmpty() ? 0 : snapshots.last();
+
+        if (start > 0)
+        {
+            replaySnapshot(directory.resolve(SNAPSHOT_PREFIX + name(start) + SNAPSHOT_SUFFIX), replay);
+        }
+
+        for (long logGeneration : logs.tailSet(start))
+        {
+            replayLog(directory.resolve(LOG_PREFIX + name(logGeneration) + LOG_SUFFIX), logGeneration == logs.last(), replay);
+        }
+
+        long current = Math.max(1, Math.max(start, logs.isEmpty() ? 0 : logs.last()));
+
+        return new CouponLog(directory, properties.fsync(), opener, current, properties.fsyncInterval().toMillis());
+    }
+
+    void appendPuts(Collection<CouponRecord> records) throws IOException
+    {
+        buffer.clear();
+
+        for (CouponRecord record : records)
+        {
+            frame(PUT, record.encodedSize(), record::encode);
+        }
+
+        write(channel, fsync == FsyncPolicy.ALWAYS);
+    }
+
+    void appendRemovals(Collection<UUID> ids) throws IOException
+    {
+        buffer.clear();
+
+        for (UUID id : ids)
+        {
+            frame(REMOVE, 2 * Long.BYTES, body -> body.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()));
+        }
+
+        write(channel, fsync == FsyncPolicy.ALWAYS);
+    }
+
+    /**
+     * Appends the coupons to the archive file and forces it, whatever the policy: they are
+     * removed from the log right after, so this is their only copy.
+     */
+    void archive(Collection<CouponRecord> records, Instant archivedAt) throws IOException
+    {
+        buffer.clear();
+
+        for (CouponRecord record : records)
+        {
+            frame(ARCHIVED, Long.BYTES + Integer.BYTES + record.encodedSize(), body ->
+            {
+                body.putLong(archivedAt.getEpochSecond()).putInt(archivedAt.getNano());
+                record.encode(body);
+            });
+        }
+
+        write(archive, true);
+    }
+
+    /**
+     * Starts a new log generation. The state at this point is what the snapshot of the new
+     * generation must contain.
+     */
+    long roll() throws IOException
+    {
+        // The failed log keeps its partial frame; a newer log after it would make recovery
+        // see corruption in the middle instead of a torn tail.
+        requireWritable();
+
+        FileChannel previous = channel;
+        generation++;
+        channel = opener.open(logFile(generation));
+
+        if (fsync != FsyncPolicy.NEVER)
+        {
+            previous.force(false);
+        }
+
+        previous.close();
+        return generation;
+    }
+
+    /**
+     * Writes the snapshot of a generation next to the logs, then drops the files it makes
+     * obsolete. Safe to run concurrently with appends to the current log.
+     */
+    void writeSnapshot(long snapshotGeneration, Collection<CouponRecord> state) throws IOException
+    {
+        Path target = directory.resolve(SNAPSHOT_PREFIX + name(snapshotGeneration) + SNAPSHOT_SUFFIX);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        ByteBuffer out = ByteBuffer.allocate(1 << 20);
+        CRC32C snapshotCrc = new CRC32C();
+
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            for (CouponRecord record : state)
+            {
+                if (out.remaining() < HEADER_BYTES + 1 + record.encodedSize())
+                {
+                    drain(file, out);
+                }
+
+                frame(out, snapshotCrc, PUT, record.encodedSize(), record::encode);
+            }
+
+            if (out.remaining() < HEADER_BYTES + 1 + Long.BYTES)
+            {
+                drain(file, out);
+            }
+
+            frame(out, snapshotCrc, COMMIT, Long.BYTES, body -> body.putLong(state.size()));
+            drain(file, out);
+            file.force(true);
+        }
+
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+        for (long old : generations(directory, LOG_PREFIX, LOG_SUFFIX).headSet(snapshotGeneration))
+        {
+            Files.deleteIfExists(logFile(old));
+        }
+
+        for (long old : generations(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headSet(snapshotGeneration))
+        {
+            Files.deleteIfExists(directory.resolve(SNAPSHOT_PREFIX + name(old) + SNAPSHOT_SUFFIX));
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (forcer != null)
+        {
+            forcer.shutdownNow();
+        }
+
+        try (FileChannel current = channel; FileChannel archived = archive)
+        {
+            if (fsync != FsyncPolicy.NEVER)
+            {
+                current.force(false);
+            }
+        }
+    }
+
+    private void forceQuietly()
+    {
+        try
+        {
+            channel.force(false);
+        }
+        catch (ClosedChannelException e)
+        {
+            // Rolled or closed meanwhile; the roll forced it already.
+        }
+        catch (IOException e)
+        {
+            log.error("Could not fsync the coupon log", e);
+        }
+    }
+
+    private interface Body
+    {
+        void write(ByteBuffer body);
+    }
+
+    private void frame(byte type, int payloadBytes, Body payload)
+    {
+        int needed = HEADER_BYTES + 1 + payloadBytes;
+
+        if (buffer.remaining() < needed)
+        {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+
+        frame(buffer, crc, type, payloadBytes, payload);
+    }
+
+    private static void frame(ByteBuffer out, CRC32C crc, byte type, int payloadBytes, Body payload)
+    {
+        int start = out.position();
+        int bodyStart = start + HEADER_BYTES;
+
+        out.position(bodyStart);
+        out.put(type);
+        payload.write(out);
+
+        int bodyBytes = out.position() - bodyStart;
+
+        if (bodyBytes != 1 + payloadBytes)
+        {
+            throw new IllegalStateException("Record size mismatch: " + bodyBytes + " != " + (1 + payloadBytes));
+        }
+
+        crc.reset();
+        crc.update(out.array(), out.arrayOffset() + bodyStart, bodyBytes);
+        out.putInt(start, bodyBytes);
+        out.putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    private void write(FileChannel target, boolean force) throws IOException
+    {
+        requireWritable();
+
+        long start = target.size();
+        buffer.flip();
+
+        try
+        {
+            while (buffer.hasRemaining())
+            {
+                target.write(buffer);
+            }
+
+            if (force)
+            {
+                target.force(false);
+            }
+        }
+        catch (IOException e)
+        {
+            rollBack(target, start, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops whatever part of a failed append reached the file. Also after a failed force: the
+     * caller reports the append as failed, so it must not come back on the next recovery.
+     */
+    private void rollBack(FileChannel target, long start, IOException cause)
+    {
+        try
+        {
+            target.truncate(start);
+        }
+        catch (IOException e)
+        {
+            failed = true;
+            cause.addSuppressed(e);
+            log.error("Could not truncate the coupon log back to offset {} after a failed append; "
+                    + "rejecting writes until a restart recovers it", start, e);
+        }
+    }
+
+    private void requireWritable() throws IOException
+    {
+        if (failed)
+        {
+            throw new IOException("The coupon log holds a partial append it could not roll back; restart to recover it");
+        }
+    }
+
+    private static void drain(FileChannel file, ByteBuffer out) throws IOException
+    {
+        out.flip();
+
+        while (out.hasRemaining())
+        {
+            file.write(out);
+        }
+
+        out.clear();
+    }
+
+    private static void replaySnapshot(Path file, Replay replay) throws IOException
+    {
+        long[] committed = { -1 };
+        long[] records = { 0 };
+
+        long valid = read(file, (type, body) ->
+        {
+            if (type == PUT)
+            {
+                replay.put(CouponRecord.decode(body));
+                records[0]++;
+            }
+            else if (type == COMMIT)
+            {
+                committed[0] = body.getLong();
+            }
+        });
+
+        if (committed[0] != records[0] || valid != Files.size(file))
+        {
+            throw new IllegalStateException("Coupon snapshot " + file + " is incomplete or corrupt");
+        }
+    }
+
+    private static void replayLog(Path file, boolean last, Replay replay) throws IOException
+    {
+        long valid = read(file, (type, body) ->
+        {
+            if (type == PUT)
+            {
+                replay.put(CouponRecord.decode(body));
+            }
+            else if (type == REMOVE)
+            {
+                replay.remove(new UUID(body.getLong(), body.getLong()));
+            }
+        });
+
+        long size = Files.size(file);
+
+        if (valid == size)
+        {
+            return;
+        }
+
+        if (!last)
+        {
+            throw new IllegalStateException("Coupon log " + file + " is corrupt at offset " + valid);
+        }
+
+        log.warn("Truncating {} bytes of torn writes at the end of {}", size - valid, file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+        {
+            channel.truncate(valid);
+            channel.force(true);
+        }
+    }
+
+    private interface RecordHandler
+    {
+        void handle(byte type, ByteBuffer payload);
+    }
+
+    /**
+     * Reads frames until the end of the file or the first one that is incomplete or fails its
+     * checksum, and returns the offset right after the last good frame.
+     */
+    private static long read(Path file, RecordHandler handler) throws IOException
+    {
+        CRC32C checksum = new CRC32C();
+        long offset = 0;
+
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16)))
+        {
+            byte[] body = new byte[256];
+
+            while (true)
+            {
+                int length;
+                int expectedCrc;
+
+                try
+                {
+                    length = in.readInt();
+                    expectedCrc = in.readInt();
+                }
+                catch (EOFException e)
+                {
+                    return offset;
+                }
+
+                if (length < 1 || length > MAX_BODY_BYTES)
+                {
+                    return offset;
+                }
+
+                if (body.length < length)
+                {
+                    body = new byte[Math.max(length, body.length * 2)];
+                }
+
+                try
+                {
+                    in.readFully(body, 0, length);
+                }
+                catch (EOFException e)
+                {
+                    return offset;
+                }
+
+                checksum.reset();
+                checksum.update(body, 0, length);
+
+                if ((int) checksum.getValue() != expectedCrc)
+                {
+                    return offset;
+                }
+
+                handler.handle(body[0], ByteBuffer.wrap(body, 1, length - 1));
+                offset += HEADER_BYTES + length;
+            }
+        }
+    }
+
+    private static TreeSet<Long> generations(Path directory, String prefix, String suffix) throws IOException
+    {
+        TreeSet<Long> generations = new TreeSet<>();
+
+        try (Stream<Path> files = Files.list(directory))
+        {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> name.substring(prefix.length(), name.length() - suffix.length()))
+                    .filter(number -> !number.isEmpty() && number.chars().allMatch(Character::isDigit))
+                    .forEach(number -> generations.add(Long.parseLong(number)));
+        }
+
+        return generations;
+    }
+
+    private static void deleteLeftovers(Path directory) throws IOException
+    {
+        try (Stream<Path> files = Files.list(directory))
+        {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(".tmp")).toList())
+            {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static FileChannel openForAppend(Path file) throws IOException
+    {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path logFile(long logGeneration)
+    {
+        return directory.resolve(LOG_PREFIX + name(logGeneration) + LOG_SUFFIX);
+    }
+
+    private static String name(long generation)
+    {
+        return String.format("%016d", generation);
+    }
+}
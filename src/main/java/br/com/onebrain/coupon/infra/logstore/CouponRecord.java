@@ -0,0 +1,252 @@
+package br.com.onebrain.coupon.infra.logstore;
+
+import br.com.onebrain.coupon.domain.Coupon;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Immutable stored state of a coupon: what the log writes and what the in-memory tables hold.
+ * Readers get a fresh {@link Coupon} from {@link #toCoupon()}, so a caller mutating its copy
+ * never changes the stored state behind the log's back.
+ *
+ * <p>The publication window is encoded after every other field, so that records written
+ * before it existed decode with no window.
+ *
+ * <p>The version is only kept in memory and starts over at 0 on recovery: it guards against
+ * writes based on an older read, and no coupon read before a restart can be saved after it.
+ */
+record CouponRecord(
+        UUID id,
+        String code,
+        String description,
+        long discountCents,
+        LocalDate expirationDate,
+        boolean published,
+        Integer maxUsages,
+        int usageCount,
+        boolean deleted,
+        Instant deletedAt,
+        Instant createdAt,
+        Instant updatedAt,
+        Instant publishAt,
+        Instant unpublishAt,
+        long version
+)
+{
+    private static final int DISCOUNT_SCALE = 2;
+    private static final byte PUBLISHED = 1;
+    private static final byte DELETED = 1 << 1;
+    private static final byte HAS_MAX_USAGES = 1 << 2;
+
+    private static final int INSTANT_BYTES = 12;
+
+    // id, code, description length, discount, expiration, flags, max usages, usage count, five instants.
+    private static final int FIXED_BYTES = 16 + Coupon.MAXIMUM_CHARACTER_SIZE + 2 + 8 + 4 + 1 + 4 + 4 + 5 * INSTANT_BYTES;
+
+    static CouponRecord of(Coupon coupon, UUID id)
+    {
+        return new CouponRecord(
+                id,
+                coupon.getCode(),
+                coupon.getDescription(),
+                coupon.getDiscountValue().setScale(DISCOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact(),
+                coupon.getExpirationDate(),
+                coupon.isPublished(),
+                coupon.getMaxUsages(),
+                coupon.getUsageCount(),
+                coupon.isDeleted(),
+                coupon.getDeletedAt(),
+                coupon.getCreatedAt(),
+                coupon.getUpdatedAt(),
+                coupon.getPublishAt(),
+                coupon.getUnpublishAt(),
+                0
+        );
+    }
+
+    Coupon toCoupon()
+    {
+        return Coupon.restore(
+                id,
+                code,
+                description,
+                discountValue(),
+                expirationDate,
+                published,
+                maxUsages,
+                usageCount,
+                deleted,
+                deletedAt,
+                createdAt,
+                updatedAt,
+                publishAt,
+                unpublishAt,
+                version
+        );
+    }
+
+    BigDecimal discountValue()
+    {
+        return BigDecimal.valueOf(discountCents, DISCOUNT_SCALE);
+    }
+
+    boolean hasUsagesLeft()
+    {
+        return maxUsages == null || usageCount < maxUsages;
+    }
+
+    boolean isPublishDue(Instant now)
+    {
+        return !deleted && publishAt != null && !publishAt.isAfter(now);
+    }
+
+    boolean isUnpublishDue(Instant now)
+    {
+        return !deleted && unpublishAt != null && !unpublishAt.isAfter(now);
+    }
+
+    CouponRecord withUsage()
+    {
+        return new CouponRecord(id, code, description, discountCents, expirationDate, published, maxUsages,
+                usageCount + 1, deleted, deletedAt, createdAt, updatedAt, publishAt, unpublishAt, version);
+    }
+
+    CouponRecord asDeleted(Instant now)
+    {
+        return new CouponRecord(id, code, description, discountCents, expirationDate, published, maxUsages,
+                usageCount, true, now, createdAt, now, publishAt, unpublishAt, version + 1);
+    }
+
+    /**
+     * Published, with the scheduled publish time that caused it cleared.
+     */
+    CouponRecord asPublished(Instant now)
+    {
+        return new CouponRecord(id, code, description, discountCents, expirationDate, true, maxUsages,
+                usageCount, deleted, deletedAt, createdAt, now, null, unpublishAt, version + 1);
+    }
+
+    /**
+     * Unpublished, with the scheduled unpublish time that caused it cleared.
+     */
+    CouponRecord asUnpublished(Instant now)
+    {
+        return new CouponRecord(id, code, description, discountCents, expirationDate, false, maxUsages,
+                usageCount, deleted, deletedAt, createdAt, now, publishAt, null, version + 1);
+    }
+
+    /**
+     * The lifecycle state of {@code changed} on top of this record; the usage count stays the
+     * stored one.
+     */
+    CouponRecord withLifecycleOf(Coupon changed)
+    {
+        return new CouponRecord(id, code, description, discountCents, expirationDate, changed.isPublished(), maxUsages,
+                usageCount, changed.isDeleted(), changed.getDeletedAt(), createdAt, changed.getUpdatedAt(),
+                changed.getPublishAt(), changed.getUnpublishAt(), version + 1);
+    }
+
+    int encodedSize()
+    {
+        return FIXED_BYTES + description.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    void encode(ByteBuffer buffer)
+    {
+        byte[] descriptionBytes = description.getBytes(StandardCharsets.UTF_8);
+
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        buffer.put(code.getBytes(StandardCharsets.US_ASCII));
+        buffer.putShort((short) descriptionBytes.length);
+        buffer.put(descriptionBytes);
+        buffer.putLong(discountCents);
+        buffer.putInt((int) expirationDate.toEpochDay());
+        buffer.put(flags());
+        buffer.putInt(maxUsages == null ? 0 : maxUsages);
+        buffer.putInt(usageCount);
+        putInstant(buffer, deletedAt);
+        putInstant(buffer, createdAt);
+        putInstant(buffer, updatedAt);
+        putInstant(buffer, publishAt);
+        putInstant(buffer, unpublishAt);
+    }
+
+    static CouponRecord decode(ByteBuffer buffer)
+    {
+        UUID id = new UUID(buffer.getLong(), buffer.getLong());
+        byte[] code = new byte[Coupon.MAXIMUM_CHARACTER_SIZE];
+        buffer.get(code);
+        byte[] description = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(description);
+        long discountCents = buffer.getLong();
+        LocalDate expirationDate = LocalDate.ofEpochDay(buffer.getInt());
+        byte flags = buffer.get();
+        int maxUsages = buffer.getInt();
+        int usageCount = buffer.getInt();
+        Instant deletedAt = getInstant(buffer);
+        Instant createdAt = getInstant(buffer);
+        Instant updatedAt = getInstant(buffer);
+        boolean hasWindow = buffer.remaining() >= 2 * INSTANT_BYTES;
+
+        return new CouponRecord(
+                id,
+                new String(code, StandardCharsets.US_ASCII),
+                new String(description, StandardCharsets.UTF_8),
+                discountCents,
+                expirationDate,
+                (flags & PUBLISHED) != 0,
+                (flags & HAS_MAX_USAGES) != 0 ? maxUsages : null,
+                usageCount,
+                (flags & DELETED) != 0,
+                deletedAt,
+                createdAt,
+                updatedAt,
+                hasWindow ? getInstant(buffer) : null,
+                hasWindow ? getInstant(buffer) : null,
+                0
+        );
+    }
+
+    private byte flags()
+    {
+        byte flags = 0;
+
+        if (published)
+        {
+            flags |= PUBLISHED;
+        }
+
+        if (deleted)
+        {
+            flags |= DELETED;
+        }
+
+        if (maxUsages != null)
+        {
+            flags |= HAS_MAX_USAGES;
+        }
+
+        return flags;
+    }
+
+    // Long.MIN_VALUE seconds marks a null instant; no stored instant is anywhere near it.
+    private static void putInstant(ByteBuffer buffer, Instant instant)
+    {
+        buffer.putLong(instant == null ? Long.MIN_VALUE : instant.getEpochSecond());
+        buffer.putInt(instant == null ? 0 : instant.getNano());
+    }
+
+    private static Instant getInstant(ByteBuffer buffer)
+    {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == Long.MIN_VALUE ? null : Instant.ofEpochSecond(seconds, nanos);
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.onebrain.coupon.infra.logstore;
+
+/**
+ * When appended records are forced to the disk.
+ */
+public enum FsyncPolicy
+{
+    /**
+     * Before every write returns. Nothing acknowledged is lost on a crash; a batch is forced once.
+     */
+    ALWAYS,
+
+    /**
+     * Every {@code fsync-interval}, in the background. A crash loses at most that window.
+     */
+    INTERVAL,
+
+    /**
+     * Left to the operating system. Survives a process crash, not a power loss.
+     */
+    NEVER
+}
@@ -0,0 +1,637 @@
+package br.com.onebrain.coupon.infra.logstore;
+
+import br.com.onebrain.coupon.app.port.CouponCursor;
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponSchedule;
+import br.com.onebrain.coupon.app.port.CouponSearchCriteria;
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import br.com.onebrain.coupon.infra.db.ActiveCouponIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Embedded storage engine ({@code coupon.storage.type=log}): every write is appended to a
+ * {@link CouponLog} before it becomes visible, and the whole state is kept in memory, so
+ * reads never touch the disk. Recovery replays the latest snapshot and the logs after it;
+ * a snapshot is taken every {@code coupon.storage.log.snapshot-every} records, in the
+ * background, so recovery time stays bounded.
+ *
+ * <p>Writers are serialized by one lock, which is what makes the active-code check, the
+ * usage limit and the log order atomic; readers never take it.
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.storage.type", havingValue = "log")
+public class LogCouponRepositoryAdapter implements CouponRepositoryPort, AutoCloseable
+{
+    private static final Logger log = LoggerFactory.getLogger(LogCouponRepositoryAdapter.class);
+
+    private static final Comparator<CouponCursor> ORDER = Comparator
+            .comparing(CouponCursor::createdAt)
+            .thenComparing(CouponCursor::id);
+
+    private final Map<UUID, CouponRecord> byId = new ConcurrentHashMap<>();
+    private final Map<String, UUID> activeByCode = new ConcurrentHashMap<>();
+    private final NavigableMap<CouponCursor, UUID> ordered = new ConcurrentSkipListMap<>(ORDER);
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ActiveCouponIndex index;
+    private final CouponLog couponLog;
+    private final long snapshotEvery;
+    private final ExecutorService snapshotter;
+    private final AtomicBoolean snapshotting = new AtomicBoolean();
+    private long appendedSinceSnapshot;
+
+    public LogCouponRepositoryAdapter(LogStoreProperties properties, ActiveCouponIndex index)
+    {
+        this.index = index;
+        this.snapshotEvery = properties.snapshotEvery();
+        this.snapshotter = Executors.newSingleThreadExecutor(task ->
+        {
+            Thread thread = new Thread(task, "coupon-log-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long started = System.nanoTime();
+
+        try
+        {
+            this.couponLog = CouponLog.open(properties, new CouponLog.Replay()
+            {
+                @Override
+                public void put(CouponRecord record)
+                {
+                    apply(record);
+                }
+
+                @Override
+                public void remove(UUID id)
+                {
+                    forget(id);
+                }
+            });
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Could not open the coupon log in " + properties.directory(), e);
+        }
+
+        loadIndex();
+
+        log.info("Coupon log recovered: {} coupons ({} active) from {} in {} ms",
+                byId.size(),
+                activeByCode.size(),
+                properties.directory().toAbsolutePath(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public Coupon save(Coupon coupon)
+    {
+        return saveAll(List.of(coupon)).get(0);
+    }
+
+    /**
+     * There is no change feed on this storage, so this is {@link #saveAll} as is.
+     */
+    @Override
+    public List<Coupon> saveAllUnannounced(List<Coupon> coupons)
+    {
+        return saveAll(coupons);
+    }
+
+    @Override
+    public List<Coupon> saveAll(List<Coupon> coupons)
+    {
+        if (coupons.isEmpty())
+        {
+            return List.of();
+        }
+
+        writeLock.lock();
+
+        try
+        {
+            List<CouponRecord> records = new ArrayList<>(coupons.size());
+            Map<String, UUID> claimed = new HashMap<>();
+
+            for (Coupon coupon : coupons)
+            {
+                CouponRecord record = toRecord(coupon);
+
+                if (!record.deleted())
+                {
+                    UUID owner = claimed.containsKey(record.code()) ? claimed.get(record.code()) : activeByCode.get(record.code());
+
+                    if (owner != null && !owner.equals(record.id()))
+                    {
+                        throw new DomainException(CouponMessages.CODE_ALREADY_EXISTS);
+                    }
+
+                    claimed.put(record.code(), record.id());
+                }
+
+                records.add(record);
+            }
+
+            append(() -> couponLog.appendPuts(records), records.size());
+
+            List<Coupon> saved = new ArrayList<>(records.size());
+
+            for (CouponRecord record : records)
+            {
+                apply(record);
+                Coupon restored = record.toCoupon();
+                index.put(restored);
+                saved.add(restored);
+            }
+
+            snapshotIfDue();
+            return saved;
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Coupon> findActiveById(UUID id)
+    {
+        return active(byId.get(id));
+    }
+
+    @Override
+    public Optional<Coupon> findActiveByIdForUpdate(UUID id)
+    {
+        return findActiveById(id);
+    }
+
+    @Override
+    public Optional<Coupon> findActiveByCode(String normalizedCode)
+    {
+        UUID id = activeByCode.get(normalizedCode);
+        return id == null ? Optional.empty() : active(byId.get(id));
+    }
+
+    @Override
+    public boolean existsActiveByCode(String normalizedCode)
+    {
+        return activeByCode.containsKey(normalizedCode);
+    }
+
+    @Override
+    public Set<String> findActiveCodes(Collection<String> normalizedCodes)
+    {
+        return normalizedCodes.stream()
+                .filter(activeByCode::containsKey)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public List<Coupon> search(CouponSearchCriteria criteria, CouponCursor after, int limit)
+    {
+        List<Coupon> page = new ArrayList<>(Math.min(limit, 1024));
+        Collection<UUID> ids = after == null ? ordered.values() : ordered.tailMap(after, false).values();
+
+        for (UUID id : ids)
+        {
+            if (page.size() == limit)
+            {
+                break;
+            }
+
+            CouponRecord record = byId.get(id);
+
+            if (record != null && matches(record, criteria))
+            {
+                page.add(record.toCoupon());
+            }
+        }
+
+        return page;
+    }
+
+    @Override
+    public void forEachMatching(CouponSearchCriteria criteria, Consumer<Coupon> consumer)
+    {
+        for (UUID id : ordered.values())
+        {
+            CouponRecord record = byId.get(id);
+
+            if (record != null && matches(record, criteria))
+            {
+                consumer.accept(record.toCoupon());
+            }
+        }
+    }
+
+    @Override
+    public boolean incrementUsage(UUID id)
+    {
+        writeLock.lock();
+
+        try
+        {
+            CouponRecord record = byId.get(id);
+
+            if (record == null || record.deleted() || !record.hasUsagesLeft())
+            {
+                return false;
+            }
+
+            CouponRecord used = record.withUsage();
+            append(() -> couponLog.appendPuts(List.of(used)), 1);
+            apply(used);
+            snapshotIfDue();
+            return true;
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public int softDeleteAll(Collection<UUID> ids, Instant deletedAt)
+    {
+        writeLock.lock();
+
+        try
+        {
+            List<CouponRecord> deleted = new ArrayList<>();
+
+            for (UUID id : Set.copyOf(ids))
+            {
+                CouponRecord record = byId.get(id);
+
+                if (record != null && !record.deleted())
+                {
+                    deleted.add(record.asDeleted(deletedAt));
+                }
+            }
+
+            if (deleted.isEmpty())
+            {
+                return 0;
+            }
+
+            append(() -> couponLog.appendPuts(deleted), deleted.size());
+
+            for (CouponRecord record : deleted)
+            {
+                apply(record);
+                index.remove(record.code(), record.id());
+            }
+
+            snapshotIfDue();
+            return deleted.size();
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public int publishDue(Collection<UUID> ids, Instant now)
+    {
+        return applyDue(ids, record -> record.isPublishDue(now), record -> record.asPublished(now));
+    }
+
+    @Override
+    public int unpublishDue(Collection<UUID> ids, Instant now)
+    {
+        return applyDue(ids, record -> record.isUnpublishDue(now), record -> record.asUnpublished(now));
+    }
+
+    @Override
+    public void forEachSchedule(Consumer<CouponSchedule> consumer)
+    {
+        for (CouponRecord record : byId.values())
+        {
+            if (!record.deleted() && (record.publishAt() != null || record.unpublishAt() != null))
+            {
+                consumer.accept(new CouponSchedule(record.id(), record.publishAt(), record.unpublishAt()));
+            }
+        }
+    }
+
+    @Override
+    public int archiveDead(Instant deletedBefore, LocalDate expiredBefore, Instant archivedAt, int limit)
+    {
+        writeLock.lock();
+
+        try
+        {
+            List<CouponRecord> dead = byId.values().stream()
+                    .filter(record -> (record.deleted() && record.deletedAt().isBefore(deletedBefore))
+                            || record.expirationDate().isBefore(expiredBefore))
+                    .limit(limit)
+                    .toList();
+
+            if (dead.isEmpty())
+            {
+                return 0;
+            }
+
+            List<UUID> ids = dead.stream().map(CouponRecord::id).toList();
+
+            append(() ->
+            {
+                couponLog.archive(dead, archivedAt);
+                couponLog.appendRemovals(ids);
+            }, ids.size());
+
+            for (CouponRecord record : dead)
+            {
+                forget(record.id());
+                index.remove(record.code(), record.id());
+            }
+
+            snapshotIfDue();
+            return dead.size();
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
+    private int applyDue(Collection<UUID> ids, Predicate<CouponRecord> due, Function<CouponRecord, CouponRecord> transition)
+    {
+        writeLock.lock();
+
+        try
+        {
+            List<CouponRecord> changed = new ArrayList<>();
+
+            for (UUID id : Set.copyOf(ids))
+            {
+                CouponRecord record = byId.get(id);
+
+                if (record != null && due.test(record))
+                {
+                    changed.add(transition.apply(record));
+                }
+            }
+
+            if (changed.isEmpty())
+            {
+                return 0;
+            }
+
+            append(() -> couponLog.appendPuts(changed), changed.size());
+
+            for (CouponRecord record : changed)
+            {
+                apply(record);
+                index.put(record.toCoupon());
+            }
+
+            snapshotIfDue();
+            return changed.size();
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Takes a snapshot now, on the calling thread.
+     */
+    void snapshot() throws IOException
+    {
+        if (!snapshotting.compareAndSet(false, true))
+        {
+            throw new IllegalStateException("A snapshot is already being written");
+        }
+
+        long generation;
+        List<CouponRecord> state;
+
+        writeLock.lock();
+
+        try
+        {
+            generation = couponLog.roll();
+            state = List.copyOf(byId.values());
+            appendedSinceSnapshot = 0;
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+
+        writeSnapshot(generation, state);
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException
+    {
+        snapshotter.shutdown();
+        snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+
+        writeLock.lock();
+
+        try
+        {
+            couponLog.close();
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
+    private interface LogWrite
+    {
+        void run() throws IOException;
+    }
+
+    private void append(LogWrite write, int records)
+    {
+        try
+        {
+            write.run();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Could not append to the coupon log", e);
+        }
+
+        appendedSinceSnapshot += records;
+    }
+
+    /**
+     * Once enough records have gone to the log since the last snapshot, rolls it and hands the
+     * current state to the snapshot thread. Called under the write lock after the appended
+     * records were applied, so the state matches the logs the snapshot replaces.
+     */
+    private void snapshotIfDue()
+    {
+        if (appendedSinceSnapshot < snapshotEvery || !snapshotting.compareAndSet(false, true))
+        {
+            return;
+        }
+
+        try
+        {
+            long generation = couponLog.roll();
+            // Records are immutable, so a copy of the references is a consistent view.
+            List<CouponRecord> state = List.copyOf(byId.values());
+            appendedSinceSnapshot = 0;
+            snapshotter.execute(() -> writeSnapshot(generation, state));
+        }
+        catch (IOException | RuntimeException e)
+        {
+            snapshotting.set(false);
+            log.error("Could not start a coupon log snapshot; retrying after the next writes", e);
+        }
+    }
+
+    private void writeSnapshot(long generation, List<CouponRecord> state)
+    {
+        try
+        {
+            couponLog.writeSnapshot(generation, state);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            log.error("Coupon log snapshot {} failed; the logs it would replace are kept", generation, e);
+        }
+        finally
+        {
+            snapshotting.set(false);
+        }
+    }
+
+    /**
+     * A stored coupon only takes the lifecycle state of the copy being saved, and only when
+     * it is still active at the version that copy was read with.
+     */
+    private CouponRecord toRecord(Coupon coupon)
+    {
+        CouponRecord stored = coupon.getId() == null ? null : byId.get(coupon.getId());
+
+        if (stored == null)
+        {
+            return CouponRecord.of(coupon, coupon.getId() != null ? coupon.getId() : UUID.randomUUID());
+        }
+
+        if (stored.deleted() || stored.version() != coupon.getVersion())
+        {
+            throw new ConcurrentUpdateException();
+        }
+
+        return stored.withLifecycleOf(coupon);
+    }
+
+    private void apply(CouponRecord record)
+    {
+        CouponRecord previous = byId.put(record.id(), record);
+
+        if (previous != null && !previous.deleted())
+        {
+            activeByCode.remove(previous.code(), previous.id());
+        }
+
+        if (previous != null && !previous.createdAt().equals(record.createdAt()))
+        {
+            ordered.remove(cursor(previous));
+        }
+
+        if (!record.deleted())
+        {
+            activeByCode.put(record.code(), record.id());
+        }
+
+        ordered.put(cursor(record), record.id());
+    }
+
+    private void forget(UUID id)
+    {
+        CouponRecord record = byId.remove(id);
+
+        if (record == null)
+        {
+            return;
+        }
+
+        ordered.remove(cursor(record));
+
+        if (!record.deleted())
+        {
+            activeByCode.remove(record.code(), id);
+        }
+    }
+
+    private void loadIndex()
+    {
+        if (!index.isEnabled())
+        {
+            return;
+        }
+
+        index.reserve(activeByCode.size());
+
+        for (UUID id : activeByCode.values())
+        {
+            CouponRecord record = byId.get(id);
+            index.load(id, record.code(), record.discountValue(), record.expirationDate(), record.published());
+        }
+
+        index.markReady();
+    }
+
+    private static Optional<Coupon> active(CouponRecord record)
+    {
+        return record == null || record.deleted() ? Optional.empty() : Optional.of(record.toCoupon());
+    }
+
+    private static CouponCursor cursor(CouponRecord record)
+    {
+        return new CouponCursor(record.createdAt(), record.id());
+    }
+
+    private static boolean matches(CouponRecord record, CouponSearchCriteria criteria)
+    {
+        return (criteria.published() == null || criteria.published() == record.published())
+                && (criteria.deleted() == null || criteria.deleted() == record.deleted())
+                && (criteria.expiresFrom() == null || !record.expirationDate().isBefore(criteria.expiresFrom()))
+                && (criteria.expiresTo() == null || !record.expirationDate().isAfter(criteria.expiresTo()))
+                && (criteria.codePrefix() == null || record.code().startsWith(criteria.codePrefix()));
+    }
+}
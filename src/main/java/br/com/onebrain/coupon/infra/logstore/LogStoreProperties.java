@@ -0,0 +1,15 @@
+package br.com.onebrain.coupon.infra.logstore;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "coupon.storage.log")
+public record LogStoreProperties(
+        @DefaultValue("data/coupons") Path directory,
+        @DefaultValue("interval") FsyncPolicy fsync,
+        @DefaultValue("100ms") Duration fsyncInterval,
+        @DefaultValue("100000") long snapshotEvery
+){}
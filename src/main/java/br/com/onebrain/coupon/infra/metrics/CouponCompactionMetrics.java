@@ -0,0 +1,36 @@
+package br.com.onebrain.coupon.infra.metrics;
+
+import br.com.onebrain.coupon.app.usecase.CompactCouponsUseCase;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CouponCompactionMetrics implements MeterBinder
+{
+    private final CompactCouponsUseCase compactCouponsUseCase;
+
+    public CouponCompactionMetrics(CompactCouponsUseCase compactCouponsUseCase)
+    {
+        this.compactCouponsUseCase = compactCouponsUseCase;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        FunctionCounter.builder("coupon.compaction.archived", compactCouponsUseCase, CompactCouponsUseCase::archived)
+                .description("Dead coupons moved from the live table to the archive")
+                .register(registry);
+
+        Gauge.builder("coupon.compaction.rate", compactCouponsUseCase, CompactCouponsUseCase::lastRunRowsPerSecond)
+                .description("Rows archived per second by the last compaction run")
+                .baseUnit("rows/s")
+                .register(registry);
+
+        Gauge.builder("coupon.compaction.running", compactCouponsUseCase, useCase -> useCase.isRunning() ? 1 : 0)
+                .description("Whether a compaction run is in progress")
+                .register(registry);
+    }
+}
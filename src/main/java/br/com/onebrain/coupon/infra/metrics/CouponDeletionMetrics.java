@@ -0,0 +1,42 @@
+package br.com.onebrain.coupon.infra.metrics;
+
+import br.com.onebrain.coupon.app.usecase.BulkDeleteCouponsUseCase;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CouponDeletionMetrics implements MeterBinder
+{
+    private final BulkDeleteCouponsUseCase bulkDeleteUseCase;
+
+    public CouponDeletionMetrics(BulkDeleteCouponsUseCase bulkDeleteUseCase)
+    {
+        this.bulkDeleteUseCase = bulkDeleteUseCase;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder("coupon.deletions.pending", bulkDeleteUseCase, BulkDeleteCouponsUseCase::pending)
+                .description("Coupon ids queued or being flushed by the bulk delete")
+                .register(registry);
+
+        FunctionCounter.builder("coupon.deletions", bulkDeleteUseCase, BulkDeleteCouponsUseCase::deleted)
+                .description("Coupon ids processed by the bulk delete")
+                .tag("result", "deleted")
+                .register(registry);
+
+        FunctionCounter.builder("coupon.deletions", bulkDeleteUseCase, BulkDeleteCouponsUseCase::skipped)
+                .description("Coupon ids processed by the bulk delete")
+                .tag("result", "skipped")
+                .register(registry);
+
+        FunctionCounter.builder("coupon.deletions", bulkDeleteUseCase, BulkDeleteCouponsUseCase::failed)
+                .description("Coupon ids processed by the bulk delete")
+                .tag("result", "failed")
+                .register(registry);
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.onebrain.coupon.infra.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every use case entry point ({@code execute}, {@code export}) and every {@code CouponRepositoryPort} call, so that
+ * request latency can be split between business logic and persistence. The application
+ * layer stays free of metrics code; percentile histograms are enabled in configuration.
+ *
+ * <ul>
+ *   <li>{@code coupon.usecase}: tags {@code usecase}, {@code method}, {@code outcome}, {@code exception}</li>
+ *   <li>{@code coupon.repository}: tags {@code method}, {@code outcome}, {@code exception}</li>
+ * </ul>
+ */
+@Aspect
+@Component
+public class CouponMetricsAspect
+{
+    static final String USE_CASE_TIMER = "coupon.usecase";
+    static final String REPOSITORY_TIMER = "coupon.repository";
+
+    private final MeterRegistry registry;
+
+    public CouponMetricsAspect(MeterRegistry registry)
+    {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * br.com.onebrain.coupon.app.usecase.*UseCase.execute(..))"
+            + " || execution(public * br.com.onebrain.coupon.app.usecase.*UseCase.export(..))")
+    public Object timeUseCase(ProceedingJoinPoint joinPoint) throws Throwable
+    {
+        return time(
+                Timer.builder(USE_CASE_TIMER)
+                        .description("Use case execution time")
+                        .tag("usecase", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                        .tag("method", joinPoint.getSignature().getName()),
+                joinPoint
+        );
+    }
+
+    @Around("execution(* br.com.onebrain.coupon.app.port.CouponRepositoryPort+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable
+    {
+        return time(
+                Timer.builder(REPOSITORY_TIMER)
+                        .description("Coupon repository call time")
+                        .tag("method", joinPoint.getSignature().getName()),
+                joinPoint
+        );
+    }
+
+    private Object time(Timer.Builder timer, ProceedingJoinPoint joinPoint) throws Throwable
+    {
+        Timer.Sample sample = Timer.start(registry);
+
+        try
+        {
+            Object result = joinPoint.proceed();
+            sample.stop(timer.tag("outcome", "success").tag("exception", "none").register(registry));
+            return result;
+        }
+        catch (Throwable e)
+        {
+            sample.stop(timer.tag("outcome", "error").tag("exception", e.getClass().getSimpleName()).register(registry));
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.onebrain.coupon.infra.metrics;
+
+import br.com.onebrain.coupon.app.usecase.ApplyCouponSchedulesUseCase;
+import br.com.onebrain.coupon.infra.schedule.CouponTimers;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "coupon.schedule.enabled", havingValue = "true", matchIfMissing = true)
+public class CouponScheduleMetrics implements MeterBinder
+{
+    private final ApplyCouponSchedulesUseCase applyUseCase;
+    private final CouponTimers timers;
+
+    public CouponScheduleMetrics(ApplyCouponSchedulesUseCase applyUseCase, CouponTimers timers)
+    {
+        this.applyUseCase = applyUseCase;
+        this.timers = timers;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder("coupon.schedule.timers", timers, CouponTimers::pending)
+                .description("Publication timers armed and not yet expired")
+                .register(registry);
+
+        Gauge.builder("coupon.schedule.memory", timers, CouponTimers::memoryBytes)
+                .description("Bytes held by the publication timer wheel")
+                .baseUnit("bytes")
+                .register(registry);
+
+        FunctionCounter.builder("coupon.schedule.transitions", applyUseCase, ApplyCouponSchedulesUseCase::applied)
+                .description("Scheduled publications and unpublications processed")
+                .tag("result", "applied")
+                .register(registry);
+
+        FunctionCounter.builder("coupon.schedule.transitions", applyUseCase, ApplyCouponSchedulesUseCase::failed)
+                .description("Scheduled publications and unpublications processed")
+                .tag("result", "failed")
+                .register(registry);
+    }
+}
@@ -0,0 +1,229 @@
+package br.com.onebrain.coupon.infra.reactive;
+
+import br.com.onebrain.coupon.app.port.ReactiveCouponRepositoryPort;
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import io.r2dbc.spi.Readable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * {@link ReactiveCouponRepositoryPort} on R2DBC, with plain SQL against the same
+ * {@code coupons} table the JPA mapping describes. Every statement is a single row write,
+ * so none needs an explicit transaction: uniqueness of active codes is left to the
+ * {@code uk_coupons_active_code} constraint and lifecycle changes are conditional on the
+ * version, exactly as in the JPA adapter.
+ *
+ * <p>There is no cache, index or outbox on this side; the change feed only covers the
+ * servlet application.
+ */
+@Component
+public class R2dbcCouponRepositoryAdapter implements ReactiveCouponRepositoryPort
+{
+    private static final String COLUMNS = """
+            id, code, description, discount_value, expiration_date, published, max_usages,
+            usage_count, deleted, deleted_at, created_at, updated_at, publish_at, unpublish_at, version
+            """;
+
+    private final DatabaseClient client;
+
+    public R2dbcCouponRepositoryAdapter(DatabaseClient client)
+    {
+        this.client = client;
+    }
+
+    @Override
+    public Mono<Coupon> save(Coupon coupon)
+    {
+        return coupon.isNew() ? insert(coupon) : update(coupon);
+    }
+
+    @Override
+    public Mono<Coupon> findActiveById(UUID id)
+    {
+        return client.sql("select " + COLUMNS + " from coupons where id = :id and deleted = false")
+                .bind("id", id)
+                .map(R2dbcCouponRepositoryAdapter::toCoupon)
+                .one();
+    }
+
+    @Override
+    public Mono<Coupon> findActiveByCode(String normalizedCode)
+    {
+        return client.sql("select " + COLUMNS + " from coupons where active_code = :code")
+                .bind("code", normalizedCode)
+                .map(R2dbcCouponRepositoryAdapter::toCoupon)
+                .one();
+    }
+
+    @Override
+    public Mono<Boolean> incrementUsage(UUID id)
+    {
+        return client.sql("""
+                        update coupons
+                           set usage_count = usage_count + 1
+                         where id = :id
+                           and deleted = false
+                           and (max_usages is null or usage_count < max_usages)
+                        """)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows == 1);
+    }
+
+    /**
+     * The id is assigned here, as the JPA adapter leaves it to Hibernate; the stored coupon
+     * is returned as a new instance, like {@code saveAndFlush} does.
+     */
+    private Mono<Coupon> insert(Coupon coupon)
+    {
+        UUID id = UUID.randomUUID();
+
+        DatabaseClient.GenericExecuteSpec insert = client.sql("""
+                        insert into coupons (id, code, active_code, description, discount_value, expiration_date,
+                                             published, publish_at, unpublish_at, max_usages, usage_count,
+                                             deleted, deleted_at, created_at, updated_at, version)
+                        values (:id, :code, :code, :description, :discountValue, :expirationDate,
+                                :published, :publishAt, :unpublishAt, :maxUsages, 0,
+                                false, null, :createdAt, :updatedAt, 0)
+                        """)
+                .bind("id", id)
+                .bind("code", coupon.getCode())
+                .bind("description", coupon.getDescription())
+                .bind("discountValue", coupon.getDiscountValue())
+                .bind("expirationDate", coupon.getExpirationDate())
+                .bind("published", coupon.isPublished())
+                .bind("createdAt", coupon.getCreatedAt())
+                .bind("updatedAt", coupon.getUpdatedAt());
+
+        insert = bindNullable(insert, "publishAt", coupon.getPublishAt(), Instant.class);
+        insert = bindNullable(insert, "unpublishAt", coupon.getUnpublishAt(), Instant.class);
+        insert = bindNullable(insert, "maxUsages", coupon.getMaxUsages(), Integer.class);
+
+        return insert.fetch()
+                .rowsUpdated()
+                .onErrorMap(DataIntegrityViolationException.class, R2dbcCouponRepositoryAdapter::translateViolation)
+                .map(rows ->
+                {
+                    coupon.clearPendingEvents();
+
+                    return Coupon.restore(
+                            id,
+                            coupon.getCode(),
+                            coupon.getDescription(),
+                            coupon.getDiscountValue(),
+                            coupon.getExpirationDate(),
+                            coupon.isPublished(),
+                            coupon.getMaxUsages(),
+                            0,
+                            false,
+                            null,
+                            coupon.getCreatedAt(),
+                            coupon.getUpdatedAt(),
+                            coupon.getPublishAt(),
+                            coupon.getUnpublishAt(),
+                            0
+                    );
+                });
+    }
+
+    /**
+     * Writes only the lifecycle columns, on the version the coupon was read with; see
+     * {@code CouponRepositoryAdapter#update}.
+     */
+    private Mono<Coupon> update(Coupon coupon)
+    {
+        DatabaseClient.GenericExecuteSpec update = client.sql("""
+                        update coupons
+                           set published = :published,
+                               deleted = :deleted,
+                               deleted_at = :deletedAt,
+                               active_code = :activeCode,
+                               publish_at = :publishAt,
+                               unpublish_at = :unpublishAt,
+                               updated_at = :updatedAt,
+                               version = version + 1
+                         where id = :id
+                           and deleted = false
+                           and version = :version
+                        """)
+                .bind("id", coupon.getId())
+                .bind("version", coupon.getVersion())
+                .bind("published", coupon.isPublished())
+                .bind("deleted", coupon.isDeleted())
+                .bind("updatedAt", coupon.getUpdatedAt());
+
+        update = bindNullable(update, "deletedAt", coupon.getDeletedAt(), Instant.class);
+        update = bindNullable(update, "activeCode", coupon.isDeleted() ? null : coupon.getCode(), String.class);
+        update = bindNullable(update, "publishAt", coupon.getPublishAt(), Instant.class);
+        update = bindNullable(update, "unpublishAt", coupon.getUnpublishAt(), Instant.class);
+
+        return update.fetch()
+                .rowsUpdated()
+                .flatMap(rows ->
+                {
+                    if (rows != 1)
+                    {
+                        return Mono.error(new ConcurrentUpdateException());
+                    }
+
+                    coupon.advanceVersion();
+                    coupon.clearPendingEvents();
+                    return Mono.just(coupon);
+                });
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                     String name,
+                                                                     T value,
+                                                                     Class<T> type)
+    {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static Throwable translateViolation(DataIntegrityViolationException exception)
+    {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause())
+        {
+            String message = cause.getMessage();
+
+            if (message != null && message.toLowerCase().contains(Coupon.ACTIVE_CODE_CONSTRAINT))
+            {
+                return new DomainException(CouponMessages.CODE_ALREADY_EXISTS);
+            }
+        }
+
+        return exception;
+    }
+
+    private static Coupon toCoupon(Readable row)
+    {
+        return Coupon.restore(
+                row.get("id", UUID.class),
+                row.get("code", String.class),
+                row.get("description", String.class),
+                row.get("discount_value", BigDecimal.class),
+                row.get("expiration_date", LocalDate.class),
+                Boolean.TRUE.equals(row.get("published", Boolean.class)),
+                row.get("max_usages", Integer.class),
+                row.get("usage_count", Integer.class),
+                Boolean.TRUE.equals(row.get("deleted", Boolean.class)),
+                row.get("deleted_at", Instant.class),
+                row.get("created_at", Instant.class),
+                row.get("updated_at", Instant.class),
+                row.get("publish_at", Instant.class),
+                row.get("unpublish_at", Instant.class),
+                row.get("version", Long.class)
+        );
+    }
+}
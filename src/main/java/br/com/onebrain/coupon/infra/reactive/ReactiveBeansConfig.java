@@ -0,0 +1,67 @@
+package br.com.onebrain.coupon.infra.reactive;
+
+import br.com.onebrain.coupon.app.port.ReactiveCouponRepositoryPort;
+import br.com.onebrain.coupon.app.usecase.ReactiveCreateCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.ReactiveDeleteCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.ReactivePublishCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.ReactiveQuoteCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.ReactiveRedeemCouponUseCase;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ReactiveBeansConfig
+{
+    @Bean
+    public Clock clock()
+    {
+        return Clock.systemUTC();
+    }
+
+    /**
+     * Boot prefers Tomcat when it is on the classpath, which it is for the servlet application;
+     * the point of this variant is a small fixed set of Netty event loops instead.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ObjectProvider<NettyServerCustomizer> customizers)
+    {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.getServerCustomizers().addAll(customizers.orderedStream().toList());
+        return factory;
+    }
+
+    @Bean
+    public ReactiveCreateCouponUseCase reactiveCreateCouponUseCase(ReactiveCouponRepositoryPort repo, Clock clock)
+    {
+        return new ReactiveCreateCouponUseCase(repo, clock);
+    }
+
+    @Bean
+    public ReactiveDeleteCouponUseCase reactiveDeleteCouponUseCase(ReactiveCouponRepositoryPort repo, Clock clock)
+    {
+        return new ReactiveDeleteCouponUseCase(repo, clock);
+    }
+
+    @Bean
+    public ReactivePublishCouponUseCase reactivePublishCouponUseCase(ReactiveCouponRepositoryPort repo, Clock clock)
+    {
+        return new ReactivePublishCouponUseCase(repo, clock);
+    }
+
+    @Bean
+    public ReactiveRedeemCouponUseCase reactiveRedeemCouponUseCase(ReactiveCouponRepositoryPort repo, Clock clock)
+    {
+        return new ReactiveRedeemCouponUseCase(repo, clock);
+    }
+
+    @Bean
+    public ReactiveQuoteCouponUseCase reactiveQuoteCouponUseCase(ReactiveCouponRepositoryPort repo, Clock clock)
+    {
+        return new ReactiveQuoteCouponUseCase(repo, clock);
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.onebrain.coupon.infra.reactive;
+
+import br.com.onebrain.coupon.infra.web.AdmissionProperties;
+import br.com.onebrain.coupon.infra.web.ApiExceptionHandler;
+import br.com.onebrain.coupon.infra.web.CouponResponseSerializer;
+import br.com.onebrain.coupon.infra.web.IdempotencyProperties;
+import br.com.onebrain.coupon.infra.web.ReactiveAdmissionControlFilter;
+import br.com.onebrain.coupon.infra.web.ReactiveIdempotencyFilter;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Non-blocking variant of the coupon API: WebFlux on Netty over R2DBC, started on its own
+ * instead of {@code CouponApplication}, which leaves this package out. Only this package is
+ * scanned; the domain, the DTOs, the JSON serializer, the error handling and the admission
+ * and idempotency filters (as {@code WebFilter}s) are shared with the servlet application.
+ * Settings come from the {@value #PROFILE} profile.
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class
+})
+@Import({
+        ApiExceptionHandler.class,
+        CouponResponseSerializer.class,
+        ReactiveAdmissionControlFilter.class,
+        ReactiveIdempotencyFilter.class
+})
+@EnableConfigurationProperties({ AdmissionProperties.class, IdempotencyProperties.class })
+public class ReactiveCouponApplication
+{
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args)
+    {
+        application().run(args);
+    }
+
+    public static SpringApplicationBuilder application()
+    {
+        return new SpringApplicationBuilder(ReactiveCouponApplication.class).profiles(PROFILE);
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.onebrain.coupon.infra.reactive;
+
+import br.com.onebrain.coupon.app.usecase.CreateCouponCommand;
+import br.com.onebrain.coupon.app.usecase.ReactiveCreateCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.ReactiveDeleteCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.ReactivePublishCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.ReactiveQuoteCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.ReactiveRedeemCouponUseCase;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.infra.web.dto.CouponResponse;
+import br.com.onebrain.coupon.infra.web.dto.CreateCouponRequest;
+import br.com.onebrain.coupon.infra.web.dto.QuoteResponse;
+import br.com.onebrain.coupon.infra.web.dto.RedemptionResponse;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * WebFlux counterpart of {@code CouponController} for the single-coupon routes: same paths,
+ * bodies and status codes, and the same {@code ProblemDetail} errors through the shared
+ * {@code ApiExceptionHandler}. Listing, export, batches and schedules stay on the servlet
+ * application.
+ */
+@RestController
+@RequestMapping("/coupons")
+public class ReactiveCouponController
+{
+    private final ReactiveCreateCouponUseCase createUseCase;
+    private final ReactiveDeleteCouponUseCase deleteUseCase;
+    private final ReactivePublishCouponUseCase publishUseCase;
+    private final ReactiveRedeemCouponUseCase redeemUseCase;
+    private final ReactiveQuoteCouponUseCase quoteUseCase;
+
+    public ReactiveCouponController(ReactiveCreateCouponUseCase createUseCase,
+                                    ReactiveDeleteCouponUseCase deleteUseCase,
+                                    ReactivePublishCouponUseCase publishUseCase,
+                                    ReactiveRedeemCouponUseCase redeemUseCase,
+                                    ReactiveQuoteCouponUseCase quoteUseCase)
+    {
+        this.createUseCase = createUseCase;
+        this.deleteUseCase = deleteUseCase;
+        this.publishUseCase = publishUseCase;
+        this.redeemUseCase = redeemUseCase;
+        this.quoteUseCase = quoteUseCase;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<CouponResponse> create(@RequestBody @Valid CreateCouponRequest request)
+    {
+        return createUseCase.execute(toCommand(request)).map(ReactiveCouponController::toResponse);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable UUID id)
+    {
+        return deleteUseCase.execute(id);
+    }
+
+    @PostMapping("/{id}/publish")
+    public Mono<CouponResponse> publish(@PathVariable UUID id)
+    {
+        return publishUseCase.execute(id).map(ReactiveCouponController::toResponse);
+    }
+
+    @PostMapping("/{code}/redeem")
+    public Mono<RedemptionResponse> redeem(@PathVariable String code)
+    {
+        return redeemUseCase.execute(code).map(redemption -> new RedemptionResponse(
+                redemption.couponId(),
+                redemption.code(),
+                redemption.discountValue(),
+                redemption.redeemedAt()
+        ));
+    }
+
+    @GetMapping("/{code}/quote")
+    public Mono<QuoteResponse> quote(@PathVariable String code, @RequestParam(required = false) BigDecimal amount)
+    {
+        return quoteUseCase.execute(code, amount).map(quote -> new QuoteResponse(
+                quote.code(),
+                quote.amount(),
+                quote.discount(),
+                quote.total(),
+                quote.applicable(),
+                quote.reason()
+        ));
+    }
+
+    private static CreateCouponCommand toCommand(CreateCouponRequest request)
+    {
+        return new CreateCouponCommand(
+                request.code(),
+                request.description(),
+                request.discountValue(),
+                request.expirationDate(),
+                request.published(),
+                request.maxUsages()
+        );
+    }
+
+    private static CouponResponse toResponse(Coupon c)
+    {
+        return new CouponResponse(
+                c.getId(),
+                c.getCode(),
+                c.getDescription(),
+                c.getDiscountValue(),
+                c.getExpirationDate(),
+                c.isPublished(),
+                c.isDeleted(),
+                c.getMaxUsages(),
+                c.getUsageCount(),
+                c.getPublishAt(),
+                c.getUnpublishAt()
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.onebrain.coupon.infra.schedule;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Scheduled publication.
+ *
+ * @param enabled    when {@code false} no timer is armed or advanced and schedule requests
+ *                   are rejected, since nothing would apply them
+ * @param batchSize  most coupons applied by one update when timers expire together
+ * @param retryDelay how long a batch that failed waits before it is tried again
+ */
+@ConfigurationProperties(prefix = "coupon.schedule")
+public record CouponScheduleProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("PT1S") Duration tick,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("30s") Duration retryDelay
+){}
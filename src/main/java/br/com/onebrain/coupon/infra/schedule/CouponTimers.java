@@ -0,0 +1,99 @@
+package br.com.onebrain.coupon.infra.schedule;
+
+import br.com.onebrain.coupon.app.port.CouponSchedule;
+import br.com.onebrain.coupon.app.port.CouponTimerPort;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The publication timers of every active coupon, on one {@link HierarchicalTimerWheel}
+ * whose tick is {@code coupon.schedule.tick}. Arming and advancing share one lock; both are
+ * short, since an advance only collects the expired ids and leaves applying them to the caller.
+ * Only present while {@code coupon.schedule.enabled}: without the job advancing it, the wheel
+ * would only grow.
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.schedule.enabled", havingValue = "true", matchIfMissing = true)
+public class CouponTimers implements CouponTimerPort
+{
+    private static final int PUBLISH = 0;
+    private static final int UNPUBLISH = 1;
+
+    private final HierarchicalTimerWheel wheel;
+
+    public CouponTimers(CouponScheduleProperties properties, Clock clock)
+    {
+        this.wheel = new HierarchicalTimerWheel(properties.tick().toMillis(), clock.millis());
+    }
+
+    @Override
+    public void arm(CouponSchedule schedule)
+    {
+        UUID id = schedule.couponId();
+
+        synchronized (wheel)
+        {
+            if (schedule.publishAt() != null)
+            {
+                wheel.schedule(id.getMostSignificantBits(), id.getLeastSignificantBits(), PUBLISH, millis(schedule.publishAt()));
+            }
+
+            if (schedule.unpublishAt() != null)
+            {
+                wheel.schedule(id.getMostSignificantBits(), id.getLeastSignificantBits(), UNPUBLISH, millis(schedule.unpublishAt()));
+            }
+        }
+    }
+
+    /**
+     * Moves the wheel up to {@code now} and returns the coupons whose timers expired.
+     */
+    public DueCoupons advance(Instant now)
+    {
+        List<UUID> publish = new ArrayList<>();
+        List<UUID> unpublish = new ArrayList<>();
+
+        synchronized (wheel)
+        {
+            wheel.advance(now.toEpochMilli(), (msb, lsb, kind) ->
+                    (kind == PUBLISH ? publish : unpublish).add(new UUID(msb, lsb)));
+        }
+
+        return new DueCoupons(publish, unpublish);
+    }
+
+    public long pending()
+    {
+        synchronized (wheel)
+        {
+            return wheel.size();
+        }
+    }
+
+    public long memoryBytes()
+    {
+        synchronized (wheel)
+        {
+            return wheel.memoryBytes();
+        }
+    }
+
+    // Instants too far out for epoch millis are as good as never.
+    private static long millis(Instant instant)
+    {
+        try
+        {
+            return instant.toEpochMilli();
+        }
+        catch (ArithmeticException e)
+        {
+            return instant.isBefore(Instant.EPOCH) ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+}
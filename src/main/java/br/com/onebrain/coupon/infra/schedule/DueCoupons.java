@@ -0,0 +1,17 @@
+package br.com.onebrain.coupon.infra.schedule;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Coupons whose timers expired on one advance of {@link CouponTimers}, by transition.
+ */
+public record DueCoupons(
+        List<UUID> publish,
+        List<UUID> unpublish
+){
+    public boolean isEmpty()
+    {
+        return publish.isEmpty() && unpublish.isEmpty();
+    }
+}
@@ -0,0 +1,201 @@
+package br.com.onebrain.coupon.infra.schedule;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel for a large number of timers keyed by a UUID. There are
+ * {@value #LEVELS} wheels of {@value #SLOTS} slots, and a slot of level {@code L} spans
+ * {@code 64^L} ticks. A timer goes to the lowest level whose range covers the ticks it has
+ * left. Each time the wheel above turns to its slot, the timer moves down a level. Arming is
+ * O(1), a timer is moved at most once per level, and a tick only touches the slots that turn
+ * on it, however many timers are pending. A timer never expires early. It expires on the tick
+ * that reaches its deadline, or on the next tick if the deadline had already passed when it
+ * was armed.
+ *
+ * <p>Timers are packed into one {@code long[]} per slot, three longs each: the id halves,
+ * and the deadline tick with the kind in its low bits. That is about 24 bytes per timer and
+ * no object per timer, where a priority queue of timer objects costs several times that and
+ * pays {@code log n} on every insert. Deadlines beyond the range of the top level are simply
+ * cascaded again until they come into range.
+ *
+ * <p>Not thread-safe: the owner serializes every call.
+ */
+public final class HierarchicalTimerWheel
+{
+    /**
+     * Receives expired timers. It must not arm timers on the wheel that is calling it.
+     */
+    public interface Expiry
+    {
+        void expired(long idMsb, long idLsb, int kind);
+    }
+
+    public static final int MAX_KIND = 3;
+
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int LEVELS = 6;
+
+    private static final long SLOT_MASK = SLOTS - 1;
+    private static final int KIND_BITS = 2;
+    private static final long MAX_DEADLINE = Long.MAX_VALUE >>> KIND_BITS;
+    private static final int WORDS_PER_TIMER = 3;
+    private static final int INITIAL_WORDS = 4 * WORDS_PER_TIMER;
+
+    private final long tickMillis;
+    private final long[][] slots = new long[LEVELS * SLOTS][];
+    private final int[] lengths = new int[LEVELS * SLOTS];
+    private long currentTick;
+    private long size;
+
+    public HierarchicalTimerWheel(long tickMillis, long startMillis)
+    {
+        if (tickMillis < 1)
+        {
+            throw new IllegalArgumentException("Tick must be >= 1 ms");
+        }
+
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    public void schedule(long idMsb, long idLsb, int kind, long atMillis)
+    {
+        if (kind < 0 || kind > MAX_KIND)
+        {
+            throw new IllegalArgumentException("Kind must be between 0 and " + MAX_KIND);
+        }
+
+        // Rounded up, so that reaching the deadline tick means the time has come.
+        long deadline = Math.min(-Math.floorDiv(-atMillis, tickMillis), MAX_DEADLINE);
+        insert(idMsb, idLsb, Math.max(deadline, currentTick + 1) << KIND_BITS | kind);
+        size++;
+    }
+
+    /**
+     * Moves the wheel tick by tick up to {@code nowMillis} and hands every timer that expires
+     * on the way to {@code expiry}. An empty wheel jumps straight there.
+     *
+     * @return how many timers expired.
+     */
+    public int advance(long nowMillis, Expiry expiry)
+    {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        int expired = 0;
+
+        while (currentTick < target)
+        {
+            if (size == 0)
+            {
+                currentTick = target;
+                break;
+            }
+
+            currentTick++;
+
+            // Levels whose wheel turns to a new slot on this tick, highest first.
+            int turning = 1;
+
+            while (turning < LEVELS && (currentTick & ((1L << (SLOT_BITS * turning)) - 1)) == 0)
+            {
+                turning++;
+            }
+
+            for (int level = turning - 1; level >= 0; level--)
+            {
+                expired += drain(level, expiry);
+            }
+        }
+
+        return expired;
+    }
+
+    public long size()
+    {
+        return size;
+    }
+
+    public long memoryBytes()
+    {
+        long bytes = 0;
+
+        for (long[] slot : slots)
+        {
+            if (slot != null)
+            {
+                bytes += 16 + (long) slot.length * Long.BYTES;
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Empties the current slot of {@code level}: timers that are due expire, the others move
+     * to a lower level (or, past the range of the wheel, back to the top one).
+     */
+    private int drain(int level, Expiry expiry)
+    {
+        int slot = level * SLOTS + (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        long[] timers = slots[slot];
+        int length = lengths[slot];
+
+        if (length == 0)
+        {
+            return 0;
+        }
+
+        slots[slot] = null;
+        lengths[slot] = 0;
+
+        int expired = 0;
+
+        for (int i = 0; i < length; i += WORDS_PER_TIMER)
+        {
+            long packed = timers[i + 2];
+
+            if (packed >>> KIND_BITS <= currentTick)
+            {
+                size--;
+                expired++;
+                expiry.expired(timers[i], timers[i + 1], (int) (packed & MAX_KIND));
+            }
+            else
+            {
+                insert(timers[i], timers[i + 1], packed);
+            }
+        }
+
+        return expired;
+    }
+
+    private void insert(long idMsb, long idLsb, long packed)
+    {
+        long deadline = packed >>> KIND_BITS;
+        long remaining = deadline - currentTick;
+        int level = 0;
+
+        while (level < LEVELS - 1 && remaining >= 1L << (SLOT_BITS * (level + 1)))
+        {
+            level++;
+        }
+
+        int slot = level * SLOTS + (int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        long[] timers = slots[slot];
+        int length = lengths[slot];
+
+        if (timers == null)
+        {
+            timers = slots[slot] = new long[INITIAL_WORDS];
+        }
+        else if (length == timers.length)
+        {
+            timers = slots[slot] = Arrays.copyOf(timers, length * 2);
+        }
+
+        timers[length] = idMsb;
+        timers[length + 1] = idLsb;
+        timers[length + 2] = packed;
+        lengths[slot] = length + WORDS_PER_TIMER;
+    }
+}
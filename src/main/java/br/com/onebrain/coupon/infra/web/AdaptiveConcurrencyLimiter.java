@@ -0,0 +1,87 @@
+package br.com.onebrain.coupon.infra.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps concurrent requests with a limit that adapts to latency (AIMD): a request slower than
+ * the threshold cuts the limit by a tenth, at most once per threshold period, and fast
+ * requests that found the limit well used raise it by one. When the database slows down,
+ * requests queue up in it, latency crosses the threshold and the excess is shed here with a
+ * cheap 503 instead of waiting for a connection.
+ *
+ * <p>Requests whose duration says nothing about saturation, such as streams and bulk jobs,
+ * give their slot back with {@link #releaseUnsampled()} so they never move the limit.
+ */
+class AdaptiveConcurrencyLimiter
+{
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecrease = new AtomicLong(Long.MIN_VALUE);
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos)
+    {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit)
+        {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = new AtomicInteger(initialLimit);
+    }
+
+    boolean tryAcquire()
+    {
+        if (inFlight.incrementAndGet() > limit.get())
+        {
+            inFlight.decrementAndGet();
+            return false;
+        }
+
+        return true;
+    }
+
+    void release(long startedNanos, long finishedNanos)
+    {
+        int current = inFlight.getAndDecrement();
+        long latency = finishedNanos - startedNanos;
+
+        if (latency > latencyThresholdNanos)
+        {
+            long last = lastDecrease.get();
+
+            boolean due = last == Long.MIN_VALUE || finishedNanos - last >= latencyThresholdNanos;
+
+            if (due && lastDecrease.compareAndSet(last, finishedNanos))
+            {
+                limit.updateAndGet(value -> Math.max(minLimit, (int) (value * DECREASE_FACTOR)));
+            }
+        }
+        else if (current * 2 >= limit.get())
+        {
+            limit.updateAndGet(value -> Math.min(maxLimit, value + 1));
+        }
+    }
+
+    void releaseUnsampled()
+    {
+        inFlight.decrementAndGet();
+    }
+
+    int limit()
+    {
+        return limit.get();
+    }
+
+    int inFlight()
+    {
+        return inFlight.get();
+    }
+}
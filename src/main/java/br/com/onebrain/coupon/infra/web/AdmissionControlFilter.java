@@ -0,0 +1,220 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.domain.CouponMessages;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for {@code /coupons/**}: each client first spends a token from its
+ * {@link ClientRateLimiter} bucket (429 when empty), then takes a slot from the
+ * {@link AdaptiveConcurrencyLimiter} (503 when the service is saturated). Both rejections are
+ * the same {@code ProblemDetail} responses {@link ApiExceptionHandler} produces, with a
+ * {@code Retry-After} header, and are counted with the other API errors.
+ *
+ * <p>The slot is held until the response completes, including the asynchronous part of a
+ * streamed export. The change feed ({@code /coupons/events}) is only rate limited: its long
+ * polls and streams wait on purpose and would otherwise pin slots and read as slow requests.
+ *
+ * <p>Only requests that should be fast feed their latency to the limiter. Bulk jobs (batch
+ * creation, imports, code generation) and any response that went asynchronous, i.e. a
+ * stream, are slow by size rather than by saturation: they still hold a slot, but their
+ * duration is not sampled, or one large export would shrink the limit for everyone.
+ */
+@Component
+@Order(AdmissionControlFilter.ORDER)
+@ConditionalOnProperty(name = "coupon.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter implements MeterBinder
+{
+    /** Ahead of {@link IdempotencyFilter}, so that replays are rate limited like any other retry. */
+    static final int ORDER = 0;
+
+    private static final String COUPONS_PATH = "/coupons";
+    private static final String EVENTS_PATH = COUPONS_PATH + "/events";
+    private static final Set<String> BULK_PATHS = Set.of(
+            COUPONS_PATH + "/batch",
+            COUPONS_PATH + "/import",
+            COUPONS_PATH + "/generate"
+    );
+    private static final Duration OVERLOADED_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ClientResolver clients;
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ProblemResponseWriter problems;
+
+    public AdmissionControlFilter(AdmissionProperties properties,
+                                  ApiExceptionHandler exceptionHandler,
+                                  ObjectMapper objectMapper)
+    {
+        this.clients = new ClientResolver(properties.clientHeader());
+        this.rateLimiter = new ClientRateLimiter(
+                properties.requestsPerSecond(),
+                properties.burst(),
+                properties.maxClients(),
+                properties.idleExpiry(),
+                Ticker.systemTicker()
+        );
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+                properties.initialConcurrency(),
+                properties.minConcurrency(),
+                properties.maxConcurrency(),
+                properties.latencyThreshold().toNanos()
+        );
+        this.problems = new ProblemResponseWriter(exceptionHandler, objectMapper);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request)
+    {
+        String path = request.getServletPath();
+        return !path.equals(COUPONS_PATH) && !path.startsWith(COUPONS_PATH + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException
+    {
+        long waitNanos = rateLimiter.tryAcquire(clients.clientOf(request));
+
+        if (waitNanos > 0)
+        {
+            Duration wait = Duration.ofNanos(waitNanos);
+            long seconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+            problems.write(request, response, new RejectedRequestException(HttpStatus.TOO_MANY_REQUESTS, wait, CouponMessages.RATE_LIMITED, seconds));
+            return;
+        }
+
+        // Feed connections are idle by design; counting their lifetime as latency would shrink the limit.
+        if (request.getServletPath().equals(EVENTS_PATH))
+        {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!concurrencyLimiter.tryAcquire())
+        {
+            problems.write(request, response, new RejectedRequestException(HttpStatus.SERVICE_UNAVAILABLE, OVERLOADED_RETRY_AFTER, CouponMessages.OVERLOADED));
+            return;
+        }
+
+        Release release = new Release(System.nanoTime(), !isBulk(request));
+
+        try
+        {
+            chain.doFilter(request, response);
+
+            if (request.isAsyncStarted())
+            {
+                release.sampled = false;
+                request.getAsyncContext().addListener(release);
+                return;
+            }
+        }
+        catch (IOException | ServletException | RuntimeException e)
+        {
+            release.run();
+            throw e;
+        }
+
+        release.run();
+    }
+
+    private static boolean isBulk(HttpServletRequest request)
+    {
+        return "POST".equals(request.getMethod()) && BULK_PATHS.contains(request.getServletPath());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder("coupon.admission.clients", rateLimiter, ClientRateLimiter::trackedClients)
+                .description("Clients with a rate limit bucket in memory")
+                .register(registry);
+
+        Gauge.builder("coupon.admission.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive limit of concurrent coupon requests")
+                .register(registry);
+
+        Gauge.builder("coupon.admission.concurrency.in_flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Coupon requests currently admitted")
+                .register(registry);
+    }
+
+    /**
+     * Gives the concurrency slot back exactly once, whether the request ends synchronously
+     * or through its async context, and reports the latency only when it is {@code sampled}.
+     */
+    private final class Release implements AsyncListener
+    {
+        private final long startedNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean sampled;
+
+        private Release(long startedNanos, boolean sampled)
+        {
+            this.startedNanos = startedNanos;
+            this.sampled = sampled;
+        }
+
+        void run()
+        {
+            if (!released.compareAndSet(false, true))
+            {
+                return;
+            }
+
+            if (sampled)
+            {
+                concurrencyLimiter.release(startedNanos, System.nanoTime());
+            }
+            else
+            {
+                concurrencyLimiter.releaseUnsampled();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event)
+        {
+            run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event)
+        {
+            run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event)
+        {
+            run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event)
+        {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
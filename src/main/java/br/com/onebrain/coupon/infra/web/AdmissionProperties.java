@@ -0,0 +1,28 @@
+package br.com.onebrain.coupon.infra.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Admission control in front of the coupon endpoints: a per-client rate limit and an
+ * adaptive cap on concurrent requests.
+ *
+ * @param clientHeader header that identifies the client; empty to key by remote address.
+ *                     Only set it when a gateway in front of the service fills it in, since
+ *                     clients could otherwise pick a new identity per request.
+ */
+@ConfigurationProperties(prefix = "coupon.admission")
+public record AdmissionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("") String clientHeader,
+        @DefaultValue("20") double requestsPerSecond,
+        @DefaultValue("40") int burst,
+        @DefaultValue("100000") long maxClients,
+        @DefaultValue("10m") Duration idleExpiry,
+        @DefaultValue("64") int initialConcurrency,
+        @DefaultValue("8") int minConcurrency,
+        @DefaultValue("256") int maxConcurrency,
+        @DefaultValue("250ms") Duration latencyThreshold
+){}
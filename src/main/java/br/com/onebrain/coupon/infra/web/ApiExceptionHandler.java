@@ -1,28 +1,41 @@
 package br.com.onebrain.coupon.infra.web;
 
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
 import br.com.onebrain.coupon.domain.DomainException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.Locale;
 
 @RestControllerAdvice
 public class ApiExceptionHandler
 {
+    private static final String ERRORS_COUNTER = "coupon.api.errors";
+    private static final String NO_MESSAGE_KEY = "none";
+
     private final MessageSource messageSource;
+    private final MeterRegistry registry;
 
-    public ApiExceptionHandler(MessageSource messageSource)
+    public ApiExceptionHandler(MessageSource messageSource, MeterRegistry registry)
     {
         this.messageSource = messageSource;
+        this.registry = registry;
     }
 
     @ExceptionHandler(DomainException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ProblemDetail handleDomainException(DomainException exception, Locale locale)
     {
+        countError(HttpStatus.BAD_REQUEST, exception.getMessageKey(), exception);
+
         String resolvedMessage = messageSource.getMessage(
                 exception.getMessageKey(),
                 exception.getArgs(),
@@ -39,10 +52,66 @@ public class ApiExceptionHandler
         return problemDetail;
     }
 
+    /**
+     * Only reached once the use case ran out of retries, i.e. the coupon is under heavy
+     * concurrent change; the request itself was valid and can be repeated as is.
+     */
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ProblemDetail handleConcurrentUpdate(ConcurrentUpdateException exception, Locale locale)
+    {
+        countError(HttpStatus.CONFLICT, exception.getMessageKey(), exception);
+
+        ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+        problemDetail.setTitle("Concurrent update.");
+        problemDetail.setDetail(messageSource.getMessage(
+                exception.getMessageKey(),
+                exception.getArgs(),
+                exception.getMessageKey(),
+                locale
+        ));
+
+        problemDetail.setProperty("messageKey", exception.getMessageKey());
+
+        return problemDetail;
+    }
+
+    @ExceptionHandler(RejectedRequestException.class)
+    public ResponseEntity<ProblemDetail> handleRejectedRequest(RejectedRequestException exception, Locale locale)
+    {
+        HttpStatus status = exception.getStatus();
+        countError(status, exception.getMessageKey(), exception);
+
+        ProblemDetail problemDetail = ProblemDetail.forStatus(status);
+        problemDetail.setTitle(status.getReasonPhrase());
+        problemDetail.setDetail(messageSource.getMessage(
+                exception.getMessageKey(),
+                exception.getArgs(),
+                exception.getMessageKey(),
+                locale
+        ));
+
+        problemDetail.setProperty("messageKey", exception.getMessageKey());
+
+        if (exception.getRetryAfter() == null)
+        {
+            return ResponseEntity.status(status).body(problemDetail);
+        }
+
+        // Rounded up: Retry-After has whole seconds and 0 would invite an immediate retry.
+        long retryAfterSeconds = Math.max(1, (exception.getRetryAfter().toMillis() + 999) / 1000);
+
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(problemDetail);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ProblemDetail handleIllegalArgument(IllegalArgumentException exception)
     {
+        countError(HttpStatus.BAD_REQUEST, NO_MESSAGE_KEY, exception);
+
         ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
         problemDetail.setTitle("Business validation error.");
         problemDetail.setDetail(exception.getMessage());
@@ -54,6 +123,8 @@ public class ApiExceptionHandler
     @ResponseStatus(HttpStatus.CONFLICT)
     public ProblemDetail handleIllegalState(IllegalStateException exception)
     {
+        countError(HttpStatus.CONFLICT, NO_MESSAGE_KEY, exception);
+
         ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.CONFLICT);
         problemDetail.setTitle("Business rule violation.");
         problemDetail.setDetail(exception.getMessage());
@@ -61,14 +132,30 @@ public class ApiExceptionHandler
         return problemDetail;
     }
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
+    /**
+     * {@link WebExchangeBindException} is what WebFlux raises instead, for the reactive variant.
+     */
+    @ExceptionHandler({ MethodArgumentNotValidException.class, WebExchangeBindException.class })
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ProblemDetail handleBeanValidation()
+    public ProblemDetail handleBeanValidation(Exception exception)
     {
+        countError(HttpStatus.BAD_REQUEST, NO_MESSAGE_KEY, exception);
+
         ProblemDetail problemDetail = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
         problemDetail.setTitle("Request validation error.");
         problemDetail.setDetail("Invalid request body.");
 
         return problemDetail;
     }
+
+    private void countError(HttpStatus status, String messageKey, Exception exception)
+    {
+        Counter.builder(ERRORS_COUNTER)
+                .description("Requests answered with an error by the API exception handler")
+                .tag("status", String.valueOf(status.value()))
+                .tag("messageKey", messageKey)
+                .tag("exception", exception.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
 }
@@ -0,0 +1,72 @@
+package br.com.onebrain.coupon.infra.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token bucket, implemented as a generic cell rate algorithm: each client is one
+ * {@link AtomicLong} holding the time at which its bucket will be full again, and admitting a
+ * request is one compare-and-set. Clients live in a bounded Caffeine cache, so a flood of
+ * distinct addresses evicts the least recently seen buckets instead of growing the heap; an
+ * evicted or idle client simply starts again with a full bucket.
+ */
+class ClientRateLimiter
+{
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+
+    ClientRateLimiter(double requestsPerSecond, int burst, long maxClients, Duration idleExpiry, Ticker ticker)
+    {
+        if (requestsPerSecond <= 0 || burst < 1)
+        {
+            throw new IllegalArgumentException("Rate must be > 0 and burst >= 1");
+        }
+
+        this.emissionIntervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleExpiry)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * @return {@code 0} when the request is admitted, otherwise how many nanoseconds the
+     *         client has to wait before its next request can be.
+     */
+    long tryAcquire(String client)
+    {
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        long now = ticker.read();
+
+        while (true)
+        {
+            long current = fullAt.get();
+            long start = Math.max(current, now);
+            long wait = start - now - burstToleranceNanos;
+
+            if (wait > 0)
+            {
+                return wait;
+            }
+
+            if (fullAt.compareAndSet(current, start + emissionIntervalNanos))
+            {
+                return 0;
+            }
+        }
+    }
+
+    long trackedClients()
+    {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.onebrain.coupon.infra.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Names the client behind a request: the configured header when a gateway filled it in,
+ * otherwise the remote address. Shared by the filters that keep per-client state, servlet and
+ * reactive alike.
+ *
+ * <p>The remote address is good enough to spread load, but not to tell who the client is: a
+ * phone changes it between retries and a load balancer gives the same one to everybody.
+ * State that must follow the client asks for {@link #identityOf} instead.
+ */
+final class ClientResolver
+{
+    private final String clientHeader;
+
+    ClientResolver(String clientHeader)
+    {
+        this.clientHeader = clientHeader;
+    }
+
+    String clientOf(HttpServletRequest request)
+    {
+        String identity = identityOf(request);
+        return identity != null ? identity : request.getRemoteAddr();
+    }
+
+    String clientOf(ServerHttpRequest request)
+    {
+        String identity = identityOf(request);
+
+        if (identity != null)
+        {
+            return identity;
+        }
+
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null ? remote.getHostString() : "";
+    }
+
+    /**
+     * The client named by the gateway, or {@code null} when no header is configured or the
+     * request does not carry it.
+     */
+    String identityOf(HttpServletRequest request)
+    {
+        return clientHeader.isEmpty() ? null : identity(request.getHeader(clientHeader));
+    }
+
+    String identityOf(ServerHttpRequest request)
+    {
+        return clientHeader.isEmpty() ? null : identity(request.getHeaders().getFirst(clientHeader));
+    }
+
+    private static String identity(String header)
+    {
+        return header != null && !header.isBlank() ? header : null;
+    }
+}
@@ -1,15 +1,42 @@
 package br.com.onebrain.coupon.infra.web;
 
+import br.com.onebrain.coupon.app.port.CouponSearchCriteria;
+import br.com.onebrain.coupon.app.usecase.CouponPage;
+import br.com.onebrain.coupon.app.usecase.CouponQuote;
+import br.com.onebrain.coupon.app.usecase.CouponRedemption;
 import br.com.onebrain.coupon.app.usecase.CreateCouponCommand;
 import br.com.onebrain.coupon.app.usecase.CreateCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.CreateCouponsBatchResult;
+import br.com.onebrain.coupon.app.usecase.CreateCouponsBatchUseCase;
 import br.com.onebrain.coupon.app.usecase.DeleteCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.PublishCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.QuoteCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.RedeemCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.ScheduleCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.SearchCouponsUseCase;
 import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.infra.web.dto.CouponPageResponse;
 import br.com.onebrain.coupon.infra.web.dto.CouponResponse;
 import br.com.onebrain.coupon.infra.web.dto.CreateCouponRequest;
+import br.com.onebrain.coupon.infra.web.dto.CreateCouponsBatchResponse;
+import br.com.onebrain.coupon.infra.web.dto.QuoteResponse;
+import br.com.onebrain.coupon.infra.web.dto.RedemptionResponse;
+import br.com.onebrain.coupon.infra.web.dto.ScheduleCouponRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -17,29 +44,115 @@ import java.util.UUID;
 public class CouponController
 {
     private final CreateCouponUseCase createUseCase;
+    private final CreateCouponsBatchUseCase createBatchUseCase;
     private final DeleteCouponUseCase deleteUseCase;
+    private final PublishCouponUseCase publishUseCase;
+    private final ScheduleCouponUseCase scheduleUseCase;
+    private final RedeemCouponUseCase redeemUseCase;
+    private final QuoteCouponUseCase quoteUseCase;
+    private final SearchCouponsUseCase searchUseCase;
+    private final ObjectMapper objectMapper;
 
-    public CouponController(CreateCouponUseCase createUseCase, DeleteCouponUseCase deleteUseCase)
+    public CouponController(CreateCouponUseCase createUseCase,
+                            CreateCouponsBatchUseCase createBatchUseCase,
+                            DeleteCouponUseCase deleteUseCase,
+                            PublishCouponUseCase publishUseCase,
+                            ScheduleCouponUseCase scheduleUseCase,
+                            RedeemCouponUseCase redeemUseCase,
+                            QuoteCouponUseCase quoteUseCase,
+                            SearchCouponsUseCase searchUseCase,
+                            ObjectMapper objectMapper)
     {
         this.createUseCase = createUseCase;
+        this.createBatchUseCase = createBatchUseCase;
         this.deleteUseCase = deleteUseCase;
+        this.publishUseCase = publishUseCase;
+        this.scheduleUseCase = scheduleUseCase;
+        this.redeemUseCase = redeemUseCase;
+        this.quoteUseCase = quoteUseCase;
+        this.searchUseCase = searchUseCase;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public CouponPageResponse list(@RequestParam(required = false) Boolean published,
+                                   @RequestParam(required = false) Boolean deleted,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresFrom,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresTo,
+                                   @RequestParam(required = false) String codePrefix,
+                                   @RequestParam(required = false) String cursor,
+                                   @RequestParam(defaultValue = "50") int limit)
+    {
+        CouponPage page = searchUseCase.execute(
+                new CouponSearchCriteria(published, deleted, expiresFrom, expiresTo, codePrefix),
+                CouponCursorCodec.decode(cursor),
+                limit
+        );
+
+        return new CouponPageResponse(
+                page.items().stream().map(CouponController::toResponse).toList(),
+                CouponCursorCodec.encode(page.next())
+        );
+    }
+
+    @GetMapping(produces = CouponImportController.NDJSON)
+    public StreamingResponseBody export(@RequestParam(required = false) Boolean published,
+                                        @RequestParam(required = false) Boolean deleted,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresFrom,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresTo,
+                                        @RequestParam(required = false) String codePrefix)
+    {
+        CouponSearchCriteria criteria = new CouponSearchCriteria(published, deleted, expiresFrom, expiresTo, codePrefix);
+        ObjectWriter writer = objectMapper.writerFor(CouponResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out))
+            {
+                generator.setRootValueSeparator(null);
+
+                searchUseCase.export(criteria, coupon -> {
+                    try
+                    {
+                        writer.writeValue(generator, toResponse(coupon));
+                        generator.writeRaw('\n');
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public CouponResponse create(@RequestBody @Valid CreateCouponRequest request)
     {
-        Coupon created = createUseCase.execute(new CreateCouponCommand(
-                request.code(),
-                request.description(),
-                request.discountValue(),
-                request.expirationDate(),
-                request.published()
-        ));
+        Coupon created = createUseCase.execute(toCommand(request));
 
         return toResponse(created);
     }
 
+    @PostMapping("/batch")
+    public CreateCouponsBatchResponse createBatch(@RequestBody List<CreateCouponRequest> requests)
+    {
+        CreateCouponsBatchResult result = createBatchUseCase.execute(
+                requests.stream().map(CouponController::toCommand).toList()
+        );
+
+        return new CreateCouponsBatchResponse(
+                result.received(),
+                result.created(),
+                result.rejected(),
+                result.rejectedByReason(),
+                result.errors().stream()
+                        .map(e -> new CreateCouponsBatchResponse.ItemError(e.index(), e.code(), e.messageKey()))
+                        .toList()
+        );
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable UUID id)
@@ -47,6 +160,63 @@ public class CouponController
         deleteUseCase.execute(id);
     }
 
+    @PostMapping("/{id}/publish")
+    public CouponResponse publish(@PathVariable UUID id)
+    {
+        return toResponse(publishUseCase.execute(id));
+    }
+
+    @PutMapping("/{id}/schedule")
+    public CouponResponse schedule(@PathVariable UUID id, @RequestBody ScheduleCouponRequest request)
+    {
+        return toResponse(scheduleUseCase.execute(id, request.publishAt(), request.unpublishAt()));
+    }
+
+    @PostMapping("/{code}/redeem")
+    public RedemptionResponse redeem(@PathVariable String code)
+    {
+        CouponRedemption redemption = redeemUseCase.execute(code);
+
+        return new RedemptionResponse(
+                redemption.couponId(),
+                redemption.code(),
+                redemption.discountValue(),
+                redemption.redeemedAt()
+        );
+    }
+
+    @GetMapping("/{code}/quote")
+    public QuoteResponse quote(@PathVariable String code, @RequestParam(required = false) BigDecimal amount)
+    {
+        CouponQuote quote = quoteUseCase.execute(code, amount);
+
+        return new QuoteResponse(
+                quote.code(),
+                quote.amount(),
+                quote.discount(),
+                quote.total(),
+                quote.applicable(),
+                quote.reason()
+        );
+    }
+
+    private static CreateCouponCommand toCommand(CreateCouponRequest request)
+    {
+        if (request == null)
+        {
+            return null;
+        }
+
+        return new CreateCouponCommand(
+                request.code(),
+                request.description(),
+                request.discountValue(),
+                request.expirationDate(),
+                request.published(),
+                request.maxUsages()
+        );
+    }
+
     private static CouponResponse toResponse(Coupon c)
     {
         return new CouponResponse(
@@ -56,7 +226,11 @@ public class CouponController
                 c.getDiscountValue(),
                 c.getExpirationDate(),
                 c.isPublished(),
-                c.isDeleted()
+                c.isDeleted(),
+                c.getMaxUsages(),
+                c.getUsageCount(),
+                c.getPublishAt(),
+                c.getUnpublishAt()
         );
     }
 }
@@ -0,0 +1,54 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.app.port.CouponCursor;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque, URL-safe representation of a {@link CouponCursor}.
+ */
+final class CouponCursorCodec
+{
+    private static final char SEPARATOR = '|';
+
+    private CouponCursorCodec() {}
+
+    static String encode(CouponCursor cursor)
+    {
+        if (cursor == null)
+        {
+            return null;
+        }
+
+        String raw = cursor.createdAt().toString() + SEPARATOR + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CouponCursor decode(String token)
+    {
+        if (token == null || token.isBlank())
+        {
+            return null;
+        }
+
+        try
+        {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+
+            return new CouponCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        }
+        catch (RuntimeException e)
+        {
+            throw new DomainException(CouponMessages.INVALID_CURSOR);
+        }
+    }
+}
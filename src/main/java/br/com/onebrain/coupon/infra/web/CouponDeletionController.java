@@ -0,0 +1,59 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.app.usecase.BulkDeleteCouponsUseCase;
+import br.com.onebrain.coupon.infra.web.dto.CouponDeletionResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Asynchronous bulk delete. Ids are accepted with 202 and deleted in the background in
+ * batches; the counters in the response are cumulative for the whole queue.
+ */
+@RestController
+@RequestMapping("/coupons")
+public class CouponDeletionController
+{
+    private final BulkDeleteCouponsUseCase bulkDeleteUseCase;
+
+    public CouponDeletionController(BulkDeleteCouponsUseCase bulkDeleteUseCase)
+    {
+        this.bulkDeleteUseCase = bulkDeleteUseCase;
+    }
+
+    @DeleteMapping(params = "ids")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public CouponDeletionResponse deleteAll(@RequestParam List<UUID> ids)
+    {
+        return toResponse(bulkDeleteUseCase.execute(ids));
+    }
+
+    /**
+     * Same as {@code DELETE /coupons?ids=...} for id lists too long for a query string.
+     */
+    @PostMapping("/deletions")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public CouponDeletionResponse enqueue(@RequestBody List<UUID> ids)
+    {
+        return toResponse(bulkDeleteUseCase.execute(ids));
+    }
+
+    @GetMapping("/deletions")
+    public CouponDeletionResponse status()
+    {
+        return toResponse(0);
+    }
+
+    private CouponDeletionResponse toResponse(int accepted)
+    {
+        return new CouponDeletionResponse(
+                accepted,
+                bulkDeleteUseCase.pending(),
+                bulkDeleteUseCase.deleted(),
+                bulkDeleteUseCase.skipped(),
+                bulkDeleteUseCase.failed()
+        );
+    }
+}
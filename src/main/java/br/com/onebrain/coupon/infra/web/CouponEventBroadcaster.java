@@ -0,0 +1,325 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.app.port.CouponFeedEvent;
+import br.com.onebrain.coupon.app.usecase.CouponEventPage;
+import br.com.onebrain.coupon.app.usecase.ReadCouponEventsUseCase;
+import br.com.onebrain.coupon.domain.DomainException;
+import br.com.onebrain.coupon.infra.db.CouponEventsRelayed;
+import br.com.onebrain.coupon.infra.web.dto.CouponEventPageResponse;
+import br.com.onebrain.coupon.infra.web.dto.CouponEventResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes the coupon change feed to waiting clients: server-sent event streams and
+ * long polls. When the relay announces a batch, subscribers that are caught up get the batch
+ * as is and the others read what they are missing from the outbox, so a slow consumer never
+ * holds a batch in memory for everyone.
+ *
+ * <p>All sends happen on one fan-out thread, which keeps each stream in offset order and
+ * keeps slow clients off the relay thread. Streams get a comment every heartbeat so that
+ * proxies keep them open and dead clients are noticed.
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class CouponEventBroadcaster implements MeterBinder, AutoCloseable
+{
+    private static final Duration HEARTBEAT = Duration.ofSeconds(15);
+
+    private final ReadCouponEventsUseCase readUseCase;
+    private final Duration streamTimeout;
+    private final ScheduledExecutorService fanout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private volatile long lastOffset;
+
+    public CouponEventBroadcaster(ReadCouponEventsUseCase readUseCase,
+                                  @Value("${coupon.events.stream-timeout:30m}") Duration streamTimeout)
+    {
+        this.readUseCase = readUseCase;
+        this.streamTimeout = streamTimeout;
+        this.fanout = Executors.newSingleThreadScheduledExecutor(task ->
+        {
+            Thread thread = new Thread(task, "coupon-events-fanout");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long heartbeatNanos = HEARTBEAT.toNanos();
+        fanout.scheduleWithFixedDelay(this::heartbeat, heartbeatNanos, heartbeatNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Opens a stream that starts after {@code after}. The offset is checked right away, so an
+     * invalid or expired one is answered with a regular error response.
+     */
+    public SseEmitter subscribe(long after)
+    {
+        readUseCase.execute(after, 1);
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, after);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+        fanout.execute(() -> catchUp(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Answers with the events after {@code after}, waiting up to {@code wait} for the next
+     * batch when there are none yet.
+     */
+    public DeferredResult<CouponEventPageResponse> poll(long after, int limit, Duration wait)
+    {
+        CouponEventPage page = readUseCase.execute(after, limit);
+        CouponEventPageResponse current = toResponse(page);
+        DeferredResult<CouponEventPageResponse> result = new DeferredResult<>(wait.toMillis(), () -> current);
+
+        if (!page.events().isEmpty() || wait.isZero())
+        {
+            result.setResult(current);
+            return result;
+        }
+
+        Waiter waiter = new Waiter(result, after, limit);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+
+        // A batch relayed between the read above and the registration would not wake us up.
+        if (lastOffset > after)
+        {
+            fanout.execute(() -> complete(waiter));
+        }
+
+        return result;
+    }
+
+    @EventListener
+    public void onRelayed(CouponEventsRelayed relayed)
+    {
+        lastOffset = relayed.lastOffset();
+        fanout.execute(() -> deliver(relayed.events()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder("coupon.events.subscribers", subscribers, Set::size)
+                .description("Open server-sent event streams of the coupon change feed")
+                .register(registry);
+
+        Gauge.builder("coupon.events.waiters", waiters, Set::size)
+                .description("Long polls waiting for the next coupon change")
+                .register(registry);
+    }
+
+    @Override
+    public void close()
+    {
+        fanout.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void deliver(List<CouponFeedEvent> batch)
+    {
+        long first = batch.get(0).offset();
+        long last = batch.get(batch.size() - 1).offset();
+
+        for (Subscriber subscriber : subscribers)
+        {
+            if (subscriber.offset >= last)
+            {
+                continue;
+            }
+
+            if (subscriber.offset >= first - 1)
+            {
+                send(subscriber, batch.subList((int) (subscriber.offset - first + 1), batch.size()));
+            }
+            else
+            {
+                catchUp(subscriber);
+            }
+        }
+
+        for (Waiter waiter : waiters)
+        {
+            if (waiter.after >= last)
+            {
+                continue;
+            }
+
+            if (waiter.after >= first - 1)
+            {
+                int from = (int) (waiter.after - first + 1);
+                List<CouponFeedEvent> events = batch.subList(from, Math.min(batch.size(), from + waiter.limit));
+                waiter.result.setResult(toResponse(new CouponEventPage(events, events.get(events.size() - 1).offset())));
+            }
+            else
+            {
+                complete(waiter);
+            }
+        }
+    }
+
+    private void catchUp(Subscriber subscriber)
+    {
+        try
+        {
+            CouponEventPage page;
+
+            do
+            {
+                page = readUseCase.execute(subscriber.offset, ReadCouponEventsUseCase.MAX_LIMIT);
+            }
+            while (send(subscriber, page.events()) && page.events().size() == ReadCouponEventsUseCase.MAX_LIMIT);
+        }
+        catch (DomainException e)
+        {
+            // Fell behind the retention window while connected: tell the client and close.
+            sendAndClose(subscriber, SseEmitter.event().name("error").data(e.getMessageKey()));
+        }
+    }
+
+    /**
+     * @return {@code false} when the client is gone and the subscriber was dropped.
+     */
+    private boolean send(Subscriber subscriber, List<CouponFeedEvent> events)
+    {
+        try
+        {
+            for (CouponFeedEvent event : events)
+            {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.offset()))
+                        .name(event.type().name().toLowerCase(Locale.ROOT))
+                        .data(toResponse(event), MediaType.APPLICATION_JSON));
+                subscriber.offset = event.offset();
+            }
+
+            return true;
+        }
+        catch (IOException | IllegalStateException e)
+        {
+            drop(subscriber);
+            return false;
+        }
+    }
+
+    private void complete(Waiter waiter)
+    {
+        try
+        {
+            waiter.result.setResult(toResponse(readUseCase.execute(waiter.after, waiter.limit)));
+        }
+        catch (DomainException e)
+        {
+            waiter.result.setErrorResult(e);
+        }
+    }
+
+    private void heartbeat()
+    {
+        for (Subscriber subscriber : subscribers)
+        {
+            try
+            {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            catch (IOException | IllegalStateException e)
+            {
+                drop(subscriber);
+            }
+        }
+    }
+
+    private void sendAndClose(Subscriber subscriber, SseEmitter.SseEventBuilder event)
+    {
+        try
+        {
+            subscriber.emitter.send(event);
+            subscriber.emitter.complete();
+        }
+        catch (IOException | IllegalStateException e)
+        {
+            drop(subscriber);
+        }
+        finally
+        {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber)
+    {
+        subscribers.remove(subscriber);
+
+        try
+        {
+            subscriber.emitter.complete();
+        }
+        catch (IllegalStateException ignored)
+        {
+            // Already completed by the container.
+        }
+    }
+
+    private static CouponEventPageResponse toResponse(CouponEventPage page)
+    {
+        return new CouponEventPageResponse(
+                page.events().stream().map(CouponEventBroadcaster::toResponse).toList(),
+                page.lastOffset()
+        );
+    }
+
+    private static CouponEventResponse toResponse(CouponFeedEvent event)
+    {
+        return new CouponEventResponse(
+                event.offset(),
+                event.type().name().toLowerCase(Locale.ROOT),
+                event.couponId(),
+                event.code(),
+                event.discountValue(),
+                event.expirationDate(),
+                event.published(),
+                event.occurredAt()
+        );
+    }
+
+    private static final class Subscriber
+    {
+        private final SseEmitter emitter;
+        // Only touched on the fan-out thread.
+        private long offset;
+
+        private Subscriber(SseEmitter emitter, long offset)
+        {
+            this.emitter = emitter;
+            this.offset = offset;
+        }
+    }
+
+    private record Waiter(DeferredResult<CouponEventPageResponse> result, long after, int limit) {}
+}
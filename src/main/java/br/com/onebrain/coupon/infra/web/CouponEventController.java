@@ -0,0 +1,50 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.infra.web.dto.CouponEventPageResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+/**
+ * The coupon change feed. Consumers keep the offset of the last event they applied and
+ * resume from it: as a long poll ({@code ?after=&wait=}) or as a server-sent event stream,
+ * where the standard {@code Last-Event-ID} reconnection header takes precedence.
+ */
+@RestController
+@RequestMapping("/coupons/events")
+@ConditionalOnProperty(name = "coupon.storage.type", havingValue = "jpa", matchIfMissing = true)
+public class CouponEventController
+{
+    static final int MAX_WAIT_SECONDS = 30;
+
+    private final CouponEventBroadcaster broadcaster;
+
+    public CouponEventController(CouponEventBroadcaster broadcaster)
+    {
+        this.broadcaster = broadcaster;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<CouponEventPageResponse> poll(@RequestParam(defaultValue = "0") long after,
+                                                        @RequestParam(defaultValue = "100") int limit,
+                                                        @RequestParam(defaultValue = "0") int wait)
+    {
+        int waitSeconds = Math.max(0, Math.min(wait, MAX_WAIT_SECONDS));
+        return broadcaster.poll(after, limit, Duration.ofSeconds(waitSeconds));
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(defaultValue = "0") long after,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId)
+    {
+        return broadcaster.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.app.usecase.GenerateCouponsCommand;
+import br.com.onebrain.coupon.app.usecase.GenerateCouponsUseCase;
+import br.com.onebrain.coupon.infra.web.dto.GenerateCouponsRequest;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Campaign generation. The request is validated up front; the codes are then streamed back as
+ * CSV (the same format the import accepts) as each chunk is saved, so the client sees progress
+ * and never waits for the whole campaign to be buffered.
+ */
+@RestController
+@RequestMapping("/coupons/generate")
+public class CouponGenerationController
+{
+    public static final String CSV = "text/csv";
+
+    private final GenerateCouponsUseCase generateUseCase;
+
+    public CouponGenerationController(GenerateCouponsUseCase generateUseCase)
+    {
+        this.generateUseCase = generateUseCase;
+    }
+
+    @PostMapping(produces = CSV)
+    public StreamingResponseBody generate(@RequestBody @Valid GenerateCouponsRequest request)
+    {
+        GenerateCouponsCommand command = toCommand(request);
+        generateUseCase.validate(command);
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 64 * 1024);
+            writer.write("code\n");
+
+            generateUseCase.execute(command, codes -> {
+                try
+                {
+                    for (String code : codes)
+                    {
+                        writer.write(code);
+                        writer.write('\n');
+                    }
+
+                    writer.flush();
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            writer.flush();
+        };
+    }
+
+    private static GenerateCouponsCommand toCommand(GenerateCouponsRequest request)
+    {
+        return new GenerateCouponsCommand(
+                request.count(),
+                request.description(),
+                request.discountValue(),
+                request.expirationDate(),
+                request.published(),
+                request.maxUsages()
+        );
+    }
+}
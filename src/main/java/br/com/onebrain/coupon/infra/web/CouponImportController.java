@@ -0,0 +1,85 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.app.usecase.CouponImport;
+import br.com.onebrain.coupon.app.usecase.CouponImportRegistry;
+import br.com.onebrain.coupon.app.usecase.CreateCouponsBatchResult;
+import br.com.onebrain.coupon.app.usecase.ImportCouponsUseCase;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import br.com.onebrain.coupon.infra.web.dto.CouponImportResponse;
+import br.com.onebrain.coupon.infra.web.dto.CreateCouponsBatchResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/coupons/import")
+public class CouponImportController
+{
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final ImportCouponsUseCase importUseCase;
+    private final CouponImportRegistry registry;
+    private final ObjectReader jsonReader;
+
+    public CouponImportController(ImportCouponsUseCase importUseCase,
+                                  CouponImportRegistry registry,
+                                  ObjectMapper objectMapper)
+    {
+        this.importUseCase = importUseCase;
+        this.registry = registry;
+        this.jsonReader = objectMapper.reader();
+    }
+
+    @PostMapping(consumes = { NDJSON, "text/csv" })
+    public CouponImportResponse importCoupons(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                              InputStream body)
+    {
+        CouponImportReader.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf(NDJSON))
+                ? CouponImportReader.Format.NDJSON
+                : CouponImportReader.Format.CSV;
+
+        return toResponse(importUseCase.execute(new CouponImportReader(body, format, jsonReader)));
+    }
+
+    @GetMapping
+    public List<CouponImportResponse> list()
+    {
+        return registry.list().stream().map(CouponImportController::toResponse).toList();
+    }
+
+    @GetMapping("/{id}")
+    public CouponImportResponse get(@PathVariable UUID id)
+    {
+        return registry.find(id)
+                .map(CouponImportController::toResponse)
+                .orElseThrow(() -> new DomainException(CouponMessages.IMPORT_NOT_FOUND));
+    }
+
+    private static CouponImportResponse toResponse(CouponImport couponImport)
+    {
+        CreateCouponsBatchResult result = couponImport.getResult();
+
+        return new CouponImportResponse(
+                couponImport.getId(),
+                couponImport.getStatus().name(),
+                couponImport.getStartedAt(),
+                couponImport.getFinishedAt(),
+                couponImport.getLinesRead(),
+                couponImport.linesPerSecond(),
+                result.created(),
+                result.rejected(),
+                result.rejectedByReason(),
+                result.errors().stream()
+                        .map(e -> new CreateCouponsBatchResponse.ItemError(e.index(), e.code(), e.messageKey()))
+                        .toList(),
+                couponImport.getFailure()
+        );
+    }
+}
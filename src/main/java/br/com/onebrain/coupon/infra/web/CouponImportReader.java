@@ -0,0 +1,239 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.app.usecase.CouponImportRecord;
+import br.com.onebrain.coupon.app.usecase.CreateCouponCommand;
+import br.com.onebrain.coupon.infra.web.dto.CreateCouponRequest;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily turns an NDJSON or CSV request body into import records, one line at a time.
+ * Lines longer than {@link #MAX_LINE_LENGTH} are skipped and reported as malformed,
+ * so a single huge line cannot exhaust the heap.
+ */
+public class CouponImportReader implements Iterator<CouponImportRecord>
+{
+    public enum Format { NDJSON, CSV }
+
+    static final int MAX_LINE_LENGTH = 8 * 1024;
+
+    private static final String CSV_HEADER_PREFIX = "code,";
+
+    private static final int OK = 0;
+    private static final int EOF = -1;
+    private static final int TOO_LONG = 1;
+
+    private final Reader reader;
+    private final Format format;
+    private final ObjectReader jsonReader;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private long lineNumber;
+    private CouponImportRecord next;
+    private boolean eof;
+
+    public CouponImportReader(InputStream input, Format format, ObjectReader jsonReader)
+    {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        this.format = format;
+        this.jsonReader = jsonReader.forType(CreateCouponRequest.class);
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (next == null && !eof)
+        {
+            next = readRecord();
+        }
+
+        return next != null;
+    }
+
+    @Override
+    public CouponImportRecord next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+
+        CouponImportRecord current = next;
+        next = null;
+        return current;
+    }
+
+    private CouponImportRecord readRecord()
+    {
+        try
+        {
+            while (true)
+            {
+                int status = readLine();
+
+                if (status == EOF)
+                {
+                    eof = true;
+                    return null;
+                }
+
+                lineNumber++;
+
+                if (status == TOO_LONG)
+                {
+                    return new CouponImportRecord(lineNumber, null);
+                }
+
+                if (line.isEmpty() || isCsvHeader())
+                {
+                    continue;
+                }
+
+                return new CouponImportRecord(lineNumber, parseLine());
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int readLine() throws IOException
+    {
+        line.setLength(0);
+        boolean tooLong = false;
+        int c;
+
+        while ((c = reader.read()) != -1 && c != '\n')
+        {
+            if (c == '\r')
+            {
+                continue;
+            }
+
+            if (line.length() < MAX_LINE_LENGTH)
+            {
+                line.append((char) c);
+            }
+            else
+            {
+                tooLong = true;
+            }
+        }
+
+        if (c == -1 && line.isEmpty() && !tooLong)
+        {
+            return EOF;
+        }
+
+        return tooLong ? TOO_LONG : OK;
+    }
+
+    private boolean isCsvHeader()
+    {
+        return format == Format.CSV && lineNumber == 1 && line.toString().startsWith(CSV_HEADER_PREFIX);
+    }
+
+    private CreateCouponCommand parseLine()
+    {
+        try
+        {
+            return format == Format.NDJSON ? parseJson() : parseCsv();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            return null;
+        }
+    }
+
+    private CreateCouponCommand parseJson() throws IOException
+    {
+        CreateCouponRequest request = jsonReader.readValue(line.toString());
+
+        return new CreateCouponCommand(
+                request.code(),
+                request.description(),
+                request.discountValue(),
+                request.expirationDate(),
+                request.published(),
+                request.maxUsages()
+        );
+    }
+
+    /**
+     * Columns: code, description, discountValue, expirationDate, published[, maxUsages].
+     */
+    private CreateCouponCommand parseCsv()
+    {
+        List<String> fields = splitCsv(line);
+
+        if (fields.size() < 5 || fields.size() > 6)
+        {
+            return null;
+        }
+
+        String maxUsages = fields.size() == 6 ? fields.get(5).trim() : "";
+
+        return new CreateCouponCommand(
+                fields.get(0),
+                fields.get(1),
+                new BigDecimal(fields.get(2).trim()),
+                LocalDate.parse(fields.get(3).trim()),
+                Boolean.parseBoolean(fields.get(4).trim()),
+                maxUsages.isEmpty() ? null : Integer.valueOf(maxUsages)
+        );
+    }
+
+    private static List<String> splitCsv(CharSequence text)
+    {
+        List<String> fields = new ArrayList<>(6);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < text.length(); i++)
+        {
+            char c = text.charAt(i);
+
+            if (quoted)
+            {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"')
+                {
+                    field.append('"');
+                    i++;
+                }
+                else if (c == '"')
+                {
+                    quoted = false;
+                }
+                else
+                {
+                    field.append(c);
+                }
+            }
+            else if (c == '"')
+            {
+                quoted = true;
+            }
+            else if (c == ',')
+            {
+                fields.add(field.toString());
+                field.setLength(0);
+            }
+            else
+            {
+                field.append(c);
+            }
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+}
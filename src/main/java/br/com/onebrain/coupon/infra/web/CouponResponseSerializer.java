@@ -0,0 +1,238 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.infra.web.dto.CouponResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Writes {@link CouponResponse} field by field, with pre-encoded property names and without
+ * going through the record's accessors reflectively. The id, the expiration date and the
+ * discount are formatted straight into a scratch buffer instead of through
+ * {@code toString()}, which is where most of the per-coupon garbage of listings and exports
+ * came from. The output is the same JSON the default record serialization produces.
+ */
+@JsonComponent
+public class CouponResponseSerializer extends StdSerializer<CouponResponse>
+{
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString CODE = new SerializedString("code");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString DISCOUNT_VALUE = new SerializedString("discountValue");
+    private static final SerializedString EXPIRATION_DATE = new SerializedString("expirationDate");
+    private static final SerializedString PUBLISHED = new SerializedString("published");
+    private static final SerializedString DELETED = new SerializedString("deleted");
+    private static final SerializedString MAX_USAGES = new SerializedString("maxUsages");
+    private static final SerializedString USAGE_COUNT = new SerializedString("usageCount");
+    private static final SerializedString PUBLISH_AT = new SerializedString("publishAt");
+    private static final SerializedString UNPUBLISH_AT = new SerializedString("unpublishAt");
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int UUID_LENGTH = 36;
+    private static final int DATE_LENGTH = 10;
+    private static final int MAX_DIRECT_PRECISION = 18;
+    private static final int MAX_DIRECT_SCALE = 9;
+
+    public CouponResponseSerializer()
+    {
+        super(CouponResponse.class);
+    }
+
+    @Override
+    public void serialize(CouponResponse coupon, JsonGenerator generator, SerializerProvider provider) throws IOException
+    {
+        char[] scratch = new char[UUID_LENGTH];
+
+        generator.writeStartObject(coupon);
+
+        generator.writeFieldName(ID);
+        writeUuid(generator, coupon.id(), scratch);
+
+        generator.writeFieldName(CODE);
+        generator.writeString(coupon.code());
+
+        generator.writeFieldName(DESCRIPTION);
+        generator.writeString(coupon.description());
+
+        generator.writeFieldName(DISCOUNT_VALUE);
+        writeDecimal(generator, coupon.discountValue(), scratch);
+
+        generator.writeFieldName(EXPIRATION_DATE);
+        writeDate(generator, coupon.expirationDate(), scratch);
+
+        generator.writeFieldName(PUBLISHED);
+        generator.writeBoolean(coupon.published());
+
+        generator.writeFieldName(DELETED);
+        generator.writeBoolean(coupon.deleted());
+
+        generator.writeFieldName(MAX_USAGES);
+
+        if (coupon.maxUsages() == null)
+        {
+            generator.writeNull();
+        }
+        else
+        {
+            generator.writeNumber(coupon.maxUsages());
+        }
+
+        generator.writeFieldName(USAGE_COUNT);
+        generator.writeNumber(coupon.usageCount());
+
+        generator.writeFieldName(PUBLISH_AT);
+        writeInstant(generator, coupon.publishAt());
+
+        generator.writeFieldName(UNPUBLISH_AT);
+        writeInstant(generator, coupon.unpublishAt());
+
+        generator.writeEndObject();
+    }
+
+    private static void writeUuid(JsonGenerator generator, UUID id, char[] scratch) throws IOException
+    {
+        if (id == null)
+        {
+            generator.writeNull();
+            return;
+        }
+
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+
+        hex(msb >>> 32, 8, scratch, 0);
+        scratch[8] = '-';
+        hex(msb >>> 16, 4, scratch, 9);
+        scratch[13] = '-';
+        hex(msb, 4, scratch, 14);
+        scratch[18] = '-';
+        hex(lsb >>> 48, 4, scratch, 19);
+        scratch[23] = '-';
+        hex(lsb, 12, scratch, 24);
+
+        generator.writeString(scratch, 0, UUID_LENGTH);
+    }
+
+    /**
+     * Same text as {@link LocalDate#toString()} for four-digit years, which is all a coupon can have.
+     */
+    private static void writeDate(JsonGenerator generator, LocalDate date, char[] scratch) throws IOException
+    {
+        if (date == null)
+        {
+            generator.writeNull();
+            return;
+        }
+
+        int year = date.getYear();
+
+        if (year < 0 || year > 9999)
+        {
+            generator.writeString(date.toString());
+            return;
+        }
+
+        digits(year, 4, scratch, 0);
+        scratch[4] = '-';
+        digits(date.getMonthValue(), 2, scratch, 5);
+        scratch[7] = '-';
+        digits(date.getDayOfMonth(), 2, scratch, 8);
+
+        generator.writeString(scratch, 0, DATE_LENGTH);
+    }
+
+    /**
+     * Rarely set, so it simply goes through {@link Instant#toString()}, which is the ISO-8601
+     * form Jackson writes too.
+     */
+    private static void writeInstant(JsonGenerator generator, Instant instant) throws IOException
+    {
+        if (instant == null)
+        {
+            generator.writeNull();
+            return;
+        }
+
+        generator.writeString(instant.toString());
+    }
+
+    /**
+     * Same text as {@link BigDecimal#toString()} for plain amounts (non-negative scale, no
+     * exponent); anything else goes through Jackson's own path.
+     */
+    private static void writeDecimal(JsonGenerator generator, BigDecimal value, char[] scratch) throws IOException
+    {
+        if (value == null)
+        {
+            generator.writeNull();
+            return;
+        }
+
+        int scale = value.scale();
+
+        int precision = value.precision();
+
+        // toString() switches to an exponent once the adjusted exponent drops below -6.
+        if (scale < 0 || scale > MAX_DIRECT_SCALE || precision > MAX_DIRECT_PRECISION || precision - scale - 1 < -6)
+        {
+            generator.writeNumber(value);
+            return;
+        }
+
+        long unscaled = value.unscaledValue().longValue();
+        boolean negative = unscaled < 0;
+        long magnitude = Math.abs(unscaled);
+        int position = scratch.length;
+
+        for (int i = 0; i < scale; i++)
+        {
+            scratch[--position] = (char) ('0' + magnitude % 10);
+            magnitude /= 10;
+        }
+
+        if (scale > 0)
+        {
+            scratch[--position] = '.';
+        }
+
+        do
+        {
+            scratch[--position] = (char) ('0' + magnitude % 10);
+            magnitude /= 10;
+        }
+        while (magnitude > 0);
+
+        if (negative)
+        {
+            scratch[--position] = '-';
+        }
+
+        generator.writeNumber(scratch, position, scratch.length - position);
+    }
+
+    private static void hex(long value, int digits, char[] out, int offset)
+    {
+        for (int i = digits - 1; i >= 0; i--)
+        {
+            out[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    private static void digits(int value, int digits, char[] out, int offset)
+    {
+        for (int i = digits - 1; i >= 0; i--)
+        {
+            out[offset + i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.domain.CouponMessages;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Makes {@code POST /coupons} and {@code DELETE /coupons/{id}} safe to retry. When the request
+ * carries an idempotency key, the first response given for that key is kept in an
+ * {@link IdempotencyStore} and sent back as is to every retry, with an
+ * {@value #REPLAYED_HEADER} header, without reaching the controller again. A retry that
+ * arrives while the first request is still running gets a 409; a key reused for a different
+ * request (another method, path or body) gets a 422.
+ *
+ * <p>When {@code coupon.admission.client-header} names the client, keys are scoped by it, so
+ * one client cannot read another's responses by guessing keys. Without it keys are global:
+ * the remote address is not used, since a retry may come from another address and behind a
+ * load balancer every client shares one. Server errors are not kept: the key is released and
+ * the next retry runs the request again.
+ */
+@Component
+@Order(IdempotencyFilter.ORDER)
+@ConditionalOnProperty(name = "coupon.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyFilter extends OncePerRequestFilter implements MeterBinder
+{
+    static final int ORDER = AdmissionControlFilter.ORDER + 1;
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final String COUPONS_PATH = "/coupons";
+    private static final Duration IN_PROGRESS_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final String keyHeader;
+    private final int maxBodyBytes;
+    private final ClientResolver clients;
+    private final IdempotencyStore store;
+    private final ProblemResponseWriter problems;
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public IdempotencyFilter(IdempotencyProperties properties,
+                             AdmissionProperties admissionProperties,
+                             ApiExceptionHandler exceptionHandler,
+                             ObjectMapper objectMapper)
+    {
+        this(properties, admissionProperties, exceptionHandler, objectMapper, Ticker.systemTicker());
+    }
+
+    IdempotencyFilter(IdempotencyProperties properties,
+                      AdmissionProperties admissionProperties,
+                      ApiExceptionHandler exceptionHandler,
+                      ObjectMapper objectMapper,
+                      Ticker ticker)
+    {
+        this.keyHeader = properties.header();
+        this.maxBodyBytes = Math.toIntExact(properties.maxBodyBytes().toBytes());
+        this.clients = new ClientResolver(admissionProperties.clientHeader());
+        this.store = new IdempotencyStore(properties.maxEntries(), properties.ttl(), ticker);
+        this.problems = new ProblemResponseWriter(exceptionHandler, objectMapper);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request)
+    {
+        return request.getHeader(keyHeader) == null || !isKeyable(request.getMethod(), request.getServletPath());
+    }
+
+    /**
+     * Whether a request may carry an idempotency key: creating a coupon or deleting one.
+     */
+    static boolean isKeyable(String method, String path)
+    {
+        if (HttpMethod.POST.matches(method))
+        {
+            return path.equals(COUPONS_PATH);
+        }
+
+        if (HttpMethod.DELETE.matches(method))
+        {
+            return path.startsWith(COUPONS_PATH + "/") && path.indexOf('/', COUPONS_PATH.length() + 1) < 0;
+        }
+
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException
+    {
+        String key = request.getHeader(keyHeader);
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH)
+        {
+            reject(request, response, new RejectedRequestException(HttpStatus.BAD_REQUEST, null, CouponMessages.IDEMPOTENCY_KEY_INVALID, MAX_KEY_LENGTH));
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+
+        if (body.length > maxBodyBytes)
+        {
+            reject(request, response, new RejectedRequestException(HttpStatus.PAYLOAD_TOO_LARGE, null, CouponMessages.IDEMPOTENCY_BODY_TOO_LARGE, maxBodyBytes));
+            return;
+        }
+
+        String scopedKey = scopedKey(clients.identityOf(request), key);
+        IdempotencyStore.Claim claim = store.claim(scopedKey, fingerprint(request.getMethod(), request.getRequestURI(), body));
+
+        switch (claim.status())
+        {
+            case REPLAY -> replay(claim.response(), response);
+            case IN_PROGRESS -> reject(request, response, new RejectedRequestException(HttpStatus.CONFLICT, IN_PROGRESS_RETRY_AFTER, CouponMessages.IDEMPOTENCY_IN_PROGRESS));
+            case MISMATCH -> reject(request, response, new RejectedRequestException(HttpStatus.UNPROCESSABLE_ENTITY, null, CouponMessages.IDEMPOTENCY_KEY_REUSED));
+            case ACQUIRED -> proceed(new CachedBodyRequest(request, body), response, chain, scopedKey, claim.entry());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        FunctionCounter.builder("coupon.idempotency.requests", stored, LongAdder::sum)
+                .description("Keyed requests by what the idempotency filter did with them")
+                .tag("outcome", "stored")
+                .register(registry);
+
+        FunctionCounter.builder("coupon.idempotency.requests", replayed, LongAdder::sum)
+                .description("Keyed requests by what the idempotency filter did with them")
+                .tag("outcome", "replayed")
+                .register(registry);
+
+        FunctionCounter.builder("coupon.idempotency.requests", rejected, LongAdder::sum)
+                .description("Keyed requests by what the idempotency filter did with them")
+                .tag("outcome", "rejected")
+                .register(registry);
+
+        Gauge.builder("coupon.idempotency.entries", store, IdempotencyStore::size)
+                .description("Idempotency keys currently remembered")
+                .register(registry);
+    }
+
+    private void proceed(HttpServletRequest request,
+                         HttpServletResponse response,
+                         FilterChain chain,
+                         String scopedKey,
+                         IdempotencyStore.Entry inFlight) throws ServletException, IOException
+    {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+
+        try
+        {
+            chain.doFilter(request, captured);
+
+            if (isReplayable(captured.getStatus()))
+            {
+                store.complete(scopedKey, inFlight, new IdempotencyStore.StoredResponse(
+                        captured.getStatus(),
+                        captured.getContentType(),
+                        captured.getHeader(HttpHeaders.LOCATION),
+                        captured.getContentAsByteArray()
+                ));
+                completed = true;
+                stored.increment();
+            }
+        }
+        finally
+        {
+            if (!completed)
+            {
+                store.release(scopedKey, inFlight);
+            }
+        }
+
+        captured.copyBodyToResponse();
+    }
+
+    static String scopedKey(String client, String key)
+    {
+        return client != null ? client + '\n' + key : key;
+    }
+
+    /**
+     * Keeps what a retry would get again anyway, including domain errors, but not server
+     * errors or load shedding, which a retry is expected to get past.
+     */
+    static boolean isReplayable(int status)
+    {
+        return status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response) throws IOException
+    {
+        replayed.increment();
+
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+
+        if (stored.contentType() != null)
+        {
+            response.setContentType(stored.contentType());
+        }
+
+        if (stored.location() != null)
+        {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void reject(HttpServletRequest request,
+                        HttpServletResponse response,
+                        RejectedRequestException rejection) throws IOException
+    {
+        rejected.increment();
+        problems.write(request, response, rejection);
+    }
+
+    /**
+     * Hash of method, path and body: a retry must be the same request, byte for byte.
+     */
+    static String fingerprint(String method, String path, byte[] body)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(method.getBytes(StandardCharsets.US_ASCII));
+            digest.update((byte) ' ');
+            digest.update(path.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(body);
+            return Base64.getEncoder().encodeToString(digest.digest());
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Hands the body that was read for the fingerprint to the rest of the chain.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper
+    {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body)
+        {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream()
+        {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+
+            return new ServletInputStream()
+            {
+                @Override
+                public int read() throws IOException
+                {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException
+                {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished()
+                {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public int available()
+                {
+                    return in.available();
+                }
+
+                @Override
+                public boolean isReady()
+                {
+                    return true;
+                }
+
+                /**
+                 * The whole body is already in memory, so it is available right away and
+                 * ends right after: the listener is called back at once, on this thread.
+                 */
+                @Override
+                public void setReadListener(ReadListener listener)
+                {
+                    Objects.requireNonNull(listener, "Read listener must not be null!");
+
+                    try
+                    {
+                        if (!isFinished())
+                        {
+                            listener.onDataAvailable();
+                        }
+
+                        if (isFinished())
+                        {
+                            listener.onAllDataRead();
+                        }
+                    }
+                    catch (IOException | RuntimeException e)
+                    {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader()
+        {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength()
+        {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong()
+        {
+            return body.length;
+        }
+    }
+}
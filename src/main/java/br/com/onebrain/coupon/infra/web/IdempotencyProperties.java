@@ -0,0 +1,23 @@
+package br.com.onebrain.coupon.infra.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Replay of create and delete responses for requests that carry an idempotency key.
+ *
+ * @param ttl          how long a response can be replayed; it should outlast the clients'
+ *                     retry window.
+ * @param maxBodyBytes largest request body that is buffered to fingerprint the request.
+ */
+@ConfigurationProperties(prefix = "coupon.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("Idempotency-Key") String header,
+        @DefaultValue("100000") long maxEntries,
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("64KB") DataSize maxBodyBytes
+){}
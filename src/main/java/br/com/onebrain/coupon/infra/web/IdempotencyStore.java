@@ -0,0 +1,96 @@
+package br.com.onebrain.coupon.infra.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounded, expiring map from idempotency key to the first response given for it. A key is
+ * claimed with an in-flight entry before the request runs, so a concurrent retry sees it and
+ * is turned away instead of running the request a second time; the entry is then completed
+ * with the response, or dropped when there is nothing worth replaying.
+ *
+ * <p>Entries are compared by identity, so a claim that was evicted or expired in the meantime
+ * is never overwritten by a stale completion.
+ */
+final class IdempotencyStore
+{
+    enum Status
+    {
+        ACQUIRED, REPLAY, IN_PROGRESS, MISMATCH
+    }
+
+    record StoredResponse(int status, String contentType, String location, byte[] body) {}
+
+    static final class Entry
+    {
+        private final String fingerprint;
+        private final StoredResponse response;
+
+        private Entry(String fingerprint, StoredResponse response)
+        {
+            this.fingerprint = fingerprint;
+            this.response = response;
+        }
+    }
+
+    /**
+     * @param entry    the in-flight entry to complete or drop when ACQUIRED.
+     * @param response the response to send back when REPLAY.
+     */
+    record Claim(Status status, Entry entry, StoredResponse response) {}
+
+    private final ConcurrentMap<String, Entry> entries;
+
+    IdempotencyStore(long maxEntries, Duration ttl, Ticker ticker)
+    {
+        Cache<String, Entry> cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build();
+
+        this.entries = cache.asMap();
+    }
+
+    Claim claim(String key, String fingerprint)
+    {
+        Entry inFlight = new Entry(fingerprint, null);
+        Entry existing = entries.putIfAbsent(key, inFlight);
+
+        if (existing == null)
+        {
+            return new Claim(Status.ACQUIRED, inFlight, null);
+        }
+
+        if (!existing.fingerprint.equals(fingerprint))
+        {
+            return new Claim(Status.MISMATCH, null, null);
+        }
+
+        if (existing.response == null)
+        {
+            return new Claim(Status.IN_PROGRESS, null, null);
+        }
+
+        return new Claim(Status.REPLAY, null, existing.response);
+    }
+
+    void complete(String key, Entry inFlight, StoredResponse response)
+    {
+        entries.replace(key, inFlight, new Entry(inFlight.fingerprint, response));
+    }
+
+    void release(String key, Entry inFlight)
+    {
+        entries.remove(key, inFlight);
+    }
+
+    long size()
+    {
+        return entries.size();
+    }
+}
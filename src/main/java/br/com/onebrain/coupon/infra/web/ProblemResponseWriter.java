@@ -0,0 +1,70 @@
+package br.com.onebrain.coupon.infra.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Writes a {@link RejectedRequestException} from a servlet filter or a {@code WebFilter}, where
+ * the {@code @RestControllerAdvice} is not reached, as the same response
+ * {@link ApiExceptionHandler} would have produced.
+ */
+final class ProblemResponseWriter
+{
+    private final ApiExceptionHandler exceptionHandler;
+    private final ObjectMapper objectMapper;
+
+    ProblemResponseWriter(ApiExceptionHandler exceptionHandler, ObjectMapper objectMapper)
+    {
+        this.exceptionHandler = exceptionHandler;
+        this.objectMapper = objectMapper;
+    }
+
+    void write(HttpServletRequest request,
+               HttpServletResponse response,
+               RejectedRequestException rejection) throws IOException
+    {
+        ResponseEntity<ProblemDetail> problem = exceptionHandler.handleRejectedRequest(rejection, request.getLocale());
+        ProblemDetail body = problem.getBody();
+        body.setInstance(URI.create(request.getRequestURI()));
+
+        response.setStatus(problem.getStatusCode().value());
+        problem.getHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    Mono<Void> write(ServerWebExchange exchange, RejectedRequestException rejection)
+    {
+        ResponseEntity<ProblemDetail> problem = exceptionHandler.handleRejectedRequest(rejection, exchange.getLocaleContext().getLocale());
+        ProblemDetail body = problem.getBody();
+        body.setInstance(URI.create(exchange.getRequest().getPath().value()));
+
+        byte[] json;
+
+        try
+        {
+            json = objectMapper.writeValueAsBytes(body);
+        }
+        catch (JsonProcessingException e)
+        {
+            return Mono.error(e);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(problem.getStatusCode());
+        response.getHeaders().addAll(problem.getHeaders());
+        response.getHeaders().setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(json)));
+    }
+}
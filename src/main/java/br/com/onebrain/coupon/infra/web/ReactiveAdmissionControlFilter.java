@@ -0,0 +1,116 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.domain.CouponMessages;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+
+/**
+ * {@link AdmissionControlFilter} for the reactive variant: the same per-client token bucket
+ * (429) in front of the same adaptive concurrency limit (503), with the same settings.
+ * Not a scanned component; {@code ReactiveCouponApplication} imports it.
+ *
+ * <p>The slot is held until the response publisher terminates. The reactive API has no feed
+ * and no bulk endpoints, so every completed request feeds its latency to the limiter; one
+ * the client gave up on does not, since its duration says nothing about the service.
+ */
+@Order(AdmissionControlFilter.ORDER)
+@ConditionalOnProperty(name = "coupon.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveAdmissionControlFilter implements WebFilter, MeterBinder
+{
+    private static final String COUPONS_PATH = "/coupons";
+    private static final Duration OVERLOADED_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ClientResolver clients;
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ProblemResponseWriter problems;
+
+    public ReactiveAdmissionControlFilter(AdmissionProperties properties,
+                                          ApiExceptionHandler exceptionHandler,
+                                          ObjectMapper objectMapper)
+    {
+        this.clients = new ClientResolver(properties.clientHeader());
+        this.rateLimiter = new ClientRateLimiter(
+                properties.requestsPerSecond(),
+                properties.burst(),
+                properties.maxClients(),
+                properties.idleExpiry(),
+                Ticker.systemTicker()
+        );
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+                properties.initialConcurrency(),
+                properties.minConcurrency(),
+                properties.maxConcurrency(),
+                properties.latencyThreshold().toNanos()
+        );
+        this.problems = new ProblemResponseWriter(exceptionHandler, objectMapper);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain)
+    {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+
+        if (!path.equals(COUPONS_PATH) && !path.startsWith(COUPONS_PATH + "/"))
+        {
+            return chain.filter(exchange);
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(clients.clientOf(exchange.getRequest()));
+
+        if (waitNanos > 0)
+        {
+            Duration wait = Duration.ofNanos(waitNanos);
+            long seconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+            return problems.write(exchange, new RejectedRequestException(HttpStatus.TOO_MANY_REQUESTS, wait, CouponMessages.RATE_LIMITED, seconds));
+        }
+
+        if (!concurrencyLimiter.tryAcquire())
+        {
+            return problems.write(exchange, new RejectedRequestException(HttpStatus.SERVICE_UNAVAILABLE, OVERLOADED_RETRY_AFTER, CouponMessages.OVERLOADED));
+        }
+
+        long startedNanos = System.nanoTime();
+
+        return chain.filter(exchange).doFinally(signal ->
+        {
+            if (signal == SignalType.CANCEL)
+            {
+                concurrencyLimiter.releaseUnsampled();
+            }
+            else
+            {
+                concurrencyLimiter.release(startedNanos, System.nanoTime());
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        Gauge.builder("coupon.admission.clients", rateLimiter, ClientRateLimiter::trackedClients)
+                .description("Clients with a rate limit bucket in memory")
+                .register(registry);
+
+        Gauge.builder("coupon.admission.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive limit of concurrent coupon requests")
+                .register(registry);
+
+        Gauge.builder("coupon.admission.concurrency.in_flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Coupon requests currently admitted")
+                .register(registry);
+    }
+}
@@ -0,0 +1,259 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.domain.CouponMessages;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link IdempotencyFilter} for the reactive variant: same keys, same store semantics, same
+ * responses and meters. The body is joined in memory (up to {@code max-body-bytes}) to be
+ * fingerprinted and handed on to the controller; the response body is joined once more on
+ * its way out to be kept. Not a scanned component; {@code ReactiveCouponApplication} imports it.
+ */
+@Order(IdempotencyFilter.ORDER)
+@ConditionalOnProperty(name = "coupon.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveIdempotencyFilter implements WebFilter, MeterBinder
+{
+    private static final Duration IN_PROGRESS_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final String keyHeader;
+    private final int maxBodyBytes;
+    private final ClientResolver clients;
+    private final IdempotencyStore store;
+    private final ProblemResponseWriter problems;
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public ReactiveIdempotencyFilter(IdempotencyProperties properties,
+                                     AdmissionProperties admissionProperties,
+                                     ApiExceptionHandler exceptionHandler,
+                                     ObjectMapper objectMapper)
+    {
+        this(properties, admissionProperties, exceptionHandler, objectMapper, Ticker.systemTicker());
+    }
+
+    ReactiveIdempotencyFilter(IdempotencyProperties properties,
+                              AdmissionProperties admissionProperties,
+                              ApiExceptionHandler exceptionHandler,
+                              ObjectMapper objectMapper,
+                              Ticker ticker)
+    {
+        this.keyHeader = properties.header();
+        this.maxBodyBytes = Math.toIntExact(properties.maxBodyBytes().toBytes());
+        this.clients = new ClientResolver(admissionProperties.clientHeader());
+        this.store = new IdempotencyStore(properties.maxEntries(), properties.ttl(), ticker);
+        this.problems = new ProblemResponseWriter(exceptionHandler, objectMapper);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain)
+    {
+        ServerHttpRequest request = exchange.getRequest();
+        String key = request.getHeaders().getFirst(keyHeader);
+
+        if (key == null || !IdempotencyFilter.isKeyable(request.getMethod().name(), request.getPath().pathWithinApplication().value()))
+        {
+            return chain.filter(exchange);
+        }
+
+        if (key.isBlank() || key.length() > IdempotencyFilter.MAX_KEY_LENGTH)
+        {
+            return reject(exchange, new RejectedRequestException(HttpStatus.BAD_REQUEST, null, CouponMessages.IDEMPOTENCY_KEY_INVALID, IdempotencyFilter.MAX_KEY_LENGTH));
+        }
+
+        return DataBufferUtils.join(request.getBody(), maxBodyBytes)
+                .map(ReactiveIdempotencyFilter::drain)
+                .defaultIfEmpty(new byte[0])
+                .map(Optional::of)
+                .onErrorReturn(DataBufferLimitException.class, Optional.empty())
+                .flatMap(body -> body.isPresent()
+                        ? claim(exchange, chain, key, body.get())
+                        : reject(exchange, new RejectedRequestException(HttpStatus.PAYLOAD_TOO_LARGE, null, CouponMessages.IDEMPOTENCY_BODY_TOO_LARGE, maxBodyBytes)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry)
+    {
+        FunctionCounter.builder("coupon.idempotency.requests", stored, LongAdder::sum)
+                .description("Keyed requests by what the idempotency filter did with them")
+                .tag("outcome", "stored")
+                .register(registry);
+
+        FunctionCounter.builder("coupon.idempotency.requests", replayed, LongAdder::sum)
+                .description("Keyed requests by what the idempotency filter did with them")
+                .tag("outcome", "replayed")
+                .register(registry);
+
+        FunctionCounter.builder("coupon.idempotency.requests", rejected, LongAdder::sum)
+                .description("Keyed requests by what the idempotency filter did with them")
+                .tag("outcome", "rejected")
+                .register(registry);
+
+        Gauge.builder("coupon.idempotency.entries", store, IdempotencyStore::size)
+                .description("Idempotency keys currently remembered")
+                .register(registry);
+    }
+
+    private Mono<Void> claim(ServerWebExchange exchange, WebFilterChain chain, String key, byte[] body)
+    {
+        ServerHttpRequest request = exchange.getRequest();
+        String scopedKey = IdempotencyFilter.scopedKey(clients.identityOf(request), key);
+        IdempotencyStore.Claim claim = store.claim(scopedKey, IdempotencyFilter.fingerprint(request.getMethod().name(), request.getPath().value(), body));
+
+        return switch (claim.status())
+        {
+            case REPLAY -> replay(claim.response(), exchange.getResponse());
+            case IN_PROGRESS -> reject(exchange, new RejectedRequestException(HttpStatus.CONFLICT, IN_PROGRESS_RETRY_AFTER, CouponMessages.IDEMPOTENCY_IN_PROGRESS));
+            case MISMATCH -> reject(exchange, new RejectedRequestException(HttpStatus.UNPROCESSABLE_ENTITY, null, CouponMessages.IDEMPOTENCY_KEY_REUSED));
+            case ACQUIRED -> proceed(exchange, chain, body, scopedKey, claim.entry());
+        };
+    }
+
+    private Mono<Void> proceed(ServerWebExchange exchange,
+                               WebFilterChain chain,
+                               byte[] body,
+                               String scopedKey,
+                               IdempotencyStore.Entry inFlight)
+    {
+        CapturingResponse captured = new CapturingResponse(exchange.getResponse());
+        ServerHttpRequest cached = new ServerHttpRequestDecorator(exchange.getRequest())
+        {
+            @Override
+            public Flux<DataBuffer> getBody()
+            {
+                return Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+            }
+        };
+
+        return chain.filter(exchange.mutate().request(cached).response(captured).build())
+                .doOnSuccess(ignored -> captured.completed = complete(scopedKey, inFlight, captured))
+                .doFinally(signal ->
+                {
+                    if (!captured.completed)
+                    {
+                        store.release(scopedKey, inFlight);
+                    }
+                });
+    }
+
+    private boolean complete(String scopedKey, IdempotencyStore.Entry inFlight, CapturingResponse captured)
+    {
+        HttpStatusCode status = captured.getStatusCode() != null ? captured.getStatusCode() : HttpStatus.OK;
+
+        if (!IdempotencyFilter.isReplayable(status.value()))
+        {
+            return false;
+        }
+
+        MediaType contentType = captured.getHeaders().getContentType();
+        store.complete(scopedKey, inFlight, new IdempotencyStore.StoredResponse(
+                status.value(),
+                contentType != null ? contentType.toString() : null,
+                captured.getHeaders().getFirst(HttpHeaders.LOCATION),
+                captured.body
+        ));
+        stored.increment();
+        return true;
+    }
+
+    private Mono<Void> replay(IdempotencyStore.StoredResponse stored, ServerHttpResponse response)
+    {
+        replayed.increment();
+
+        response.setStatusCode(HttpStatusCode.valueOf(stored.status()));
+        response.getHeaders().set(IdempotencyFilter.REPLAYED_HEADER, "true");
+
+        if (stored.contentType() != null)
+        {
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, stored.contentType());
+        }
+
+        if (stored.location() != null)
+        {
+            response.getHeaders().set(HttpHeaders.LOCATION, stored.location());
+        }
+
+        response.getHeaders().setContentLength(stored.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(stored.body())));
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, RejectedRequestException rejection)
+    {
+        rejected.increment();
+        return problems.write(exchange, rejection);
+    }
+
+    private static byte[] drain(DataBuffer buffer)
+    {
+        try
+        {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        }
+        finally
+        {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    /**
+     * Keeps a copy of the body written through it. Create and delete answer with a single
+     * buffer or none, never a stream, so joining it costs nothing the codec had not already spent.
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator
+    {
+        private byte[] body = new byte[0];
+        private volatile boolean completed;
+
+        private CapturingResponse(ServerHttpResponse delegate)
+        {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body)
+        {
+            return DataBufferUtils.join(body)
+                    .map(ReactiveIdempotencyFilter::drain)
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(bytes ->
+                    {
+                        this.body = bytes;
+                        return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+    }
+}
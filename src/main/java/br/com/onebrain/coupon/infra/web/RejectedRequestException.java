@@ -0,0 +1,37 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.domain.DomainException;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * A request turned away by a filter before reaching a controller, answered with its own
+ * status instead of the 400 of other domain errors.
+ */
+public class RejectedRequestException extends DomainException
+{
+    private final HttpStatus status;
+    private final Duration retryAfter;
+
+    /**
+     * @param retryAfter sent as {@code Retry-After}; {@code null} when retrying cannot help.
+     */
+    public RejectedRequestException(HttpStatus status, Duration retryAfter, String messageKey, Object... args)
+    {
+        super(messageKey, args);
+
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+
+    public HttpStatus getStatus()
+    {
+        return status;
+    }
+
+    public Duration getRetryAfter()
+    {
+        return retryAfter;
+    }
+}
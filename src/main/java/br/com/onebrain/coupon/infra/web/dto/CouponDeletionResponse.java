@@ -0,0 +1,9 @@
+package br.com.onebrain.coupon.infra.web.dto;
+
+public record CouponDeletionResponse(
+        int accepted,
+        long pending,
+        long deleted,
+        long skipped,
+        long failed
+){}
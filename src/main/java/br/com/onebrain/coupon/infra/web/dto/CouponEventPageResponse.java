@@ -0,0 +1,8 @@
+package br.com.onebrain.coupon.infra.web.dto;
+
+import java.util.List;
+
+public record CouponEventPageResponse(
+        List<CouponEventResponse> events,
+        long lastOffset
+){}
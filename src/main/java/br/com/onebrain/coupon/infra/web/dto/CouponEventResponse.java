@@ -0,0 +1,17 @@
+package br.com.onebrain.coupon.infra.web.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record CouponEventResponse(
+        long offset,
+        String type,
+        UUID couponId,
+        String code,
+        BigDecimal discountValue,
+        LocalDate expirationDate,
+        boolean published,
+        Instant occurredAt
+){}
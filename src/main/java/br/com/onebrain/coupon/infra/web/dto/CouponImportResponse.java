@@ -0,0 +1,20 @@
+package br.com.onebrain.coupon.infra.web.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public record CouponImportResponse(
+        UUID id,
+        String status,
+        Instant startedAt,
+        Instant finishedAt,
+        long linesRead,
+        double linesPerSecond,
+        long created,
+        long rejected,
+        Map<String, Long> rejectedByReason,
+        List<CreateCouponsBatchResponse.ItemError> errors,
+        String failure
+){}
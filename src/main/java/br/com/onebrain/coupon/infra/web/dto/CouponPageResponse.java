@@ -0,0 +1,8 @@
+package br.com.onebrain.coupon.infra.web.dto;
+
+import java.util.List;
+
+public record CouponPageResponse(
+        List<CouponResponse> items,
+        String nextCursor
+){}
@@ -1,6 +1,7 @@
 package br.com.onebrain.coupon.infra.web.dto;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -11,5 +12,22 @@ public record CouponResponse(
         BigDecimal discountValue,
         LocalDate expirationDate,
         boolean published,
-        boolean deleted
-){}
+        boolean deleted,
+        Integer maxUsages,
+        int usageCount,
+        Instant publishAt,
+        Instant unpublishAt
+){
+    public CouponResponse(UUID id,
+                          String code,
+                          String description,
+                          BigDecimal discountValue,
+                          LocalDate expirationDate,
+                          boolean published,
+                          boolean deleted,
+                          Integer maxUsages,
+                          int usageCount)
+    {
+        this(id, code, description, discountValue, expirationDate, published, deleted, maxUsages, usageCount, null, null);
+    }
+}
@@ -3,6 +3,7 @@ package br.com.onebrain.coupon.infra.web.dto;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -12,5 +13,15 @@ public record CreateCouponRequest(
         @NotBlank String description,
         @NotNull @DecimalMin(value = "0.50") BigDecimal discountValue,
         @NotNull LocalDate expirationDate,
-        boolean published
-){}
+        boolean published,
+        @Positive Integer maxUsages
+){
+    public CreateCouponRequest(String code,
+                               String description,
+                               BigDecimal discountValue,
+                               LocalDate expirationDate,
+                               boolean published)
+    {
+        this(code, description, discountValue, expirationDate, published, null);
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.onebrain.coupon.infra.web.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record CreateCouponsBatchResponse(
+        long received,
+        long created,
+        long rejected,
+        Map<String, Long> rejectedByReason,
+        List<ItemError> errors
+){
+    public record ItemError(
+            long index,
+            String code,
+            String messageKey
+    ){}
+}
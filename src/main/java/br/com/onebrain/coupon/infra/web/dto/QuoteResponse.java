@@ -0,0 +1,12 @@
+package br.com.onebrain.coupon.infra.web.dto;
+
+import java.math.BigDecimal;
+
+public record QuoteResponse(
+        String code,
+        BigDecimal amount,
+        BigDecimal discount,
+        BigDecimal total,
+        boolean applicable,
+        String reason
+){}
@@ -0,0 +1,12 @@
+package br.com.onebrain.coupon.infra.web.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record RedemptionResponse(
+        UUID couponId,
+        String code,
+        BigDecimal discountValue,
+        Instant redeemedAt
+){}
@@ -0,0 +1,8 @@
+package br.com.onebrain.coupon.infra.web.dto;
+
+import java.time.Instant;
+
+public record ScheduleCouponRequest(
+        Instant publishAt,
+        Instant unpublishAt
+){}
@@ -0,0 +1,26 @@
+-- Schema of the reactive variant (R2DBC has no DDL generation); mirrors the JPA mapping of Coupon,
+-- which ReactiveSchemaTest checks against the DDL Hibernate generates.
+create table if not exists coupons (
+    id              uuid                     not null primary key,
+    code            varchar(6)               not null,
+    active_code     varchar(6),
+    description     varchar(255)             not null,
+    discount_value  numeric(11, 2)           not null,
+    expiration_date date                     not null,
+    published       boolean                  not null,
+    publish_at      timestamp with time zone,
+    unpublish_at    timestamp with time zone,
+    max_usages      integer,
+    usage_count     integer                  not null,
+    deleted         boolean                  not null,
+    deleted_at      timestamp with time zone,
+    created_at      timestamp with time zone not null,
+    updated_at      timestamp with time zone not null,
+    version         bigint                   not null,
+    constraint uk_coupons_active_code unique (active_code)
+);
+
+create index if not exists idx_coupons_code on coupons (code);
+create index if not exists idx_coupons_deleted on coupons (deleted);
+create index if not exists idx_coupons_expiration_date on coupons (expiration_date);
+create index if not exists idx_coupons_created_at_id on coupons (created_at, id);
@@ -0,0 +1,103 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponSchedule;
+import br.com.onebrain.coupon.app.port.CouponTimerPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ApplyCouponSchedulesUseCaseTest
+{
+    private static final Instant NOW = Instant.parse("2025-12-30T12:00:00Z");
+
+    private CouponRepositoryPort repository;
+    private CouponTimerPort timers;
+    private ApplyCouponSchedulesUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(CouponRepositoryPort.class);
+        timers = mock(CouponTimerPort.class);
+        useCase = new ApplyCouponSchedulesUseCase(repository, timers, Clock.fixed(NOW, ZoneOffset.UTC), 2, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldApplyPublicationsBeforeUnpublicationsInChunks()
+    {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+
+        when(repository.publishDue(any(), eq(NOW))).thenReturn(2, 1);
+        when(repository.unpublishDue(any(), eq(NOW))).thenReturn(0);
+
+        assertEquals(3, useCase.execute(List.of(a, b, c), List.of(a)));
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).publishDue(List.of(a, b), NOW);
+        order.verify(repository).publishDue(List.of(c), NOW);
+        order.verify(repository).unpublishDue(List.of(a), NOW);
+        assertEquals(3, useCase.applied());
+    }
+
+    @Test
+    void aFailedChunkShouldBeArmedAgainAfterTheRetryDelay()
+    {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+
+        when(repository.publishDue(List.of(a, b), NOW)).thenThrow(new IllegalStateException("database down"));
+        when(repository.publishDue(List.of(c), NOW)).thenReturn(1);
+        when(repository.unpublishDue(List.of(c), NOW)).thenThrow(new IllegalStateException("database down"));
+
+        assertEquals(1, useCase.execute(List.of(a, b, c), List.of(c)));
+
+        Instant retryAt = NOW.plusSeconds(30);
+        verify(timers).arm(new CouponSchedule(a, retryAt, null));
+        verify(timers).arm(new CouponSchedule(b, retryAt, null));
+        verify(timers).arm(new CouponSchedule(c, null, retryAt));
+        verifyNoMoreInteractions(timers);
+        assertEquals(3, useCase.failed());
+    }
+
+    @Test
+    void restoreShouldArmEveryStoredWindow()
+    {
+        CouponSchedule first = new CouponSchedule(UUID.randomUUID(), NOW, null);
+        CouponSchedule second = new CouponSchedule(UUID.randomUUID(), null, NOW.plusSeconds(60));
+
+        doAnswer(inv ->
+        {
+            Consumer<CouponSchedule> consumer = inv.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(repository).forEachSchedule(any());
+
+        assertEquals(2, useCase.restore());
+        verify(timers).arm(first);
+        verify(timers).arm(second);
+    }
+
+    @Test
+    void shouldRejectAnInvalidChunkSize()
+    {
+        assertThrows(IllegalArgumentException.class, () ->
+                new ApplyCouponSchedulesUseCase(repository, timers, Clock.systemUTC(), 0, Duration.ofSeconds(30)));
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BulkDeleteCouponsUseCaseTest
+{
+    private static final Instant NOW = Instant.parse("2025-12-30T12:00:00Z");
+
+    private CouponRepositoryPort repository;
+    private BulkDeleteCouponsUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(CouponRepositoryPort.class);
+        when(repository.softDeleteAll(anyCollection(), any())).thenAnswer(inv -> inv.<Collection<?>>getArgument(0).size() - 1);
+
+        // A long linger keeps everything queued until close() flushes it, which makes batching deterministic.
+        useCase = new BulkDeleteCouponsUseCase(
+                repository,
+                Clock.fixed(NOW, ZoneOffset.UTC),
+                Thread::new,
+                3,
+                Duration.ofMinutes(1),
+                100,
+                3,
+                Duration.ofMillis(1)
+        );
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException
+    {
+        useCase.close();
+    }
+
+    @Test
+    void shouldCoalesceRepeatedIdsIntoSetBasedBatches() throws InterruptedException
+    {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        UUID d = UUID.randomUUID();
+
+        assertEquals(3, useCase.execute(List.of(a, b, a)));
+        assertEquals(3, useCase.execute(List.of(c, b, d)));
+
+        useCase.close();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UUID>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(repository, times(2)).softDeleteAll(batches.capture(), eq(NOW));
+
+        assertEquals(List.of(a, b, c), List.copyOf(batches.getAllValues().get(0)));
+        assertEquals(List.of(b, d), List.copyOf(batches.getAllValues().get(1)));
+        assertEquals(0, useCase.pending());
+        assertEquals(3, useCase.deleted());
+        assertEquals(2, useCase.skipped());
+    }
+
+    @Test
+    void batchShouldBeRetriedAfterATransientFailure() throws InterruptedException
+    {
+        when(repository.softDeleteAll(anyCollection(), any()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(3);
+
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+
+        useCase.execute(List.of(a, b, c));
+        useCase.close();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UUID>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(repository, times(2)).softDeleteAll(batches.capture(), eq(NOW));
+
+        assertEquals(List.of(a, b, c), List.copyOf(batches.getAllValues().get(1)));
+        assertEquals(3, useCase.deleted());
+        assertEquals(0, useCase.failed());
+        assertEquals(0, useCase.pending());
+    }
+
+    @Test
+    void batchShouldBeCountedAsFailedOnlyAfterItsLastAttemptAndNotStopTheFlusher() throws InterruptedException
+    {
+        when(repository.softDeleteAll(anyCollection(), any()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(1);
+
+        useCase.execute(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+        useCase.execute(List.of(UUID.randomUUID()));
+        useCase.close();
+
+        verify(repository, times(4)).softDeleteAll(anyCollection(), any());
+        assertEquals(3, useCase.failed());
+        assertEquals(1, useCase.deleted());
+    }
+
+    @Test
+    void shouldRejectEmptyOrNullIds()
+    {
+        List<UUID> withNull = new ArrayList<>();
+        withNull.add(null);
+
+        assertEquals(CouponMessages.DELETE_IDS_REQUIRED,
+                assertThrows(DomainException.class, () -> useCase.execute(List.of())).getMessageKey());
+        assertEquals(CouponMessages.DELETE_IDS_REQUIRED,
+                assertThrows(DomainException.class, () -> useCase.execute(withNull)).getMessageKey());
+        assertThrows(NullPointerException.class, () -> useCase.execute(null));
+    }
+
+    @Test
+    void shouldRejectRequestsAboveTheLimit()
+    {
+        List<UUID> ids = Collections.nCopies(BulkDeleteCouponsUseCase.MAX_IDS_PER_REQUEST + 1, UUID.randomUUID());
+
+        DomainException ex = assertThrows(DomainException.class, () -> useCase.execute(ids));
+
+        assertEquals(CouponMessages.DELETE_TOO_MANY_IDS, ex.getMessageKey());
+        verifyNoInteractions(repository);
+    }
+}
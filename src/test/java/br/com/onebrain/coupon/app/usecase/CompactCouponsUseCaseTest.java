@@ -0,0 +1,112 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CompactCouponsUseCaseTest
+{
+    private static final Instant NOW = Instant.parse("2025-12-30T12:00:00Z");
+
+    private CouponRepositoryPort repository;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(CouponRepositoryPort.class);
+    }
+
+    @Test
+    void shouldArchiveChunksUntilOneComesBackShort()
+    {
+        when(repository.archiveDead(any(), any(), any(), anyInt())).thenReturn(10, 10, 4);
+
+        CompactCouponsUseCase useCase = useCase(Duration.ofMinutes(5));
+
+        assertEquals(24, useCase.execute());
+        assertEquals(24, useCase.archived());
+        assertTrue(useCase.lastRunRowsPerSecond() > 0);
+        verify(repository, times(3)).archiveDead(
+                NOW.minus(Duration.ofDays(7)),
+                LocalDate.parse("2025-11-30"),
+                NOW,
+                10
+        );
+    }
+
+    @Test
+    void shouldStopAtTheTimeBudgetAndResumeOnTheNextRun()
+    {
+        when(repository.archiveDead(any(), any(), any(), anyInt())).thenReturn(10, 10, 0);
+
+        CompactCouponsUseCase useCase = useCase(Duration.ZERO);
+
+        assertEquals(10, useCase.execute());
+        assertEquals(10, useCase.execute());
+        assertEquals(0, useCase.execute());
+        assertEquals(20, useCase.archived());
+    }
+
+    @Test
+    void shouldSkipWhenARunIsAlreadyInProgress() throws InterruptedException
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(repository.archiveDead(any(), any(), any(), anyInt())).thenAnswer(inv ->
+        {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 0;
+        });
+
+        CompactCouponsUseCase useCase = useCase(Duration.ofMinutes(5));
+        Thread first = new Thread(useCase::execute);
+        first.start();
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(useCase.isRunning());
+        assertEquals(0, useCase.execute());
+
+        release.countDown();
+        first.join();
+
+        verify(repository, times(1)).archiveDead(any(), any(), any(), anyInt());
+        assertFalse(useCase.isRunning());
+    }
+
+    @Test
+    void shouldRejectInvalidChunkSize()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new CompactCouponsUseCase(
+                repository,
+                Clock.fixed(NOW, ZoneOffset.UTC),
+                Duration.ofDays(7),
+                Duration.ofDays(30),
+                0,
+                Duration.ZERO,
+                Duration.ofMinutes(5)
+        ));
+    }
+
+    private CompactCouponsUseCase useCase(Duration maxRunTime)
+    {
+        return new CompactCouponsUseCase(
+                repository,
+                Clock.fixed(NOW, ZoneOffset.UTC),
+                Duration.ofDays(7),
+                Duration.ofDays(30),
+                10,
+                Duration.ZERO,
+                maxRunTime
+        );
+    }
+}
@@ -38,8 +38,6 @@ class CreateCouponUseCaseTest
                 true
         );
 
-        when(repository.existsActiveByCode("AB1234")).thenReturn(false);
-
         when(repository.save(any(Coupon.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Coupon result = useCase.execute(cmd);
@@ -51,7 +49,6 @@ class CreateCouponUseCaseTest
         assertTrue(result.isPublished());
         assertFalse(result.isDeleted());
 
-        verify(repository).existsActiveByCode("AB1234");
         verify(repository).save(any(Coupon.class));
         verifyNoMoreInteractions(repository);
     }
@@ -67,14 +64,13 @@ class CreateCouponUseCaseTest
                 false
         );
 
-        when(repository.existsActiveByCode("AB1234")).thenReturn(true);
+        when(repository.save(any(Coupon.class))).thenThrow(new DomainException(CouponMessages.CODE_ALREADY_EXISTS));
 
         DomainException ex = assertThrows(DomainException.class, () -> useCase.execute(cmd));
 
         assertEquals(CouponMessages.CODE_ALREADY_EXISTS, ex.getMessageKey());
 
-        verify(repository).existsActiveByCode("AB1234");
-        verify(repository, never()).save(any());
+        verify(repository).save(any(Coupon.class));
         verifyNoMoreInteractions(repository);
     }
 
@@ -89,7 +85,6 @@ class CreateCouponUseCaseTest
                 false
         );
 
-        when(repository.existsActiveByCode("AA11BB")).thenReturn(false);
         when(repository.save(any(Coupon.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Coupon result = useCase.execute(cmd);
@@ -0,0 +1,141 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CreateCouponsBatchUseCaseTest
+{
+    private CouponRepositoryPort repository;
+    private CreateCouponsBatchUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(CouponRepositoryPort.class);
+        Clock clock = Clock.fixed(Instant.parse("2025-12-30T12:00:00Z"), ZoneOffset.UTC);
+        useCase = new CreateCouponsBatchUseCase(repository, clock, 2);
+
+        when(repository.findActiveCodes(anyCollection())).thenReturn(Set.of());
+        when(repository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void shouldSaveValidCouponsInChunksWithOneDuplicateCheckPerChunk()
+    {
+        CreateCouponsBatchResult result = useCase.execute(List.of(
+                command("AAAAA1"),
+                command("AAAAA2"),
+                command("AAAAA3")
+        ));
+
+        assertEquals(3, result.received());
+        assertEquals(3, result.created());
+        assertEquals(0, result.rejected());
+        assertTrue(result.errors().isEmpty());
+
+        verify(repository, times(2)).findActiveCodes(anyCollection());
+        verify(repository, times(2)).saveAll(anyList());
+        verify(repository, never()).existsActiveByCode(any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void shouldReportInvalidItemsWithoutFailingTheBatch()
+    {
+        List<CreateCouponCommand> commands = new ArrayList<>();
+        commands.add(command("AB-1"));
+        commands.add(null);
+        commands.add(command("AAAAA1"));
+
+        CreateCouponsBatchResult result = useCase.execute(commands);
+
+        assertEquals(3, result.received());
+        assertEquals(1, result.created());
+        assertEquals(2, result.rejected());
+        assertEquals(new CouponBatchError(0, "AB-1", CouponMessages.CODE_INVALID_LENGTH), result.errors().get(0));
+        assertEquals(new CouponBatchError(1, null, CouponMessages.BATCH_ITEM_REQUIRED), result.errors().get(1));
+    }
+
+    @Test
+    void shouldRejectDuplicatesInsideTheChunkAndAlreadyActiveCodes()
+    {
+        when(repository.findActiveCodes(anyCollection())).thenReturn(Set.of("AAAAA3"));
+
+        CreateCouponsBatchResult result = useCase.execute(List.of(
+                command("aaaaa1"),
+                command("AAAAA1"),
+                command("AAAAA3")
+        ));
+
+        assertEquals(1, result.created());
+        assertEquals(2, result.rejected());
+        assertEquals(2L, result.rejectedByReason().get(CouponMessages.CODE_ALREADY_EXISTS));
+        assertEquals(Set.of(1L, 2L), Set.of(result.errors().get(0).index(), result.errors().get(1).index()));
+    }
+
+    @Test
+    void shouldFallBackToSingleSavesWhenACodeIsTakenConcurrently()
+    {
+        when(repository.saveAll(anyList())).thenThrow(new DomainException(CouponMessages.CODE_ALREADY_EXISTS));
+        when(repository.save(any(Coupon.class))).thenAnswer(inv ->
+        {
+            Coupon coupon = inv.getArgument(0);
+
+            if (coupon.getCode().equals("AAAAA2"))
+            {
+                throw new DomainException(CouponMessages.CODE_ALREADY_EXISTS);
+            }
+
+            return coupon;
+        });
+
+        CreateCouponsBatchResult result = useCase.execute(List.of(command("AAAAA1"), command("AAAAA2")));
+
+        assertEquals(1, result.created());
+        assertEquals(1, result.rejected());
+        assertEquals(new CouponBatchError(1, "AAAAA2", CouponMessages.CODE_ALREADY_EXISTS), result.errors().get(0));
+        verify(repository, times(2)).save(any(Coupon.class));
+    }
+
+    @Test
+    void shouldPersistCouponsWithClockBasedTimestamps()
+    {
+        useCase.execute(List.of(command("AAAAA1")));
+
+        verify(repository).saveAll(argThat(coupons -> {
+            Coupon coupon = coupons.get(0);
+            return coupon.getCreatedAt().equals(Instant.parse("2025-12-30T12:00:00Z"))
+                    && coupon.getCode().equals("AAAAA1");
+        }));
+    }
+
+    @Test
+    void shouldThrowNullPointerWhenCommandsAreNull()
+    {
+        assertThrows(NullPointerException.class, () -> useCase.execute(null));
+        verifyNoInteractions(repository);
+    }
+
+    private static CreateCouponCommand command(String code)
+    {
+        return new CreateCouponCommand(
+                code,
+                "Desc",
+                new BigDecimal("10.00"),
+                LocalDate.now().plusDays(1),
+                true
+        );
+    }
+}
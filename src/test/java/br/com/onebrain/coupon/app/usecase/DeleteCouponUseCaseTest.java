@@ -1,6 +1,7 @@
 package br.com.onebrain.coupon.app.usecase;
 
 import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
 import br.com.onebrain.coupon.domain.Coupon;
 import br.com.onebrain.coupon.domain.CouponMessages;
 import br.com.onebrain.coupon.domain.DomainException;
@@ -43,7 +44,7 @@ class DeleteCouponUseCaseTest
                 Instant.parse("2025-12-30T10:00:00Z")
         );
 
-        when(repository.findActiveById(id)).thenReturn(Optional.of(coupon));
+        when(repository.findActiveByIdForUpdate(id)).thenReturn(Optional.of(coupon));
         when(repository.save(any(Coupon.class))).thenAnswer(inv -> inv.getArgument(0));
 
         useCase.execute(id);
@@ -52,22 +53,45 @@ class DeleteCouponUseCaseTest
         assertEquals(Instant.parse("2025-12-30T15:00:00Z"), coupon.getDeletedAt());
         assertEquals(Instant.parse("2025-12-30T15:00:00Z"), coupon.getUpdatedAt());
 
-        verify(repository).findActiveById(id);
+        verify(repository).findActiveByIdForUpdate(id);
         verify(repository).save(coupon);
         verifyNoMoreInteractions(repository);
     }
 
+    @Test
+    void shouldReadAgainAfterAConflictAndSeeTheWinningDelete()
+    {
+        UUID id = UUID.randomUUID();
+
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.parse("2025-12-30T10:00:00Z")
+        );
+
+        when(repository.findActiveByIdForUpdate(id)).thenReturn(Optional.of(coupon)).thenReturn(Optional.empty());
+        when(repository.save(coupon)).thenThrow(new ConcurrentUpdateException());
+
+        DomainException ex = assertThrows(DomainException.class, () -> useCase.execute(id));
+
+        assertEquals(CouponMessages.NOT_FOUND_OR_DELETED, ex.getMessageKey());
+        verify(repository, times(2)).findActiveByIdForUpdate(id);
+    }
+
     @Test
     void shouldThrowWhenCouponNotFoundOrDeleted()
     {
         UUID id = UUID.randomUUID();
 
-        when(repository.findActiveById(id)).thenReturn(Optional.empty());
+        when(repository.findActiveByIdForUpdate(id)).thenReturn(Optional.empty());
 
         DomainException ex = assertThrows(DomainException.class, () -> useCase.execute(id));
         assertEquals(CouponMessages.NOT_FOUND_OR_DELETED, ex.getMessageKey());
 
-        verify(repository).findActiveById(id);
+        verify(repository).findActiveByIdForUpdate(id);
         verify(repository, never()).save(any());
         verifyNoMoreInteractions(repository);
     }
@@ -0,0 +1,132 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GenerateCouponsUseCaseTest
+{
+    private CouponRepositoryPort repository;
+    private Set<String> activeCodes;
+    private Clock clock;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(CouponRepositoryPort.class);
+        activeCodes = ConcurrentHashMap.newKeySet();
+        clock = Clock.fixed(Instant.parse("2025-12-30T12:00:00Z"), ZoneOffset.UTC);
+
+        when(repository.findActiveCodes(anyCollection())).thenAnswer(inv ->
+        {
+            Set<String> found = new HashSet<>(inv.<Collection<String>>getArgument(0));
+            found.retainAll(activeCodes);
+            return found;
+        });
+        when(repository.saveAllUnannounced(anyList())).thenAnswer(inv ->
+        {
+            List<Coupon> coupons = inv.getArgument(0);
+            coupons.forEach(coupon -> activeCodes.add(coupon.getCode()));
+            return coupons;
+        });
+    }
+
+    @Test
+    void shouldSaveAndDeliverExactlyTheRequestedNumberOfDistinctCodes()
+    {
+        GenerateCouponsUseCase useCase = useCase(3, 7, new Random(1));
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+
+        CouponGeneration result = useCase.execute(command(100), delivered::addAll);
+
+        assertEquals(new CouponGeneration(100, 100, 0), result);
+        assertEquals(100, delivered.size());
+        assertEquals(100, new HashSet<>(delivered).size());
+        assertTrue(delivered.stream().allMatch(code -> code.matches("[A-Z0-9]{6}")));
+        assertEquals(new HashSet<>(delivered), activeCodes);
+    }
+
+    @Test
+    void shouldReplaceCodesThatAreAlreadyActive()
+    {
+        List<String> firstRun = new ArrayList<>();
+        useCase(1, 10, new Random(7)).execute(command(20), firstRun::addAll);
+
+        // Same keys, so the second campaign walks into the 20 codes the first one saved.
+        List<String> secondRun = new ArrayList<>();
+        CouponGeneration result = useCase(1, 10, new Random(7)).execute(command(30), secondRun::addAll);
+
+        assertEquals(new CouponGeneration(30, 30, 20), result);
+        assertEquals(30, secondRun.size());
+        assertTrue(Collections.disjoint(firstRun, secondRun));
+        assertEquals(50, activeCodes.size());
+    }
+
+    @Test
+    void shouldRejectInvalidCountsAndTemplatesBeforeSavingAnything()
+    {
+        GenerateCouponsUseCase useCase = useCase(1, 10, new Random(1));
+
+        DomainException tooFew = assertThrows(DomainException.class, () -> useCase.validate(command(0)));
+        DomainException tooMany = assertThrows(DomainException.class,
+                () -> useCase.validate(command(GenerateCouponsUseCase.MAX_CODES_PER_REQUEST + 1)));
+        DomainException template = assertThrows(DomainException.class, () -> useCase.execute(
+                new GenerateCouponsCommand(5, "Campaign", new BigDecimal("0.10"), LocalDate.of(2030, 1, 10), true, null),
+                codes -> fail("nothing should be delivered")));
+
+        assertEquals(CouponMessages.GENERATE_INVALID_COUNT, tooFew.getMessageKey());
+        assertEquals(CouponMessages.GENERATE_INVALID_COUNT, tooMany.getMessageKey());
+        assertEquals(CouponMessages.DISCOUNT_MIN, template.getMessageKey());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void shouldKeepTheCampaignOutOfTheChangeFeedEvenWhenAChunkIsRetriedOneByOne()
+    {
+        when(repository.saveAllUnannounced(argThat(coupons -> coupons.size() > 1)))
+                .thenThrow(new DomainException(CouponMessages.CODE_ALREADY_EXISTS));
+        List<String> delivered = new ArrayList<>();
+
+        CouponGeneration result = useCase(1, 10, new Random(1)).execute(command(10), delivered::addAll);
+
+        assertEquals(new CouponGeneration(10, 10, 0), result);
+        assertEquals(10, delivered.size());
+        verify(repository, never()).save(any());
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void shouldStopAndRethrowWhenTheSinkFails()
+    {
+        GenerateCouponsUseCase useCase = useCase(2, 10, new Random(1));
+        IllegalStateException broken = new IllegalStateException("client went away");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> useCase.execute(command(1_000), codes -> { throw broken; }));
+
+        assertSame(broken, thrown);
+        assertTrue(activeCodes.size() < 1_000);
+    }
+
+    private GenerateCouponsUseCase useCase(int parallelism, int chunkSize, Random random)
+    {
+        return new GenerateCouponsUseCase(repository, clock, random, Thread::new, parallelism, chunkSize);
+    }
+
+    private static GenerateCouponsCommand command(int count)
+    {
+        return new GenerateCouponsCommand(count, "Campaign", new BigDecimal("5.00"), LocalDate.of(2030, 1, 10), true, null);
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ImportCouponsUseCaseTest
+{
+    private CouponRepositoryPort repository;
+    private CouponImportRegistry registry;
+    private ImportCouponsUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(CouponRepositoryPort.class);
+        Clock clock = Clock.fixed(Instant.parse("2025-12-30T12:00:00Z"), ZoneOffset.UTC);
+        registry = new CouponImportRegistry(clock, 10);
+        useCase = new ImportCouponsUseCase(repository, registry, clock, Executors.defaultThreadFactory(), 2, 1);
+
+        when(repository.findActiveCodes(anyCollection())).thenReturn(Set.of());
+        when(repository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void shouldPersistValidLinesInBoundedChunks()
+    {
+        List<CouponImportRecord> records = new ArrayList<>();
+
+        for (int i = 1; i <= 5; i++)
+        {
+            records.add(new CouponImportRecord(i, command("AAAAA" + i)));
+        }
+
+        CouponImport result = useCase.execute(records.iterator());
+
+        assertEquals(CouponImport.Status.COMPLETED, result.getStatus());
+        assertEquals(5, result.getLinesRead());
+        assertEquals(5, result.getResult().created());
+        assertNotNull(result.getFinishedAt());
+
+        verify(repository, times(3)).saveAll(argThat(chunk -> chunk.size() <= 2));
+    }
+
+    @Test
+    void shouldCountMalformedAndInvalidLinesAsRejected()
+    {
+        CouponImport result = useCase.execute(List.of(
+                new CouponImportRecord(1, null),
+                new CouponImportRecord(2, command("AB-1")),
+                new CouponImportRecord(3, command("AAAAA1"))
+        ).iterator());
+
+        assertEquals(3, result.getLinesRead());
+        assertEquals(1, result.getResult().created());
+        assertEquals(2, result.getResult().rejected());
+        assertEquals(new CouponBatchError(1, null, CouponMessages.IMPORT_MALFORMED_LINE), result.getResult().errors().get(0));
+        assertEquals(new CouponBatchError(2, "AB-1", CouponMessages.CODE_INVALID_LENGTH), result.getResult().errors().get(1));
+    }
+
+    @Test
+    void shouldFailImportWhenPersistStageFails()
+    {
+        when(repository.saveAll(anyList())).thenThrow(new IllegalStateException("db down"));
+
+        List<CouponImportRecord> records = new ArrayList<>();
+
+        for (int i = 1; i <= 10; i++)
+        {
+            records.add(new CouponImportRecord(i, command("AAAAA" + i % 10)));
+        }
+
+        assertThrows(IllegalStateException.class, () -> useCase.execute(records.iterator()));
+
+        CouponImport failed = registry.list().get(0);
+        assertEquals(CouponImport.Status.FAILED, failed.getStatus());
+        assertEquals("db down", failed.getFailure());
+    }
+
+    @Test
+    void shouldKeepImportQueryableAfterItFinishes()
+    {
+        CouponImport result = useCase.execute(List.of(new CouponImportRecord(1, command("AAAAA1"))).iterator());
+
+        assertSame(result, registry.find(result.getId()).orElseThrow());
+    }
+
+    private static CreateCouponCommand command(String code)
+    {
+        return new CreateCouponCommand(
+                code,
+                "Desc",
+                new BigDecimal("10.00"),
+                LocalDate.now().plusDays(1),
+                true
+        );
+    }
+}
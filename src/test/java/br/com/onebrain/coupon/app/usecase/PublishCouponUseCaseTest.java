@@ -0,0 +1,112 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PublishCouponUseCaseTest
+{
+    private CouponRepositoryPort repository;
+    private PublishCouponUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(CouponRepositoryPort.class);
+        Clock clock = Clock.fixed(Instant.parse("2025-12-30T15:00:00Z"), ZoneOffset.UTC);
+        useCase = new PublishCouponUseCase(repository, clock);
+    }
+
+    @Test
+    void shouldPublishAndSave()
+    {
+        UUID id = UUID.randomUUID();
+        Coupon coupon = coupon(false);
+
+        when(repository.findActiveByIdForUpdate(id)).thenReturn(Optional.of(coupon));
+        when(repository.save(coupon)).thenReturn(coupon);
+
+        assertSame(coupon, useCase.execute(id));
+        assertTrue(coupon.isPublished());
+        assertEquals(Instant.parse("2025-12-30T15:00:00Z"), coupon.getUpdatedAt());
+        verify(repository).save(coupon);
+    }
+
+    @Test
+    void shouldNotWriteWhenAlreadyPublished()
+    {
+        UUID id = UUID.randomUUID();
+        Coupon coupon = coupon(true);
+
+        when(repository.findActiveByIdForUpdate(id)).thenReturn(Optional.of(coupon));
+
+        assertSame(coupon, useCase.execute(id));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void shouldReadAgainAndRetryAfterAConflict()
+    {
+        UUID id = UUID.randomUUID();
+        Coupon stale = coupon(false);
+        Coupon fresh = coupon(false);
+
+        when(repository.findActiveByIdForUpdate(id)).thenReturn(Optional.of(stale)).thenReturn(Optional.of(fresh));
+        when(repository.save(stale)).thenThrow(new ConcurrentUpdateException());
+        when(repository.save(fresh)).thenReturn(fresh);
+
+        assertSame(fresh, useCase.execute(id));
+        verify(repository, times(2)).findActiveByIdForUpdate(id);
+    }
+
+    @Test
+    void shouldStopAfterTheLastAttempt()
+    {
+        UUID id = UUID.randomUUID();
+
+        when(repository.findActiveByIdForUpdate(id)).thenAnswer(inv -> Optional.of(coupon(false)));
+        when(repository.save(any())).thenThrow(new ConcurrentUpdateException());
+
+        DomainException ex = assertThrows(ConcurrentUpdateException.class, () -> useCase.execute(id));
+
+        assertEquals(CouponMessages.CONCURRENT_UPDATE, ex.getMessageKey());
+        verify(repository, times(ConcurrentUpdates.MAX_ATTEMPTS)).save(any());
+    }
+
+    @Test
+    void shouldThrowWhenCouponNotFoundOrDeleted()
+    {
+        UUID id = UUID.randomUUID();
+
+        when(repository.findActiveByIdForUpdate(id)).thenReturn(Optional.empty());
+
+        DomainException ex = assertThrows(DomainException.class, () -> useCase.execute(id));
+        assertEquals(CouponMessages.NOT_FOUND_OR_DELETED, ex.getMessageKey());
+        verify(repository, never()).save(any());
+    }
+
+    private static Coupon coupon(boolean published)
+    {
+        return Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                published,
+                Instant.parse("2025-12-30T10:00:00Z")
+        );
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponTerms;
+import br.com.onebrain.coupon.app.port.CouponTermsPort;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QuoteCouponUseCaseTest
+{
+    private CouponTermsPort terms;
+    private Clock clock;
+    private QuoteCouponUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        terms = mock(CouponTermsPort.class);
+        clock = Clock.fixed(Instant.parse("2026-03-10T12:00:00Z"), ZoneOffset.UTC);
+        useCase = new QuoteCouponUseCase(terms, clock);
+    }
+
+    @Test
+    void shouldQuoteTheDiscountOfAPublishedCouponByNormalizedCode()
+    {
+        when(terms.findActiveTerms("AA11BB")).thenReturn(Optional.of(terms(true, LocalDate.parse("2026-03-10"))));
+
+        CouponQuote quote = useCase.execute("aa-11-bb", new BigDecimal("30.00"));
+
+        assertTrue(quote.applicable());
+        assertEquals(CouponMessages.QUOTE_APPLICABLE, quote.reason());
+        assertEquals("AA11BB", quote.code());
+        assertEquals(new BigDecimal("5.00"), quote.discount());
+        assertEquals(new BigDecimal("25.00"), quote.total());
+    }
+
+    @Test
+    void discountShouldNeverExceedTheAmount()
+    {
+        when(terms.findActiveTerms("AA11BB")).thenReturn(Optional.of(terms(true, LocalDate.parse("2026-12-31"))));
+
+        CouponQuote quote = useCase.execute("AA11BB", new BigDecimal("3.20"));
+
+        assertEquals(new BigDecimal("3.20"), quote.discount());
+        assertEquals(0, quote.total().signum());
+    }
+
+    @Test
+    void unusableCouponsShouldBeQuotedWithTheReason()
+    {
+        when(terms.findActiveTerms("AA11BB")).thenReturn(Optional.of(terms(false, LocalDate.parse("2026-12-31"))));
+        when(terms.findActiveTerms("CC22DD")).thenReturn(Optional.of(terms(true, LocalDate.parse("2026-03-09"))));
+        when(terms.findActiveTerms("EE33FF")).thenReturn(Optional.empty());
+
+        assertNotApplicable(CouponMessages.NOT_PUBLISHED, useCase.execute("AA11BB", BigDecimal.TEN));
+        assertNotApplicable(CouponMessages.EXPIRED, useCase.execute("CC22DD", BigDecimal.TEN));
+        assertNotApplicable(CouponMessages.NOT_FOUND_OR_DELETED, useCase.execute("EE33FF", BigDecimal.TEN));
+    }
+
+    @Test
+    void malformedCodesShouldBeQuotedWithoutLookingThemUp()
+    {
+        assertNotApplicable(CouponMessages.CODE_INVALID_LENGTH, useCase.execute("ABC", BigDecimal.TEN));
+        assertNotApplicable(CouponMessages.CODE_REQUIRED, useCase.execute(" ", BigDecimal.TEN));
+
+        verifyNoInteractions(terms);
+    }
+
+    @Test
+    void shouldRejectMissingOrNegativeAmounts()
+    {
+        DomainException missing = assertThrows(DomainException.class, () -> useCase.execute("AA11BB", null));
+        DomainException negative = assertThrows(DomainException.class, () -> useCase.execute("AA11BB", new BigDecimal("-0.01")));
+
+        assertEquals(CouponMessages.QUOTE_AMOUNT_REQUIRED, missing.getMessageKey());
+        assertEquals(CouponMessages.QUOTE_AMOUNT_NEGATIVE, negative.getMessageKey());
+        verifyNoInteractions(terms);
+    }
+
+    private static void assertNotApplicable(String reason, CouponQuote quote)
+    {
+        assertFalse(quote.applicable());
+        assertEquals(reason, quote.reason());
+        assertEquals(BigDecimal.ZERO, quote.discount());
+        assertEquals(BigDecimal.TEN, quote.total());
+    }
+
+    private static CouponTerms terms(boolean published, LocalDate expirationDate)
+    {
+        return new CouponTerms("AA11BB", new BigDecimal("5.00"), expirationDate, published);
+    }
+}
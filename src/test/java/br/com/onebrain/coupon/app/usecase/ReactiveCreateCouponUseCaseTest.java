@@ -0,0 +1,58 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.ReactiveCouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReactiveCreateCouponUseCaseTest
+{
+    private ReactiveCouponRepositoryPort repository;
+    private ReactiveCreateCouponUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(ReactiveCouponRepositoryPort.class);
+        Clock clock = Clock.fixed(Instant.parse("2025-12-30T15:00:00Z"), ZoneOffset.UTC);
+        useCase = new ReactiveCreateCouponUseCase(repository, clock);
+    }
+
+    @Test
+    void shouldCreateWithTheDomainFactoryAndSave()
+    {
+        when(repository.save(any())).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        Coupon created = useCase.execute(command("ab-12-cd")).block();
+
+        assertNotNull(created);
+        assertEquals("AB12CD", created.getCode());
+        assertEquals(Instant.parse("2025-12-30T15:00:00Z"), created.getCreatedAt());
+        verify(repository).save(created);
+    }
+
+    @Test
+    void shouldSignalDomainValidationWithoutSaving()
+    {
+        Mono<Coupon> result = useCase.execute(command("ab"));
+
+        DomainException ex = assertThrows(DomainException.class, result::block);
+        assertEquals(CouponMessages.CODE_INVALID_LENGTH, ex.getMessageKey());
+        verifyNoInteractions(repository);
+    }
+
+    private static CreateCouponCommand command(String code)
+    {
+        return new CreateCouponCommand(code, "Desc", new BigDecimal("1.00"), LocalDate.now().plusDays(1), false, null);
+    }
+}
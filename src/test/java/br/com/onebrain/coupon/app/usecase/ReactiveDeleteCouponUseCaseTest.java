@@ -0,0 +1,91 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.ReactiveCouponRepositoryPort;
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReactiveDeleteCouponUseCaseTest
+{
+    private ReactiveCouponRepositoryPort repository;
+    private ReactiveDeleteCouponUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(ReactiveCouponRepositoryPort.class);
+        Clock clock = Clock.fixed(Instant.parse("2025-12-30T15:00:00Z"), ZoneOffset.UTC);
+        useCase = new ReactiveDeleteCouponUseCase(repository, clock);
+    }
+
+    @Test
+    void shouldDeleteAndSave()
+    {
+        UUID id = UUID.randomUUID();
+        Coupon coupon = coupon();
+
+        when(repository.findActiveById(id)).thenReturn(Mono.just(coupon));
+        when(repository.save(coupon)).thenReturn(Mono.just(coupon));
+
+        useCase.execute(id).block();
+
+        assertTrue(coupon.isDeleted());
+        assertEquals(Instant.parse("2025-12-30T15:00:00Z"), coupon.getDeletedAt());
+        verify(repository).save(coupon);
+    }
+
+    @Test
+    void shouldReadAgainAndRetryAfterAConflict()
+    {
+        UUID id = UUID.randomUUID();
+        Coupon stale = coupon();
+        Coupon fresh = coupon();
+
+        when(repository.findActiveById(id)).thenReturn(Mono.just(stale)).thenReturn(Mono.just(fresh));
+        when(repository.save(stale)).thenReturn(Mono.error(new ConcurrentUpdateException()));
+        when(repository.save(fresh)).thenReturn(Mono.just(fresh));
+
+        useCase.execute(id).block();
+
+        assertTrue(fresh.isDeleted());
+        verify(repository, times(2)).findActiveById(id);
+    }
+
+    @Test
+    void shouldSignalWhenCouponNotFoundOrDeleted()
+    {
+        UUID id = UUID.randomUUID();
+
+        when(repository.findActiveById(id)).thenReturn(Mono.empty());
+
+        Mono<Void> result = useCase.execute(id);
+
+        DomainException ex = assertThrows(DomainException.class, result::block);
+        assertEquals(CouponMessages.NOT_FOUND_OR_DELETED, ex.getMessageKey());
+        verify(repository, never()).save(any());
+    }
+
+    private static Coupon coupon()
+    {
+        return Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Instant.parse("2025-12-30T10:00:00Z")
+        );
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.ReactiveCouponRepositoryPort;
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReactivePublishCouponUseCaseTest
+{
+    private ReactiveCouponRepositoryPort repository;
+    private ReactivePublishCouponUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(ReactiveCouponRepositoryPort.class);
+        Clock clock = Clock.fixed(Instant.parse("2025-12-30T15:00:00Z"), ZoneOffset.UTC);
+        useCase = new ReactivePublishCouponUseCase(repository, clock);
+    }
+
+    @Test
+    void shouldPublishAndSave()
+    {
+        UUID id = UUID.randomUUID();
+        Coupon coupon = coupon(false);
+
+        when(repository.findActiveById(id)).thenReturn(Mono.just(coupon));
+        when(repository.save(coupon)).thenReturn(Mono.just(coupon));
+
+        assertSame(coupon, useCase.execute(id).block());
+        assertTrue(coupon.isPublished());
+        assertEquals(Instant.parse("2025-12-30T15:00:00Z"), coupon.getUpdatedAt());
+    }
+
+    @Test
+    void shouldNotWriteWhenAlreadyPublished()
+    {
+        UUID id = UUID.randomUUID();
+        Coupon coupon = coupon(true);
+
+        when(repository.findActiveById(id)).thenReturn(Mono.just(coupon));
+
+        assertSame(coupon, useCase.execute(id).block());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void shouldReadAgainAndRetryAfterAConflict()
+    {
+        UUID id = UUID.randomUUID();
+        Coupon stale = coupon(false);
+        Coupon fresh = coupon(false);
+
+        when(repository.findActiveById(id)).thenReturn(Mono.just(stale)).thenReturn(Mono.just(fresh));
+        when(repository.save(stale)).thenReturn(Mono.error(new ConcurrentUpdateException()));
+        when(repository.save(fresh)).thenReturn(Mono.just(fresh));
+
+        assertSame(fresh, useCase.execute(id).block());
+        verify(repository, times(2)).findActiveById(id);
+    }
+
+    @Test
+    void shouldStopAfterTheLastAttempt()
+    {
+        UUID id = UUID.randomUUID();
+
+        when(repository.findActiveById(id)).thenAnswer(inv -> Mono.just(coupon(false)));
+        when(repository.save(any())).thenReturn(Mono.error(new ConcurrentUpdateException()));
+
+        Mono<Coupon> result = useCase.execute(id);
+
+        DomainException ex = assertThrows(ConcurrentUpdateException.class, result::block);
+        assertEquals(CouponMessages.CONCURRENT_UPDATE, ex.getMessageKey());
+        verify(repository, times(ConcurrentUpdates.MAX_ATTEMPTS)).save(any());
+    }
+
+    @Test
+    void shouldSignalWhenCouponNotFoundOrDeleted()
+    {
+        UUID id = UUID.randomUUID();
+
+        when(repository.findActiveById(id)).thenReturn(Mono.empty());
+
+        Mono<Coupon> result = useCase.execute(id);
+
+        DomainException ex = assertThrows(DomainException.class, result::block);
+        assertEquals(CouponMessages.NOT_FOUND_OR_DELETED, ex.getMessageKey());
+        verify(repository, never()).save(any());
+    }
+
+    private static Coupon coupon(boolean published)
+    {
+        return Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                published,
+                Instant.parse("2025-12-30T10:00:00Z")
+        );
+    }
+}
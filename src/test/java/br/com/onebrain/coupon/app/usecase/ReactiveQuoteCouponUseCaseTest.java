@@ -0,0 +1,84 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.ReactiveCouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveQuoteCouponUseCaseTest
+{
+    private ReactiveCouponRepositoryPort repository;
+    private ReactiveQuoteCouponUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(ReactiveCouponRepositoryPort.class);
+        Clock clock = Clock.fixed(Instant.parse("2026-03-10T12:00:00Z"), ZoneOffset.UTC);
+        useCase = new ReactiveQuoteCouponUseCase(repository, clock);
+    }
+
+    @Test
+    void shouldQuoteTheDiscountOfAPublishedCouponByNormalizedCode()
+    {
+        when(repository.findActiveByCode("AA11BB")).thenReturn(Mono.just(coupon("AA11BB", true)));
+
+        CouponQuote quote = useCase.execute("aa-11-bb", new BigDecimal("30.00")).block();
+
+        assertNotNull(quote);
+        assertTrue(quote.applicable());
+        assertEquals("AA11BB", quote.code());
+        assertEquals(new BigDecimal("5.00"), quote.discount());
+        assertEquals(new BigDecimal("25.00"), quote.total());
+    }
+
+    @Test
+    void unusableCouponsShouldBeQuotedWithTheReason()
+    {
+        when(repository.findActiveByCode("AA11BB")).thenReturn(Mono.just(coupon("AA11BB", false)));
+        when(repository.findActiveByCode("EE33FF")).thenReturn(Mono.empty());
+
+        assertNotApplicable(CouponMessages.NOT_PUBLISHED, useCase.execute("AA11BB", BigDecimal.TEN).block());
+        assertNotApplicable(CouponMessages.NOT_FOUND_OR_DELETED, useCase.execute("EE33FF", BigDecimal.TEN).block());
+        assertNotApplicable(CouponMessages.CODE_INVALID_LENGTH, useCase.execute("ABC", BigDecimal.TEN).block());
+    }
+
+    @Test
+    void shouldSignalMissingAmounts()
+    {
+        Mono<CouponQuote> result = useCase.execute("AA11BB", null);
+
+        DomainException ex = assertThrows(DomainException.class, result::block);
+        assertEquals(CouponMessages.QUOTE_AMOUNT_REQUIRED, ex.getMessageKey());
+        verifyNoInteractions(repository);
+    }
+
+    private static void assertNotApplicable(String reason, CouponQuote quote)
+    {
+        assertNotNull(quote);
+        assertFalse(quote.applicable());
+        assertEquals(reason, quote.reason());
+        assertEquals(0, quote.discount().signum());
+    }
+
+    private static Coupon coupon(String code, boolean published)
+    {
+        return Coupon.create(
+                code,
+                "Desc",
+                new BigDecimal("5.00"),
+                LocalDate.now().plusDays(30),
+                published,
+                Instant.parse("2026-03-01T00:00:00Z")
+        );
+    }
+}
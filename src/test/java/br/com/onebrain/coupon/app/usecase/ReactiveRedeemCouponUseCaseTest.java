@@ -0,0 +1,95 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.ReactiveCouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReactiveRedeemCouponUseCaseTest
+{
+    private ReactiveCouponRepositoryPort repository;
+    private Clock clock;
+    private ReactiveRedeemCouponUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(ReactiveCouponRepositoryPort.class);
+        clock = Clock.fixed(Instant.now(), ZoneOffset.UTC);
+        useCase = new ReactiveRedeemCouponUseCase(repository, clock);
+    }
+
+    @Test
+    void shouldRedeemPublishedCouponByNormalizedCode()
+    {
+        Coupon coupon = coupon(true);
+
+        when(repository.findActiveByCode("AA11BB")).thenReturn(Mono.just(coupon));
+        when(repository.incrementUsage(coupon.getId())).thenReturn(Mono.just(true));
+
+        CouponRedemption result = useCase.execute("aa-11-bb").block();
+
+        assertNotNull(result);
+        assertEquals("AA11BB", result.code());
+        assertEquals(new BigDecimal("5.00"), result.discountValue());
+        assertEquals(Instant.now(clock), result.redeemedAt());
+    }
+
+    @Test
+    void shouldNotConsumeUsageWhenCouponIsNotPublished()
+    {
+        when(repository.findActiveByCode("AA11BB")).thenReturn(Mono.just(coupon(false)));
+
+        assertMessageKey(CouponMessages.NOT_PUBLISHED, useCase.execute("AA11BB"));
+        verify(repository, never()).incrementUsage(any());
+    }
+
+    @Test
+    void shouldSignalWhenNotFoundOrTheConditionalIncrementFails()
+    {
+        Coupon coupon = coupon(true);
+
+        when(repository.findActiveByCode("AA11BB")).thenReturn(Mono.just(coupon));
+        when(repository.findActiveByCode("CC22DD")).thenReturn(Mono.empty());
+        when(repository.incrementUsage(coupon.getId())).thenReturn(Mono.just(false));
+
+        assertMessageKey(CouponMessages.USAGE_LIMIT_REACHED, useCase.execute("AA11BB"));
+        assertMessageKey(CouponMessages.NOT_FOUND_OR_DELETED, useCase.execute("CC22DD"));
+    }
+
+    @Test
+    void shouldSignalInvalidCodeBeforeTouchingRepository()
+    {
+        assertMessageKey(CouponMessages.CODE_INVALID_LENGTH, useCase.execute("AB-1"));
+        verifyNoInteractions(repository);
+    }
+
+    private static void assertMessageKey(String expected, Mono<?> result)
+    {
+        DomainException ex = assertThrows(DomainException.class, result::block);
+        assertEquals(expected, ex.getMessageKey());
+    }
+
+    private Coupon coupon(boolean published)
+    {
+        return Coupon.create(
+                "AA11BB",
+                "Desc",
+                new BigDecimal("5.00"),
+                LocalDate.now(clock).plusDays(1),
+                published,
+                3,
+                Instant.now(clock)
+        );
+    }
+}
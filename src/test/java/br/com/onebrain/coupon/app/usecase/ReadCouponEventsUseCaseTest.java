@@ -0,0 +1,89 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponEventLogPort;
+import br.com.onebrain.coupon.app.port.CouponFeedEvent;
+import br.com.onebrain.coupon.domain.CouponEventType;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReadCouponEventsUseCaseTest
+{
+    private CouponEventLogPort eventLog;
+    private ReadCouponEventsUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        eventLog = mock(CouponEventLogPort.class);
+        useCase = new ReadCouponEventsUseCase(eventLog);
+    }
+
+    @Test
+    void shouldReturnTheEventsAfterTheOffsetWithTheLastOneRead()
+    {
+        when(eventLog.readAfter(4, 10)).thenReturn(List.of(event(5), event(6)));
+
+        CouponEventPage page = useCase.execute(4, 10);
+
+        assertEquals(2, page.events().size());
+        assertEquals(6, page.lastOffset());
+    }
+
+    @Test
+    void caughtUpConsumerShouldKeepItsOffset()
+    {
+        when(eventLog.readAfter(6, 10)).thenReturn(List.of());
+
+        CouponEventPage page = useCase.execute(6, 10);
+
+        assertTrue(page.events().isEmpty());
+        assertEquals(6, page.lastOffset());
+    }
+
+    @Test
+    void offsetBehindTheRetentionWindowShouldBeReportedAsExpired()
+    {
+        when(eventLog.readAfter(4, 10)).thenReturn(List.of(event(9)));
+
+        DomainException example = assertThrows(DomainException.class, () -> useCase.execute(4, 10));
+
+        assertEquals(CouponMessages.EVENTS_OFFSET_EXPIRED, example.getMessageKey());
+    }
+
+    @Test
+    void shouldRejectInvalidOffsetsAndLimits()
+    {
+        assertEquals(CouponMessages.EVENTS_INVALID_OFFSET,
+                assertThrows(DomainException.class, () -> useCase.execute(-1, 10)).getMessageKey());
+        assertEquals(CouponMessages.EVENTS_INVALID_LIMIT,
+                assertThrows(DomainException.class, () -> useCase.execute(0, 0)).getMessageKey());
+        assertEquals(CouponMessages.EVENTS_INVALID_LIMIT,
+                assertThrows(DomainException.class, () -> useCase.execute(0, ReadCouponEventsUseCase.MAX_LIMIT + 1)).getMessageKey());
+        verifyNoInteractions(eventLog);
+    }
+
+    private static CouponFeedEvent event(long offset)
+    {
+        return new CouponFeedEvent(
+                offset,
+                CouponEventType.CREATED,
+                UUID.randomUUID(),
+                "AA11BB",
+                new BigDecimal("5.00"),
+                LocalDate.parse("2026-12-31"),
+                true,
+                Instant.parse("2026-03-10T12:00:00Z")
+        );
+    }
+}
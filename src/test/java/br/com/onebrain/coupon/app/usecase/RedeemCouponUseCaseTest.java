@@ -0,0 +1,114 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RedeemCouponUseCaseTest
+{
+    private CouponRepositoryPort repository;
+    private Clock clock;
+    private RedeemCouponUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(CouponRepositoryPort.class);
+        clock = Clock.fixed(Instant.now(), ZoneOffset.UTC);
+        useCase = new RedeemCouponUseCase(repository, clock);
+    }
+
+    @Test
+    void shouldRedeemPublishedCouponByNormalizedCode()
+    {
+        Coupon coupon = publishedCoupon();
+
+        when(repository.findActiveByCode("AA11BB")).thenReturn(Optional.of(coupon));
+        when(repository.incrementUsage(coupon.getId())).thenReturn(true);
+
+        CouponRedemption result = useCase.execute("aa-11-bb");
+
+        assertEquals("AA11BB", result.code());
+        assertEquals(new BigDecimal("5.00"), result.discountValue());
+        assertEquals(Instant.now(clock), result.redeemedAt());
+
+        verify(repository).findActiveByCode("AA11BB");
+        verify(repository).incrementUsage(coupon.getId());
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void shouldThrowWhenCouponNotFoundOrDeleted()
+    {
+        when(repository.findActiveByCode("AA11BB")).thenReturn(Optional.empty());
+
+        DomainException ex = assertThrows(DomainException.class, () -> useCase.execute("AA11BB"));
+        assertEquals(CouponMessages.NOT_FOUND_OR_DELETED, ex.getMessageKey());
+
+        verify(repository, never()).incrementUsage(any());
+    }
+
+    @Test
+    void shouldNotConsumeUsageWhenCouponIsNotPublished()
+    {
+        Coupon coupon = Coupon.create(
+                "AA11BB",
+                "Desc",
+                new BigDecimal("5.00"),
+                LocalDate.now(clock).plusDays(1),
+                false,
+                Instant.now(clock)
+        );
+
+        when(repository.findActiveByCode("AA11BB")).thenReturn(Optional.of(coupon));
+
+        DomainException ex = assertThrows(DomainException.class, () -> useCase.execute("AA11BB"));
+        assertEquals(CouponMessages.NOT_PUBLISHED, ex.getMessageKey());
+
+        verify(repository, never()).incrementUsage(any());
+    }
+
+    @Test
+    void shouldThrowWhenConditionalIncrementFails()
+    {
+        Coupon coupon = publishedCoupon();
+
+        when(repository.findActiveByCode("AA11BB")).thenReturn(Optional.of(coupon));
+        when(repository.incrementUsage(coupon.getId())).thenReturn(false);
+
+        DomainException ex = assertThrows(DomainException.class, () -> useCase.execute("AA11BB"));
+        assertEquals(CouponMessages.USAGE_LIMIT_REACHED, ex.getMessageKey());
+    }
+
+    @Test
+    void shouldRejectInvalidCodeBeforeTouchingRepository()
+    {
+        DomainException ex = assertThrows(DomainException.class, () -> useCase.execute("AB-1"));
+        assertEquals(CouponMessages.CODE_INVALID_LENGTH, ex.getMessageKey());
+
+        verifyNoInteractions(repository);
+    }
+
+    private Coupon publishedCoupon()
+    {
+        return Coupon.create(
+                "AA11BB",
+                "Desc",
+                new BigDecimal("5.00"),
+                LocalDate.now(clock).plusDays(1),
+                true,
+                3,
+                Instant.now(clock)
+        );
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponSchedule;
+import br.com.onebrain.coupon.app.port.CouponTimerPort;
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ScheduleCouponUseCaseTest
+{
+    private static final Instant NOW = Instant.parse("2025-12-30T12:00:00Z");
+    private static final Instant PUBLISH_AT = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant UNPUBLISH_AT = Instant.parse("2026-01-08T00:00:00Z");
+
+    private CouponRepositoryPort repository;
+    private CouponTimerPort timers;
+    private ScheduleCouponUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(CouponRepositoryPort.class);
+        timers = mock(CouponTimerPort.class);
+        useCase = new ScheduleCouponUseCase(repository, timers, Clock.fixed(NOW, ZoneOffset.UTC), true);
+    }
+
+    @Test
+    void shouldStoreTheWindowAndThenArmItsTimers()
+    {
+        UUID id = UUID.randomUUID();
+        Coupon coupon = coupon();
+
+        when(repository.findActiveByIdForUpdate(id)).thenReturn(Optional.of(coupon));
+        when(repository.save(coupon)).thenAnswer(inv ->
+        {
+            verifyNoInteractions(timers);
+            return coupon;
+        });
+
+        Coupon scheduled = useCase.execute(id, PUBLISH_AT, UNPUBLISH_AT);
+
+        assertEquals(PUBLISH_AT, scheduled.getPublishAt());
+        assertEquals(UNPUBLISH_AT, scheduled.getUnpublishAt());
+        assertEquals(NOW, scheduled.getUpdatedAt());
+        verify(timers).arm(new CouponSchedule(coupon.getId(), PUBLISH_AT, UNPUBLISH_AT));
+    }
+
+    @Test
+    void shouldRetryOnAFreshReadWhenTheCouponChangedMeanwhile()
+    {
+        UUID id = UUID.randomUUID();
+        Coupon stale = coupon();
+        Coupon fresh = coupon();
+
+        when(repository.findActiveByIdForUpdate(id)).thenReturn(Optional.of(stale)).thenReturn(Optional.of(fresh));
+        when(repository.save(stale)).thenThrow(new ConcurrentUpdateException());
+        when(repository.save(fresh)).thenReturn(fresh);
+
+        assertSame(fresh, useCase.execute(id, PUBLISH_AT, null));
+        verify(timers).arm(new CouponSchedule(fresh.getId(), PUBLISH_AT, null));
+    }
+
+    @Test
+    void shouldNotArmTimersWhenTheWindowIsInvalid()
+    {
+        UUID id = UUID.randomUUID();
+
+        when(repository.findActiveByIdForUpdate(id)).thenReturn(Optional.of(coupon()));
+
+        DomainException error = assertThrows(DomainException.class, () -> useCase.execute(id, UNPUBLISH_AT, PUBLISH_AT));
+
+        assertEquals(CouponMessages.SCHEDULE_INVALID, error.getMessageKey());
+        verify(repository, never()).save(any());
+        verifyNoInteractions(timers);
+    }
+
+    @Test
+    void shouldFailWhenTheCouponIsNotActive()
+    {
+        UUID id = UUID.randomUUID();
+
+        when(repository.findActiveByIdForUpdate(id)).thenReturn(Optional.empty());
+
+        DomainException error = assertThrows(DomainException.class, () -> useCase.execute(id, PUBLISH_AT, null));
+
+        assertEquals(CouponMessages.NOT_FOUND_OR_DELETED, error.getMessageKey());
+        verifyNoInteractions(timers);
+    }
+
+    @Test
+    void shouldRejectWindowsWhenSchedulingIsDisabled()
+    {
+        ScheduleCouponUseCase disabled = new ScheduleCouponUseCase(repository, timers, Clock.fixed(NOW, ZoneOffset.UTC), false);
+
+        DomainException error = assertThrows(DomainException.class, () -> disabled.execute(UUID.randomUUID(), PUBLISH_AT, null));
+
+        assertEquals(CouponMessages.SCHEDULE_DISABLED, error.getMessageKey());
+        verifyNoInteractions(repository, timers);
+    }
+
+    private static Coupon coupon()
+    {
+        Coupon coupon = Coupon.create("AA11BB", "Desc", new BigDecimal("1.00"), LocalDate.now().plusDays(30), false, NOW);
+        coupon.clearPendingEvents();
+        return coupon;
+    }
+}
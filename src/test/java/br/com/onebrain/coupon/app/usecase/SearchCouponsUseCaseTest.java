@@ -0,0 +1,104 @@
+package br.com.onebrain.coupon.app.usecase;
+
+import br.com.onebrain.coupon.app.port.CouponCursor;
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponSearchCriteria;
+import br.com.onebrain.coupon.domain.Coupon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SearchCouponsUseCaseTest
+{
+    private static final CouponSearchCriteria NO_FILTERS = new CouponSearchCriteria(null, null, null, null, null);
+
+    private CouponRepositoryPort repository;
+    private SearchCouponsUseCase useCase;
+
+    @BeforeEach
+    void setup()
+    {
+        repository = mock(CouponRepositoryPort.class);
+        useCase = new SearchCouponsUseCase(repository);
+    }
+
+    @Test
+    void shouldReturnNextCursorFromLastItemWhenMoreRowsExist()
+    {
+        Coupon a = coupon("AAAAA1");
+        Coupon b = coupon("AAAAA2");
+        Coupon c = coupon("AAAAA3");
+
+        when(repository.search(NO_FILTERS, null, 3)).thenReturn(List.of(a, b, c));
+
+        CouponPage page = useCase.execute(NO_FILTERS, null, 2);
+
+        assertEquals(List.of(a, b), page.items());
+        assertEquals(new CouponCursor(b.getCreatedAt(), b.getId()), page.next());
+    }
+
+    @Test
+    void shouldNotReturnCursorOnLastPage()
+    {
+        when(repository.search(NO_FILTERS, null, 3)).thenReturn(List.of(coupon("AAAAA1")));
+
+        CouponPage page = useCase.execute(NO_FILTERS, null, 2);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.next());
+    }
+
+    @Test
+    void shouldClampPageSize()
+    {
+        when(repository.search(any(), any(), anyInt())).thenReturn(List.of());
+
+        useCase.execute(NO_FILTERS, null, 100_000);
+        useCase.execute(NO_FILTERS, null, 0);
+
+        verify(repository).search(NO_FILTERS, null, SearchCouponsUseCase.MAX_PAGE_SIZE + 1);
+        verify(repository).search(NO_FILTERS, null, 2);
+    }
+
+    @Test
+    void shouldNormalizeCodePrefix()
+    {
+        when(repository.search(any(), any(), anyInt())).thenReturn(List.of());
+
+        useCase.execute(new CouponSearchCriteria(true, false, null, null, "ab-1"), null, 10);
+
+        verify(repository).search(new CouponSearchCriteria(true, false, null, null, "AB1"), null, 11);
+    }
+
+    @Test
+    void exportShouldStreamThroughRepository()
+    {
+        Consumer<Coupon> consumer = coupon -> {};
+
+        useCase.export(NO_FILTERS, consumer);
+
+        verify(repository).forEachMatching(NO_FILTERS, consumer);
+        verifyNoMoreInteractions(repository);
+    }
+
+    private static Coupon coupon(String code)
+    {
+        return Coupon.create(
+                code,
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+    }
+}
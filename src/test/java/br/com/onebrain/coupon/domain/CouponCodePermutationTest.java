@@ -0,0 +1,74 @@
+package br.com.onebrain.coupon.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponCodePermutationTest
+{
+    private static final int[] KEYS = {0x1234, 0x5678, 0x9ABC, 0xDEF0};
+
+    @Test
+    void shouldBeABijectionOnSmallDomains()
+    {
+        for (long domain : new long[] {2, 37, 1000, 4096})
+        {
+            CouponCodePermutation permutation = new CouponCodePermutation(domain, KEYS);
+            Set<Long> seen = new HashSet<>();
+
+            for (long position = 0; position < domain; position++)
+            {
+                long value = permutation.apply(position);
+                assertTrue(value >= 0 && value < domain, "out of domain: " + value);
+                assertTrue(seen.add(value), "repeated value: " + value);
+            }
+        }
+    }
+
+    @Test
+    void shouldYieldDistinctCodesAcrossTheCodeSpace()
+    {
+        CouponCodePermutation permutation = CouponCodePermutation.ofCodeSpace(new Random(42));
+        Set<String> codes = new HashSet<>();
+
+        for (long position = 0; position < 100_000; position++)
+        {
+            long value = permutation.apply(position);
+            assertTrue(value < CouponCodes.CODE_SPACE);
+            assertTrue(codes.add(CouponCodes.decode((int) value)));
+        }
+    }
+
+    @Test
+    void shouldDependOnlyOnTheKeys()
+    {
+        CouponCodePermutation first = new CouponCodePermutation(CouponCodes.CODE_SPACE, KEYS);
+        CouponCodePermutation second = new CouponCodePermutation(CouponCodes.CODE_SPACE, KEYS);
+        CouponCodePermutation other = new CouponCodePermutation(CouponCodes.CODE_SPACE, new int[] {1, 2, 3, 4});
+
+        int differences = 0;
+
+        for (long position = 0; position < 100; position++)
+        {
+            assertEquals(first.apply(position), second.apply(position));
+            differences += first.apply(position) != other.apply(position) ? 1 : 0;
+        }
+
+        assertTrue(differences > 90);
+    }
+
+    @Test
+    void shouldRejectPositionsOutsideTheDomain()
+    {
+        CouponCodePermutation permutation = new CouponCodePermutation(1000, KEYS);
+
+        assertThrows(IllegalArgumentException.class, () -> permutation.apply(-1));
+        assertThrows(IllegalArgumentException.class, () -> permutation.apply(1000));
+        assertThrows(IllegalArgumentException.class, () -> new CouponCodePermutation(1, KEYS));
+        assertThrows(IllegalArgumentException.class, () -> new CouponCodePermutation(1000, new int[] {1}));
+    }
+}
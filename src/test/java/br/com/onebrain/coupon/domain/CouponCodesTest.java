@@ -0,0 +1,38 @@
+package br.com.onebrain.coupon.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponCodesTest
+{
+    @Test
+    void encodeShouldRoundTripThroughDecode()
+    {
+        for (String code : new String[] {"000000", "AB1234", "ZZZZZZ", "A0B1C2"})
+        {
+            assertEquals(code, CouponCodes.decode(CouponCodes.encode(code)));
+        }
+    }
+
+    @Test
+    void encodeShouldUseTheWholeUnsignedRange()
+    {
+        assertEquals(0, CouponCodes.encode("000000"));
+        assertEquals(CouponCodes.CODE_SPACE - 1, Integer.toUnsignedLong(CouponCodes.encode("ZZZZZZ")));
+        assertNotEquals(CouponCodes.NO_CODE, CouponCodes.encode("ZZZZZZ"));
+    }
+
+    @Test
+    void encodeShouldRejectCodesThatAreNotNormalized()
+    {
+        assertThrows(IllegalArgumentException.class, () -> CouponCodes.encode("ab1234"));
+        assertThrows(IllegalArgumentException.class, () -> CouponCodes.encode("AB123"));
+    }
+
+    @Test
+    void decodeShouldRejectValuesOutsideTheCodeSpace()
+    {
+        assertThrows(IllegalArgumentException.class, () -> CouponCodes.decode(CouponCodes.NO_CODE));
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -224,6 +225,35 @@ class CouponTest
         assertEquals(deleteNow, coupon.getUpdatedAt());
     }
 
+    @Test
+    void lifecycleChangesShouldBeRecordedAsPendingEvents()
+    {
+        Coupon coupon = Coupon.create(
+                "AA11BB",
+                "Descrição",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                NOW
+        );
+
+        Instant publishNow = Instant.parse("2025-12-30T13:00:00Z");
+        Instant deleteNow = Instant.parse("2025-12-30T14:00:00Z");
+        coupon.publish(publishNow);
+        coupon.publish(deleteNow);
+        coupon.delete(deleteNow);
+
+        assertEquals(List.of(
+                new CouponEvent(CouponEventType.CREATED, NOW),
+                new CouponEvent(CouponEventType.PUBLISHED, publishNow),
+                new CouponEvent(CouponEventType.DELETED, deleteNow)
+        ), coupon.pendingEvents());
+
+        coupon.clearPendingEvents();
+
+        assertTrue(coupon.pendingEvents().isEmpty());
+    }
+
     @Test
     void shouldNotAllowDeleteTwice()
     {
@@ -297,4 +327,191 @@ class CouponTest
         DomainException example = assertThrows(DomainException.class, () -> coupon.delete(null));
         assertEquals(CouponMessages.NOW_REQUIRED, example.getMessageKey());
     }
+
+    @Test
+    void shouldCreateCouponWithMaxUsages()
+    {
+        Coupon coupon = Coupon.create(
+                "AA11BB",
+                "Descrição",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                10,
+                NOW
+        );
+
+        assertEquals(10, coupon.getMaxUsages());
+        assertEquals(0, coupon.getUsageCount());
+    }
+
+    @Test
+    void shouldThrowWhenMaxUsagesIsLessThanOne()
+    {
+        DomainException example = assertThrows(DomainException.class, () ->
+                Coupon.create(
+                        "AA11BB",
+                        "Descrição",
+                        new BigDecimal("1.00"),
+                        LocalDate.now().plusDays(1),
+                        true,
+                        0,
+                        NOW
+                )
+        );
+
+        assertEquals(CouponMessages.MAX_USAGES_MIN, example.getMessageKey());
+        assertArrayEquals(new Object[]{ Coupon.MINIMUM_MAX_USAGES }, example.getArgs());
+    }
+
+    @Test
+    void shouldBeRedeemableWhenPublishedAndNotExpired()
+    {
+        Coupon coupon = Coupon.create(
+                "AA11BB",
+                "Descrição",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                NOW
+        );
+
+        assertDoesNotThrow(() -> coupon.ensureRedeemable(LocalDate.now().plusDays(1)));
+    }
+
+    @Test
+    void shouldNotBeRedeemableWhenNotPublished()
+    {
+        Coupon coupon = Coupon.create(
+                "AA11BB",
+                "Descrição",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                NOW
+        );
+
+        DomainException example = assertThrows(DomainException.class, () ->
+                coupon.ensureRedeemable(LocalDate.now())
+        );
+
+        assertEquals(CouponMessages.NOT_PUBLISHED, example.getMessageKey());
+    }
+
+    @Test
+    void shouldNotBeRedeemableWhenExpired()
+    {
+        Coupon coupon = Coupon.create(
+                "AA11BB",
+                "Descrição",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                NOW
+        );
+
+        DomainException example = assertThrows(DomainException.class, () ->
+                coupon.ensureRedeemable(LocalDate.now().plusDays(2))
+        );
+
+        assertEquals(CouponMessages.EXPIRED, example.getMessageKey());
+    }
+
+    @Test
+    void shouldNotBeRedeemableWhenDeleted()
+    {
+        Coupon coupon = Coupon.create(
+                "AA11BB",
+                "Descrição",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                NOW
+        );
+
+        coupon.delete(Instant.parse("2025-12-30T13:00:00Z"));
+
+        DomainException example = assertThrows(DomainException.class, () ->
+                coupon.ensureRedeemable(LocalDate.now())
+        );
+
+        assertEquals(CouponMessages.ALREADY_DELETED, example.getMessageKey());
+    }
+
+    @Test
+    void scheduleShouldSetTheWindowWithoutPublishingOrRecordingEvents()
+    {
+        Coupon coupon = Coupon.create("AA11BB", "Desc", new BigDecimal("1.00"), LocalDate.now().plusDays(1), false, NOW);
+        coupon.clearPendingEvents();
+        Instant later = Instant.parse("2025-12-30T13:00:00Z");
+
+        coupon.schedule(Instant.parse("2026-01-01T00:00:00Z"), Instant.parse("2026-01-02T00:00:00Z"), later);
+
+        assertEquals(Instant.parse("2026-01-01T00:00:00Z"), coupon.getPublishAt());
+        assertEquals(Instant.parse("2026-01-02T00:00:00Z"), coupon.getUnpublishAt());
+        assertFalse(coupon.isPublished());
+        assertEquals(later, coupon.getUpdatedAt());
+        assertTrue(coupon.pendingEvents().isEmpty());
+
+        coupon.schedule(null, null, later);
+
+        assertNull(coupon.getPublishAt());
+        assertNull(coupon.getUnpublishAt());
+    }
+
+    @Test
+    void scheduleShouldRejectAnUnpublishTimeThatIsNotAfterThePublishTime()
+    {
+        Coupon coupon = Coupon.create("AA11BB", "Desc", new BigDecimal("1.00"), LocalDate.now().plusDays(1), false, NOW);
+        Instant at = Instant.parse("2026-01-01T00:00:00Z");
+
+        DomainException example = assertThrows(DomainException.class, () -> coupon.schedule(at, at, NOW));
+
+        assertEquals(CouponMessages.SCHEDULE_INVALID, example.getMessageKey());
+        assertNull(coupon.getPublishAt());
+    }
+
+    @Test
+    void scheduleShouldFailWhenDeleted()
+    {
+        Coupon coupon = Coupon.create("AA11BB", "Desc", new BigDecimal("1.00"), LocalDate.now().plusDays(1), false, NOW);
+        coupon.delete(NOW);
+
+        DomainException example = assertThrows(DomainException.class, () ->
+                coupon.schedule(Instant.parse("2026-01-01T00:00:00Z"), null, NOW)
+        );
+
+        assertEquals(CouponMessages.ALREADY_DELETED, example.getMessageKey());
+    }
+
+    @Test
+    void normalizeCodeShouldReturnSameInstanceWhenAlreadyNormalized()
+    {
+        String code = "AB12CD";
+
+        assertSame(code, Coupon.normalizeCode(code));
+    }
+
+    @Test
+    void normalizeCodeShouldUppercaseAndDropNonAlphanumericCharacters()
+    {
+        assertEquals("AB12CD", Coupon.normalizeCode(" ab-12_cd "));
+        assertEquals("AB12CD", Coupon.normalizeCode("aB\u00e71\u00e92cD"));
+    }
+
+    @Test
+    void normalizeCodeShouldRejectCodesWithTooManyCharacters()
+    {
+        DomainException example = assertThrows(DomainException.class, () -> Coupon.normalizeCode("AB12CD3"));
+
+        assertEquals(CouponMessages.CODE_INVALID_LENGTH, example.getMessageKey());
+    }
+
+    @Test
+    void normalizeCodeShouldTreatWhitespaceOnlyAsRequired()
+    {
+        DomainException example = assertThrows(DomainException.class, () -> Coupon.normalizeCode(" \t\n"));
+
+        assertEquals(CouponMessages.CODE_REQUIRED, example.getMessageKey());
+    }
 }
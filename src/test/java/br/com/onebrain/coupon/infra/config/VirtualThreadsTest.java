@@ -0,0 +1,43 @@
+package br.com.onebrain.coupon.infra.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest
+{
+    @Test
+    void shouldFailFastWhenRuntimeHasNoVirtualThreads()
+    {
+        assumeFalse(VirtualThreads.isSupported());
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> VirtualThreads.factory("test-"));
+
+        assertTrue(error.getMessage().contains("Java 21"));
+    }
+
+    @Test
+    void perTaskExecutorShouldRunTasksOnNamedVirtualThreads() throws Exception
+    {
+        assumeTrue(VirtualThreads.isSupported());
+
+        ExecutorService executor = VirtualThreads.perTaskExecutor("test-");
+
+        try
+        {
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+            assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+            assertTrue(thread.getName().startsWith("test-"));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponCodes;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveCodeFilterTest
+{
+    @Test
+    void shouldNeverMissAnAddedCode()
+    {
+        ActiveCodeFilter filter = filter(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++)
+        {
+            filter.add(code(i));
+        }
+
+        for (int i = 0; i < 10_000; i++)
+        {
+            assertTrue(filter.mightContain(code(i)));
+        }
+
+        assertEquals(0, filter.negatives());
+    }
+
+    @Test
+    void shouldKeepTheFalsePositiveRateNearTheConfiguredProbability()
+    {
+        ActiveCodeFilter filter = filter(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++)
+        {
+            filter.add(code(i));
+        }
+
+        int positives = 0;
+
+        for (int i = 10_000; i < 110_000; i++)
+        {
+            positives += filter.mightContain(code(i)) ? 1 : 0;
+        }
+
+        assertTrue(positives < 2_000, "false positives: " + positives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+        assertEquals(7, filter.hashes());
+    }
+
+    @Test
+    void shouldForgetRemovedCodesOnlyOnceLoaded()
+    {
+        ActiveCodeFilter filter = filter(1_000, 0.01);
+        filter.add("AA11BB");
+
+        // Before the load finishes the removal is ignored: the code may not have been added yet.
+        filter.remove("AA11BB");
+        assertTrue(filter.mightContain("AA11BB"));
+
+        filter.markReady();
+        filter.remove("AA11BB");
+
+        assertFalse(filter.mightContain("AA11BB"));
+        assertEquals(0.0, filter.expectedFalsePositiveRate());
+    }
+
+    @Test
+    void shouldApplyOnlyCreationAndDeletionEvents()
+    {
+        ActiveCodeFilter filter = filter(1_000, 0.01);
+        filter.markReady();
+
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        filter.apply(coupon);
+        coupon.clearPendingEvents();
+        assertTrue(filter.mightContain("AA11BB"));
+
+        coupon.publish(Instant.parse("2025-12-30T13:00:00Z"));
+        filter.apply(coupon);
+        coupon.clearPendingEvents();
+
+        coupon.delete(Instant.parse("2025-12-31T12:00:00Z"));
+        filter.apply(coupon);
+
+        assertFalse(filter.mightContain("AA11BB"));
+    }
+
+    @Test
+    void shouldReportTheObservedFalsePositiveRate()
+    {
+        ActiveCodeFilter filter = filter(1_000, 0.01);
+        filter.markReady();
+
+        for (int i = 0; i < 9; i++)
+        {
+            assertFalse(filter.mightContain(code(i)));
+        }
+
+        filter.recordFalsePositives(1);
+
+        assertEquals(9, filter.negatives());
+        assertEquals(0.1, filter.falsePositiveRate(), 1e-9);
+    }
+
+    @Test
+    void shouldStayEmptyWhenDisabled()
+    {
+        ActiveCodeFilter filter = filter(false);
+        filter.add("AA11BB");
+        filter.markReady();
+
+        assertFalse(filter.isReady());
+        assertEquals(Long.BYTES, filter.memoryBytes());
+    }
+
+    private static ActiveCodeFilter filter(long expectedCodes, double probability)
+    {
+        return new ActiveCodeFilter(new ActiveCodeFilterProperties(true, expectedCodes, probability));
+    }
+
+    private static ActiveCodeFilter filter(boolean enabled)
+    {
+        return new ActiveCodeFilter(new ActiveCodeFilterProperties(enabled, 1_000, 0.01));
+    }
+
+    private static String code(int i)
+    {
+        return CouponCodes.decode(i * 7919);
+    }
+}
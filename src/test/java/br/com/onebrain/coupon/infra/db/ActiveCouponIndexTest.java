@@ -0,0 +1,200 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponTerms;
+import br.com.onebrain.coupon.domain.CouponCodes;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveCouponIndexTest
+{
+    private static final BigDecimal DISCOUNT = new BigDecimal("10.00");
+    private static final LocalDate EXPIRATION = LocalDate.parse("2030-01-01");
+
+    @Test
+    void loadedCodesShouldBeFoundAndOthersShouldNot()
+    {
+        ActiveCouponIndex index = newIndex(4);
+
+        index.load(UUID.randomUUID(), "AB1234", DISCOUNT, EXPIRATION, true);
+        index.load(UUID.randomUUID(), "ZZZZZZ", DISCOUNT, EXPIRATION, false);
+        index.markReady();
+
+        assertTrue(index.contains("AB1234"));
+        assertTrue(index.contains("ZZZZZZ"));
+        assertFalse(index.contains("000000"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void removeShouldOnlyDropTheEntryOfTheSameCoupon()
+    {
+        ActiveCouponIndex index = newIndex(4);
+        UUID id = UUID.randomUUID();
+
+        index.load(id, "AB1234", DISCOUNT, EXPIRATION, true);
+        index.markReady();
+
+        index.remove("AB1234", UUID.randomUUID());
+        assertTrue(index.contains("AB1234"));
+
+        index.remove("AB1234", id);
+        assertFalse(index.contains("AB1234"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void loaderShouldNotResurrectCodesRemovedBeforeReady()
+    {
+        ActiveCouponIndex index = newIndex(4);
+        UUID id = UUID.randomUUID();
+
+        index.remove("AB1234", id);
+        index.load(id, "AB1234", DISCOUNT, EXPIRATION, true);
+        index.markReady();
+
+        assertFalse(index.contains("AB1234"));
+    }
+
+    @Test
+    void reserveShouldSizeTableForExpectedEntries()
+    {
+        ActiveCouponIndex index = newIndex(4);
+
+        index.reserve(3_000);
+        int capacity = index.capacity();
+
+        for (int i = 0; i < 3_000; i++)
+        {
+            index.load(UUID.randomUUID(), CouponCodes.decode(i * 7_919), DISCOUNT, EXPIRATION, true);
+        }
+
+        assertEquals(capacity, index.capacity());
+        assertEquals(3_000, index.size());
+        assertEquals((long) capacity * ActiveCouponIndex.BYTES_PER_SLOT, index.memoryBytes());
+    }
+
+    @Test
+    void shouldMatchHashMapUnderRandomInsertsAndRemoves()
+    {
+        ActiveCouponIndex index = newIndex(2);
+        Map<Integer, UUID> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        index.markReady();
+
+        for (int i = 0; i < 50_000; i++)
+        {
+            // A small key space keeps probe runs long, so backward-shift deletion gets exercised.
+            int key = random.nextInt(5_000);
+            String code = CouponCodes.decode(key);
+
+            if (random.nextInt(3) == 0 && expected.containsKey(key))
+            {
+                index.remove(code, expected.remove(key));
+            }
+            else if (!expected.containsKey(key))
+            {
+                UUID id = UUID.randomUUID();
+                index.load(id, code, DISCOUNT, EXPIRATION, true);
+                expected.put(key, id);
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+
+        ActiveCouponSnapshot snapshot = index.snapshot();
+
+        for (int key = 0; key < 5_000; key++)
+        {
+            assertEquals(expected.containsKey(key), index.contains(CouponCodes.decode(key)), "key " + key);
+            assertEquals(expected.containsKey(key), snapshot.find(CouponCodes.decode(key)).isPresent(), "snapshot key " + key);
+        }
+    }
+
+    @Test
+    void snapshotShouldCarryTheTermsAndIgnoreLaterWrites()
+    {
+        ActiveCouponIndex index = newIndex(4);
+        index.load(UUID.randomUUID(), "AB1234", DISCOUNT, EXPIRATION, false);
+        index.markReady();
+
+        ActiveCouponSnapshot snapshot = index.snapshot();
+        index.load(UUID.randomUUID(), "CD5678", DISCOUNT, EXPIRATION, true);
+
+        CouponTerms terms = snapshot.find("AB1234").orElseThrow();
+        assertEquals(DISCOUNT, terms.discountValue());
+        assertEquals(EXPIRATION, terms.expirationDate());
+        assertFalse(terms.published());
+        assertTrue(snapshot.find("CD5678").isEmpty());
+        assertEquals(1, snapshot.size());
+        assertTrue(index.version() > snapshot.version());
+    }
+
+    @Test
+    void snapshotShouldCopyOnlyTheSegmentsChangedSinceThePreviousOne()
+    {
+        ActiveCouponIndex index = newIndex(3 * ActiveCouponIndex.SEGMENT_SLOTS);
+        Map<Integer, UUID> expected = new HashMap<>();
+
+        for (int key = 0; key < 20_000; key++)
+        {
+            UUID id = UUID.randomUUID();
+            index.load(id, CouponCodes.decode(key), DISCOUNT, EXPIRATION, true);
+            expected.put(key, id);
+        }
+
+        index.markReady();
+
+        ActiveCouponSnapshot first = index.snapshot(null);
+        assertEquals(first.memoryBytes(), first.copiedBytes());
+        assertEquals(0, index.snapshot(first).copiedBytes(), "nothing changed, everything is shared");
+
+        index.remove(CouponCodes.decode(42), expected.remove(42));
+        UUID added = UUID.randomUUID();
+        index.load(added, CouponCodes.decode(30_000), DISCOUNT, EXPIRATION, true);
+        expected.put(30_000, added);
+
+        ActiveCouponSnapshot second = index.snapshot(first);
+
+        assertTrue(second.copiedBytes() > 0);
+        assertTrue(second.copiedBytes() <= 2L * ActiveCouponIndex.SEGMENT_SLOTS * ActiveCouponIndex.SNAPSHOT_BYTES_PER_SLOT);
+        assertTrue(first.find(CouponCodes.decode(42)).isPresent(), "the previous snapshot is never written");
+        assertTrue(first.find(CouponCodes.decode(30_000)).isEmpty());
+
+        for (int key = 0; key < 31_000; key++)
+        {
+            assertEquals(expected.containsKey(key), second.find(CouponCodes.decode(key)).isPresent(), "key " + key);
+        }
+
+        index.reserve(10L * ActiveCouponIndex.SEGMENT_SLOTS);
+        ActiveCouponSnapshot resized = index.snapshot(second);
+
+        assertEquals(resized.memoryBytes(), resized.copiedBytes(), "a resized table shares nothing");
+        assertTrue(resized.find(CouponCodes.decode(30_000)).isPresent());
+    }
+
+    @Test
+    void disabledIndexShouldIgnoreWrites()
+    {
+        ActiveCouponIndex index = new ActiveCouponIndex(new ActiveCouponIndexProperties(false, 1_000));
+
+        index.remove("AB1234", UUID.randomUUID());
+
+        assertFalse(index.isEnabled());
+        assertFalse(index.isReady());
+        assertEquals(0, index.size());
+    }
+
+    private static ActiveCouponIndex newIndex(int initialCapacity)
+    {
+        return new ActiveCouponIndex(new ActiveCouponIndexProperties(true, initialCapacity));
+    }
+}
@@ -0,0 +1,162 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.port.CouponTerms;
+import br.com.onebrain.coupon.domain.Coupon;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ActiveCouponSnapshotPublisherTest
+{
+    private static final LocalDate EXPIRATION = LocalDate.parse("2030-01-01");
+
+    private ActiveCouponIndex index;
+    private CouponRepositoryPort repository;
+    private ActiveCouponSnapshotPublisher publisher;
+
+    @BeforeEach
+    void setup()
+    {
+        index = new ActiveCouponIndex(new ActiveCouponIndexProperties(true, 16));
+        repository = mock(CouponRepositoryPort.class);
+        // Long interval: the tests drive refresh() themselves.
+        publisher = new ActiveCouponSnapshotPublisher(index, repository, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        publisher.close();
+    }
+
+    @Test
+    void shouldFallBackToTheRepositoryUntilTheIndexIsReady()
+    {
+        Coupon coupon = coupon("AB1234");
+        when(repository.findActiveByCode("AB1234")).thenReturn(Optional.of(coupon));
+
+        publisher.refresh();
+
+        assertEquals(Optional.of(new CouponTerms("AB1234", new BigDecimal("7.50"), EXPIRATION, true)), publisher.findActiveTerms("AB1234"));
+        verify(repository).findActiveByCode("AB1234");
+    }
+
+    @Test
+    void shouldServeThePublishedSnapshotWithoutTheRepository()
+    {
+        index.put(coupon("AB1234"));
+        index.markReady();
+        publisher.refresh();
+
+        assertEquals(Optional.of(new CouponTerms("AB1234", new BigDecimal("7.50"), EXPIRATION, true)), publisher.findActiveTerms("AB1234"));
+        assertEquals(Optional.empty(), publisher.findActiveTerms("ZZ9999"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void changesShouldBecomeVisibleOnlyWhenANewSnapshotIsSwappedIn()
+    {
+        Coupon first = coupon("AB1234");
+        index.put(first);
+        index.markReady();
+        publisher.refresh();
+
+        index.put(coupon("CD5678"));
+        index.remove("AB1234", first.getId());
+
+        assertTrue(publisher.findActiveTerms("AB1234").isPresent());
+        assertTrue(publisher.findActiveTerms("CD5678").isEmpty());
+
+        publisher.refresh();
+
+        assertTrue(publisher.findActiveTerms("AB1234").isEmpty());
+        assertTrue(publisher.findActiveTerms("CD5678").isPresent());
+    }
+
+    @Test
+    void snapshotShouldNotBeRebuiltWhileTheIndexIsUnchanged()
+    {
+        ActiveCouponIndex spied = spy(index);
+        spied.put(coupon("AB1234"));
+        spied.markReady();
+        ActiveCouponSnapshotPublisher spiedPublisher = new ActiveCouponSnapshotPublisher(spied, repository, Duration.ofHours(1));
+
+        try
+        {
+            spiedPublisher.refresh();
+            spiedPublisher.refresh();
+
+            verify(spied, times(1)).snapshot(any());
+        }
+        finally
+        {
+            spiedPublisher.close();
+        }
+    }
+
+    @Test
+    void refreshesShouldReportTheBytesCopiedAndTheTimeSpent()
+    {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        publisher.bindTo(registry);
+        index.put(coupon("AB1234"));
+        index.markReady();
+
+        publisher.refresh();
+        double fullCopy = registry.get("coupon.quote.snapshot.copied").functionCounter().count();
+        index.put(coupon("CD5678"));
+        publisher.refresh();
+
+        assertEquals(index.capacity() * (double) ActiveCouponIndex.SNAPSHOT_BYTES_PER_SLOT, fullCopy);
+        assertEquals(fullCopy, registry.get("coupon.quote.snapshot.memory").gauge().value());
+        assertTrue(registry.get("coupon.quote.snapshot.copied").functionCounter().count() > fullCopy);
+        assertEquals(2, registry.get("coupon.quote.snapshot.refresh").functionTimer().count());
+    }
+
+    @Test
+    void disabledIndexShouldAlwaysUseTheRepository()
+    {
+        ActiveCouponIndex disabled = new ActiveCouponIndex(new ActiveCouponIndexProperties(false, 16));
+        ActiveCouponSnapshotPublisher disabledPublisher = new ActiveCouponSnapshotPublisher(disabled, repository, Duration.ofHours(1));
+        when(repository.findActiveByCode("AB1234")).thenReturn(Optional.empty());
+
+        disabledPublisher.refresh();
+
+        assertTrue(disabledPublisher.findActiveTerms("AB1234").isEmpty());
+        verify(repository).findActiveByCode("AB1234");
+        disabledPublisher.close();
+    }
+
+    private static Coupon coupon(String code)
+    {
+        return Coupon.restore(
+                UUID.randomUUID(),
+                code,
+                "Desc",
+                new BigDecimal("7.50"),
+                EXPIRATION,
+                true,
+                null,
+                0,
+                false,
+                null,
+                Instant.parse("2026-01-01T00:00:00Z"),
+                Instant.parse("2026-01-01T00:00:00Z"),
+                null,
+                null,
+                0
+        );
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.infra.config.SecondLevelCacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({ CouponArchiveRepository.class, SecondLevelCacheConfig.class })
+class CouponArchiveRepositoryTest
+{
+    private static final Instant NOW = Instant.parse("2025-12-31T12:00:00Z");
+
+    @Autowired
+    private CouponArchiveRepository archiveRepo;
+
+    @Autowired
+    private SpringDataCouponRepository springRepo;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Coupon active;
+    private Coupon deletedLongAgo;
+    private Coupon deletedRecently;
+
+    @BeforeEach
+    void setup()
+    {
+        active = springRepo.save(coupon("ACT001", LocalDate.now().plusDays(10)));
+        deletedLongAgo = coupon("DEL001", LocalDate.now().plusDays(10));
+        deletedLongAgo.delete(NOW.minusSeconds(30 * 86_400));
+        springRepo.save(deletedLongAgo);
+        deletedRecently = coupon("DEL002", LocalDate.now().plusDays(10));
+        deletedRecently.delete(NOW.minusSeconds(60));
+        springRepo.save(deletedRecently);
+        entityManager.flush();
+    }
+
+    @Test
+    void findDeadShouldReturnOnlyRowsPastRetention()
+    {
+        List<CouponKey> dead = archiveRepo.findDead(NOW.minusSeconds(7 * 86_400), LocalDate.now(), 10);
+
+        assertEquals(List.of(new CouponKey(deletedLongAgo.getId(), "DEL001")), dead);
+    }
+
+    @Test
+    void findDeadShouldIncludeExpiredCouponsAndRespectTheLimit()
+    {
+        LocalDate afterEveryExpiration = LocalDate.now().plusDays(30);
+
+        assertEquals(3, archiveRepo.findDead(NOW.minusSeconds(7 * 86_400), afterEveryExpiration, 10).size());
+        assertEquals(2, archiveRepo.findDead(NOW.minusSeconds(7 * 86_400), afterEveryExpiration, 2).size());
+    }
+
+    @Test
+    void moveToArchiveShouldCopyAndPurgeTheRows()
+    {
+        int moved = archiveRepo.moveToArchive(List.of(deletedLongAgo.getId(), active.getId()), NOW);
+        entityManager.clear();
+
+        assertEquals(2, moved);
+        assertTrue(springRepo.findById(deletedLongAgo.getId()).isEmpty());
+        assertTrue(springRepo.findById(active.getId()).isEmpty());
+        assertTrue(springRepo.findById(deletedRecently.getId()).isPresent());
+
+        ArchivedCoupon archived = entityManager.find(ArchivedCoupon.class, deletedLongAgo.getId());
+        assertNotNull(archived);
+        assertEquals(NOW, archived.getArchivedAt());
+    }
+
+    @Test
+    void moveToArchiveShouldIgnoreRowsAlreadyGone()
+    {
+        archiveRepo.moveToArchive(List.of(deletedLongAgo.getId()), NOW);
+
+        assertEquals(0, archiveRepo.moveToArchive(List.of(deletedLongAgo.getId()), NOW));
+    }
+
+    private static Coupon coupon(String code, LocalDate expirationDate)
+    {
+        return Coupon.create(code, "Desc", new BigDecimal("1.00"), expirationDate, true, NOW.minusSeconds(60 * 86_400));
+    }
+}
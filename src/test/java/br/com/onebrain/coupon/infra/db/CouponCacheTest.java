@@ -0,0 +1,105 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponCacheTest
+{
+    private CouponCache cache;
+    private Coupon coupon;
+
+    @BeforeEach
+    void setup()
+    {
+        cache = new CouponCache(new CouponCacheProperties(1_000, Duration.ofMinutes(10), Duration.ofSeconds(30)));
+        coupon = Coupon.create(
+                "AB1234",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+    }
+
+    @Test
+    void concurrentMissesShouldShareOneLoad() throws Exception
+    {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Optional<Coupon>> first = CompletableFuture.supplyAsync(() -> cache.getByCode("AB1234", code ->
+        {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return Optional.of(coupon);
+        }));
+
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Optional<Coupon>> second = CompletableFuture.supplyAsync(() -> cache.getByCode("AB1234", code ->
+        {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }));
+
+        release.countDown();
+
+        assertSame(coupon, first.get(5, TimeUnit.SECONDS).orElseThrow());
+        assertSame(coupon, second.get(5, TimeUnit.SECONDS).orElseThrow());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evictionDuringLoadShouldDropTheLoadedValue()
+    {
+        Optional<Coupon> loaded = cache.getByCode("AB1234", code ->
+        {
+            cache.evict(coupon);
+            return Optional.empty();
+        });
+
+        assertTrue(loaded.isEmpty());
+        assertSame(coupon, cache.getByCode("AB1234", code -> Optional.of(coupon)).orElseThrow());
+    }
+
+    @Test
+    void failedLoadShouldPropagateAndNotBeCached()
+    {
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> cache.getByCode("AB1234", code ->
+        {
+            throw failure;
+        })));
+
+        assertSame(coupon, cache.getByCode("AB1234", code -> Optional.of(coupon)).orElseThrow());
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
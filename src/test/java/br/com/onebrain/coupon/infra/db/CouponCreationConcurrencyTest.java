@@ -0,0 +1,129 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.usecase.CreateCouponCommand;
+import br.com.onebrain.coupon.app.usecase.CreateCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.DeleteCouponUseCase;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CouponCreationConcurrencyTest
+{
+    private static final int THREADS = 16;
+
+    @Autowired
+    private CouponRepositoryPort repository;
+
+    @Autowired
+    private SpringDataCouponRepository springRepo;
+
+    @Autowired
+    private CreateCouponUseCase createUseCase;
+
+    @Autowired
+    private DeleteCouponUseCase deleteUseCase;
+
+    @Test
+    void concurrentCreatesOfTheSameCodeShouldLeaveExactlyOneActiveCoupon() throws Exception
+    {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int t = 0; t < THREADS; t++)
+            {
+                futures.add(executor.submit(() -> {
+                    start.await();
+
+                    try
+                    {
+                        createUseCase.execute(command("CC0001"));
+                        created.incrementAndGet();
+                    }
+                    catch (DomainException e)
+                    {
+                        assertEquals(CouponMessages.CODE_ALREADY_EXISTS, e.getMessageKey());
+                        duplicates.incrementAndGet();
+                    }
+
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures)
+            {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, created.get());
+        assertEquals(THREADS - 1, duplicates.get());
+        assertTrue(springRepo.findByActiveCode("CC0001").isPresent());
+    }
+
+    @Test
+    void codeShouldBeReusableOnceTheActiveCouponIsDeleted()
+    {
+        Coupon first = createUseCase.execute(command("CC0002"));
+
+        deleteUseCase.execute(first.getId());
+        Coupon second = createUseCase.execute(command("CC0002"));
+
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(second.getId(), springRepo.findByActiveCode("CC0002").orElseThrow().getId());
+    }
+
+    @Test
+    void rejectedBatchShouldStillAllowSavingItsCouponsOneByOne()
+    {
+        createUseCase.execute(command("CC0003"));
+
+        Coupon fresh = newCoupon("CC0004");
+        Coupon taken = newCoupon("CC0003");
+
+        DomainException error = assertThrows(DomainException.class, () -> repository.saveAll(List.of(fresh, taken)));
+        assertEquals(CouponMessages.CODE_ALREADY_EXISTS, error.getMessageKey());
+        assertTrue(springRepo.findByActiveCode("CC0004").isEmpty());
+
+        repository.save(fresh);
+        assertThrows(DomainException.class, () -> repository.save(taken));
+
+        assertTrue(springRepo.findByActiveCode("CC0004").isPresent());
+    }
+
+    private static Coupon newCoupon(String code)
+    {
+        return Coupon.create(code, "Desc", new BigDecimal("5.00"), LocalDate.now().plusDays(1), true, Instant.now());
+    }
+
+    private static CreateCouponCommand command(String code)
+    {
+        return new CreateCouponCommand(code, "Desc", new BigDecimal("5.00"), LocalDate.now().plusDays(1), true);
+    }
+}
@@ -0,0 +1,197 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponFeedEvent;
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.usecase.DeleteCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.PublishCouponUseCase;
+import br.com.onebrain.coupon.app.usecase.RedeemCouponUseCase;
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponEventType;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CouponLifecycleConcurrencyTest
+{
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private CouponRepositoryPort repository;
+
+    @Autowired
+    private SpringDataCouponRepository springRepo;
+
+    @Autowired
+    private CouponOutboxRepository outbox;
+
+    @Autowired
+    private CouponOutboxRelay relay;
+
+    @Autowired
+    private PublishCouponUseCase publishUseCase;
+
+    @Autowired
+    private DeleteCouponUseCase deleteUseCase;
+
+    @Autowired
+    private RedeemCouponUseCase redeemUseCase;
+
+    @Test
+    void concurrentPublishAndDeleteShouldApplyEachTransitionExactlyOnce() throws Exception
+    {
+        relay.relayPending();
+        long before = outbox.findLastOffset();
+        List<Coupon> coupons = new ArrayList<>();
+
+        for (int round = 0; round < ROUNDS; round++)
+        {
+            coupons.add(repository.save(coupon(String.format("LC%04d", round), false, null)));
+        }
+
+        AtomicInteger deletes = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        for (Coupon coupon : coupons)
+        {
+            race(thread ->
+            {
+                try
+                {
+                    if (thread % 2 == 0)
+                    {
+                        publishUseCase.execute(coupon.getId());
+                    }
+                    else
+                    {
+                        deleteUseCase.execute(coupon.getId());
+                        deletes.incrementAndGet();
+                    }
+                }
+                catch (ConcurrentUpdateException e)
+                {
+                    conflicts.incrementAndGet();
+                }
+                catch (DomainException e)
+                {
+                    // Lost to the delete: the coupon is gone for everybody else.
+                }
+            });
+        }
+
+        relay.relayPending();
+        Map<CouponEventType, Long> events = outbox.readAfter(before, 1_000).stream()
+                .filter(event -> coupons.stream().anyMatch(c -> c.getId().equals(event.couponId())))
+                .collect(Collectors.groupingBy(CouponFeedEvent::type, Collectors.counting()));
+
+        assertEquals(0, conflicts.get());
+        assertEquals(ROUNDS, deletes.get());
+        assertEquals(ROUNDS, events.get(CouponEventType.DELETED));
+        assertTrue(events.getOrDefault(CouponEventType.PUBLISHED, 0L) <= ROUNDS);
+
+        for (Coupon coupon : coupons)
+        {
+            Coupon stored = springRepo.findById(coupon.getId()).orElseThrow();
+            assertTrue(stored.isDeleted());
+            // One write for the delete, plus one if a publish got in first.
+            assertEquals(stored.isPublished() ? 2 : 1, stored.getVersion());
+        }
+    }
+
+    @Test
+    void deleteShouldNotOverwriteRedemptionsMadeSinceItsRead() throws Exception
+    {
+        Coupon coupon = repository.save(coupon("LC9999", true, 10_000));
+        AtomicInteger redeemed = new AtomicInteger();
+        CountDownLatch someRedeemed = new CountDownLatch(THREADS);
+
+        race(thread ->
+        {
+            if (thread == 0)
+            {
+                someRedeemed.await(10, TimeUnit.SECONDS);
+                deleteUseCase.execute(coupon.getId());
+                return;
+            }
+
+            for (int i = 0; i < 50; i++)
+            {
+                try
+                {
+                    redeemUseCase.execute("LC9999");
+                    redeemed.incrementAndGet();
+                    someRedeemed.countDown();
+                }
+                catch (DomainException e)
+                {
+                    return;
+                }
+            }
+        });
+
+        Coupon stored = springRepo.findById(coupon.getId()).orElseThrow();
+
+        assertTrue(stored.isDeleted());
+        assertTrue(redeemed.get() > 0);
+        assertEquals(redeemed.get(), stored.getUsageCount());
+    }
+
+    private interface Racer
+    {
+        void run(int thread) throws Exception;
+    }
+
+    private static void race(Racer racer) throws Exception
+    {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int t = 0; t < THREADS; t++)
+            {
+                int thread = t;
+
+                futures.add(executor.submit(() ->
+                {
+                    start.await();
+                    racer.run(thread);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures)
+            {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Coupon coupon(String code, boolean published, Integer maxUsages)
+    {
+        return Coupon.create(code, "Lifecycle", new BigDecimal("5.00"), LocalDate.now().plusDays(1), published, maxUsages, Instant.now());
+    }
+}
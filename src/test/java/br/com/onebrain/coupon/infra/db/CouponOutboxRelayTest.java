@@ -0,0 +1,93 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponFeedEvent;
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponEventType;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CouponOutboxRelayTest
+{
+    private static final Instant NOW = Instant.parse("2025-12-30T12:00:00Z");
+
+    @Autowired
+    private CouponRepositoryPort repository;
+
+    @Autowired
+    private CouponOutboxRepository outbox;
+
+    @Autowired
+    private CouponOutboxRelay relay;
+
+    @Test
+    void committedChangesShouldReachTheFeedWithConsecutiveOffsets()
+    {
+        long before = relayAndGetLastOffset();
+
+        Coupon coupon = repository.save(coupon("EV0001", false));
+        coupon.publish(NOW.plusSeconds(60));
+        repository.save(coupon);
+        repository.softDeleteAll(List.of(coupon.getId()), NOW.plusSeconds(120));
+        relay.relayPending();
+
+        List<CouponFeedEvent> events = outbox.readAfter(before, 10);
+
+        assertEquals(List.of(CouponEventType.CREATED, CouponEventType.PUBLISHED, CouponEventType.DELETED),
+                events.stream().map(CouponFeedEvent::type).toList());
+        assertEquals(List.of(before + 1, before + 2, before + 3),
+                events.stream().map(CouponFeedEvent::offset).toList());
+        assertTrue(events.stream().allMatch(event -> event.couponId().equals(coupon.getId())));
+        assertEquals("EV0001", events.get(0).code());
+        assertFalse(events.get(0).published());
+        assertTrue(events.get(1).published());
+        assertEquals(NOW.plusSeconds(120), events.get(2).occurredAt());
+    }
+
+    @Test
+    void rejectedWritesShouldNotProduceEvents()
+    {
+        long before = relayAndGetLastOffset();
+
+        repository.save(coupon("EV0002", true));
+        DomainException example = assertThrows(DomainException.class, () -> repository.save(coupon("EV0002", true)));
+        relay.relayPending();
+
+        assertEquals(CouponMessages.CODE_ALREADY_EXISTS, example.getMessageKey());
+        assertEquals(1, outbox.readAfter(before, 10).size());
+    }
+
+    @Test
+    void purgeShouldTrimTheFeedButKeepTheLastEvent()
+    {
+        repository.save(coupon("EV0003", true));
+        long last = relayAndGetLastOffset();
+
+        outbox.purgeRelayedBefore(Instant.now().plusSeconds(60));
+
+        assertEquals(last, outbox.findLastOffset());
+        assertEquals(List.of(last), outbox.readAfter(0, 10).stream().map(CouponFeedEvent::offset).toList());
+    }
+
+    private long relayAndGetLastOffset()
+    {
+        relay.relayPending();
+        return outbox.findLastOffset();
+    }
+
+    private static Coupon coupon(String code, boolean published)
+    {
+        return Coupon.create(code, "Desc", new BigDecimal("1.00"), LocalDate.now().plusDays(10), published, NOW);
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponCursor;
+import br.com.onebrain.coupon.app.port.CouponSearchCriteria;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.infra.config.SecondLevelCacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(SecondLevelCacheConfig.class)
+class CouponQueriesImplTest
+{
+    private static final CouponSearchCriteria NO_FILTERS = new CouponSearchCriteria(null, null, null, null, null);
+
+    @Autowired
+    private SpringDataCouponRepository springRepo;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setup()
+    {
+        Instant createdAt = Instant.parse("2025-12-30T12:00:00Z");
+
+        // Several coupons share the same created_at, so the id tie-breaker is exercised.
+        for (int i = 0; i < 7; i++)
+        {
+            springRepo.save(Coupon.create(
+                    (i % 2 == 0 ? "EV" : "OD") + "000" + i,
+                    "Desc",
+                    new BigDecimal("1.00"),
+                    LocalDate.now().plusDays(i + 1),
+                    i % 2 == 0,
+                    createdAt.plusSeconds(i / 3)
+            ));
+        }
+    }
+
+    @Test
+    void keysetPagesShouldCoverAllRowsExactlyOnceInOrder()
+    {
+        List<Coupon> all = new ArrayList<>();
+        CouponCursor cursor = null;
+
+        while (true)
+        {
+            List<Coupon> page = springRepo.search(NO_FILTERS, cursor, 2);
+
+            if (page.isEmpty())
+            {
+                break;
+            }
+
+            all.addAll(page);
+            Coupon last = page.get(page.size() - 1);
+            cursor = new CouponCursor(last.getCreatedAt(), last.getId());
+        }
+
+        assertEquals(7, all.size());
+        assertEquals(7, all.stream().map(Coupon::getId).distinct().count());
+        assertEquals(springRepo.search(NO_FILTERS, null, 100), all);
+    }
+
+    @Test
+    void shouldApplyFilters()
+    {
+        List<Coupon> even = springRepo.search(new CouponSearchCriteria(true, false, null, null, "EV"), null, 100);
+        assertEquals(4, even.size());
+        assertTrue(even.stream().allMatch(Coupon::isPublished));
+
+        List<Coupon> expiringSoon = springRepo.search(
+                new CouponSearchCriteria(null, null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(3), null),
+                null,
+                100
+        );
+        assertEquals(2, expiringSoon.size());
+    }
+
+    @Test
+    void streamShouldReturnSameRowsAsSearch()
+    {
+        try (Stream<Coupon> stream = springRepo.streamMatching(NO_FILTERS))
+        {
+            assertEquals(springRepo.search(NO_FILTERS, null, 100).stream().map(Coupon::getId).toList(),
+                    stream.map(Coupon::getId).toList());
+        }
+    }
+
+    @Test
+    void activeRowsShouldSkipDeletedCoupons()
+    {
+        Coupon deleted = springRepo.search(NO_FILTERS, null, 1).get(0);
+        deleted.delete(Instant.parse("2025-12-31T12:00:00Z"));
+        springRepo.saveAndFlush(deleted);
+
+        try (Stream<ActiveCouponRow> rows = springRepo.streamActiveRows())
+        {
+            List<ActiveCouponRow> active = rows.toList();
+
+            assertEquals(6, active.size());
+            assertEquals(6, springRepo.countByDeletedFalse());
+            assertTrue(active.stream().noneMatch(row -> row.id().equals(deleted.getId())));
+        }
+    }
+
+    @Test
+    void softDeleteAllShouldOnlyTouchActiveCouponsAndFreeTheirCodes()
+    {
+        List<Coupon> all = springRepo.search(NO_FILTERS, null, 100);
+        Coupon alreadyDeleted = all.get(0);
+        Instant firstDeletion = Instant.parse("2025-12-31T12:00:00Z");
+        alreadyDeleted.delete(firstDeletion);
+        springRepo.saveAndFlush(alreadyDeleted);
+
+        List<UUID> ids = List.of(alreadyDeleted.getId(), all.get(1).getId(), all.get(2).getId(), UUID.randomUUID());
+
+        assertEquals(2, springRepo.findActiveRows(ids).size());
+        assertEquals(2, springRepo.softDeleteAll(ids, Instant.parse("2026-01-01T12:00:00Z")));
+
+        entityManager.clear();
+
+        assertEquals(firstDeletion, springRepo.findById(alreadyDeleted.getId()).orElseThrow().getDeletedAt());
+        assertTrue(springRepo.findByActiveCode(all.get(1).getCode()).isEmpty());
+        assertTrue(springRepo.findById(all.get(2).getId()).orElseThrow().isDeleted());
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.usecase.RedeemCouponUseCase;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CouponRedemptionConcurrencyTest
+{
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    private static final int MAX_USAGES = 100;
+
+    @Autowired
+    private CouponRepositoryPort repository;
+
+    @Autowired
+    private SpringDataCouponRepository springRepo;
+
+    @Autowired
+    private RedeemCouponUseCase redeemUseCase;
+
+    @Test
+    void shouldNeverRedeemMoreThanMaxUsagesUnderContention() throws Exception
+    {
+        Coupon coupon = repository.save(Coupon.create(
+                "RD0001",
+                "Flash sale",
+                new BigDecimal("5.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                MAX_USAGES,
+                Instant.now()
+        ));
+
+        AtomicInteger redeemed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int t = 0; t < THREADS; t++)
+            {
+                futures.add(executor.submit(() -> {
+                    start.await();
+
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++)
+                    {
+                        try
+                        {
+                            redeemUseCase.execute("RD0001");
+                            redeemed.incrementAndGet();
+                        }
+                        catch (DomainException e)
+                        {
+                            rejected.incrementAndGet();
+                        }
+                    }
+
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures)
+            {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertEquals(MAX_USAGES, redeemed.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - MAX_USAGES, rejected.get());
+        assertEquals(MAX_USAGES, springRepo.findById(coupon.getId()).orElseThrow().getUsageCount());
+    }
+}
@@ -1,28 +1,54 @@
 package br.com.onebrain.coupon.infra.db;
 
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
 import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponEvent;
+import br.com.onebrain.coupon.domain.CouponEventType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class CouponRepositoryAdapterTest
 {
     private SpringDataCouponRepository springRepo;
+    private CouponArchiveRepository archiveRepo;
+    private CouponOutboxRepository outbox;
+    private ActiveCouponIndex index;
+    private ActiveCodeFilter filter;
     private CouponRepositoryAdapter adapter;
 
     @BeforeEach
     void setup()
     {
         springRepo = mock(SpringDataCouponRepository.class);
-        adapter = new CouponRepositoryAdapter(springRepo);
+        archiveRepo = mock(CouponArchiveRepository.class);
+        outbox = mock(CouponOutboxRepository.class);
+        index = new ActiveCouponIndex(new ActiveCouponIndexProperties(true, 16));
+        filter = new ActiveCodeFilter(new ActiveCodeFilterProperties(true, 1_000, 0.01));
+        adapter = new CouponRepositoryAdapter(
+                springRepo,
+                new CouponCache(new CouponCacheProperties(1_000, Duration.ofMinutes(10), Duration.ofSeconds(30))),
+                index,
+                filter,
+                archiveRepo,
+                outbox,
+                // The mocked manager runs the callbacks without a real transaction.
+                mock(PlatformTransactionManager.class)
+        );
     }
 
     @Test
@@ -37,15 +63,99 @@ class CouponRepositoryAdapterTest
                 Instant.parse("2025-12-30T12:00:00Z")
         );
 
-        when(springRepo.save(coupon)).thenReturn(coupon);
+        when(springRepo.saveAndFlush(coupon)).thenAnswer(inv -> persisted(coupon));
 
         Coupon saved = adapter.save(coupon);
 
         assertSame(coupon, saved);
-        verify(springRepo).save(coupon);
+        verify(springRepo).saveAndFlush(coupon);
         verifyNoMoreInteractions(springRepo);
     }
 
+    @Test
+    void saveShouldAppendPendingEventsAndClearThemOnceCommitted()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+        Coupon managed = persisted(Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.parse("2025-12-30T12:00:00Z")
+        ));
+
+        when(springRepo.saveAndFlush(coupon)).thenReturn(managed);
+
+        adapter.save(coupon);
+
+        verify(outbox).append(coupon, managed);
+        assertTrue(coupon.pendingEvents().isEmpty());
+    }
+
+    @Test
+    void unannouncedSaveShouldWriteNoEvents()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        when(springRepo.saveAllAndFlush(List.of(coupon))).thenReturn(List.of(persisted(coupon)));
+
+        assertEquals(List.of(coupon), adapter.saveAllUnannounced(List.of(coupon)));
+        assertTrue(coupon.pendingEvents().isEmpty());
+        verifyNoInteractions(outbox);
+    }
+
+    @Test
+    void rejectedSaveShouldKeepPendingEventsForTheRetry()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        when(springRepo.saveAndFlush(coupon)).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> adapter.save(coupon));
+        assertEquals(List.of(CouponEventType.CREATED), coupon.pendingEvents().stream().map(CouponEvent::type).toList());
+    }
+
+    @Test
+    void findActiveByIdShouldIgnoreDeletedCoupons()
+    {
+        UUID id = UUID.randomUUID();
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+        coupon.delete(Instant.parse("2025-12-30T13:00:00Z"));
+
+        when(springRepo.findById(id)).thenReturn(Optional.of(coupon));
+
+        assertTrue(adapter.findActiveById(id).isEmpty());
+    }
+
     @Test
     void findActiveByIdShouldDelegateToSpringRepo()
     {
@@ -60,14 +170,14 @@ class CouponRepositoryAdapterTest
                 Instant.parse("2025-12-30T12:00:00Z")
         );
 
-        when(springRepo.findByIdAndDeletedFalse(id)).thenReturn(Optional.of(coupon));
+        when(springRepo.findById(id)).thenReturn(Optional.of(coupon));
 
         Optional<Coupon> result = adapter.findActiveById(id);
 
         assertTrue(result.isPresent());
         assertSame(coupon, result.get());
 
-        verify(springRepo).findByIdAndDeletedFalse(id);
+        verify(springRepo).findById(id);
         verifyNoMoreInteractions(springRepo);
     }
 
@@ -76,13 +186,397 @@ class CouponRepositoryAdapterTest
     {
         String code = "AB1234";
 
-        when(springRepo.existsByCodeAndDeletedFalse(code)).thenReturn(true);
+        Coupon coupon = Coupon.create(
+                code,
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        when(springRepo.findByActiveCode(code)).thenReturn(Optional.of(coupon));
 
         boolean exists = adapter.existsActiveByCode(code);
 
         assertTrue(exists);
 
-        verify(springRepo).existsByCodeAndDeletedFalse(code);
+        verify(springRepo).findByActiveCode(code);
+        verifyNoMoreInteractions(springRepo);
+    }
+
+    @Test
+    void repeatedLookupsByCodeShouldBeServedFromCache()
+    {
+        when(springRepo.findByActiveCode("AB1234")).thenReturn(Optional.empty());
+
+        assertFalse(adapter.existsActiveByCode("AB1234"));
+        assertFalse(adapter.existsActiveByCode("AB1234"));
+        assertTrue(adapter.findActiveByCode("AB1234").isEmpty());
+
+        verify(springRepo, times(1)).findByActiveCode("AB1234");
+        verifyNoMoreInteractions(springRepo);
+    }
+
+    @Test
+    void repeatedLookupsByIdShouldBeServedFromCache()
+    {
+        UUID id = UUID.randomUUID();
+
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        when(springRepo.findById(id)).thenReturn(Optional.of(coupon));
+
+        assertSame(coupon, adapter.findActiveById(id).orElseThrow());
+        assertSame(coupon, adapter.findActiveById(id).orElseThrow());
+
+        verify(springRepo, times(1)).findById(id);
+        verifyNoMoreInteractions(springRepo);
+    }
+
+    @Test
+    void saveShouldInvalidateCachedNegativeLookup()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        when(springRepo.findByActiveCode("AA11BB"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(coupon));
+        when(springRepo.saveAndFlush(coupon)).thenAnswer(inv -> persisted(coupon));
+
+        assertFalse(adapter.existsActiveByCode("AA11BB"));
+
+        adapter.save(coupon);
+
+        assertTrue(adapter.existsActiveByCode("AA11BB"));
+        verify(springRepo, times(2)).findByActiveCode("AA11BB");
+    }
+
+    @Test
+    void findActiveByCodeShouldDelegateToSpringRepo()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        when(springRepo.findByActiveCode("AA11BB")).thenReturn(Optional.of(coupon));
+
+        Optional<Coupon> result = adapter.findActiveByCode("AA11BB");
+
+        assertTrue(result.isPresent());
+        assertSame(coupon, result.get());
+
+        verify(springRepo).findByActiveCode("AA11BB");
+        verifyNoMoreInteractions(springRepo);
+    }
+
+    @Test
+    void incrementUsageShouldReturnTrueOnlyWhenOneRowIsUpdated()
+    {
+        UUID id = UUID.randomUUID();
+
+        when(springRepo.incrementUsage(id)).thenReturn(1).thenReturn(0);
+
+        assertTrue(adapter.incrementUsage(id));
+        assertFalse(adapter.incrementUsage(id));
+
+        verify(springRepo, times(2)).incrementUsage(id);
+        verifyNoMoreInteractions(springRepo);
+    }
+
+    @Test
+    void readyIndexShouldAnswerCodeLookupsWithoutTheDatabase()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        when(springRepo.saveAndFlush(coupon)).thenAnswer(inv -> persisted(coupon));
+
+        adapter.save(coupon);
+        index.markReady();
+
+        assertTrue(adapter.existsActiveByCode("AA11BB"));
+        assertFalse(adapter.existsActiveByCode("ZZ99ZZ"));
+        assertTrue(adapter.findActiveByCode("ZZ99ZZ").isEmpty());
+        assertEquals(Set.of("AA11BB"), adapter.findActiveCodes(List.of("AA11BB", "ZZ99ZZ")));
+
+        verify(springRepo).saveAndFlush(coupon);
         verifyNoMoreInteractions(springRepo);
     }
+
+    @Test
+    void readyFilterShouldAnswerDefiniteMissesWithoutTheDatabaseWhileTheIndexLoads()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        when(springRepo.saveAndFlush(coupon)).thenAnswer(inv -> persisted(coupon));
+        when(springRepo.findByActiveCode("AA11BB")).thenReturn(Optional.of(coupon));
+        when(springRepo.findActiveCodes(List.of("AA11BB"))).thenReturn(Set.of("AA11BB"));
+
+        adapter.save(coupon);
+        filter.markReady();
+
+        assertTrue(adapter.existsActiveByCode("AA11BB"));
+        assertFalse(adapter.existsActiveByCode("ZZ99ZZ"));
+        assertEquals(Set.of("AA11BB"), adapter.findActiveCodes(List.of("AA11BB", "ZZ99ZZ", "ZZ99ZZ")));
+        assertTrue(adapter.findActiveCodes(List.of("ZZ99ZZ")).isEmpty());
+
+        verify(springRepo, never()).findByActiveCode("ZZ99ZZ");
+        verify(springRepo).findActiveCodes(List.of("AA11BB"));
+        assertEquals(3, filter.negatives());
+        assertEquals(0, filter.falsePositives());
+    }
+
+    @Test
+    void filterShouldCountLookupsItLetThroughForAbsentCodes()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        when(springRepo.saveAndFlush(coupon)).thenAnswer(inv -> persisted(coupon));
+
+        adapter.save(coupon);
+        filter.markReady();
+
+        // The database lost the row behind the filter's back, so the positive is a false one.
+        when(springRepo.findByActiveCode("AA11BB")).thenReturn(Optional.empty());
+        when(springRepo.findActiveCodes(List.of("AA11BB"))).thenReturn(Set.of());
+
+        assertFalse(adapter.existsActiveByCode("AA11BB"));
+        assertTrue(adapter.findActiveCodes(List.of("AA11BB")).isEmpty());
+        assertEquals(2, filter.falsePositives());
+    }
+
+    @Test
+    void savingDeletedCouponShouldRemoveItFromIndex()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        when(springRepo.saveAndFlush(coupon)).thenAnswer(inv -> persisted(coupon));
+        index.markReady();
+
+        adapter.save(coupon);
+        assertTrue(adapter.existsActiveByCode("AA11BB"));
+
+        coupon.delete(Instant.parse("2025-12-31T12:00:00Z"));
+        when(springRepo.updateLifecycle(coupon.getId(), 0, true, true, coupon.getDeletedAt(), null, null, null, coupon.getUpdatedAt()))
+                .thenReturn(1);
+        adapter.save(coupon);
+
+        assertFalse(adapter.existsActiveByCode("AA11BB"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void savingStoredCouponShouldOnlyWriteItsLifecycleAtTheVersionItWasReadWith()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        when(springRepo.saveAndFlush(coupon)).thenAnswer(inv -> persisted(coupon));
+        adapter.save(coupon);
+        clearInvocations(outbox);
+
+        Instant now = Instant.parse("2025-12-31T12:00:00Z");
+        coupon.publish(now);
+        when(springRepo.updateLifecycle(coupon.getId(), 0, true, false, null, "AA11BB", null, null, now)).thenReturn(1);
+
+        Coupon saved = adapter.save(coupon);
+
+        assertSame(coupon, saved);
+        assertEquals(1, saved.getVersion());
+        assertTrue(saved.pendingEvents().isEmpty());
+        verify(outbox).append(coupon, coupon);
+        verify(springRepo, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void savingStaleCouponShouldFailWithoutWritingEvents()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+
+        when(springRepo.saveAndFlush(coupon)).thenAnswer(inv -> persisted(coupon));
+        adapter.save(coupon);
+        clearInvocations(outbox);
+
+        coupon.publish(Instant.parse("2025-12-31T12:00:00Z"));
+        when(springRepo.updateLifecycle(any(), anyLong(), anyBoolean(), anyBoolean(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertThrows(ConcurrentUpdateException.class, () -> adapter.save(coupon));
+        assertEquals(0, coupon.getVersion());
+        assertEquals(1, coupon.pendingEvents().size());
+        verifyNoInteractions(outbox);
+    }
+
+    @Test
+    void softDeleteAllShouldUpdateOnlyActiveRowsAndEvictThem()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+        UUID unknown = UUID.randomUUID();
+        Instant now = Instant.parse("2025-12-31T12:00:00Z");
+
+        when(springRepo.saveAndFlush(coupon)).thenAnswer(inv -> persisted(coupon));
+        adapter.save(coupon);
+
+        List<ActiveCouponRow> rows = List.of(new ActiveCouponRow(
+                coupon.getId(), "AA11BB", coupon.getDiscountValue(), coupon.getExpirationDate(), true
+        ));
+        when(springRepo.lockActiveRows(List.of(coupon.getId(), unknown))).thenReturn(rows);
+        when(springRepo.softDeleteAll(List.of(coupon.getId()), now)).thenReturn(1);
+
+        index.markReady();
+        filter.markReady();
+
+        assertEquals(1, adapter.softDeleteAll(List.of(coupon.getId(), unknown), now));
+        assertFalse(adapter.existsActiveByCode("AA11BB"));
+        assertFalse(filter.mightContain("AA11BB"));
+        verify(outbox).appendDeleted(rows, now);
+    }
+
+    @Test
+    void publishDueShouldPublishTheDueRowsAndWriteEventsOnlyForTheOnesThatChanged()
+    {
+        UUID unpublished = UUID.randomUUID();
+        UUID alreadyPublished = UUID.randomUUID();
+        UUID notDue = UUID.randomUUID();
+        LocalDate expiration = LocalDate.now().plusDays(1);
+        Instant now = Instant.parse("2025-12-31T12:00:00Z");
+        List<UUID> ids = List.of(unpublished, alreadyPublished, notDue);
+
+        when(springRepo.lockDuePublications(ids, now)).thenReturn(List.of(
+                new ActiveCouponRow(unpublished, "AA11BB", new BigDecimal("1.00"), expiration, false),
+                new ActiveCouponRow(alreadyPublished, "CC22DD", new BigDecimal("1.00"), expiration, true)
+        ));
+
+        assertEquals(2, adapter.publishDue(ids, now));
+
+        verify(springRepo).markPublished(List.of(unpublished, alreadyPublished), now);
+        verify(outbox).appendPublications(
+                List.of(new ActiveCouponRow(unpublished, "AA11BB", new BigDecimal("1.00"), expiration, true)),
+                now
+        );
+        verify(springRepo, never()).markUnpublished(any(), any());
+    }
+
+    @Test
+    void unpublishDueShouldDoNothingWhenNoRowIsDue()
+    {
+        List<UUID> ids = List.of(UUID.randomUUID());
+        Instant now = Instant.parse("2025-12-31T12:00:00Z");
+
+        when(springRepo.lockDueUnpublications(ids, now)).thenReturn(List.of());
+
+        assertEquals(0, adapter.unpublishDue(ids, now));
+
+        verify(springRepo, never()).markUnpublished(any(), any());
+        verifyNoInteractions(outbox);
+    }
+
+    @Test
+    void archiveDeadShouldMoveRowsAndEvictThem()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("1.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+        Instant deletedBefore = Instant.parse("2025-12-24T12:00:00Z");
+        LocalDate expiredBefore = LocalDate.parse("2025-12-01");
+        Instant now = Instant.parse("2025-12-31T12:00:00Z");
+
+        when(springRepo.saveAndFlush(coupon)).thenAnswer(inv -> persisted(coupon));
+        adapter.save(coupon);
+
+        when(archiveRepo.findDead(deletedBefore, expiredBefore, 10)).thenReturn(List.of(new CouponKey(coupon.getId(), "AA11BB")));
+        when(archiveRepo.moveToArchive(List.of(coupon.getId()), now)).thenReturn(1);
+
+        index.markReady();
+
+        assertEquals(1, adapter.archiveDead(deletedBefore, expiredBefore, now, 10));
+        assertFalse(adapter.existsActiveByCode("AA11BB"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void archiveDeadShouldNotMoveAnythingWhenNothingIsDead()
+    {
+        Instant now = Instant.parse("2025-12-31T12:00:00Z");
+
+        assertEquals(0, adapter.archiveDead(now, LocalDate.parse("2025-12-01"), now, 10));
+        verify(archiveRepo, never()).moveToArchive(any(), any());
+    }
+
+    private static Coupon persisted(Coupon coupon)
+    {
+        ReflectionTestUtils.setField(coupon, "id", UUID.randomUUID());
+        return coupon;
+    }
 }
@@ -0,0 +1,136 @@
+package br.com.onebrain.coupon.infra.db;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.domain.Coupon;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CouponSecondLevelCacheTest
+{
+    private static final Instant NOW = Instant.parse("2025-12-30T12:00:00Z");
+
+    @Autowired
+    private SpringDataCouponRepository springRepo;
+
+    @Autowired
+    private CouponRepositoryPort repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup()
+    {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void lookupsByIdShouldBeServedFromTheEntityRegion()
+    {
+        Coupon coupon = repository.save(coupon("L2C001"));
+        entityManagerFactory.getCache().evictAll();
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Coupon.CACHE_REGION);
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+
+        springRepo.findById(coupon.getId());
+        springRepo.findById(coupon.getId());
+
+        assertEquals(misses + 1, region.getMissCount());
+        assertEquals(hits + 1, region.getHitCount());
+    }
+
+    @Test
+    void softDeleteShouldNotLeaveTheActiveStateCached()
+    {
+        Coupon coupon = repository.save(coupon("L2C002"));
+        springRepo.findById(coupon.getId());
+        assertTrue(entityManagerFactory.getCache().contains(Coupon.class, coupon.getId()));
+
+        repository.softDeleteAll(List.of(coupon.getId()), NOW.plusSeconds(60));
+
+        assertFalse(entityManagerFactory.getCache().contains(Coupon.class, coupon.getId()));
+        assertTrue(springRepo.findById(coupon.getId()).orElseThrow().isDeleted());
+        assertTrue(repository.findActiveById(coupon.getId()).isEmpty());
+    }
+
+    @Test
+    void lookupsByActiveCodeShouldUseTheQueryCacheUntilTheTableChanges()
+    {
+        repository.save(coupon("L2C003"));
+        long hits = statistics.getQueryCacheHitCount();
+        long misses = statistics.getQueryCacheMissCount();
+
+        springRepo.findByActiveCode("L2C003");
+        springRepo.findByActiveCode("L2C003");
+
+        assertEquals(misses + 1, statistics.getQueryCacheMissCount());
+        assertEquals(hits + 1, statistics.getQueryCacheHitCount());
+
+        repository.save(coupon("L2C004"));
+        springRepo.findByActiveCode("L2C003");
+
+        assertEquals(hits + 1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void redemptionShouldEvictOnlyTheRedeemedCouponAndKeepCodeLookupsCached()
+    {
+        Coupon redeemed = repository.save(coupon("L2C005"));
+        Coupon other = repository.save(coupon("L2C006"));
+        springRepo.findById(redeemed.getId());
+        springRepo.findById(other.getId());
+        springRepo.findByActiveCode("L2C006");
+        long hits = statistics.getQueryCacheHitCount();
+
+        assertTrue(repository.incrementUsage(redeemed.getId()));
+
+        assertFalse(entityManagerFactory.getCache().contains(Coupon.class, redeemed.getId()));
+        assertTrue(entityManagerFactory.getCache().contains(Coupon.class, other.getId()));
+        assertEquals(other.getId(), springRepo.findByActiveCode("L2C006").orElseThrow().getId());
+        assertEquals(hits + 1, statistics.getQueryCacheHitCount());
+        assertEquals(1, springRepo.findById(redeemed.getId()).orElseThrow().getUsageCount());
+    }
+
+    @Test
+    void deletesShouldDropCachedCodeLookupsButNotOtherCoupons()
+    {
+        Coupon deleted = repository.save(coupon("L2C007"));
+        Coupon other = repository.save(coupon("L2C008"));
+        springRepo.findById(other.getId());
+        assertTrue(springRepo.findByActiveCode("L2C007").isPresent());
+
+        repository.softDeleteAll(List.of(deleted.getId()), NOW.plusSeconds(60));
+
+        assertTrue(springRepo.findByActiveCode("L2C007").isEmpty());
+        assertTrue(entityManagerFactory.getCache().contains(Coupon.class, other.getId()));
+
+        springRepo.findById(deleted.getId());
+        repository.archiveDead(NOW.plusSeconds(120), LocalDate.now(), NOW.plusSeconds(120), 10);
+
+        assertTrue(springRepo.findById(deleted.getId()).isEmpty());
+        assertTrue(entityManagerFactory.getCache().contains(Coupon.class, other.getId()));
+    }
+
+    private static Coupon coupon(String code)
+    {
+        return Coupon.create(code, "Desc", new BigDecimal("1.00"), LocalDate.now().plusDays(10), true, NOW);
+    }
+}
@@ -0,0 +1,245 @@
+package br.com.onebrain.coupon.infra.logstore;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponLogTest
+{
+    private static final Instant NOW = Instant.parse("2025-12-30T12:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void aPartialAppendShouldNotHideTheAppendsAfterItOnRestart() throws Exception
+    {
+        FailingChannel failing = new FailingChannel();
+        CouponRecord first = record("aa11bb");
+        CouponRecord lost = record("cc22dd");
+        CouponRecord last = record("ee33ff");
+
+        try (CouponLog couponLog = CouponLog.open(properties(), new Replayed(), failing::wrap))
+        {
+            couponLog.appendPuts(List.of(first));
+
+            failing.failNextWriteHalfway = true;
+            assertThrows(IOException.class, () -> couponLog.appendPuts(List.of(lost)));
+
+            couponLog.appendPuts(List.of(last));
+        }
+
+        Replayed replayed = new Replayed();
+        CouponLog.open(properties(), replayed).close();
+
+        assertEquals(List.of(first.id(), last.id()), replayed.puts);
+    }
+
+    @Test
+    void aPartialAppendThatCannotBeRolledBackShouldRejectLaterWrites() throws Exception
+    {
+        FailingChannel failing = new FailingChannel();
+        CouponRecord first = record("aa11bb");
+
+        try (CouponLog couponLog = CouponLog.open(properties(), new Replayed(), failing::wrap))
+        {
+            couponLog.appendPuts(List.of(first));
+
+            failing.failNextWriteHalfway = true;
+            failing.failTruncate = true;
+            IOException error = assertThrows(IOException.class, () -> couponLog.appendPuts(List.of(record("cc22dd"))));
+
+            assertEquals(1, error.getSuppressed().length);
+            assertThrows(IOException.class, () -> couponLog.appendPuts(List.of(record("ee33ff"))));
+            assertThrows(IOException.class, couponLog::roll);
+        }
+
+        Replayed replayed = new Replayed();
+        CouponLog.open(properties(), replayed).close();
+
+        assertEquals(List.of(first.id()), replayed.puts);
+    }
+
+    private LogStoreProperties properties()
+    {
+        return new LogStoreProperties(directory, FsyncPolicy.ALWAYS, Duration.ofMillis(100), 1_000);
+    }
+
+    private static CouponRecord record(String code)
+    {
+        Coupon coupon = Coupon.create(code, "Desc", new BigDecimal("1.50"), LocalDate.now().plusDays(10), true, null, NOW);
+        return CouponRecord.of(coupon, UUID.randomUUID());
+    }
+
+    private static final class Replayed implements CouponLog.Replay
+    {
+        final List<UUID> puts = new ArrayList<>();
+
+        @Override
+        public void put(CouponRecord record)
+        {
+            puts.add(record.id());
+        }
+
+        @Override
+        public void remove(UUID id)
+        {
+            puts.remove(id);
+        }
+    }
+
+    /**
+     * Opens real append channels that, on demand, write half of the next buffer and then fail,
+     * or fail to truncate: what a full disk or a dying device does to an append.
+     */
+    private static final class FailingChannel
+    {
+        boolean failNextWriteHalfway;
+        boolean failTruncate;
+
+        FileChannel wrap(Path file) throws IOException
+        {
+            FileChannel delegate = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+            return new FileChannel()
+            {
+                @Override
+                public int write(ByteBuffer src) throws IOException
+                {
+                    if (!failNextWriteHalfway)
+                    {
+                        return delegate.write(src);
+                    }
+
+                    failNextWriteHalfway = false;
+                    ByteBuffer half = src.duplicate();
+                    half.limit(src.position() + src.remaining() / 2);
+                    delegate.write(half);
+                    throw new IOException("No space left on device");
+                }
+
+                @Override
+                public FileChannel truncate(long size) throws IOException
+                {
+                    if (failTruncate)
+                    {
+                        throw new IOException("Input/output error");
+                    }
+
+                    delegate.truncate(size);
+                    return this;
+                }
+
+                @Override
+                public long size() throws IOException
+                {
+                    return delegate.size();
+                }
+
+                @Override
+                public void force(boolean metaData) throws IOException
+                {
+                    delegate.force(metaData);
+                }
+
+                @Override
+                public long write(ByteBuffer[] srcs, int offset, int length) throws IOException
+                {
+                    return delegate.write(srcs, offset, length);
+                }
+
+                @Override
+                public int write(ByteBuffer src, long position) throws IOException
+                {
+                    return delegate.write(src, position);
+                }
+
+                @Override
+                public int read(ByteBuffer dst) throws IOException
+                {
+                    return delegate.read(dst);
+                }
+
+                @Override
+                public long read(ByteBuffer[] dsts, int offset, int length) throws IOException
+                {
+                    return delegate.read(dsts, offset, length);
+                }
+
+                @Override
+                public int read(ByteBuffer dst, long position) throws IOException
+                {
+                    return delegate.read(dst, position);
+                }
+
+                @Override
+                public long position() throws IOException
+                {
+                    return delegate.position();
+                }
+
+                @Override
+                public FileChannel position(long newPosition) throws IOException
+                {
+                    delegate.position(newPosition);
+                    return this;
+                }
+
+                @Override
+                public long transferTo(long position, long count, WritableByteChannel target) throws IOException
+                {
+                    return delegate.transferTo(position, count, target);
+                }
+
+                @Override
+                public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException
+                {
+                    return delegate.transferFrom(src, position, count);
+                }
+
+                @Override
+                public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException
+                {
+                    return delegate.map(mode, position, size);
+                }
+
+                @Override
+                public FileLock lock(long position, long size, boolean shared) throws IOException
+                {
+                    return delegate.lock(position, size, shared);
+                }
+
+                @Override
+                public FileLock tryLock(long position, long size, boolean shared) throws IOException
+                {
+                    return delegate.tryLock(position, size, shared);
+                }
+
+                @Override
+                protected void implCloseChannel() throws IOException
+                {
+                    delegate.close();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package br.com.onebrain.coupon.infra.logstore;
+
+import br.com.onebrain.coupon.app.port.CouponCursor;
+import br.com.onebrain.coupon.app.port.CouponSchedule;
+import br.com.onebrain.coupon.app.port.CouponSearchCriteria;
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import br.com.onebrain.coupon.infra.db.ActiveCouponIndex;
+import br.com.onebrain.coupon.infra.db.ActiveCouponIndexProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogCouponRepositoryAdapterTest
+{
+    private static final Instant NOW = Instant.parse("2025-12-30T12:00:00Z");
+    private static final CouponSearchCriteria NO_FILTERS = new CouponSearchCriteria(null, null, null, null, null);
+
+    @TempDir
+    Path directory;
+
+    private LogCouponRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setup()
+    {
+        adapter = open(1_000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        adapter.close();
+    }
+
+    @Test
+    void savedCouponsShouldSurviveARestart() throws Exception
+    {
+        Coupon saved = adapter.save(coupon("aa11bb", 2));
+        adapter.incrementUsage(saved.getId());
+
+        Coupon restored = reopen().findActiveById(saved.getId()).orElseThrow();
+
+        assertEquals("AA11BB", restored.getCode());
+        assertEquals(new BigDecimal("1.50"), restored.getDiscountValue());
+        assertEquals(2, restored.getMaxUsages());
+        assertEquals(1, restored.getUsageCount());
+        assertEquals(NOW, restored.getCreatedAt());
+        assertTrue(adapter.existsActiveByCode("AA11BB"));
+    }
+
+    @Test
+    void shouldRejectASecondActiveCouponWithTheSameCode()
+    {
+        adapter.save(coupon("aa11bb", null));
+
+        DomainException error = assertThrows(DomainException.class, () -> adapter.saveAll(List.of(
+                coupon("cc22dd", null),
+                coupon("aa11bb", null)
+        )));
+
+        assertEquals(CouponMessages.CODE_ALREADY_EXISTS, error.getMessageKey());
+        assertFalse(adapter.existsActiveByCode("CC22DD"), "a rejected batch writes nothing");
+    }
+
+    @Test
+    void incrementUsageShouldStopAtMaxUsages()
+    {
+        Coupon saved = adapter.save(coupon("aa11bb", 2));
+
+        assertTrue(adapter.incrementUsage(saved.getId()));
+        assertTrue(adapter.incrementUsage(saved.getId()));
+        assertFalse(adapter.incrementUsage(saved.getId()));
+        assertFalse(adapter.incrementUsage(UUID.randomUUID()));
+    }
+
+    @Test
+    void savingAStaleCopyShouldFailAndKeepUsagesMadeSinceTheRead()
+    {
+        Coupon saved = adapter.save(coupon("aa11bb", 5));
+        Coupon first = adapter.findActiveByIdForUpdate(saved.getId()).orElseThrow();
+        Coupon second = adapter.findActiveByIdForUpdate(saved.getId()).orElseThrow();
+        adapter.incrementUsage(saved.getId());
+
+        first.delete(NOW.plusSeconds(60));
+        Coupon deleted = adapter.save(first);
+        second.publish(NOW.plusSeconds(120));
+
+        assertThrows(ConcurrentUpdateException.class, () -> adapter.save(second));
+        assertTrue(deleted.isDeleted());
+        assertEquals(1, deleted.getVersion());
+        assertEquals(1, deleted.getUsageCount());
+        assertTrue(adapter.findActiveById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    void deletedCodesShouldBeReusableAcrossRestarts() throws Exception
+    {
+        Coupon first = adapter.save(coupon("aa11bb", null));
+
+        assertEquals(1, adapter.softDeleteAll(List.of(first.getId(), UUID.randomUUID()), NOW));
+        assertEquals(0, adapter.softDeleteAll(List.of(first.getId()), NOW));
+
+        Coupon second = adapter.save(coupon("aa11bb", null));
+        reopen();
+
+        assertEquals(second.getId(), adapter.findActiveByCode("AA11BB").orElseThrow().getId());
+        assertTrue(adapter.findActiveById(first.getId()).isEmpty());
+        assertEquals(1, adapter.search(new CouponSearchCriteria(null, true, null, null, null), null, 10).size());
+    }
+
+    @Test
+    void tornTailShouldBeTruncatedOnRecovery() throws Exception
+    {
+        Coupon saved = adapter.save(coupon("aa11bb", null));
+        adapter.close();
+
+        Path logFile = logFiles().get(0);
+        long size = Files.size(logFile);
+        Files.write(logFile, new byte[] { 0, 0, 0, 90, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        adapter = open(1_000);
+
+        assertTrue(adapter.findActiveById(saved.getId()).isPresent());
+        assertEquals(size, Files.size(logFile));
+
+        adapter.save(coupon("cc22dd", null));
+        assertTrue(reopen().existsActiveByCode("CC22DD"));
+    }
+
+    @Test
+    void snapshotShouldReplaceOlderLogs() throws Exception
+    {
+        Coupon before = adapter.save(coupon("aa11bb", null));
+        adapter.snapshot();
+        Coupon after = adapter.save(coupon("cc22dd", null));
+
+        assertEquals(1, logFiles().size());
+
+        reopen();
+
+        assertTrue(adapter.findActiveById(before.getId()).isPresent());
+        assertTrue(adapter.findActiveById(after.getId()).isPresent());
+    }
+
+    @Test
+    void snapshotsShouldBeTakenInTheBackgroundEverySoManyRecords() throws Exception
+    {
+        adapter.close();
+        adapter = open(3);
+
+        for (int i = 0; i < 10; i++)
+        {
+            adapter.save(coupon("AAAA0" + i, null));
+        }
+
+        reopen();
+
+        assertEquals(10, adapter.search(NO_FILTERS, null, 100).size());
+
+        try (Stream<Path> files = Files.list(directory))
+        {
+            assertTrue(files.anyMatch(file -> file.getFileName().toString().startsWith("snapshot-")));
+        }
+    }
+
+    @Test
+    void archiveDeadShouldRemoveCouponsDurably() throws Exception
+    {
+        Coupon dead = adapter.save(coupon("aa11bb", null));
+        Coupon alive = adapter.save(coupon("cc22dd", null));
+        adapter.softDeleteAll(List.of(dead.getId()), NOW.minus(Duration.ofDays(30)));
+
+        assertEquals(1, adapter.archiveDead(NOW.minus(Duration.ofDays(7)), LocalDate.now(), NOW, 10));
+        reopen();
+
+        assertEquals(List.of(alive.getId()), adapter.search(NO_FILTERS, null, 10).stream().map(Coupon::getId).toList());
+        assertTrue(Files.size(directory.resolve("archive.log")) > 0);
+    }
+
+    @Test
+    void searchShouldPageInCreationOrder()
+    {
+        for (int i = 0; i < 5; i++)
+        {
+            adapter.save(Coupon.create("BBBB0" + i, "Desc", new BigDecimal("1.00"), LocalDate.now().plusDays(i + 1), i % 2 == 0, NOW.plusSeconds(5 - i)));
+        }
+
+        List<Coupon> first = adapter.search(NO_FILTERS, null, 2);
+        Coupon last = first.get(1);
+        List<Coupon> rest = adapter.search(NO_FILTERS, new CouponCursor(last.getCreatedAt(), last.getId()), 10);
+
+        assertEquals(List.of("BBBB04", "BBBB03"), first.stream().map(Coupon::getCode).toList());
+        assertEquals(List.of("BBBB02", "BBBB01", "BBBB00"), rest.stream().map(Coupon::getCode).toList());
+        assertEquals(3, adapter.search(new CouponSearchCriteria(true, false, null, null, "BBBB"), null, 10).size());
+    }
+
+    @Test
+    void dueWindowsShouldBeAppliedOnceAndSurviveARestart() throws Exception
+    {
+        Coupon saved = adapter.save(Coupon.create("aa11bb", "Desc", new BigDecimal("1.50"), LocalDate.now().plusDays(10), false, NOW));
+        Coupon copy = adapter.findActiveByIdForUpdate(saved.getId()).orElseThrow();
+        copy.schedule(NOW.plusSeconds(60), NOW.plusSeconds(120), NOW);
+        adapter.save(copy);
+
+        List<CouponSchedule> schedules = new ArrayList<>();
+        reopen().forEachSchedule(schedules::add);
+        assertEquals(List.of(new CouponSchedule(saved.getId(), NOW.plusSeconds(60), NOW.plusSeconds(120))), schedules);
+
+        assertEquals(0, adapter.publishDue(List.of(saved.getId()), NOW.plusSeconds(59)));
+        assertEquals(1, adapter.publishDue(List.of(saved.getId()), NOW.plusSeconds(60)));
+        assertEquals(0, adapter.publishDue(List.of(saved.getId()), NOW.plusSeconds(61)), "the publish time is cleared");
+
+        Coupon published = reopen().findActiveById(saved.getId()).orElseThrow();
+        assertTrue(published.isPublished());
+        assertNull(published.getPublishAt());
+        assertEquals(NOW.plusSeconds(120), published.getUnpublishAt());
+
+        assertEquals(1, adapter.unpublishDue(List.of(saved.getId()), NOW.plusSeconds(300)));
+
+        Coupon unpublished = adapter.findActiveById(saved.getId()).orElseThrow();
+        assertFalse(unpublished.isPublished());
+        assertNull(unpublished.getUnpublishAt());
+
+        schedules.clear();
+        adapter.forEachSchedule(schedules::add);
+        assertTrue(schedules.isEmpty());
+    }
+
+    @Test
+    void recordsWrittenBeforeTheWindowExistedShouldDecodeWithoutOne()
+    {
+        CouponRecord record = CouponRecord.of(coupon("aa11bb", null), UUID.randomUUID());
+        ByteBuffer buffer = ByteBuffer.allocate(record.encodedSize());
+        record.encode(buffer);
+
+        // The old layout is the new one without the two trailing instants.
+        buffer.flip().limit(buffer.limit() - 24);
+        CouponRecord decoded = CouponRecord.decode(buffer);
+
+        assertEquals(record.id(), decoded.id());
+        assertEquals(record.updatedAt(), decoded.updatedAt());
+        assertNull(decoded.publishAt());
+        assertNull(decoded.unpublishAt());
+    }
+
+    private LogCouponRepositoryAdapter reopen() throws Exception
+    {
+        adapter.close();
+        adapter = open(1_000);
+        return adapter;
+    }
+
+    private LogCouponRepositoryAdapter open(long snapshotEvery)
+    {
+        return new LogCouponRepositoryAdapter(
+                new LogStoreProperties(directory, FsyncPolicy.ALWAYS, Duration.ofMillis(100), snapshotEvery),
+                new ActiveCouponIndex(new ActiveCouponIndexProperties(true, 16))
+        );
+    }
+
+    private List<Path> logFiles() throws Exception
+    {
+        try (Stream<Path> files = Files.list(directory))
+        {
+            return files.filter(file -> file.getFileName().toString().startsWith("coupons-")).sorted().toList();
+        }
+    }
+
+    private static Coupon coupon(String code, Integer maxUsages)
+    {
+        return Coupon.create(code, "Desc", new BigDecimal("1.50"), LocalDate.now().plusDays(10), true, maxUsages, NOW);
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.onebrain.coupon.infra.metrics;
+
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.usecase.DeleteCouponUseCase;
+import br.com.onebrain.coupon.domain.DomainException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Clock;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CouponMetricsAspectTest
+{
+    private SimpleMeterRegistry registry;
+    private CouponMetricsAspect aspect;
+
+    @BeforeEach
+    void setup()
+    {
+        registry = new SimpleMeterRegistry();
+        aspect = new CouponMetricsAspect(registry);
+    }
+
+    @Test
+    void shouldTimeRepositoryCallsByMethod()
+    {
+        CouponRepositoryPort repository = proxy(mock(CouponRepositoryPort.class), CouponRepositoryPort.class);
+
+        repository.existsActiveByCode("AB1234");
+        repository.existsActiveByCode("AB1234");
+
+        Timer timer = registry.get(CouponMetricsAspect.REPOSITORY_TIMER)
+                .tag("method", "existsActiveByCode")
+                .tag("outcome", "success")
+                .timer();
+
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    void shouldTimeFailedUseCaseExecutionsWithExceptionTag()
+    {
+        CouponRepositoryPort repository = mock(CouponRepositoryPort.class);
+        when(repository.findActiveById(any())).thenReturn(Optional.empty());
+
+        DeleteCouponUseCase useCase = proxy(new DeleteCouponUseCase(repository, Clock.systemUTC()), DeleteCouponUseCase.class);
+
+        assertThrows(DomainException.class, () -> useCase.execute(UUID.randomUUID()));
+
+        Timer timer = registry.get(CouponMetricsAspect.USE_CASE_TIMER)
+                .tag("usecase", "DeleteCouponUseCase")
+                .tag("method", "execute")
+                .tag("outcome", "error")
+                .tag("exception", "DomainException")
+                .timer();
+
+        assertEquals(1, timer.count());
+    }
+
+    private <T> T proxy(Object target, Class<T> type)
+    {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(!type.isInterface());
+        factory.addAspect(aspect);
+        return type.cast(factory.getProxy());
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.onebrain.coupon.infra.reactive;
+
+import br.com.onebrain.coupon.domain.ConcurrentUpdateException;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ReactiveCouponApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles(ReactiveCouponApplication.PROFILE)
+class R2dbcCouponRepositoryAdapterTest
+{
+    @Autowired
+    private R2dbcCouponRepositoryAdapter adapter;
+
+    @Test
+    void shouldInsertAndFindByIdAndActiveCode()
+    {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Coupon saved = adapter.save(coupon("RA0001", 2, now)).block();
+
+        assertNotNull(saved);
+        assertNotNull(saved.getId());
+        assertEquals(0, saved.getVersion());
+
+        Coupon byId = adapter.findActiveById(saved.getId()).block();
+        Coupon byCode = adapter.findActiveByCode("RA0001").block();
+
+        assertNotNull(byId);
+        assertNotNull(byCode);
+        assertEquals(saved.getId(), byCode.getId());
+        assertEquals(new BigDecimal("2.50"), byId.getDiscountValue());
+        assertEquals(Integer.valueOf(2), byId.getMaxUsages());
+        assertEquals(now, byId.getCreatedAt());
+        assertFalse(byId.isNew());
+    }
+
+    @Test
+    void shouldRejectADuplicateActiveCodeWithTheDomainError()
+    {
+        adapter.save(coupon("RA0002", null, Instant.now())).block();
+
+        Mono<Coupon> duplicate = adapter.save(coupon("RA0002", null, Instant.now()));
+
+        DomainException ex = assertThrows(DomainException.class, duplicate::block);
+        assertEquals(CouponMessages.CODE_ALREADY_EXISTS, ex.getMessageKey());
+    }
+
+    @Test
+    void shouldWriteLifecycleChangesOnlyOnTheVersionTheyWereReadWith()
+    {
+        Coupon saved = adapter.save(coupon("RA0003", null, Instant.now())).block();
+        Coupon first = adapter.findActiveById(saved.getId()).block();
+        Coupon second = adapter.findActiveById(saved.getId()).block();
+
+        first.publish(Instant.now());
+        adapter.save(first).block();
+        second.delete(Instant.now());
+
+        assertEquals(1, first.getVersion());
+        assertThrows(ConcurrentUpdateException.class, () -> adapter.save(second).block());
+
+        Coupon stored = adapter.findActiveById(saved.getId()).block();
+        assertTrue(stored.isPublished());
+        assertEquals(1, stored.getVersion());
+    }
+
+    @Test
+    void deletingShouldFreeTheActiveCode()
+    {
+        Coupon saved = adapter.save(coupon("RA0004", null, Instant.now())).block();
+        saved.delete(Instant.now());
+        adapter.save(saved).block();
+
+        assertNull(adapter.findActiveById(saved.getId()).block());
+        assertNull(adapter.findActiveByCode("RA0004").block());
+        assertNotNull(adapter.save(coupon("RA0004", null, Instant.now())).block());
+    }
+
+    @Test
+    void incrementUsageShouldStopAtMaxUsages()
+    {
+        Coupon saved = adapter.save(coupon("RA0005", 2, Instant.now())).block();
+
+        assertTrue(adapter.incrementUsage(saved.getId()).block());
+        assertTrue(adapter.incrementUsage(saved.getId()).block());
+        assertFalse(adapter.incrementUsage(saved.getId()).block());
+        assertEquals(2, adapter.findActiveById(saved.getId()).block().getUsageCount());
+    }
+
+    private static Coupon coupon(String code, Integer maxUsages, Instant now)
+    {
+        return Coupon.create(code, "Reactive", new BigDecimal("2.50"), LocalDate.now().plusDays(10), false, maxUsages, now);
+    }
+}
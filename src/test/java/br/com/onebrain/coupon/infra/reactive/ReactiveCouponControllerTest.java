@@ -0,0 +1,153 @@
+package br.com.onebrain.coupon.infra.reactive;
+
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.infra.web.dto.CouponResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        classes = ReactiveCouponApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        // Read by the test context loader before the profile is applied.
+        properties = "spring.main.web-application-type=reactive"
+)
+@ActiveProfiles(ReactiveCouponApplication.PROFILE)
+class ReactiveCouponControllerTest
+{
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    void shouldGoThroughTheLifecycleOfACoupon()
+    {
+        CouponResponse created = client.post().uri("/coupons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request("rc-00-01"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(CouponResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(created);
+        assertEquals("RC0001", created.code());
+        assertFalse(created.published());
+        UUID id = created.id();
+
+        client.post().uri("/coupons/RC0001/redeem")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.messageKey").isEqualTo(CouponMessages.NOT_PUBLISHED);
+
+        client.post().uri("/coupons/{id}/publish", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.published").isEqualTo(true);
+
+        client.post().uri("/coupons/RC0001/redeem")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("RC0001");
+
+        client.get().uri("/coupons/RC0001/quote?amount=3.00")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.applicable").isEqualTo(true)
+                .jsonPath("$.total").isEqualTo(0.0);
+
+        client.delete().uri("/coupons/{id}", id)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        client.delete().uri("/coupons/{id}", id)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.messageKey").isEqualTo(CouponMessages.NOT_FOUND_OR_DELETED);
+    }
+
+    @Test
+    void shouldAnswerErrorsWithTheSameProblemDetails()
+    {
+        client.post().uri("/coupons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request("RC0002"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        client.post().uri("/coupons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request("RC0002"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Business validation error.")
+                .jsonPath("$.messageKey").isEqualTo(CouponMessages.CODE_ALREADY_EXISTS);
+
+        client.post().uri("/coupons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("code", "RC0003"))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.BAD_REQUEST)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Request validation error.");
+
+        client.get().uri("/coupons/RC0002/quote")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.messageKey").isEqualTo(CouponMessages.QUOTE_AMOUNT_REQUIRED);
+    }
+
+    @Test
+    void retriedCreateShouldBeReplayed()
+    {
+        Map<String, Object> request = request("RC0004");
+
+        String first = client.post().uri("/coupons")
+                .header("Idempotency-Key", "rc-retry")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().doesNotExist("Idempotent-Replayed")
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        client.post().uri("/coupons")
+                .header("Idempotency-Key", "rc-retry")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals("Idempotent-Replayed", "true")
+                .expectBody(String.class).isEqualTo(first);
+    }
+
+    private static Map<String, Object> request(String code)
+    {
+        return Map.of(
+                "code", code,
+                "description", "Reactive",
+                "discountValue", 5.00,
+                "expirationDate", LocalDate.now().plusDays(10).toString(),
+                "published", false
+        );
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.onebrain.coupon.infra.reactive;
+
+import br.com.onebrain.coupon.domain.Coupon;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.tool.schema.Action;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@code db/reactive-schema.sql} is kept by hand, since R2DBC has no DDL generation. This
+ * loads it next to the DDL Hibernate generates from {@link Coupon} and compares the two
+ * tables column by column, so a mapping change that is not mirrored there fails the build.
+ */
+class ReactiveSchemaTest
+{
+    private static final String COLUMNS = """
+            select column_name, data_type, character_maximum_length, numeric_precision, numeric_scale,
+                   datetime_precision, is_nullable
+            from information_schema.columns
+            where table_name = 'COUPONS'
+            order by column_name
+            """;
+
+    // Named indexes only: the ones behind the primary key and the unique constraint are H2's.
+    private static final String INDEXES = """
+            select i.index_name, c.column_name, c.ordinal_position
+            from information_schema.indexes i
+            join information_schema.index_columns c
+              on c.index_schema = i.index_schema and c.index_name = i.index_name
+            where i.table_name = 'COUPONS' and i.index_type_name = 'INDEX'
+            order by i.index_name, c.ordinal_position
+            """;
+
+    // The primary key constraint name is generated, so it is left out.
+    private static final String CONSTRAINTS = """
+            select case when t.constraint_type = 'PRIMARY KEY' then '' else t.constraint_name end,
+                   t.constraint_type, k.column_name
+            from information_schema.table_constraints t
+            join information_schema.key_column_usage k
+              on k.constraint_schema = t.constraint_schema and k.constraint_name = t.constraint_name
+            where t.table_name = 'COUPONS'
+            order by t.constraint_type, 1, k.ordinal_position
+            """;
+
+    @Test
+    void reactiveSchemaShouldMatchTheJpaMapping() throws Exception
+    {
+        try (Connection jpa = DriverManager.getConnection(exportJpaSchema());
+             Connection reactive = DriverManager.getConnection("jdbc:h2:mem:reactive-schema-reactive"))
+        {
+            ScriptUtils.executeSqlScript(reactive, new ClassPathResource("db/reactive-schema.sql"));
+
+            assertFalse(rows(jpa, COLUMNS).isEmpty());
+            assertEquals(rows(jpa, COLUMNS), rows(reactive, COLUMNS));
+            assertEquals(rows(jpa, INDEXES), rows(reactive, INDEXES));
+            assertEquals(rows(jpa, CONSTRAINTS), rows(reactive, CONSTRAINTS));
+        }
+    }
+
+    /**
+     * Lets Hibernate create the {@link Coupon} table in a fresh in-memory database, kept open
+     * after the export, and returns its URL.
+     */
+    private static String exportJpaSchema()
+    {
+        String url = "jdbc:h2:mem:reactive-schema-jpa;DB_CLOSE_DELAY=-1";
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.URL, url)
+                .applySetting(AvailableSettings.JAKARTA_HBM2DDL_DATABASE_ACTION, Action.CREATE_ONLY)
+                .applySetting(AvailableSettings.HBM2DDL_HALT_ON_ERROR, true)
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .build();
+
+        try (SessionFactory ignored = new MetadataSources(registry).addAnnotatedClass(Coupon.class).buildMetadata().buildSessionFactory())
+        {
+            return url;
+        }
+    }
+
+    private static List<List<String>> rows(Connection connection, String query) throws SQLException
+    {
+        List<List<String>> rows = new ArrayList<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(query))
+        {
+            ResultSetMetaData meta = result.getMetaData();
+
+            while (result.next())
+            {
+                List<String> row = new ArrayList<>();
+
+                for (int i = 1; i <= meta.getColumnCount(); i++)
+                {
+                    row.add(result.getString(i));
+                }
+
+                rows.add(row);
+            }
+        }
+
+        return rows;
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.onebrain.coupon.infra.schedule;
+
+import br.com.onebrain.coupon.app.port.CouponFeedEvent;
+import br.com.onebrain.coupon.app.port.CouponRepositoryPort;
+import br.com.onebrain.coupon.app.usecase.ApplyCouponSchedulesUseCase;
+import br.com.onebrain.coupon.app.usecase.ScheduleCouponUseCase;
+import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponEventType;
+import br.com.onebrain.coupon.infra.db.CouponOutboxRelay;
+import br.com.onebrain.coupon.infra.db.CouponOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CouponScheduleIntegrationTest
+{
+    @Autowired
+    private CouponRepositoryPort repository;
+
+    @Autowired
+    private ScheduleCouponUseCase scheduleUseCase;
+
+    @Autowired
+    private CouponOutboxRepository outbox;
+
+    @Autowired
+    private CouponOutboxRelay relay;
+
+    @Test
+    void theRunningSchedulerShouldPublishAndThenUnpublishTheCoupon() throws Exception
+    {
+        relay.relayPending();
+        long before = outbox.findLastOffset();
+        Coupon coupon = repository.save(coupon("SC0001"));
+        Instant now = Instant.now();
+
+        scheduleUseCase.execute(coupon.getId(), now.plusSeconds(1), now.plusSeconds(3));
+
+        Coupon published = await(coupon.getId(), Coupon::isPublished);
+        assertNull(published.getPublishAt());
+        assertEquals(now.plusSeconds(3).toEpochMilli(), published.getUnpublishAt().toEpochMilli());
+        assertFalse(published.getUpdatedAt().isBefore(now.plusSeconds(1)), "never published early");
+
+        Coupon unpublished = await(coupon.getId(), c -> !c.isPublished());
+        assertNull(unpublished.getUnpublishAt());
+
+        relay.relayPending();
+        List<CouponEventType> events = outbox.readAfter(before, 1_000).stream()
+                .filter(event -> event.couponId().equals(coupon.getId()))
+                .map(CouponFeedEvent::type)
+                .toList();
+
+        assertEquals(List.of(CouponEventType.CREATED, CouponEventType.PUBLISHED, CouponEventType.UNPUBLISHED), events);
+    }
+
+    @Test
+    void windowsShouldBeRestoredFromStorageIntoFreshTimers()
+    {
+        Coupon coupon = repository.save(coupon("SC0002"));
+        Instant publishAt = Instant.now().plus(Duration.ofHours(1));
+        scheduleUseCase.execute(coupon.getId(), publishAt, null);
+
+        // What a restart an hour later sees: timers only in memory, rebuilt from the database.
+        Clock later = Clock.offset(Clock.systemUTC(), Duration.ofHours(1).plusSeconds(1));
+        CouponTimers timers = new CouponTimers(new CouponScheduleProperties(true, Duration.ofSeconds(1), 1_000, Duration.ofSeconds(30)), Clock.systemUTC());
+        ApplyCouponSchedulesUseCase applyUseCase = new ApplyCouponSchedulesUseCase(repository, timers, later, 1_000, Duration.ofSeconds(30));
+
+        assertTrue(applyUseCase.restore() >= 1);
+
+        DueCoupons due = timers.advance(Instant.now(later));
+        assertTrue(due.publish().contains(coupon.getId()));
+
+        applyUseCase.execute(due.publish(), due.unpublish());
+
+        assertTrue(repository.findActiveById(coupon.getId()).orElseThrow().isPublished());
+    }
+
+    private Coupon await(UUID id, Predicate<Coupon> condition) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+
+        while (System.nanoTime() < deadline)
+        {
+            Coupon coupon = repository.findActiveByIdForUpdate(id).orElseThrow();
+
+            if (condition.test(coupon))
+            {
+                return coupon;
+            }
+
+            Thread.sleep(100);
+        }
+
+        return fail("The scheduled transition did not happen in time");
+    }
+
+    private static Coupon coupon(String code)
+    {
+        return Coupon.create(code, "Schedule", new BigDecimal("5.00"), LocalDate.now().plusDays(1), false, Instant.now());
+    }
+}
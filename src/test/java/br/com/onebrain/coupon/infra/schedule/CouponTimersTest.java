@@ -0,0 +1,53 @@
+package br.com.onebrain.coupon.infra.schedule;
+
+import br.com.onebrain.coupon.app.port.CouponSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponTimersTest
+{
+    private static final Instant NOW = Instant.parse("2030-01-01T12:00:00Z");
+
+    private final CouponTimers timers = new CouponTimers(
+            new CouponScheduleProperties(true, Duration.ofSeconds(1), 1_000, Duration.ofSeconds(30)),
+            Clock.fixed(NOW, ZoneOffset.UTC)
+    );
+
+    @Test
+    void shouldArmBothEndsOfTheWindowAndReturnThemByTransition()
+    {
+        UUID id = UUID.randomUUID();
+
+        timers.arm(new CouponSchedule(id, NOW.plusSeconds(10), NOW.plusSeconds(20)));
+
+        assertEquals(2, timers.pending());
+        assertTrue(timers.advance(NOW.plusSeconds(9)).isEmpty());
+
+        DueCoupons published = timers.advance(NOW.plusSeconds(10));
+        assertEquals(List.of(id), published.publish());
+        assertTrue(published.unpublish().isEmpty());
+
+        DueCoupons unpublished = timers.advance(NOW.plusSeconds(25));
+        assertTrue(unpublished.publish().isEmpty());
+        assertEquals(List.of(id), unpublished.unpublish());
+        assertEquals(0, timers.pending());
+    }
+
+    @Test
+    void shouldIgnoreMissingEndsAndAcceptInstantsBeyondEpochMillis()
+    {
+        timers.arm(new CouponSchedule(UUID.randomUUID(), null, null));
+        timers.arm(new CouponSchedule(UUID.randomUUID(), null, Instant.MAX));
+
+        assertEquals(1, timers.pending());
+        assertTrue(timers.advance(NOW.plus(Duration.ofDays(1))).isEmpty());
+    }
+}
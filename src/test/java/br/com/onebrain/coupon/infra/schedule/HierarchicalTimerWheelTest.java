@@ -0,0 +1,151 @@
+package br.com.onebrain.coupon.infra.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimerWheelTest
+{
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void shouldExpireEachTimerOnTheTickThatReachesItsDeadlineAcrossAllLevels()
+    {
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(1_000, START);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+
+        for (long id = 0; id < 5_000; id++)
+        {
+            // From the next second up to about 200 days, so that every level but the top is used.
+            long at = START + 1 + (long) (Math.pow(random.nextDouble(), 4) * 200L * 86_400_000L);
+            deadlines.put(id, at);
+            wheel.schedule(id, ~id, (int) (id & 1), at);
+        }
+
+        long now = START;
+        List<Long> expiredIds = new ArrayList<>();
+
+        while (!deadlines.isEmpty())
+        {
+            now += 1_000 + random.nextInt(3) * 60_000L * random.nextInt(60);
+            long tickEnd = now;
+
+            wheel.advance(now, (msb, lsb, kind) ->
+            {
+                long at = deadlines.remove(msb);
+                assertEquals(~msb, lsb);
+                assertEquals(msb & 1, kind);
+                assertTrue(at <= tickEnd, "expired early");
+                expiredIds.add(msb);
+            });
+
+            for (long at : deadlines.values())
+            {
+                assertTrue(at > tickEnd - tickEnd % 1_000, "missed a deadline");
+            }
+        }
+
+        assertEquals(5_000, expiredIds.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldExpireAtTheExactTickWhenAdvancedOneTickAtATime()
+    {
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(10, START);
+        long[] deadlines = { START + 10, START + 640, START + 650, START + 40_960, START + 41_000, START + 2_621_440 };
+
+        for (int i = 0; i < deadlines.length; i++)
+        {
+            wheel.schedule(i, 0, 0, deadlines[i]);
+        }
+
+        for (long now = START; now <= START + 2_621_440; now += 10)
+        {
+            long current = now;
+            wheel.advance(now, (msb, lsb, kind) -> assertEquals(deadlines[(int) msb], current));
+        }
+
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void aTimerInThePastShouldExpireOnTheNextTick()
+    {
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(1_000, START);
+        List<Long> expired = new ArrayList<>();
+
+        wheel.schedule(7, 7, 0, START - 86_400_000L);
+
+        assertEquals(0, wheel.advance(START + 999, (msb, lsb, kind) -> expired.add(msb)));
+        assertEquals(1, wheel.advance(START + 1_000, (msb, lsb, kind) -> expired.add(msb)));
+        assertEquals(List.of(7L), expired);
+    }
+
+    @Test
+    void aDeadlineBetweenTicksShouldBeRoundedUp()
+    {
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(1_000, START);
+        wheel.schedule(1, 1, 0, START + 1_500);
+
+        assertEquals(0, wheel.advance(START + 1_000, (msb, lsb, kind) -> fail("expired early")));
+        assertEquals(1, wheel.advance(START + 2_000, (msb, lsb, kind) -> {}));
+    }
+
+    @Test
+    void deadlinesBeyondTheRangeOfTheWheelShouldNotExpire()
+    {
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(1_000, START);
+
+        wheel.schedule(1, 1, 0, Long.MAX_VALUE);
+
+        assertEquals(0, wheel.advance(START + 7L * 86_400_000L, (msb, lsb, kind) -> fail("expired early")));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void anEmptyWheelShouldJumpStraightToTheTargetTime()
+    {
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(1, 0);
+
+        assertEquals(0, wheel.advance(Long.MAX_VALUE / 2, (msb, lsb, kind) -> fail("nothing armed")));
+
+        wheel.schedule(1, 1, 0, 0);
+        assertEquals(1, wheel.advance(Long.MAX_VALUE / 2 + 1, (msb, lsb, kind) -> {}));
+    }
+
+    @Test
+    void shouldKeepAboutThreeLongsPerTimerAndReleaseSlotsOnceDrained()
+    {
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(1_000, START);
+
+        for (long id = 0; id < 100_000; id++)
+        {
+            wheel.schedule(id, id, 0, START + 1_000 + (id % 50) * 1_000);
+        }
+
+        long bytes = wheel.memoryBytes();
+        assertTrue(bytes >= 100_000L * 24 && bytes <= 100_000L * 48, "memory: " + bytes);
+
+        wheel.advance(START + 60_000, (msb, lsb, kind) -> {});
+
+        assertEquals(0, wheel.memoryBytes());
+    }
+
+    @Test
+    void shouldRejectInvalidArguments()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimerWheel(0, START));
+
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(1_000, START);
+
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(1, 1, HierarchicalTimerWheel.MAX_KIND + 1, START));
+    }
+}
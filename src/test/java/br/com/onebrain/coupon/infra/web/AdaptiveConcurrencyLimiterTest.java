@@ -0,0 +1,93 @@
+package br.com.onebrain.coupon.infra.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest
+{
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void shouldRejectAboveTheLimitUntilASlotIsReleased()
+    {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, THRESHOLD);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.inFlight());
+
+        limiter.release(0, 1);
+
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void slowRequestsShouldShrinkTheLimitOncePerThresholdPeriod()
+    {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 200, THRESHOLD);
+
+        acquireAndRelease(limiter, 0, 2 * THRESHOLD);
+        acquireAndRelease(limiter, 0, 2 * THRESHOLD);
+        assertEquals(90, limiter.limit());
+
+        acquireAndRelease(limiter, 0, 3 * THRESHOLD);
+        assertEquals(81, limiter.limit());
+    }
+
+    @Test
+    void limitShouldNotDropBelowTheMinimum()
+    {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 9, 20, THRESHOLD);
+
+        acquireAndRelease(limiter, 0, 2 * THRESHOLD);
+        acquireAndRelease(limiter, 0, 4 * THRESHOLD);
+
+        assertEquals(9, limiter.limit());
+    }
+
+    @Test
+    void fastRequestsUnderLoadShouldGrowTheLimitUpToTheMaximum()
+    {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 3, THRESHOLD);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(0, 1);
+        assertEquals(3, limiter.limit());
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(0, 1);
+        assertEquals(3, limiter.limit());
+    }
+
+    @Test
+    void unsampledReleasesShouldFreeTheSlotWithoutMovingTheLimit()
+    {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, THRESHOLD);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.releaseUnsampled();
+
+        assertEquals(0, limiter.inFlight());
+        assertEquals(1, limiter.limit());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void shouldRejectInconsistentLimits()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 6, 10, THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 0, 10, THRESHOLD));
+    }
+
+    private static void acquireAndRelease(AdaptiveConcurrencyLimiter limiter, long started, long finished)
+    {
+        assertTrue(limiter.tryAcquire());
+        limiter.release(started, finished);
+    }
+}
@@ -0,0 +1,183 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.domain.CouponMessages;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest
+{
+    // Built like Spring Boot's, which flattens ProblemDetail properties into the body.
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private SimpleMeterRegistry registry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setup()
+    {
+        open(new AdmissionProperties(true, "X-Client-Id", 1, 1, 1_000, Duration.ofMinutes(1), 1, 1, 4, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void shouldAnswer429WithProblemDetailOnceTheBucketIsEmpty() throws Exception
+    {
+        assertEquals(200, call("/coupons", "10.0.0.1", null).getStatus());
+
+        MockHttpServletResponse rejected = call("/coupons", "10.0.0.1", null);
+        JsonNode problem = objectMapper.readTree(rejected.getContentAsString());
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON_VALUE, rejected.getContentType());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(CouponMessages.RATE_LIMITED, problem.get("messageKey").asText());
+        assertEquals("Too many requests; retry in 1 seconds.", problem.get("detail").asText());
+        assertEquals(1, registry.get("coupon.api.errors").tag("status", "429").counter().count());
+    }
+
+    @Test
+    void clientHeaderShouldTakePrecedenceOverTheAddress() throws Exception
+    {
+        assertEquals(200, call("/coupons", "10.0.0.1", "tenant-a").getStatus());
+        assertEquals(200, call("/coupons", "10.0.0.1", "tenant-b").getStatus());
+        assertEquals(429, call("/coupons", "10.0.0.1", "tenant-a").getStatus());
+    }
+
+    @Test
+    void otherPathsShouldNotBeLimited() throws Exception
+    {
+        for (int i = 0; i < 3; i++)
+        {
+            assertEquals(200, call("/actuator/health", "10.0.0.1", null).getStatus());
+        }
+    }
+
+    @Test
+    void shouldShedRequestsAboveTheConcurrencyLimit() throws Exception
+    {
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+
+        MockHttpServletResponse outer = call("/coupons", "10.0.0.1", null, (request, response) ->
+                nested[0] = call("/coupons", "10.0.0.2", null));
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, nested[0].getStatus());
+        assertEquals(200, call("/coupons", "10.0.0.3", null).getStatus());
+    }
+
+    @Test
+    void asyncRequestsShouldHoldTheirSlotUntilCompletion() throws Exception
+    {
+        MockHttpServletRequest request = request("/coupons", "10.0.0.1", null);
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(1, inFlight());
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void slowStreamsAndBulkJobsShouldNotLowerTheLimit() throws Exception
+    {
+        open(new AdmissionProperties(true, "X-Client-Id", 100, 10, 1_000, Duration.ofMinutes(1), 4, 1, 8, Duration.ofMillis(1)));
+        FilterChain slow = (request, response) -> sleep(20);
+
+        MockHttpServletRequest export = request("/coupons", "10.0.0.1", null);
+        export.setAsyncSupported(true);
+        filter.doFilter(export, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+        sleep(20);
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+
+        MockHttpServletRequest batch = request("/coupons/batch", "10.0.0.1", null);
+        batch.setMethod("POST");
+        filter.doFilter(batch, new MockHttpServletResponse(), slow);
+
+        assertEquals(0, inFlight());
+        assertEquals(4, limit());
+
+        call("/coupons", "10.0.0.1", null, slow);
+
+        assertEquals(3, limit(), "an ordinary slow request still lowers it");
+    }
+
+    private void open(AdmissionProperties properties)
+    {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage(CouponMessages.RATE_LIMITED, Locale.ROOT, "Too many requests; retry in {0} seconds.");
+
+        registry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(properties, new ApiExceptionHandler(messageSource, registry), objectMapper);
+        filter.bindTo(registry);
+    }
+
+    private double limit()
+    {
+        return registry.get("coupon.admission.concurrency.limit").gauge().value();
+    }
+
+    private static void sleep(long millis)
+    {
+        try
+        {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double inFlight()
+    {
+        return registry.get("coupon.admission.concurrency.in_flight").gauge().value();
+    }
+
+    private MockHttpServletResponse call(String path, String address, String client) throws ServletException, IOException
+    {
+        return call(path, address, client, (request, response) -> {});
+    }
+
+    private MockHttpServletResponse call(String path, String address, String client, FilterChain chain) throws ServletException, IOException
+    {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path, address, client), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String address, String client)
+    {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.setRemoteAddr(address);
+        request.addPreferredLocale(Locale.ROOT);
+
+        if (client != null)
+        {
+            request.addHeader("X-Client-Id", client);
+        }
+
+        return request;
+    }
+}
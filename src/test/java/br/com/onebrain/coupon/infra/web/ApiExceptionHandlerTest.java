@@ -0,0 +1,56 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.ProblemDetail;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiExceptionHandlerTest
+{
+    private SimpleMeterRegistry registry;
+    private ApiExceptionHandler handler;
+
+    @BeforeEach
+    void setup()
+    {
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage(CouponMessages.NOT_FOUND_OR_DELETED, Locale.ROOT, "Coupon not found.");
+
+        registry = new SimpleMeterRegistry();
+        handler = new ApiExceptionHandler(messageSource, registry);
+    }
+
+    @Test
+    void domainErrorsShouldBeCountedByMessageKey()
+    {
+        ProblemDetail problem = handler.handleDomainException(new DomainException(CouponMessages.NOT_FOUND_OR_DELETED), Locale.ROOT);
+        handler.handleDomainException(new DomainException(CouponMessages.NOT_FOUND_OR_DELETED), Locale.ROOT);
+
+        assertEquals("Coupon not found.", problem.getDetail());
+        assertEquals(2, registry.get("coupon.api.errors")
+                .tag("messageKey", CouponMessages.NOT_FOUND_OR_DELETED)
+                .tag("status", "400")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void otherErrorsShouldBeCountedWithoutMessageKey()
+    {
+        handler.handleIllegalState(new IllegalStateException("conflict"));
+
+        assertEquals(1, registry.get("coupon.api.errors")
+                .tag("messageKey", "none")
+                .tag("status", "409")
+                .tag("exception", "IllegalStateException")
+                .counter()
+                .count());
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.onebrain.coupon.infra.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest
+{
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void shouldAllowABurstThenRefillAtTheConfiguredRate()
+    {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 3, 100, Duration.ofMinutes(1), now::get);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.tryAcquire("a"));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+    }
+
+    @Test
+    void clientsShouldHaveSeparateBuckets()
+    {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 100, Duration.ofMinutes(1), now::get);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void idleClientsShouldBeEvicted()
+    {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 100, Duration.ofMinutes(1), now::get);
+
+        limiter.tryAcquire("a");
+        now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        limiter.tryAcquire("b");
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.trackedClients() <= 2);
+    }
+
+    @Test
+    void shouldRejectInvalidSettings()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new ClientRateLimiter(0, 1, 100, Duration.ofMinutes(1), now::get));
+        assertThrows(IllegalArgumentException.class, () -> new ClientRateLimiter(1, 0, 100, Duration.ofMinutes(1), now::get));
+    }
+}
@@ -1,16 +1,32 @@
 package br.com.onebrain.coupon.infra.web;
 
+import br.com.onebrain.coupon.app.port.CouponCursor;
+import br.com.onebrain.coupon.app.port.CouponSearchCriteria;
 import br.com.onebrain.coupon.app.usecase.*;
 import br.com.onebrain.coupon.domain.Coupon;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import br.com.onebrain.coupon.infra.web.dto.CouponPageResponse;
 import br.com.onebrain.coupon.infra.web.dto.CouponResponse;
 import br.com.onebrain.coupon.infra.web.dto.CreateCouponRequest;
+import br.com.onebrain.coupon.infra.web.dto.CreateCouponsBatchResponse;
+import br.com.onebrain.coupon.infra.web.dto.QuoteResponse;
+import br.com.onebrain.coupon.infra.web.dto.RedemptionResponse;
+import br.com.onebrain.coupon.infra.web.dto.ScheduleCouponRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,7 +34,13 @@ import static org.mockito.Mockito.*;
 class CouponControllerTest
 {
     private CreateCouponUseCase createUseCase;
+    private CreateCouponsBatchUseCase createBatchUseCase;
     private DeleteCouponUseCase deleteUseCase;
+    private PublishCouponUseCase publishUseCase;
+    private ScheduleCouponUseCase scheduleUseCase;
+    private RedeemCouponUseCase redeemUseCase;
+    private QuoteCouponUseCase quoteUseCase;
+    private SearchCouponsUseCase searchUseCase;
 
     private CouponController controller;
 
@@ -26,9 +48,25 @@ class CouponControllerTest
     void setup()
     {
         createUseCase = mock(CreateCouponUseCase.class);
+        createBatchUseCase = mock(CreateCouponsBatchUseCase.class);
         deleteUseCase = mock(DeleteCouponUseCase.class);
+        publishUseCase = mock(PublishCouponUseCase.class);
+        scheduleUseCase = mock(ScheduleCouponUseCase.class);
+        redeemUseCase = mock(RedeemCouponUseCase.class);
+        quoteUseCase = mock(QuoteCouponUseCase.class);
+        searchUseCase = mock(SearchCouponsUseCase.class);
 
-        controller = new CouponController(createUseCase, deleteUseCase);
+        controller = new CouponController(
+                createUseCase,
+                createBatchUseCase,
+                deleteUseCase,
+                publishUseCase,
+                scheduleUseCase,
+                redeemUseCase,
+                quoteUseCase,
+                searchUseCase,
+                new ObjectMapper().registerModule(new JavaTimeModule())
+        );
     }
 
     @Test
@@ -64,7 +102,7 @@ class CouponControllerTest
         assertEquals(created.isDeleted(), response.deleted());
 
         verify(createUseCase).execute(any(CreateCouponCommand.class));
-        verifyNoMoreInteractions(createUseCase, deleteUseCase);
+        verifyNoMoreInteractions(createUseCase, createBatchUseCase, deleteUseCase, redeemUseCase, searchUseCase);
     }
 
     @Test
@@ -75,6 +113,190 @@ class CouponControllerTest
         controller.delete(id);
 
         verify(deleteUseCase).execute(id);
-        verifyNoMoreInteractions(createUseCase, deleteUseCase);
+        verifyNoMoreInteractions(createUseCase, createBatchUseCase, deleteUseCase, redeemUseCase, searchUseCase);
+    }
+
+    @Test
+    void publishShouldCallUseCaseAndReturnResponse()
+    {
+        UUID id = UUID.randomUUID();
+        Coupon published = Coupon.create(
+                "AB1234",
+                "Desc",
+                new BigDecimal("10.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Instant.now()
+        );
+
+        when(publishUseCase.execute(id)).thenReturn(published);
+
+        CouponResponse response = controller.publish(id);
+
+        assertEquals("AB1234", response.code());
+        assertTrue(response.published());
+        verify(publishUseCase).execute(id);
+    }
+
+    @Test
+    void scheduleShouldCallUseCaseAndReturnTheWindow()
+    {
+        UUID id = UUID.randomUUID();
+        Instant publishAt = Instant.parse("2030-01-01T10:00:00Z");
+        Instant unpublishAt = Instant.parse("2030-01-08T10:00:00Z");
+        Coupon scheduled = Coupon.create(
+                "AB1234",
+                "Desc",
+                new BigDecimal("10.00"),
+                LocalDate.now().plusDays(1),
+                false,
+                Instant.now()
+        );
+        scheduled.schedule(publishAt, unpublishAt, Instant.now());
+
+        when(scheduleUseCase.execute(id, publishAt, unpublishAt)).thenReturn(scheduled);
+
+        CouponResponse response = controller.schedule(id, new ScheduleCouponRequest(publishAt, unpublishAt));
+
+        assertFalse(response.published());
+        assertEquals(publishAt, response.publishAt());
+        assertEquals(unpublishAt, response.unpublishAt());
+        verify(scheduleUseCase).execute(id, publishAt, unpublishAt);
+    }
+
+    @Test
+    void redeemShouldCallUseCaseAndReturnResponse()
+    {
+        UUID id = UUID.randomUUID();
+        Instant redeemedAt = Instant.parse("2025-12-30T12:00:00Z");
+
+        when(redeemUseCase.execute("ab-12!3@4"))
+                .thenReturn(new CouponRedemption(id, "AB1234", new BigDecimal("10.00"), redeemedAt));
+
+        RedemptionResponse response = controller.redeem("ab-12!3@4");
+
+        assertEquals(id, response.couponId());
+        assertEquals("AB1234", response.code());
+        assertEquals(new BigDecimal("10.00"), response.discountValue());
+        assertEquals(redeemedAt, response.redeemedAt());
+
+        verify(redeemUseCase).execute("ab-12!3@4");
+        verifyNoMoreInteractions(createUseCase, createBatchUseCase, deleteUseCase, redeemUseCase, searchUseCase);
+    }
+
+    @Test
+    void quoteShouldCallUseCaseAndReturnResponse()
+    {
+        when(quoteUseCase.execute("ab-12!3@4", new BigDecimal("30.00")))
+                .thenReturn(new CouponQuote("AB1234", new BigDecimal("30.00"), new BigDecimal("10.00"), new BigDecimal("20.00"), true, CouponMessages.QUOTE_APPLICABLE));
+
+        QuoteResponse response = controller.quote("ab-12!3@4", new BigDecimal("30.00"));
+
+        assertEquals("AB1234", response.code());
+        assertEquals(new BigDecimal("10.00"), response.discount());
+        assertEquals(new BigDecimal("20.00"), response.total());
+        assertTrue(response.applicable());
+        assertEquals(CouponMessages.QUOTE_APPLICABLE, response.reason());
+
+        verify(quoteUseCase).execute("ab-12!3@4", new BigDecimal("30.00"));
+        verifyNoMoreInteractions(createUseCase, createBatchUseCase, deleteUseCase, redeemUseCase, quoteUseCase, searchUseCase);
+    }
+
+    @Test
+    void createBatchShouldCallUseCaseAndReturnCompactReport()
+    {
+        CreateCouponRequest request = new CreateCouponRequest(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("10.00"),
+                LocalDate.now().plusDays(1),
+                true
+        );
+
+        when(createBatchUseCase.execute(anyList())).thenReturn(new CreateCouponsBatchResult(
+                2,
+                1,
+                1,
+                Map.of(CouponMessages.CODE_ALREADY_EXISTS, 1L),
+                List.of(new CouponBatchError(1, "AA11BB", CouponMessages.CODE_ALREADY_EXISTS))
+        ));
+
+        CreateCouponsBatchResponse response = controller.createBatch(List.of(request, request));
+
+        assertEquals(2, response.received());
+        assertEquals(1, response.created());
+        assertEquals(1, response.rejected());
+        assertEquals(1L, response.rejectedByReason().get(CouponMessages.CODE_ALREADY_EXISTS));
+        assertEquals(1, response.errors().get(0).index());
+
+        verify(createBatchUseCase).execute(anyList());
+        verifyNoMoreInteractions(createUseCase, createBatchUseCase, deleteUseCase, redeemUseCase, searchUseCase);
+    }
+
+    @Test
+    void listShouldReturnPageWithOpaqueNextCursor()
+    {
+        Coupon coupon = Coupon.create(
+                "aa11bb",
+                "Desc",
+                new BigDecimal("10.00"),
+                LocalDate.now().plusDays(1),
+                true,
+                Instant.parse("2025-12-30T12:00:00Z")
+        );
+        CouponCursor next = new CouponCursor(Instant.parse("2025-12-30T12:00:00Z"), UUID.randomUUID());
+
+        when(searchUseCase.execute(any(CouponSearchCriteria.class), isNull(), eq(1)))
+                .thenReturn(new CouponPage(List.of(coupon), next));
+        when(searchUseCase.execute(any(CouponSearchCriteria.class), eq(next), eq(1)))
+                .thenReturn(new CouponPage(List.of(), null));
+
+        CouponPageResponse first = controller.list(true, false, null, null, "AA", null, 1);
+
+        assertEquals(1, first.items().size());
+        assertEquals("AA11BB", first.items().get(0).code());
+        assertNotNull(first.nextCursor());
+
+        CouponPageResponse second = controller.list(true, false, null, null, "AA", first.nextCursor(), 1);
+
+        assertTrue(second.items().isEmpty());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void listShouldRejectMalformedCursor()
+    {
+        DomainException ex = assertThrows(DomainException.class, () ->
+                controller.list(null, null, null, null, null, "not-a-cursor", 10)
+        );
+
+        assertEquals(CouponMessages.INVALID_CURSOR, ex.getMessageKey());
+        verifyNoInteractions(searchUseCase);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportShouldWriteOneJsonDocumentPerLine() throws Exception
+    {
+        Coupon first = Coupon.create("aa11bb", "Desc", new BigDecimal("10.00"), LocalDate.now().plusDays(1), true,
+                Instant.parse("2025-12-30T12:00:00Z"));
+        Coupon second = Coupon.create("aa11cc", "Desc", new BigDecimal("5.00"), LocalDate.now().plusDays(1), false,
+                Instant.parse("2025-12-30T12:00:00Z"));
+
+        doAnswer(inv -> {
+            Consumer<Coupon> consumer = inv.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(searchUseCase).export(any(CouponSearchCriteria.class), any(Consumer.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        controller.export(null, false, null, null, null).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"code\":\"AA11BB\""));
+        assertTrue(lines[1].contains("\"code\":\"AA11CC\""));
     }
 }
@@ -0,0 +1,140 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.app.port.CouponEventLogPort;
+import br.com.onebrain.coupon.app.port.CouponFeedEvent;
+import br.com.onebrain.coupon.app.usecase.ReadCouponEventsUseCase;
+import br.com.onebrain.coupon.domain.CouponEventType;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import br.com.onebrain.coupon.infra.db.CouponEventsRelayed;
+import br.com.onebrain.coupon.infra.web.dto.CouponEventPageResponse;
+import br.com.onebrain.coupon.infra.web.dto.CouponEventResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CouponEventBroadcasterTest
+{
+    private static final Duration WAIT = Duration.ofSeconds(30);
+
+    private CouponEventLogPort eventLog;
+    private CouponEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setup()
+    {
+        eventLog = mock(CouponEventLogPort.class);
+        broadcaster = new CouponEventBroadcaster(new ReadCouponEventsUseCase(eventLog), Duration.ofMinutes(30));
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        broadcaster.close();
+    }
+
+    @Test
+    void pollShouldAnswerRightAwayWhenEventsAreAvailable()
+    {
+        when(eventLog.readAfter(0, 10)).thenReturn(List.of(event(1), event(2)));
+
+        DeferredResult<CouponEventPageResponse> result = broadcaster.poll(0, 10, WAIT);
+
+        CouponEventPageResponse page = (CouponEventPageResponse) result.getResult();
+        assertEquals(List.of(1L, 2L), page.events().stream().map(CouponEventResponse::offset).toList());
+        assertEquals(2, page.lastOffset());
+        assertEquals("created", page.events().get(0).type());
+    }
+
+    @Test
+    void pollWithoutWaitShouldAnswerWithAnEmptyPage()
+    {
+        when(eventLog.readAfter(5, 10)).thenReturn(List.of());
+
+        CouponEventPageResponse page = (CouponEventPageResponse) broadcaster.poll(5, 10, Duration.ZERO).getResult();
+
+        assertTrue(page.events().isEmpty());
+        assertEquals(5, page.lastOffset());
+    }
+
+    @Test
+    void caughtUpPollShouldBeCompletedWithItsSliceOfTheNextBatch()
+    {
+        when(eventLog.readAfter(anyLong(), anyInt())).thenReturn(List.of());
+        DeferredResult<CouponEventPageResponse> caughtUp = broadcaster.poll(5, 2, WAIT);
+        DeferredResult<CouponEventPageResponse> midBatch = broadcaster.poll(6, 10, WAIT);
+
+        assertFalse(caughtUp.hasResult());
+
+        broadcaster.onRelayed(new CouponEventsRelayed(List.of(event(6), event(7), event(8))));
+
+        assertEquals(List.of(6L, 7L), offsetsOf(await(caughtUp)));
+        assertEquals(7, await(caughtUp).lastOffset());
+        assertEquals(List.of(7L, 8L), offsetsOf(await(midBatch)));
+        verify(eventLog, times(1)).readAfter(5, 2);
+    }
+
+    @Test
+    void pollBehindTheBatchShouldReadWhatItMissedFromTheLog()
+    {
+        when(eventLog.readAfter(anyLong(), anyInt())).thenReturn(List.of());
+        DeferredResult<CouponEventPageResponse> behind = broadcaster.poll(3, 10, WAIT);
+
+        when(eventLog.readAfter(3, 10)).thenReturn(List.of(event(4), event(5), event(6)));
+        broadcaster.onRelayed(new CouponEventsRelayed(List.of(event(6))));
+
+        assertEquals(List.of(4L, 5L, 6L), offsetsOf(await(behind)));
+    }
+
+    @Test
+    void subscribeShouldRejectAnExpiredOffset()
+    {
+        when(eventLog.readAfter(3, 1)).thenReturn(List.of(event(9)));
+
+        DomainException example = assertThrows(DomainException.class, () -> broadcaster.subscribe(3));
+
+        assertEquals(CouponMessages.EVENTS_OFFSET_EXPIRED, example.getMessageKey());
+    }
+
+    private static CouponEventPageResponse await(DeferredResult<CouponEventPageResponse> result)
+    {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+
+        while (!result.hasResult() && System.nanoTime() < deadline)
+        {
+            Thread.onSpinWait();
+        }
+
+        return (CouponEventPageResponse) result.getResult();
+    }
+
+    private static List<Long> offsetsOf(CouponEventPageResponse page)
+    {
+        return page.events().stream().map(CouponEventResponse::offset).toList();
+    }
+
+    private static CouponFeedEvent event(long offset)
+    {
+        return new CouponFeedEvent(
+                offset,
+                CouponEventType.CREATED,
+                UUID.randomUUID(),
+                "AA11BB",
+                new BigDecimal("5.00"),
+                LocalDate.parse("2026-12-31"),
+                true,
+                Instant.parse("2026-03-10T12:00:00Z")
+        );
+    }
+}
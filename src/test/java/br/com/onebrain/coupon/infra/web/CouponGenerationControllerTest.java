@@ -0,0 +1,73 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.app.usecase.CouponGeneration;
+import br.com.onebrain.coupon.app.usecase.GenerateCouponsCommand;
+import br.com.onebrain.coupon.app.usecase.GenerateCouponsUseCase;
+import br.com.onebrain.coupon.domain.CouponMessages;
+import br.com.onebrain.coupon.domain.DomainException;
+import br.com.onebrain.coupon.infra.web.dto.GenerateCouponsRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CouponGenerationControllerTest
+{
+    private GenerateCouponsUseCase generateUseCase;
+    private CouponGenerationController controller;
+
+    @BeforeEach
+    void setup()
+    {
+        generateUseCase = mock(GenerateCouponsUseCase.class);
+        controller = new CouponGenerationController(generateUseCase);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateShouldStreamTheCodesOfEachChunkAsCsv() throws Exception
+    {
+        when(generateUseCase.execute(any(), any())).thenAnswer(inv ->
+        {
+            Consumer<List<String>> sink = inv.getArgument(1);
+            sink.accept(List.of("AAAAA1", "AAAAA2"));
+            sink.accept(List.of("AAAAA3"));
+            return new CouponGeneration(3, 3, 0);
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        controller.generate(request(3)).writeTo(out);
+
+        assertEquals("code\nAAAAA1\nAAAAA2\nAAAAA3\n", out.toString(StandardCharsets.US_ASCII));
+        verify(generateUseCase).execute(
+                eq(new GenerateCouponsCommand(3, "Campaign", new BigDecimal("5.00"), LocalDate.of(2030, 1, 1), true, 2)),
+                any());
+    }
+
+    @Test
+    void generateShouldRejectAnInvalidCampaignBeforeStreaming()
+    {
+        doThrow(new DomainException(CouponMessages.GENERATE_INVALID_COUNT, GenerateCouponsUseCase.MAX_CODES_PER_REQUEST))
+                .when(generateUseCase).validate(any());
+
+        DomainException ex = assertThrows(DomainException.class, () -> controller.generate(request(10_000_000)));
+
+        assertEquals(CouponMessages.GENERATE_INVALID_COUNT, ex.getMessageKey());
+        verify(generateUseCase, never()).execute(any(), any());
+    }
+
+    private static GenerateCouponsRequest request(int count)
+    {
+        return new GenerateCouponsRequest(count, "Campaign", new BigDecimal("5.00"), LocalDate.of(2030, 1, 1), true, 2);
+    }
+}
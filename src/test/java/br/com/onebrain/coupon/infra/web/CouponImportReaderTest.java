@@ -0,0 +1,91 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.app.usecase.CouponImportRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponImportReaderTest
+{
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void shouldReadNdjsonLines()
+    {
+        List<CouponImportRecord> records = read(CouponImportReader.Format.NDJSON, """
+                {"code":"aa11bb","description":"Desc","discountValue":10.00,"expirationDate":"2030-01-01","published":true}
+
+                {"code":"aa11cc","description":"Desc","discountValue":1.50,"expirationDate":"2030-01-01","published":false,"maxUsages":5}
+                """);
+
+        assertEquals(2, records.size());
+        assertEquals(1, records.get(0).lineNumber());
+        assertEquals("aa11bb", records.get(0).command().code());
+        assertEquals(3, records.get(1).lineNumber());
+        assertEquals(5, records.get(1).command().maxUsages());
+    }
+
+    @Test
+    void shouldReadCsvWithHeaderAndQuotedFields()
+    {
+        List<CouponImportRecord> records = read(CouponImportReader.Format.CSV,
+                "code,description,discountValue,expirationDate,published,maxUsages\n"
+                        + "aa11bb,\"Desc, with \"\"comma\"\"\",10.00,2030-01-01,true,\n"
+                        + "aa11cc,Desc,1.50,2030-01-01,false,3\n");
+
+        assertEquals(2, records.size());
+        assertEquals("Desc, with \"comma\"", records.get(0).command().description());
+        assertEquals(new BigDecimal("10.00"), records.get(0).command().discountValue());
+        assertEquals(LocalDate.parse("2030-01-01"), records.get(0).command().expirationDate());
+        assertNull(records.get(0).command().maxUsages());
+        assertEquals(3, records.get(1).command().maxUsages());
+    }
+
+    @Test
+    void shouldReturnNullCommandForMalformedLines()
+    {
+        List<CouponImportRecord> records = read(CouponImportReader.Format.CSV, """
+                aa11bb,Desc,not-a-number,2030-01-01,true
+                aa11bb,Desc
+                """);
+
+        assertEquals(2, records.size());
+        assertNull(records.get(0).command());
+        assertNull(records.get(1).command());
+    }
+
+    @Test
+    void shouldRejectLinesLongerThanTheLimitWithoutBufferingThem()
+    {
+        String longLine = "x".repeat(CouponImportReader.MAX_LINE_LENGTH * 4);
+
+        List<CouponImportRecord> records = read(CouponImportReader.Format.CSV,
+                longLine + "\naa11bb,Desc,1.00,2030-01-01,true\n");
+
+        assertEquals(2, records.size());
+        assertNull(records.get(0).command());
+        assertEquals("aa11bb", records.get(1).command().code());
+    }
+
+    private List<CouponImportRecord> read(CouponImportReader.Format format, String body)
+    {
+        CouponImportReader reader = new CouponImportReader(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                format,
+                objectMapper.reader()
+        );
+
+        List<CouponImportRecord> records = new ArrayList<>();
+        reader.forEachRemaining(records::add);
+        return records;
+    }
+}
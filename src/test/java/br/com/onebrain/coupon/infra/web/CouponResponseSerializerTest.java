@@ -0,0 +1,54 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.infra.web.dto.CouponResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponResponseSerializerTest
+{
+    // The same settings Spring Boot applies to its ObjectMapper.
+    private final ObjectMapper defaultMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ObjectMapper mapper = defaultMapper.copy()
+            .registerModule(new SimpleModule().addSerializer(new CouponResponseSerializer()));
+
+    static Stream<CouponResponse> responses()
+    {
+        UUID id = UUID.fromString("0a1b2c3d-4e5f-6071-8293-a4b5c6d7e8f9");
+
+        return Stream.of(
+                new CouponResponse(id, "AA11BB", "Desc", new BigDecimal("10.00"), LocalDate.of(2030, 1, 1), true, false, null, 0),
+                new CouponResponse(UUID.randomUUID(), "CC22DD", "Quote \" and é", new BigDecimal("0.50"), LocalDate.of(999, 12, 31), false, true, 5, 3),
+                new CouponResponse(new UUID(-1, -1), "EE33FF", "", new BigDecimal("-12.3"), LocalDate.of(2026, 10, 9), true, true, 1, 1),
+                new CouponResponse(new UUID(0, 0), "GG44HH", "Desc", new BigDecimal("1E+3"), LocalDate.of(12345, 1, 1), true, false, null, 0),
+                new CouponResponse(id, "II55JJ", "Desc", new BigDecimal("0.00000001"), LocalDate.of(2030, 1, 1), true, false, null, 0),
+                new CouponResponse(id, "KK66LL", "Desc", new BigDecimal("12345678901234567890.12"), LocalDate.of(2030, 1, 1), true, false, null, 0),
+                new CouponResponse(null, "MM77NN", "Desc", null, null, false, false, null, 0),
+                new CouponResponse(id, "OO88PP", "Desc", new BigDecimal("10.00"), LocalDate.of(2030, 1, 1), false, false, null, 0,
+                        Instant.parse("2030-01-01T10:00:00Z"), Instant.parse("2030-01-02T10:00:00.123456789Z")),
+                new CouponResponse(id, "QQ99RR", "Desc", new BigDecimal("10.00"), LocalDate.of(2030, 1, 1), true, false, null, 0,
+                        null, Instant.ofEpochSecond(0, 1_000))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("responses")
+    void shouldWriteTheSameJsonAsTheDefaultRecordSerialization(CouponResponse response) throws Exception
+    {
+        assertEquals(defaultMapper.writeValueAsString(response), mapper.writeValueAsString(response));
+    }
+}
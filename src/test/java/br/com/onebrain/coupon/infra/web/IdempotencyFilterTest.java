@@ -0,0 +1,325 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.domain.CouponMessages;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest
+{
+    private static final String CREATE_BODY = "{\"code\":\"ABC123\",\"discountValue\":10}";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private SimpleMeterRegistry registry;
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setup()
+    {
+        registry = new SimpleMeterRegistry();
+        filter = filter("");
+    }
+
+    @Test
+    void retryShouldReplayTheFirstResponseWithoutRunningTheRequestAgain() throws Exception
+    {
+        MockHttpServletResponse first = call(create("key-1", CREATE_BODY), this::created);
+        MockHttpServletResponse retry = call(create("key-1", CREATE_BODY), this::created);
+
+        assertEquals(1, executions.get());
+        assertEquals(201, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals(first.getHeader(HttpHeaders.LOCATION), retry.getHeader(HttpHeaders.LOCATION));
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, retry.getContentType());
+        assertEquals(1, registry.get("coupon.idempotency.requests").tag("outcome", "replayed").functionCounter().count());
+    }
+
+    @Test
+    void chainShouldReadTheBodyThatWasFingerprinted() throws Exception
+    {
+        String[] seen = new String[1];
+
+        call(create("key-1", CREATE_BODY), (request, response) ->
+                seen[0] = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+        assertEquals(CREATE_BODY, seen[0]);
+    }
+
+    @Test
+    void chainShouldBeAbleToReadTheBodyThroughAReadListener() throws Exception
+    {
+        ByteArrayOutputStream seen = new ByteArrayOutputStream();
+        boolean[] allRead = new boolean[1];
+
+        call(create("key-1", CREATE_BODY), (request, response) ->
+        {
+            ServletInputStream in = request.getInputStream();
+
+            in.setReadListener(new ReadListener()
+            {
+                @Override
+                public void onDataAvailable() throws IOException
+                {
+                    byte[] buffer = new byte[8];
+
+                    while (in.isReady() && !in.isFinished())
+                    {
+                        seen.write(buffer, 0, in.read(buffer));
+                    }
+                }
+
+                @Override
+                public void onAllDataRead()
+                {
+                    allRead[0] = true;
+                }
+
+                @Override
+                public void onError(Throwable t)
+                {
+                    fail(t);
+                }
+            });
+        });
+
+        assertEquals(CREATE_BODY, seen.toString(StandardCharsets.UTF_8));
+        assertTrue(allRead[0]);
+    }
+
+    @Test
+    void domainErrorsShouldBeReplayedToo() throws Exception
+    {
+        FilterChain conflict = (request, response) ->
+        {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(400);
+        };
+
+        call(create("key-1", CREATE_BODY), conflict);
+
+        assertEquals(400, call(create("key-1", CREATE_BODY), conflict).getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void serverErrorsShouldReleaseTheKey() throws Exception
+    {
+        FilterChain failing = (request, response) ->
+        {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(500);
+        };
+
+        assertEquals(500, call(create("key-1", CREATE_BODY), failing).getStatus());
+        assertEquals(201, call(create("key-1", CREATE_BODY), this::created).getStatus());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void exceptionsShouldReleaseTheKey() throws Exception
+    {
+        assertThrows(IllegalStateException.class, () -> call(create("key-1", CREATE_BODY), (request, response) ->
+        {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(201, call(create("key-1", CREATE_BODY), this::created).getStatus());
+    }
+
+    @Test
+    void retryWhileTheFirstRequestRunsShouldGet409() throws Exception
+    {
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+
+        MockHttpServletResponse outer = call(create("key-1", CREATE_BODY), (request, response) ->
+        {
+            nested[0] = call(create("key-1", CREATE_BODY), this::created);
+            created(request, response);
+        });
+
+        assertEquals(201, outer.getStatus());
+        assertEquals(409, nested[0].getStatus());
+        assertEquals("1", nested[0].getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(CouponMessages.IDEMPOTENCY_IN_PROGRESS, objectMapper.readTree(nested[0].getContentAsString()).get("messageKey").asText());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void keyReusedForAnotherRequestShouldGet422() throws Exception
+    {
+        call(create("key-1", CREATE_BODY), this::created);
+
+        MockHttpServletResponse reused = call(create("key-1", "{\"code\":\"OTHER\"}"), this::created);
+
+        assertEquals(422, reused.getStatus());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON_VALUE, reused.getContentType());
+        assertEquals(CouponMessages.IDEMPOTENCY_KEY_REUSED, objectMapper.readTree(reused.getContentAsString()).get("messageKey").asText());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void retryFromAnotherAddressShouldBeReplayed() throws Exception
+    {
+        MockHttpServletRequest retry = create("key-1", CREATE_BODY);
+        retry.setRemoteAddr("10.0.0.2");
+
+        call(create("key-1", CREATE_BODY), this::created);
+        MockHttpServletResponse response = call(retry, this::created);
+
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void keysShouldBeScopedByTheClientHeaderWhenConfigured() throws Exception
+    {
+        filter = filter("X-Client-Id");
+
+        MockHttpServletRequest first = create("key-1", CREATE_BODY);
+        first.addHeader("X-Client-Id", "client-a");
+        MockHttpServletRequest retry = create("key-1", CREATE_BODY);
+        retry.addHeader("X-Client-Id", "client-a");
+        retry.setRemoteAddr("10.0.0.2");
+        MockHttpServletRequest other = create("key-1", CREATE_BODY);
+        other.addHeader("X-Client-Id", "client-b");
+
+        call(first, this::created);
+
+        assertEquals("true", call(retry, this::created).getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(call(other, this::created).getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void deleteShouldBeReplayed() throws Exception
+    {
+        FilterChain delete = (request, response) ->
+        {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(204);
+        };
+
+        call(request("DELETE", "/coupons/5d9b2d5c-8b8a-4d7e-9f0a-0c5f6a1e2b3c", "key-1", ""), delete);
+        MockHttpServletResponse retry = call(request("DELETE", "/coupons/5d9b2d5c-8b8a-4d7e-9f0a-0c5f6a1e2b3c", "key-1", ""), delete);
+
+        assertEquals(204, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void otherEndpointsAndUnkeyedRequestsShouldPassThrough() throws Exception
+    {
+        for (int i = 0; i < 2; i++)
+        {
+            call(request("POST", "/coupons/batch", "key-1", CREATE_BODY), this::created);
+            call(request("GET", "/coupons/ABC123", "key-2", ""), this::created);
+            call(request("POST", "/coupons", null, CREATE_BODY), this::created);
+        }
+
+        assertEquals(6, executions.get());
+    }
+
+    @Test
+    void invalidKeysAndLargeBodiesShouldBeRejected() throws Exception
+    {
+        assertEquals(400, call(create(" ", CREATE_BODY), this::created).getStatus());
+        assertEquals(400, call(create("k".repeat(IdempotencyFilter.MAX_KEY_LENGTH + 1), CREATE_BODY), this::created).getStatus());
+        assertEquals(413, call(create("key-1", "x".repeat(1025)), this::created).getStatus());
+        assertEquals(0, executions.get());
+        assertEquals(3, registry.get("coupon.idempotency.requests").tag("outcome", "rejected").functionCounter().count());
+    }
+
+    @Test
+    void keysShouldExpireAfterTheTtl() throws Exception
+    {
+        call(create("key-1", CREATE_BODY), this::created);
+        nanos.addAndGet(TimeUnit.HOURS.toNanos(1) + 1);
+        call(create("key-1", CREATE_BODY), this::created);
+
+        assertEquals(2, executions.get());
+    }
+
+    private IdempotencyFilter filter(String clientHeader)
+    {
+        IdempotencyFilter filter = new IdempotencyFilter(
+                new IdempotencyProperties(true, "Idempotency-Key", 100, Duration.ofHours(1), DataSize.ofKilobytes(1)),
+                new AdmissionProperties(true, clientHeader, 20, 40, 1_000, Duration.ofMinutes(1), 8, 1, 16, Duration.ofSeconds(1)),
+                new ApiExceptionHandler(new StaticMessageSource(), registry),
+                objectMapper,
+                nanos::get
+        );
+        filter.bindTo(registry);
+        return filter;
+    }
+
+    private void created(ServletRequest request, ServletResponse response) throws IOException
+    {
+        int id = executions.incrementAndGet();
+        HttpServletResponse http = (HttpServletResponse) response;
+        http.setStatus(201);
+        http.setHeader(HttpHeaders.LOCATION, "/coupons/" + id);
+        http.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        http.getOutputStream().write(("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MockHttpServletResponse call(MockHttpServletRequest request, FilterChain chain) throws ServletException, IOException
+    {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest create(String key, String body)
+    {
+        return request("POST", "/coupons", key, body);
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String key, String body)
+    {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr("10.0.0.1");
+        request.addPreferredLocale(Locale.ROOT);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+
+        if (key != null)
+        {
+            request.addHeader("Idempotency-Key", key);
+        }
+
+        return request;
+    }
+}
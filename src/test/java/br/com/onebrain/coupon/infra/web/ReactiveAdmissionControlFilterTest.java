@@ -0,0 +1,132 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.domain.CouponMessages;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveAdmissionControlFilterTest
+{
+    private static final WebFilterChain OK = exchange ->
+    {
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        return exchange.getResponse().setComplete();
+    };
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private SimpleMeterRegistry registry;
+    private ReactiveAdmissionControlFilter filter;
+
+    @BeforeEach
+    void setup()
+    {
+        registry = new SimpleMeterRegistry();
+        filter = new ReactiveAdmissionControlFilter(
+                new AdmissionProperties(true, "X-Client-Id", 1, 1, 1_000, Duration.ofMinutes(1), 1, 1, 4, Duration.ofSeconds(1)),
+                new ApiExceptionHandler(new StaticMessageSource(), registry),
+                objectMapper
+        );
+        filter.bindTo(registry);
+    }
+
+    @Test
+    void shouldAnswer429WithProblemDetailOnceTheBucketIsEmpty() throws Exception
+    {
+        assertEquals(HttpStatus.OK, call("/coupons", "10.0.0.1", null, OK).getResponse().getStatusCode());
+
+        MockServerWebExchange rejected = call("/coupons", "10.0.0.1", null, OK);
+        JsonNode problem = objectMapper.readTree(rejected.getResponse().getBodyAsString().block());
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, rejected.getResponse().getHeaders().getContentType());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(CouponMessages.RATE_LIMITED, problem.get("messageKey").asText());
+        assertEquals("/coupons", problem.get("instance").asText());
+        assertEquals(1, registry.get("coupon.api.errors").tag("status", "429").counter().count());
+    }
+
+    @Test
+    void clientHeaderShouldTakePrecedenceOverTheAddress()
+    {
+        assertEquals(HttpStatus.OK, call("/coupons", "10.0.0.1", "tenant-a", OK).getResponse().getStatusCode());
+        assertEquals(HttpStatus.OK, call("/coupons", "10.0.0.1", "tenant-b", OK).getResponse().getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, call("/coupons", "10.0.0.1", "tenant-a", OK).getResponse().getStatusCode());
+    }
+
+    @Test
+    void otherPathsShouldNotBeLimited()
+    {
+        for (int i = 0; i < 3; i++)
+        {
+            assertEquals(HttpStatus.OK, call("/actuator/health", "10.0.0.1", null, OK).getResponse().getStatusCode());
+        }
+    }
+
+    @Test
+    void shouldHoldTheSlotUntilTheResponseCompletes()
+    {
+        Sinks.Empty<Void> response = Sinks.empty();
+        MockServerWebExchange exchange = exchange("/coupons", "10.0.0.1", null);
+
+        filter.filter(exchange, ignored -> response.asMono()).subscribe();
+
+        assertEquals(1, inFlight());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, call("/coupons", "10.0.0.2", null, OK).getResponse().getStatusCode());
+
+        response.tryEmitEmpty();
+
+        assertEquals(0, inFlight());
+        assertEquals(HttpStatus.OK, call("/coupons", "10.0.0.3", null, OK).getResponse().getStatusCode());
+    }
+
+    @Test
+    void cancelledRequestsShouldGiveTheSlotBack()
+    {
+        filter.filter(exchange("/coupons", "10.0.0.1", null), ignored -> Mono.never()).subscribe().dispose();
+
+        assertEquals(0, inFlight());
+    }
+
+    private double inFlight()
+    {
+        return registry.get("coupon.admission.concurrency.in_flight").gauge().value();
+    }
+
+    private MockServerWebExchange call(String path, String address, String client, WebFilterChain chain)
+    {
+        MockServerWebExchange exchange = exchange(path, address, client);
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private static MockServerWebExchange exchange(String path, String address, String client)
+    {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path)
+                .remoteAddress(new InetSocketAddress(address, 40_000));
+
+        if (client != null)
+        {
+            request.header("X-Client-Id", client);
+        }
+
+        return MockServerWebExchange.from(request);
+    }
+}
@@ -0,0 +1,266 @@
+package br.com.onebrain.coupon.infra.web;
+
+import br.com.onebrain.coupon.domain.CouponMessages;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveIdempotencyFilterTest
+{
+    private static final String CREATE_BODY = "{\"code\":\"ABC123\",\"discountValue\":10}";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private SimpleMeterRegistry registry;
+    private ReactiveIdempotencyFilter filter;
+
+    @BeforeEach
+    void setup()
+    {
+        registry = new SimpleMeterRegistry();
+        filter = filter("");
+    }
+
+    @Test
+    void retryShouldReplayTheFirstResponseWithoutRunningTheRequestAgain()
+    {
+        MockServerWebExchange first = call(create("key-1", CREATE_BODY, "10.0.0.1"), this::created);
+        MockServerWebExchange retry = call(create("key-1", CREATE_BODY, "10.0.0.1"), this::created);
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, first.getResponse().getStatusCode());
+        assertNull(first.getResponse().getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(HttpStatus.CREATED, retry.getResponse().getStatusCode());
+        assertEquals("true", retry.getResponse().getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(first.getResponse().getBodyAsString().block(), retry.getResponse().getBodyAsString().block());
+        assertEquals(first.getResponse().getHeaders().getLocation(), retry.getResponse().getHeaders().getLocation());
+        assertEquals(MediaType.APPLICATION_JSON, retry.getResponse().getHeaders().getContentType());
+        assertEquals(1, registry.get("coupon.idempotency.requests").tag("outcome", "replayed").functionCounter().count());
+    }
+
+    @Test
+    void chainShouldReadTheBodyThatWasFingerprinted()
+    {
+        String[] seen = new String[1];
+
+        call(create("key-1", CREATE_BODY, "10.0.0.1"), exchange -> DataBufferUtils.join(exchange.getRequest().getBody())
+                .doOnNext(buffer -> seen[0] = buffer.toString(StandardCharsets.UTF_8))
+                .then());
+
+        assertEquals(CREATE_BODY, seen[0]);
+    }
+
+    @Test
+    void retryFromAnotherAddressShouldBeReplayed()
+    {
+        call(create("key-1", CREATE_BODY, "10.0.0.1"), this::created);
+        MockServerWebExchange retry = call(create("key-1", CREATE_BODY, "10.0.0.2"), this::created);
+
+        assertEquals("true", retry.getResponse().getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void keysShouldBeScopedByTheClientHeaderWhenConfigured()
+    {
+        filter = filter("X-Client-Id");
+
+        call(create("key-1", CREATE_BODY, "10.0.0.1", "client-a"), this::created);
+        MockServerWebExchange retry = call(create("key-1", CREATE_BODY, "10.0.0.2", "client-a"), this::created);
+        MockServerWebExchange other = call(create("key-1", CREATE_BODY, "10.0.0.1", "client-b"), this::created);
+
+        assertEquals("true", retry.getResponse().getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(other.getResponse().getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void serverErrorsShouldReleaseTheKey()
+    {
+        WebFilterChain failing = exchange ->
+        {
+            executions.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+            return exchange.getResponse().setComplete();
+        };
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, call(create("key-1", CREATE_BODY, "10.0.0.1"), failing).getResponse().getStatusCode());
+        assertEquals(HttpStatus.CREATED, call(create("key-1", CREATE_BODY, "10.0.0.1"), this::created).getResponse().getStatusCode());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void errorsShouldReleaseTheKey()
+    {
+        MockServerWebExchange failed = MockServerWebExchange.from(create("key-1", CREATE_BODY, "10.0.0.1"));
+
+        assertThrows(IllegalStateException.class, () -> filter.filter(failed, exchange -> Mono.error(new IllegalStateException("boom"))).block());
+        assertEquals(HttpStatus.CREATED, call(create("key-1", CREATE_BODY, "10.0.0.1"), this::created).getResponse().getStatusCode());
+    }
+
+    @Test
+    void retryWhileTheFirstRequestRunsShouldGet409()
+    {
+        MockServerWebExchange[] nested = new MockServerWebExchange[1];
+
+        MockServerWebExchange outer = call(create("key-1", CREATE_BODY, "10.0.0.1"), exchange ->
+        {
+            nested[0] = call(create("key-1", CREATE_BODY, "10.0.0.1"), this::created);
+            return created(exchange);
+        });
+
+        assertEquals(HttpStatus.CREATED, outer.getResponse().getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, nested[0].getResponse().getStatusCode());
+        assertEquals("1", nested[0].getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(nested[0].getResponse().getBodyAsString().block().contains(CouponMessages.IDEMPOTENCY_IN_PROGRESS));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void keyReusedForAnotherRequestShouldGet422()
+    {
+        call(create("key-1", CREATE_BODY, "10.0.0.1"), this::created);
+
+        MockServerWebExchange reused = call(create("key-1", "{\"code\":\"OTHER\"}", "10.0.0.1"), this::created);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, reused.getResponse().getStatusCode());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, reused.getResponse().getHeaders().getContentType());
+        assertTrue(reused.getResponse().getBodyAsString().block().contains(CouponMessages.IDEMPOTENCY_KEY_REUSED));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void deleteShouldBeReplayed()
+    {
+        WebFilterChain delete = exchange ->
+        {
+            executions.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.NO_CONTENT);
+            return exchange.getResponse().setComplete();
+        };
+        String path = "/coupons/5d9b2d5c-8b8a-4d7e-9f0a-0c5f6a1e2b3c";
+
+        call(MockServerHttpRequest.delete(path).header("Idempotency-Key", "key-1"), delete);
+        MockServerWebExchange retry = call(MockServerHttpRequest.delete(path).header("Idempotency-Key", "key-1"), delete);
+
+        assertEquals(HttpStatus.NO_CONTENT, retry.getResponse().getStatusCode());
+        assertEquals("true", retry.getResponse().getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void otherEndpointsAndUnkeyedRequestsShouldPassThrough()
+    {
+        for (int i = 0; i < 2; i++)
+        {
+            call(MockServerHttpRequest.post("/coupons/ABC123/redeem").header("Idempotency-Key", "key-1"), this::created);
+            call(MockServerHttpRequest.get("/coupons/ABC123/quote").header("Idempotency-Key", "key-2"), this::created);
+            call(MockServerHttpRequest.post("/coupons").body(CREATE_BODY), this::created);
+        }
+
+        assertEquals(6, executions.get());
+    }
+
+    @Test
+    void invalidKeysAndLargeBodiesShouldBeRejected()
+    {
+        assertEquals(HttpStatus.BAD_REQUEST, call(create(" ", CREATE_BODY, "10.0.0.1"), this::created).getResponse().getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, call(create("k".repeat(IdempotencyFilter.MAX_KEY_LENGTH + 1), CREATE_BODY, "10.0.0.1"), this::created).getResponse().getStatusCode());
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, call(create("key-1", "x".repeat(1025), "10.0.0.1"), this::created).getResponse().getStatusCode());
+        assertEquals(0, executions.get());
+        assertEquals(3, registry.get("coupon.idempotency.requests").tag("outcome", "rejected").functionCounter().count());
+    }
+
+    @Test
+    void keysShouldExpireAfterTheTtl()
+    {
+        call(create("key-1", CREATE_BODY, "10.0.0.1"), this::created);
+        nanos.addAndGet(Duration.ofHours(1).toNanos() + 1);
+        call(create("key-1", CREATE_BODY, "10.0.0.1"), this::created);
+
+        assertEquals(2, executions.get());
+    }
+
+    private ReactiveIdempotencyFilter filter(String clientHeader)
+    {
+        ReactiveIdempotencyFilter filter = new ReactiveIdempotencyFilter(
+                new IdempotencyProperties(true, "Idempotency-Key", 100, Duration.ofHours(1), DataSize.ofKilobytes(1)),
+                new AdmissionProperties(true, clientHeader, 20, 40, 1_000, Duration.ofMinutes(1), 8, 1, 16, Duration.ofSeconds(1)),
+                new ApiExceptionHandler(new StaticMessageSource(), registry),
+                objectMapper,
+                nanos::get
+        );
+        filter.bindTo(registry);
+        return filter;
+    }
+
+    private Mono<Void> created(ServerWebExchange exchange)
+    {
+        int id = executions.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.CREATED);
+        response.getHeaders().set(HttpHeaders.LOCATION, "/coupons/" + id);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory().wrap(("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
+    }
+
+    private MockServerWebExchange call(MockServerHttpRequest.BaseBuilder<?> request, WebFilterChain chain)
+    {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private MockServerWebExchange call(MockServerHttpRequest request, WebFilterChain chain)
+    {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private static MockServerHttpRequest create(String key, String body, String address)
+    {
+        return create(key, body, address, null);
+    }
+
+    private static MockServerHttpRequest create(String key, String body, String address, String client)
+    {
+        MockServerHttpRequest.BodyBuilder request = MockServerHttpRequest.post("/coupons")
+                .remoteAddress(new InetSocketAddress(address, 40_000))
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        if (client != null)
+        {
+            request.header("X-Client-Id", client);
+        }
+
+        return request.body(body);
+    }
+}